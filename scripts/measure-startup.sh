@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request of the default and fast-startup modes.
+# Requires a migrated PostgreSQL reachable with the usual SPRING_DATASOURCE_* variables
+# and a prior "mvn -Pfast-startup -DskipTests package".
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAR=smart-ledger-be-1.0.0.jar
+URL=http://localhost:8080/api/auth/health
+RUNS=${RUNS:-5}
+
+measure() {
+    local label=$1; shift
+    for run in $(seq "$RUNS"); do
+        local start end
+        start=$(date +%s%N)
+        "$@" > /dev/null 2>&1 &
+        local pid=$!
+        until curl -sf "$URL" > /dev/null; do
+            sleep 0.05
+        done
+        end=$(date +%s%N)
+        kill "$pid"
+        wait "$pid" 2> /dev/null || true
+        echo "$label run $run: $(( (end - start) / 1000000 )) ms"
+    done
+}
+
+measure default java -jar "target/$JAR"
+measure fast-startup bash -c "cd target/fast-startup && exec java -XX:SharedArchiveFile=application.jsa \
+    -Dspring.aot.enabled=true -Dspring.profiles.active=fast-startup -jar $JAR"
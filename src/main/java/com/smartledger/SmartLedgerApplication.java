@@ -2,9 +2,11 @@ package com.smartledger;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
-@SpringBootApplication
+// R2DBC connections are derived from spring.datasource by ReactiveConfig, not from spring.r2dbc
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 @EnableJpaAuditing
 public class SmartLedgerApplication {
 
@@ -0,0 +1,74 @@
+package com.smartledger.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over 64-bit keys. The {@code k} bit positions are derived from
+ * the two halves of the key by double hashing, so keys must already be well mixed.
+ * Bits are set with compare-and-set, so concurrent {@link #put}s never lose each other.
+ */
+public final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final int capacity;
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Sizes the filter for {@code capacity} keys at the given false positive rate.
+     */
+    public BloomFilter(int capacity, double falsePositiveRate) {
+        int n = Math.max(1, capacity);
+        long bits = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (LN2 * LN2)));
+        this.words = new AtomicLongArray((int) ((bits + 63) >>> 6));
+        this.bitCount = (long) words.length() << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * LN2));
+        this.capacity = n;
+    }
+
+    public void put(long key) {
+        int h1 = (int) key;
+        int h2 = (int) (key >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+        size.incrementAndGet();
+    }
+
+    /**
+     * False means the key was never added; true means it probably was.
+     */
+    public boolean mightContain(long key) {
+        int h1 = (int) key;
+        int h2 = (int) (key >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether more keys were added than the filter was sized for, so its false positive
+     * rate is above the target.
+     */
+    public boolean isSaturated() {
+        return size.get() > capacity;
+    }
+
+    public long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+}
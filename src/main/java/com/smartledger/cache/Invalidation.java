@@ -0,0 +1,87 @@
+package com.smartledger.cache;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A cache entry that is stale on other nodes after a committed change on this one.
+ * Sent through {@link InvalidationBus} as one short line of text, e.g. {@code L|42|alice}.
+ * Received messages are published as application events, so each cache listens for the
+ * types it holds and for {@link All}.
+ */
+public sealed interface Invalidation {
+
+    String encode();
+
+    static Invalidation decode(String line) {
+        String[] fields = line.split("\\|");
+        return switch (fields[0]) {
+            case "L" -> new Ledger(Long.parseLong(fields[1]), decodeName(fields[2]));
+            case "P" -> new Principal(decodeName(fields[1]));
+            case "S" -> new Shard(Long.parseLong(fields[1]));
+            case "A" -> new Archive(Integer.parseInt(fields[1]));
+            case "R" -> new RevokedToken(UUID.fromString(fields[1]), Instant.ofEpochSecond(Long.parseLong(fields[2])));
+            case "*" -> new All();
+            default -> throw new IllegalArgumentException("Unknown invalidation " + line);
+        };
+    }
+
+    /** A user's transactions changed: ledger columns, duplicate filter, coalesced reads. */
+    record Ledger(Long userId, String username) implements Invalidation {
+        @Override
+        public String encode() {
+            return "L|" + userId + "|" + encodeName(username);
+        }
+    }
+
+    /** A user's sessions were revoked: cached principals. */
+    record Principal(String username) implements Invalidation {
+        @Override
+        public String encode() {
+            return "P|" + encodeName(username);
+        }
+    }
+
+    /** A user's shard assignment changed. */
+    record Shard(Long userId) implements Invalidation {
+        @Override
+        public String encode() {
+            return "S|" + userId;
+        }
+    }
+
+    /** A month was archived on a shard ({@code -1} when unsharded). */
+    record Archive(int shard) implements Invalidation {
+        @Override
+        public String encode() {
+            return "A|" + shard;
+        }
+    }
+
+    /** An access token was revoked. */
+    record RevokedToken(UUID jti, Instant expiresAt) implements Invalidation {
+        @Override
+        public String encode() {
+            return "R|" + jti + "|" + expiresAt.getEpochSecond();
+        }
+    }
+
+    /** Messages may have been missed: drop everything that can be reloaded. */
+    record All() implements Invalidation {
+        @Override
+        public String encode() {
+            return "*";
+        }
+    }
+
+    private static String encodeName(String username) {
+        return URLEncoder.encode(username, StandardCharsets.UTF_8);
+    }
+
+    private static String decodeName(String encoded) {
+        return URLDecoder.decode(encoded, StandardCharsets.UTF_8);
+    }
+}
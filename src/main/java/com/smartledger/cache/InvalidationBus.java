@@ -0,0 +1,347 @@
+package com.smartledger.cache;
+
+import com.smartledger.event.TransactionChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the in-process caches of several nodes coherent through PostgreSQL
+ * {@code LISTEN}/{@code NOTIFY} on the {@code spring.datasource} database (the directory
+ * when sharded).
+ *
+ * <p>{@link #publish} queues an {@link Invalidation} until the surrounding transaction
+ * commits; a sender thread then batches queued messages, drops repeats and sends them as
+ * one {@code NOTIFY} of {@code node:sequence} followed by one message per line. Each node
+ * holds one dedicated, unpooled connection that only listens, and republishes the
+ * messages of other nodes as application events for the caches to apply.
+ *
+ * <p>Delivery is best effort, so anything that may have lost messages turns into
+ * {@link Invalidation.All}: every (re)connect of the listener, since nothing is delivered
+ * while it is not listening, and every gap in a sender's sequence numbers, which a sender
+ * leaves when a {@code NOTIFY} fails or its queue overflows.
+ */
+@Component
+public class InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    /** PostgreSQL rejects payloads of 8000 bytes or more. */
+    private static final int MAX_PAYLOAD_BYTES = 7000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties listenerProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final String channel;
+    private final long pollIntervalMs;
+    private final long keepaliveIntervalMs;
+    private final long reconnectDelayMs;
+    private final BlockingQueue<Invalidation> outbox;
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+    private final String nodeId = Integer.toHexString(ThreadLocalRandom.current().nextInt());
+    private final Counter sent;
+    private final Counter received;
+    private final Counter flushes;
+
+    /** Written by the sender thread only. */
+    private long sequence;
+
+    /** Last sequence number seen per sending node; listener thread only. */
+    private final Map<String, Long> lastSeen = new HashMap<>();
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread sender;
+    private Thread listener;
+
+    public InvalidationBus(DataSource dataSource,
+                           DataSourceProperties listenerProperties,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry,
+                           @Value("${ledger.invalidation.enabled:true}") boolean enabled,
+                           @Value("${ledger.invalidation.channel:ledger_invalidation}") String channel,
+                           @Value("${ledger.invalidation.poll-interval-ms:500}") long pollIntervalMs,
+                           @Value("${ledger.invalidation.keepalive-interval-ms:10000}") long keepaliveIntervalMs,
+                           @Value("${ledger.invalidation.reconnect-delay-ms:2000}") long reconnectDelayMs,
+                           @Value("${ledger.invalidation.queue-capacity:10000}") int queueCapacity) {
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalStateException("Invalid invalidation channel " + channel);
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.listenerProperties = listenerProperties;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.pollIntervalMs = pollIntervalMs;
+        this.keepaliveIntervalMs = keepaliveIntervalMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+        this.outbox = new ArrayBlockingQueue<>(queueCapacity);
+        this.sent = counter(meterRegistry, "sent");
+        this.received = counter(meterRegistry, "received");
+        this.flushes = Counter.builder("smartledger.invalidation.flushes")
+                .description("Full cache flushes after possibly missed invalidations")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tells the other nodes, once the current transaction (if any) has committed.
+     */
+    public void publish(Invalidation invalidation) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(invalidation);
+                }
+            });
+        } else {
+            enqueue(invalidation);
+        }
+    }
+
+    // Already after commit: a synchronization registered now would never run
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        if (enabled) {
+            enqueue(new Invalidation.Ledger(event.userId(), event.username()));
+        }
+    }
+
+    // Before application runners, so that the rebalancer's changes are sent too
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        sender = Thread.ofPlatform().name("invalidation-sender").daemon().start(this::sendLoop);
+        listener = Thread.ofPlatform().name("invalidation-listener").daemon().start(this::listenLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        // The sender drains its queue first, so commits made during shutdown still go out
+        for (Thread thread : new Thread[] {sender, listener}) {
+            if (thread != null) {
+                thread.join(pollIntervalMs * 2 + 1000);
+            }
+        }
+    }
+
+    /**
+     * Whether messages of other nodes are being received.
+     */
+    public boolean isListening() {
+        return listening;
+    }
+
+    private void enqueue(Invalidation invalidation) {
+        if (!outbox.offer(invalidation)) {
+            overflowed.set(true);
+        }
+    }
+
+    private void sendLoop() {
+        List<Invalidation> batch = new ArrayList<>();
+        while (running || !outbox.isEmpty()) {
+            try {
+                Invalidation first = outbox.poll(pollIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                outbox.drainTo(batch);
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<Invalidation> batch) {
+        if (overflowed.getAndSet(false)) {
+            // Skipping a number makes every receiver flush
+            sequence++;
+        }
+        Set<String> lines = new LinkedHashSet<>();
+        for (Invalidation invalidation : batch) {
+            lines.add(invalidation.encode());
+        }
+
+        StringBuilder payload = new StringBuilder();
+        int count = 0;
+        for (String line : lines) {
+            if (count > 0 && payload.length() + line.length() + 1 > MAX_PAYLOAD_BYTES) {
+                notify(payload.toString(), count);
+                payload.setLength(0);
+                count = 0;
+            }
+            if (count == 0) {
+                payload.append(nodeId).append(':').append(++sequence);
+            }
+            payload.append('\n').append(line);
+            count++;
+        }
+        notify(payload.toString(), count);
+    }
+
+    private void notify(String payload, int count) {
+        try {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+            sent.increment(count);
+        } catch (DataAccessException e) {
+            // The sequence number is used up, so receivers see the gap and flush
+            log.warn("Could not send {} cache invalidations", count, e);
+        }
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = connect()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                // Nothing was delivered to this node while it was not listening
+                lastSeen.clear();
+                flush();
+                log.info("Listening for cache invalidations on channel {} as node {}", channel, nodeId);
+                listening = true;
+                listen(connection);
+            } catch (SQLException e) {
+                listening = false;
+                if (running) {
+                    log.warn("Cache invalidation listener disconnected, reconnecting in {} ms", reconnectDelayMs, e);
+                    pause();
+                }
+            }
+        }
+        listening = false;
+    }
+
+    private void listen(Connection connection) throws SQLException {
+        PGConnection notifications = connection.unwrap(PGConnection.class);
+        long idleSince = System.nanoTime();
+        while (running) {
+            PGNotification[] batch = notifications.getNotifications((int) pollIntervalMs);
+            long now = System.nanoTime();
+            if (batch != null && batch.length > 0) {
+                for (PGNotification notification : batch) {
+                    receive(notification.getParameter());
+                }
+                idleSince = now;
+            } else if (TimeUnit.NANOSECONDS.toMillis(now - idleSince) >= keepaliveIntervalMs) {
+                // A quiet channel and a dead connection look the same until we ask
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                idleSince = now;
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        try {
+            String[] lines = payload.split("\n");
+            int colon = lines[0].lastIndexOf(':');
+            String node = lines[0].substring(0, colon);
+            long number = Long.parseLong(lines[0].substring(colon + 1));
+            if (node.equals(nodeId)) {
+                return;
+            }
+            Long previous = lastSeen.put(node, number);
+            if (previous != null && number != previous + 1) {
+                log.warn("Missed cache invalidations from node {} ({} after {}), flushing", node, number, previous);
+                flush();
+                return;
+            }
+            for (int i = 1; i < lines.length; i++) {
+                eventPublisher.publishEvent(Invalidation.decode(lines[i]));
+                received.increment();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not apply cache invalidation {}, flushing", payload, e);
+            flush();
+        }
+    }
+
+    private void flush() {
+        flushes.increment();
+        eventPublisher.publishEvent(new Invalidation.All());
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        if (listenerProperties.determineUsername() != null) {
+            properties.setProperty("user", listenerProperties.determineUsername());
+        }
+        if (listenerProperties.determinePassword() != null) {
+            properties.setProperty("password", listenerProperties.determinePassword());
+        }
+        properties.setProperty("ApplicationName", "smartledger-invalidation");
+        properties.setProperty("tcpKeepAlive", "true");
+        // Bounds the keepalive query on a half-open connection
+        properties.setProperty("socketTimeout", Long.toString(Math.max(1, keepaliveIntervalMs / 1000)));
+        return DriverManager.getConnection(listenerProperties.determineUrl(), properties);
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(reconnectDelayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String direction) {
+        return Counter.builder("smartledger.invalidation.messages")
+                .description("Cache invalidation messages sent to or received from other nodes")
+                .tag("direction", direction)
+                .register(registry);
+    }
+}
@@ -0,0 +1,122 @@
+package com.smartledger.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartledger.dto.TransactionResponse;
+import com.smartledger.event.TransactionChangedEvent;
+import com.smartledger.repository.TransactionRepository;
+import com.smartledger.service.TransactionArchiveService;
+import com.smartledger.util.MinorUnits;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * In-process cache of per-user {@link LedgerColumns}. A user's ledger is loaded on first
+ * use, kept current from committed {@link TransactionChangedEvent}s and evicted when the
+ * total number of cached rows exceeds {@code ledger.cache.max-rows} or after
+ * {@code ledger.cache.idle-timeout} without access. Writes committed on other nodes evict
+ * the user's ledger through {@link InvalidationBus}.
+ */
+@Component
+@ConditionalOnProperty(name = "ledger.cache.enabled", havingValue = "true")
+public class LedgerColumnCache {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveService archiveService;
+    private final Cache<Long, LedgerColumns> cache;
+
+    public LedgerColumnCache(TransactionRepository transactionRepository,
+                             TransactionArchiveService archiveService,
+                             @Value("${ledger.cache.max-rows:5000000}") long maxRows,
+                             @Value("${ledger.cache.idle-timeout:PT30M}") Duration idleTimeout) {
+        this.transactionRepository = transactionRepository;
+        this.archiveService = archiveService;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .weigher((Long userId, LedgerColumns columns) -> Math.max(1, columns.size()))
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    public LedgerColumns get(Long userId) {
+        return cache.get(userId, this::load);
+    }
+
+    /**
+     * Rows currently weighed against {@code ledger.cache.max-rows}, after any pending
+     * evictions.
+     */
+    public long cachedRows() {
+        cache.cleanUp();
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        // computeIfPresent waits for an in-flight load of the same user, so a change
+        // committed while the ledger was being read is never lost. Returning the ledger,
+        // even the same instance, is an update: Caffeine weighs it again, so rows added
+        // here count against max-rows
+        cache.asMap().computeIfPresent(event.userId(), (userId, columns) -> {
+            if (event.after() == null) {
+                columns.remove(event.transactionId());
+            } else {
+                apply(columns, event.after());
+            }
+            return columns;
+        });
+    }
+
+    @EventListener
+    public void onRemoteInvalidation(Invalidation.Ledger invalidation) {
+        invalidate(invalidation.userId());
+    }
+
+    @EventListener
+    public void onRemoteFlush(Invalidation.All flush) {
+        invalidateAll();
+    }
+
+    private LedgerColumns load(Long userId) {
+        List<LedgerRow> rows = transactionRepository.findLedgerRowsByUserId(userId);
+        LedgerColumns columns = new LedgerColumns(rows.size());
+        for (LedgerRow row : rows) {
+            columns.append(row.id(),
+                    MinorUnits.toMinor(row.amount()),
+                    (int) row.date().toEpochDay(),
+                    (byte) row.category().ordinal(),
+                    (byte) row.type().ordinal());
+        }
+        archiveService.forEach(userId, null, null, archived -> columns.append(archived.id(),
+                MinorUnits.toMinor(archived.amount()),
+                (int) archived.date().toEpochDay(),
+                (byte) archived.category().ordinal(),
+                (byte) archived.type().ordinal()));
+        return columns;
+    }
+
+    private static void apply(LedgerColumns columns, TransactionResponse transaction) {
+        columns.upsert(transaction.id(),
+                MinorUnits.toMinor(transaction.amount()),
+                (int) transaction.date().toEpochDay(),
+                (byte) transaction.category().ordinal(),
+                (byte) transaction.type().ordinal());
+    }
+}
@@ -0,0 +1,18 @@
+package com.smartledger.cache;
+
+import com.smartledger.entity.Category;
+import com.smartledger.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Narrow projection of a transaction used to fill {@link LedgerColumns}.
+ */
+public record LedgerRow(
+        Long id,
+        BigDecimal amount,
+        LocalDate date,
+        Category category,
+        TransactionType type
+) {}
@@ -0,0 +1,73 @@
+package com.smartledger.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical calls: the first caller of a key runs the supplier and
+ * every caller arriving while it is in flight waits for and shares its result or failure.
+ * Nothing is cached once the call completes.
+ *
+ * <p>Keys are grouped by owner (the username) so that {@link #invalidate} can detach all
+ * in-flight calls of an owner after one of its writes: callers already waiting still get
+ * the old result, later callers start a fresh call.
+ *
+ * @param <K> call key within an owner, must implement equals and hashCode
+ * @param <V> result type
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<String, ConcurrentMap<K, CompletableFuture<V>>> flights = new ConcurrentHashMap<>();
+
+    public V execute(String owner, K key, Supplier<V> call) {
+        ConcurrentMap<K, CompletableFuture<V>> ownerFlights =
+                flights.computeIfAbsent(owner, o -> new ConcurrentHashMap<>());
+
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = ownerFlights.putIfAbsent(key, flight);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            V result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            ownerFlights.remove(key, flight);
+            flights.computeIfPresent(owner, (o, map) -> map.isEmpty() ? null : map);
+        }
+    }
+
+    public void invalidate(String owner) {
+        flights.remove(owner);
+    }
+
+    public void invalidateAll() {
+        flights.clear();
+    }
+
+    public int inFlightOwners() {
+        return flights.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
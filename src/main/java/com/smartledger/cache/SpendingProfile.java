@@ -0,0 +1,134 @@
+package com.smartledger.cache;
+
+/**
+ * One user's spending statistics per category: an exponentially weighted mean and
+ * variance of {@code ln(amount)}, so that a category's "typical" amount is its geometric
+ * mean and deviations are measured in orders of magnitude rather than in currency. A
+ * profile is a few parallel arrays indexed by category ordinal, about 30 bytes per
+ * category, and every update is O(1).
+ *
+ * <p>Until a category has seen {@code 1 / alpha} samples the weight is {@code 1 / n}, i.e.
+ * the plain running mean; afterwards it settles at {@code alpha}, so old spending fades out.
+ */
+public final class SpendingProfile {
+
+    /** Lower bound of the standard deviation, so a run of identical amounts does not make every change an outlier. */
+    static final double MIN_DEVIATION = 0.1;
+
+    private final double[] means;
+    private final double[] variances;
+    private final int[] samples;
+    private final long[] lastTransactionIds;
+    private int dirty;
+    private Integer shard;
+
+    public SpendingProfile(int categoryCount, Integer shard) {
+        this.means = new double[categoryCount];
+        this.variances = new double[categoryCount];
+        this.samples = new int[categoryCount];
+        this.lastTransactionIds = new long[categoryCount];
+        this.shard = shard;
+    }
+
+    /**
+     * Folds in a new sample. Once a category has {@code warmUp} samples, a value beyond
+     * {@code cap} standard deviations is folded in as if it were exactly at the cap, so a
+     * single outlier cannot drag the baseline towards itself.
+     */
+    public synchronized void add(int category, long transactionId, double logAmount, Parameters parameters,
+                                 Integer currentShard) {
+        update(category, transactionId, logAmount, parameters);
+        shard = currentShard;
+    }
+
+    /**
+     * Folds in a historical sample unless the category already includes it, i.e. unless
+     * {@code transactionId} is not beyond the last one seen. Replays must run in id order.
+     */
+    public synchronized void replay(int category, long transactionId, double logAmount, Parameters parameters) {
+        if (transactionId > lastTransactionIds[category]) {
+            update(category, transactionId, logAmount, parameters);
+        }
+    }
+
+    /**
+     * Restores a category from a persisted snapshot; the profile is not marked dirty.
+     */
+    public synchronized void restore(int category, double mean, double variance, int sampleCount, long lastTransactionId) {
+        means[category] = mean;
+        variances[category] = variance;
+        samples[category] = sampleCount;
+        lastTransactionIds[category] = lastTransactionId;
+    }
+
+    public synchronized Score score(int category, double logAmount) {
+        int n = samples[category];
+        if (n == 0) {
+            return new Score(0, 0, 0, MIN_DEVIATION);
+        }
+        double deviation = deviation(category);
+        return new Score(n, (logAmount - means[category]) / deviation, means[category], deviation);
+    }
+
+    /**
+     * Returns the categories changed since the last call, as a bitmask of ordinals, and
+     * clears them.
+     */
+    public synchronized int takeDirty() {
+        int taken = dirty;
+        dirty = 0;
+        return taken;
+    }
+
+    /**
+     * Marks categories dirty again, e.g. after a failed flush.
+     */
+    public synchronized void markDirty(int categories) {
+        dirty |= categories;
+    }
+
+    public synchronized Snapshot snapshot(int category) {
+        return new Snapshot(means[category], variances[category], samples[category], lastTransactionIds[category]);
+    }
+
+    public synchronized Integer shard() {
+        return shard;
+    }
+
+    private void update(int category, long transactionId, double x, Parameters parameters) {
+        if (samples[category] >= parameters.warmUp()) {
+            x = Math.min(x, means[category] + parameters.cap() * deviation(category));
+        }
+        int n = ++samples[category];
+        double weight = Math.max(parameters.alpha(), 1.0 / n);
+        double diff = x - means[category];
+        double increment = weight * diff;
+        means[category] += increment;
+        variances[category] = (1 - weight) * (variances[category] + diff * increment);
+        lastTransactionIds[category] = Math.max(lastTransactionIds[category], transactionId);
+        dirty |= 1 << category;
+    }
+
+    private double deviation(int category) {
+        return Math.max(MIN_DEVIATION, Math.sqrt(variances[category]));
+    }
+
+    /**
+     * How far a value lies from a category's statistics before it was folded in.
+     *
+     * @param samples   samples seen before the value
+     * @param z         standard deviations above the mean, on the log scale
+     * @param mean      mean of the log amounts
+     * @param deviation standard deviation of the log amounts, floored
+     */
+    public record Score(int samples, double z, double mean, double deviation) {}
+
+    /**
+     * @param alpha  weight of a new sample once warmed up
+     * @param cap    standard deviations above the mean at which samples are clamped
+     * @param warmUp samples before clamping starts
+     */
+    public record Parameters(double alpha, double cap, int warmUp) {}
+
+    public record Snapshot(double mean, double variance, int samples, long lastTransactionId) {}
+}
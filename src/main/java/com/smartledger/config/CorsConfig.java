@@ -1,5 +1,6 @@
 package com.smartledger.config;
 
+import com.smartledger.monitoring.QueryCountFilter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -42,6 +43,8 @@ public class CorsConfig {
             configuration.setAllowedHeaders(headers);
         }
 
+        configuration.addExposedHeader("X-Possible-Duplicate-Of");
+        configuration.addExposedHeader(QueryCountFilter.HEADER);
         configuration.setAllowCredentials(allowCredentials);
         configuration.setMaxAge(3600L);
 
@@ -0,0 +1,76 @@
+package com.smartledger.config;
+
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.scalars.ExtendedScalars;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLTypeUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.DataFetcherExceptionResolver;
+import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+
+@Configuration
+public class GraphQlConfig {
+
+    @Value("${graphql.max-depth:8}")
+    private int maxDepth;
+
+    @Value("${graphql.max-complexity:2000}")
+    private int maxComplexity;
+
+    @Value("${graphql.list-factor:10}")
+    private int listFactor;
+
+    @Bean
+    public RuntimeWiringConfigurer graphQlScalars() {
+        return wiring -> wiring
+                .scalar(ExtendedScalars.Date)
+                .scalar(ExtendedScalars.GraphQLBigDecimal);
+    }
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation() {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    /**
+     * Rejects a query before it runs when its estimated cost is over
+     * {@code graphql.max-complexity}. Each field costs 1, and the fields below a list count
+     * {@code graphql.list-factor} times, so nesting lists grows the cost the way it grows
+     * the rows read.
+     */
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation() {
+        FieldComplexityCalculator calculator = (environment, childComplexity) -> {
+            boolean list = GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(environment.getFieldDefinition().getType()));
+            return 1 + childComplexity * (list ? listFactor : 1);
+        };
+        return new MaxQueryComplexityInstrumentation(maxComplexity, calculator);
+    }
+
+    /**
+     * Reports service errors with their message, as the REST error handler does.
+     */
+    @Bean
+    public DataFetcherExceptionResolver graphQlExceptionResolver() {
+        return new DataFetcherExceptionResolverAdapter() {
+            @Override
+            protected GraphQLError resolveToSingleError(Throwable ex, DataFetchingEnvironment env) {
+                if (!(ex instanceof RuntimeException)) {
+                    return null;
+                }
+                return GraphqlErrorBuilder.newError(env)
+                        .errorType(ErrorType.INTERNAL_ERROR)
+                        .message(ex.getMessage())
+                        .build();
+            }
+        };
+    }
+}
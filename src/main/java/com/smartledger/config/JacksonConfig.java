@@ -0,0 +1,21 @@
+package com.smartledger.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.smartledger.dto.TransactionResponse;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Responses written without a sparse fieldset keep every property.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer transactionFieldsFilter() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .addFilter(TransactionResponse.FIELDS_FILTER, SimpleBeanPropertyFilter.serializeAll()));
+    }
+}
@@ -0,0 +1,34 @@
+package com.smartledger.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ends the process once the "migrate" profile has started up. By then Liquibase has
+ * applied the changelog and Hibernate has validated the schema, so a zero exit code
+ * means the database is ready for application instances running without migrations.
+ */
+@Component
+@Profile("migrate")
+public class MigrationRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MigrationRunner.class);
+
+    private final ApplicationContext context;
+
+    public MigrationRunner(ApplicationContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Database migrations applied, exiting");
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
@@ -0,0 +1,16 @@
+package com.smartledger.config;
+
+import com.smartledger.monitoring.QueryCountingStatementInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MonitoringConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingStatementInspector());
+    }
+}
@@ -0,0 +1,19 @@
+package com.smartledger.config;
+
+import com.smartledger.service.LedgerEventSink;
+import com.smartledger.service.LoggingLedgerEventSink;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(LedgerEventSink.class)
+    public LedgerEventSink ledgerEventSink() {
+        return new LoggingLedgerEventSink();
+    }
+}
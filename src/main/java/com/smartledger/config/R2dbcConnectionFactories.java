@@ -0,0 +1,64 @@
+package com.smartledger.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds R2DBC connection pools from the JDBC settings already configured for a database,
+ * so the reactive read path needs no separate connection settings.
+ */
+final class R2dbcConnectionFactories {
+
+    private static final String JDBC_PREFIX = "jdbc:";
+
+    private R2dbcConnectionFactories() {
+    }
+
+    static ConnectionPool pooled(String name, String jdbcUrl, String username, String password, int maxSize) {
+        if (!jdbcUrl.startsWith(JDBC_PREFIX + "postgresql:")) {
+            throw new IllegalStateException("Reactive reads need a PostgreSQL database, got " + jdbcUrl);
+        }
+        // JDBC driver parameters do not carry over, except the credentials
+        int query = jdbcUrl.indexOf('?');
+        Map<String, String> parameters = query < 0 ? Map.of() : parameters(jdbcUrl.substring(query + 1));
+        String url = query < 0 ? jdbcUrl : jdbcUrl.substring(0, query);
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions
+                .parse("r2dbc:" + url.substring(JDBC_PREFIX.length()))
+                .mutate();
+        String user = username != null ? username : parameters.get("user");
+        if (user != null) {
+            options.option(ConnectionFactoryOptions.USER, user);
+        }
+        String secret = password != null ? password : parameters.get("password");
+        if (secret != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, secret);
+        }
+
+        ConnectionPoolConfiguration configuration = ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options.build()))
+                .name(name)
+                .initialSize(0)
+                .maxSize(maxSize)
+                .build();
+        return new ConnectionPool(configuration);
+    }
+
+    private static Map<String, String> parameters(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                parameters.put(pair.substring(0, equals),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+}
@@ -0,0 +1,119 @@
+package com.smartledger.config;
+
+import com.smartledger.entity.Category;
+import com.smartledger.entity.TransactionType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * R2DBC access for the reactive read path, next to the JPA/JDBC stack that serves
+ * everything else. Connections go to the database of {@code spring.datasource} (see
+ * {@link ShardingConfig} for the sharded case) through a pool of their own, so streaming
+ * reads never compete with JDBC for connections.
+ */
+@Configuration
+public class ReactiveConfig implements WebMvcConfigurer {
+
+    @Value("${reactive.executor.threads:8}")
+    private int writerThreads;
+
+    @Value("${reactive.executor.queue-capacity:1000}")
+    private int writerQueueCapacity;
+
+    @Bean
+    @ConditionalOnProperty(name = "sharding.enabled", havingValue = "false", matchIfMissing = true)
+    ReactiveConnections reactiveConnections(DataSourceProperties properties,
+                                            @Value("${reactive.pool.max-size:10}") int maxSize) {
+        return new ReactiveConnections(R2dbcConnectionFactories.pooled("r2dbc", properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword(), maxSize));
+    }
+
+    /**
+     * Rows are fetched {@code reactive.fetch-size} at a time as subscribers request them,
+     * instead of the whole result at once.
+     */
+    @Bean
+    public DatabaseClient databaseClient(ReactiveConnections connections,
+                                         @Value("${reactive.fetch-size:500}") int fetchSize) {
+        return DatabaseClient.builder()
+                .connectionFactory(connections.connectionFactory())
+                .executeFunction(statement -> statement.fetchSize(fetchSize).execute())
+                .build();
+    }
+
+    /**
+     * Type and category are stored as the SMALLINT codes of their enums, which R2DBC would
+     * otherwise read and write as names.
+     */
+    @Bean
+    public R2dbcCustomConversions r2dbcCustomConversions() {
+        return R2dbcCustomConversions.of(PostgresDialect.INSTANCE, List.of(
+                new TypeReader(), new TypeWriter(), new CategoryReader(), new CategoryWriter()));
+    }
+
+    /**
+     * Writes streamed responses to the servlet output, which blocks while a client is slow.
+     * Kept apart from the request threads so that slow clients cannot starve them.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor streamWriterExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(writerThreads);
+        executor.setMaxPoolSize(writerThreads);
+        executor.setQueueCapacity(writerQueueCapacity);
+        executor.setThreadNamePrefix("stream-writer-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamWriterExecutor());
+    }
+
+    @ReadingConverter
+    static class TypeReader implements Converter<Short, TransactionType> {
+        @Override
+        public TransactionType convert(Short code) {
+            return TransactionType.fromCode(code);
+        }
+    }
+
+    @WritingConverter
+    static class TypeWriter implements Converter<TransactionType, Short> {
+        @Override
+        public Short convert(TransactionType type) {
+            return type.code();
+        }
+    }
+
+    @ReadingConverter
+    static class CategoryReader implements Converter<Short, Category> {
+        @Override
+        public Category convert(Short code) {
+            return Category.fromCode(code);
+        }
+    }
+
+    @WritingConverter
+    static class CategoryWriter implements Converter<Category, Short> {
+        @Override
+        public Short convert(Category category) {
+            return category.code();
+        }
+    }
+}
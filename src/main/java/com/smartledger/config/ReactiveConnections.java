@@ -0,0 +1,22 @@
+package com.smartledger.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.DisposableBean;
+import reactor.core.Disposable;
+
+/**
+ * Holds the R2DBC connection factory of the reactive read path. It is deliberately not a
+ * {@link ConnectionFactory} bean: Spring Boot backs off its JDBC {@code DataSource} as
+ * soon as one exists, and JPA must keep working unchanged.
+ */
+record ReactiveConnections(ConnectionFactory connectionFactory) implements DisposableBean {
+
+    @Override
+    public void destroy() throws Exception {
+        if (connectionFactory instanceof DisposableBean bean) {
+            bean.destroy();
+        } else if (connectionFactory instanceof Disposable pool) {
+            pool.dispose();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.smartledger.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ReportConfig {
+
+    @Value("${reports.executor.threads:2}")
+    private int threads;
+
+    @Value("${reports.executor.queue-capacity:50}")
+    private int queueCapacity;
+
+    /**
+     * Bounded pool for report jobs: each running job holds at most one database
+     * connection, so {@code threads} also caps their share of the connection pool. Jobs
+     * are dropped on shutdown; {@code ReportService} fails them once their heartbeat
+     * goes stale.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor reportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,6 +1,12 @@
 package com.smartledger.config;
 
+import com.smartledger.security.ConcurrencyLimitFilter;
 import com.smartledger.security.JwtAuthenticationFilter;
+import com.smartledger.security.RateLimitFilter;
+import com.smartledger.security.TimedPasswordEncoder;
+import com.smartledger.sharding.ShardRoutingFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -24,11 +30,20 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+    private final ObjectProvider<ShardRoutingFilter> shardRoutingFilter;
     private final UserDetailsService userDetailsService;
 
     public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
+                         RateLimitFilter rateLimitFilter,
+                         ConcurrencyLimitFilter concurrencyLimitFilter,
+                         ObjectProvider<ShardRoutingFilter> shardRoutingFilter,
                          UserDetailsService userDetailsService) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimitFilter = rateLimitFilter;
+        this.concurrencyLimitFilter = concurrencyLimitFilter;
+        this.shardRoutingFilter = shardRoutingFilter;
         this.userDetailsService = userDetailsService;
     }
 
@@ -38,6 +53,8 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configure(http))
                 .authorizeHttpRequests(auth -> auth
+                        // Streamed responses resume in an async dispatch of an already authorized request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/auth/**").permitAll()
                         // Swagger/OpenAPI endpoints
                         .requestMatchers(
@@ -45,13 +62,20 @@ public class SecurityConfig {
                                 "/swagger-ui/**",
                                 "/swagger-ui.html"
                         ).permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
+                .addFilterAfter(concurrencyLimitFilter, RateLimitFilter.class);
+
+        // Routing is fixed before anything downstream opens a connection
+        shardRoutingFilter.ifAvailable(filter -> http.addFilterAfter(filter, ConcurrencyLimitFilter.class));
 
         return http.build();
     }
@@ -71,6 +95,6 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder());
     }
 }
@@ -0,0 +1,56 @@
+package com.smartledger.config;
+
+import com.smartledger.sharding.ShardRebalancer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Command-line rebalancing under the "rebalance" profile: moves the user given by
+ * {@code --user-id} to {@code --target-shard} while the application nodes keep running,
+ * then exits with 0 on success.
+ */
+@Component
+@Profile("rebalance")
+public class ShardRebalanceRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalanceRunner.class);
+
+    private final ShardRebalancer shardRebalancer;
+    private final ApplicationContext context;
+
+    public ShardRebalanceRunner(ShardRebalancer shardRebalancer, ApplicationContext context) {
+        this.shardRebalancer = shardRebalancer;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            long userId = Long.parseLong(requiredOption(args, "user-id"));
+            int targetShard = Integer.parseInt(requiredOption(args, "target-shard"));
+            shardRebalancer.moveUser(userId, targetShard);
+        } catch (RuntimeException e) {
+            log.error("Rebalancing failed: {}", e.getMessage());
+            exitCode = 1;
+        }
+        int status = exitCode;
+        System.exit(SpringApplication.exit(context, () -> status));
+    }
+
+    private static String requiredOption(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        if (values == null || values.isEmpty()) {
+            throw new RuntimeException("Missing --" + name);
+        }
+        return values.get(0);
+    }
+}
@@ -0,0 +1,124 @@
+package com.smartledger.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartledger.cache.InvalidationBus;
+import com.smartledger.sharding.ShardDataSources;
+import com.smartledger.sharding.ShardDirectory;
+import com.smartledger.sharding.ShardRebalancer;
+import com.smartledger.sharding.ShardRoutingConnectionFactory;
+import com.smartledger.sharding.ShardRoutingDataSource;
+import com.smartledger.sharding.ShardRoutingFilter;
+import com.smartledger.sharding.ShardedLiquibase;
+import com.smartledger.sharding.ShardingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * User-sharded persistence. When {@code sharding.enabled} is set, the application's
+ * {@link DataSource} routes every connection to the shard of the current request's user,
+ * falling back to the directory database ({@code spring.datasource}) for users, roles and
+ * shard assignments. Users and roles are owned by the directory and copied onto a user's
+ * shard by {@link ShardDirectory}. The R2DBC connection factory of the reactive read path is routed
+ * the same way. Without it nothing here is created and the single datasource of Spring
+ * Boot is used as before.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+    static class ShardedPersistence {
+
+        @Bean
+        public ShardDataSources shardDataSources(DataSourceProperties directoryProperties, ShardingProperties sharding) {
+            if (sharding.shards().isEmpty()) {
+                throw new IllegalStateException("sharding.enabled is set but no sharding.shards are configured");
+            }
+            HikariDataSource directory = directoryProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            directory.setPoolName("directory");
+
+            List<DataSource> shards = new ArrayList<>();
+            for (int i = 0; i < sharding.shards().size(); i++) {
+                ShardingProperties.Shard shard = sharding.shards().get(i);
+                HikariDataSource dataSource = DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .driverClassName(directoryProperties.determineDriverClassName())
+                        .url(shard.url())
+                        .username(shard.username())
+                        .password(shard.password())
+                        .build();
+                dataSource.setPoolName("shard-" + i);
+                if (shard.maximumPoolSize() != null) {
+                    dataSource.setMaximumPoolSize(shard.maximumPoolSize());
+                }
+                shards.add(dataSource);
+            }
+            return new ShardDataSources(directory, shards);
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(ShardDataSources shardDataSources) {
+            return new ShardRoutingDataSource(shardDataSources.directory(), shardDataSources.shards());
+        }
+
+        @Bean
+        ReactiveConnections reactiveConnections(DataSourceProperties directoryProperties,
+                                                ShardingProperties sharding,
+                                                @Value("${reactive.pool.max-size:10}") int maxSize) {
+            List<ConnectionFactory> shards = new ArrayList<>();
+            for (int i = 0; i < sharding.shards().size(); i++) {
+                ShardingProperties.Shard shard = sharding.shards().get(i);
+                shards.add(R2dbcConnectionFactories.pooled("r2dbc-shard-" + i, shard.url(), shard.username(),
+                        shard.password(), maxSize));
+            }
+            ConnectionFactory directory = R2dbcConnectionFactories.pooled("r2dbc-directory",
+                    directoryProperties.determineUrl(), directoryProperties.determineUsername(),
+                    directoryProperties.determinePassword(), maxSize);
+            return new ReactiveConnections(new ShardRoutingConnectionFactory(directory, shards));
+        }
+
+        @Bean
+        public SpringLiquibase liquibase(ShardDataSources shardDataSources,
+                                         @Value("${spring.liquibase.change-log}") String changeLog,
+                                         @Value("${spring.liquibase.enabled:true}") boolean enabled) {
+            ShardedLiquibase liquibase = new ShardedLiquibase(shardDataSources);
+            liquibase.setChangeLog(changeLog);
+            liquibase.setShouldRun(enabled);
+            return liquibase;
+        }
+
+        @Bean
+        public ShardDirectory shardDirectory(ShardDataSources shardDataSources, ShardingProperties sharding,
+                                             InvalidationBus invalidationBus) {
+            return new ShardDirectory(shardDataSources, sharding.directoryCacheTtl(), invalidationBus);
+        }
+
+        @Bean
+        public ShardRoutingFilter shardRoutingFilter(ShardDirectory shardDirectory, ObjectMapper objectMapper) {
+            return new ShardRoutingFilter(shardDirectory, objectMapper);
+        }
+
+        @Bean
+        public ShardRebalancer shardRebalancer(ShardDataSources shardDataSources, ShardDirectory shardDirectory,
+                                               ShardingProperties sharding) {
+            return new ShardRebalancer(shardDataSources, shardDirectory, sharding.rebalanceBatchSize());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.smartledger.controller;
+
+import com.smartledger.dto.LedgerSizeResponse;
+import com.smartledger.dto.PlatformUsersResponse;
+import com.smartledger.dto.PlatformVolumeResponse;
+import com.smartledger.monitoring.FlightRecordingService;
+import com.smartledger.service.PlatformAnalyticsService;
+import com.smartledger.service.TokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Administration", description = "Operational endpoints reserved to administrators")
+@SecurityRequirement(name = "Bearer Authentication")
+public class AdminController {
+
+    private static final int MAX_LEDGERS = 100;
+
+    private final TokenService tokenService;
+    private final FlightRecordingService flightRecordingService;
+    private final PlatformAnalyticsService platformAnalyticsService;
+
+    public AdminController(TokenService tokenService,
+                           FlightRecordingService flightRecordingService,
+                           PlatformAnalyticsService platformAnalyticsService) {
+        this.tokenService = tokenService;
+        this.flightRecordingService = flightRecordingService;
+        this.platformAnalyticsService = platformAnalyticsService;
+    }
+
+    @PostMapping("/users/{username}/revoke-tokens")
+    @Operation(summary = "Revoke a user's sessions", description = "Invalidates every refresh token of the user and rejects their outstanding access tokens")
+    public ResponseEntity<Map<String, Integer>> revokeTokens(@PathVariable String username) {
+        int revoked = tokenService.revokeAll(username);
+        return ResponseEntity.ok(Map.of("revokedAccessTokens", revoked));
+    }
+
+    @PostMapping("/diagnostics/flight-recording")
+    @Operation(summary = "Dump the flight recording", description = "Downloads what the running JDK Flight Recorder recordings hold, "
+            + "including the ledger operation events, as a .jfr file")
+    public ResponseEntity<Resource> dumpFlightRecording() {
+        Resource file = flightRecordingService.dump();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(file.getFilename())
+                        .build()
+                        .toString())
+                .body(file);
+    }
+
+    @GetMapping("/analytics/users")
+    @Operation(summary = "Count users", description = "Registered users, and users with a transaction in the last activeDays days. "
+            + "Cached for admin-analytics.cache-ttl")
+    public ResponseEntity<PlatformUsersResponse> getPlatformUsers(
+            @Parameter(description = "Length of the activity window in days") @RequestParam(defaultValue = "30") int activeDays) {
+        if (activeDays < 1) {
+            throw new RuntimeException("activeDays must be at least 1");
+        }
+        return ResponseEntity.ok(platformAnalyticsService.getUsers(LocalDate.now().minusDays(activeDays)));
+    }
+
+    @GetMapping("/analytics/volumes")
+    @Operation(summary = "Transaction volumes", description = "Number and total of all users' transactions per month, type and category. "
+            + "Cached for admin-analytics.cache-ttl")
+    public ResponseEntity<List<PlatformVolumeResponse>> getPlatformVolumes(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(platformAnalyticsService.getVolumes(startDate, endDate));
+    }
+
+    @GetMapping("/analytics/largest-ledgers")
+    @Operation(summary = "Largest ledgers", description = "The users with the most transactions. Cached for admin-analytics.cache-ttl")
+    public ResponseEntity<List<LedgerSizeResponse>> getLargestLedgers(
+            @Parameter(description = "Number of users, at most " + MAX_LEDGERS) @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_LEDGERS) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_LEDGERS);
+        }
+        return ResponseEntity.ok(platformAnalyticsService.getLargestLedgers(limit));
+    }
+}
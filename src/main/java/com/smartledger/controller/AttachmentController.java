@@ -0,0 +1,100 @@
+package com.smartledger.controller;
+
+import com.smartledger.dto.AttachmentResponse;
+import com.smartledger.service.AttachmentContent;
+import com.smartledger.service.AttachmentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/transactions/{transactionId}/attachments")
+@Tag(name = "Attachments", description = "Receipts attached to transactions")
+@SecurityRequirement(name = "Bearer Authentication")
+public class AttachmentController {
+
+    private final AttachmentService attachmentService;
+
+    public AttachmentController(AttachmentService attachmentService) {
+        this.attachmentService = attachmentService;
+    }
+
+    @PostMapping(consumes = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, "image/webp", "image/heic",
+            MediaType.APPLICATION_PDF_VALUE})
+    @Operation(summary = "Attach a receipt", description = "Stores the request body (an image or PDF) as an attachment of the transaction. "
+            + "The body is streamed to disk, and identical content is stored once")
+    public ResponseEntity<AttachmentResponse> uploadAttachment(
+            @PathVariable Long transactionId,
+            @Parameter(description = "File name to download the attachment as") @RequestParam(required = false) String filename,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            InputStream content,
+            Authentication authentication) {
+        String username = authentication.getName();
+        AttachmentResponse response = attachmentService.upload(username, transactionId,
+                contentType.getType() + "/" + contentType.getSubtype(), filename,
+                contentLength == null ? -1 : contentLength, content);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping
+    @Operation(summary = "List attachments", description = "Retrieves the attachments of a transaction")
+    public ResponseEntity<List<AttachmentResponse>> getAttachments(
+            @PathVariable Long transactionId,
+            Authentication authentication) {
+        String username = authentication.getName();
+        return ResponseEntity.ok(attachmentService.getAttachments(username, transactionId));
+    }
+
+    /**
+     * The content never changes for a given attachment, so its hash is a strong ETag and
+     * clients may cache it indefinitely. Range requests are answered with the requested
+     * regions of the file.
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Download an attachment", description = "Downloads the content of an attachment. "
+            + "Supports Range requests and If-None-Match against its ETag")
+    public ResponseEntity<Resource> downloadAttachment(
+            @PathVariable Long transactionId,
+            @PathVariable Long id,
+            Authentication authentication) {
+        String username = authentication.getName();
+        AttachmentContent content = attachmentService.getContent(username, transactionId, id);
+        AttachmentResponse attachment = content.attachment();
+        return ResponseEntity.ok()
+                .eTag(attachment.sha256())
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+                .contentType(MediaType.parseMediaType(attachment.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                        .filename(attachment.filename(), StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .body(content.content());
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete an attachment", description = "Removes an attachment from the transaction")
+    public ResponseEntity<Void> deleteAttachment(
+            @PathVariable Long transactionId,
+            @PathVariable Long id,
+            Authentication authentication) {
+        String username = authentication.getName();
+        attachmentService.deleteAttachment(username, transactionId, id);
+        return ResponseEntity.noContent().build();
+    }
+}
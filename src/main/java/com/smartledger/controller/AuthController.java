@@ -2,6 +2,7 @@ package com.smartledger.controller;
 
 import com.smartledger.dto.LoginRequest;
 import com.smartledger.dto.LoginResponse;
+import com.smartledger.dto.RefreshRequest;
 import com.smartledger.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,6 +11,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,6 +20,8 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Autenticazione", description = "Endpoint per l'autenticazione degli utenti")
 public class AuthController {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final AuthService authService;
 
     public AuthController(AuthService authService) {
@@ -26,7 +30,7 @@ public class AuthController {
 
     @Operation(
             summary = "Login utente",
-            description = "Autentica un utente e restituisce un token JWT valido per 24 ore"
+            description = "Autentica un utente e restituisce un token JWT di accesso di breve durata e un refresh token"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -54,6 +58,59 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "Rinnovo token",
+            description = "Scambia un refresh token con un nuovo token di accesso e un nuovo refresh token. "
+                    + "Il refresh token presentato non è più utilizzabile"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Token rinnovati",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = LoginResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Richiesta non valida (campo obbligatorio mancante)",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Refresh token non valido, scaduto o revocato",
+                    content = @Content
+            )
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@Valid @RequestBody RefreshRequest refreshRequest) {
+        LoginResponse response = authService.refresh(refreshRequest.refreshToken());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Logout",
+            description = "Revoca il token di accesso presentato e, se indicato, il refresh token della sessione"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "Sessione terminata",
+                    content = @Content
+            )
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody(required = false) RefreshRequest refreshRequest) {
+        String accessToken = authorization != null && authorization.startsWith(BEARER_PREFIX)
+                ? authorization.substring(BEARER_PREFIX.length())
+                : null;
+        authService.logout(accessToken, refreshRequest != null ? refreshRequest.refreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
+
     @Operation(
             summary = "Health check",
             description = "Verifica che il servizio sia attivo e funzionante"
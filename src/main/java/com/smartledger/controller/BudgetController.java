@@ -0,0 +1,82 @@
+package com.smartledger.controller;
+
+import com.smartledger.dto.BudgetAlertResponse;
+import com.smartledger.dto.BudgetRequest;
+import com.smartledger.dto.BudgetResponse;
+import com.smartledger.dto.BudgetStatusResponse;
+import com.smartledger.entity.Category;
+import com.smartledger.service.BudgetService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/budgets")
+@Tag(name = "Budgets", description = "Monthly budget management endpoints")
+@SecurityRequirement(name = "Bearer Authentication")
+public class BudgetController {
+
+    private final BudgetService budgetService;
+
+    public BudgetController(BudgetService budgetService) {
+        this.budgetService = budgetService;
+    }
+
+    @PutMapping("/{category}")
+    @Operation(summary = "Create or update a budget", description = "Sets the monthly limit and alert thresholds of a category")
+    public ResponseEntity<BudgetResponse> saveBudget(
+            @PathVariable Category category,
+            @Valid @RequestBody BudgetRequest request,
+            Authentication authentication) {
+        String username = authentication.getName();
+        BudgetResponse response = budgetService.saveBudget(username, category, request);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping
+    @Operation(summary = "Get all budgets", description = "Retrieves the budgets of the authenticated user")
+    public ResponseEntity<List<BudgetResponse>> getBudgets(Authentication authentication) {
+        String username = authentication.getName();
+        List<BudgetResponse> budgets = budgetService.getBudgets(username);
+        return ResponseEntity.ok(budgets);
+    }
+
+    @GetMapping("/{category}/status")
+    @Operation(summary = "Get budget status", description = "Retrieves spending against a category budget in a month")
+    public ResponseEntity<BudgetStatusResponse> getStatus(
+            @PathVariable Category category,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            Authentication authentication) {
+        String username = authentication.getName();
+        BudgetStatusResponse status = budgetService.getStatus(username, category, month);
+        return ResponseEntity.ok(status);
+    }
+
+    @GetMapping("/alerts")
+    @Operation(summary = "Get budget alerts", description = "Retrieves the thresholds crossed in a month")
+    public ResponseEntity<List<BudgetAlertResponse>> getAlerts(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            Authentication authentication) {
+        String username = authentication.getName();
+        List<BudgetAlertResponse> alerts = budgetService.getAlerts(username, month);
+        return ResponseEntity.ok(alerts);
+    }
+
+    @DeleteMapping("/{category}")
+    @Operation(summary = "Delete budget", description = "Deletes the budget of a category")
+    public ResponseEntity<Void> deleteBudget(
+            @PathVariable Category category,
+            Authentication authentication) {
+        String username = authentication.getName();
+        budgetService.deleteBudget(username, category);
+        return ResponseEntity.noContent().build();
+    }
+}
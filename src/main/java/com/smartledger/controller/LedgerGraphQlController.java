@@ -0,0 +1,202 @@
+package com.smartledger.controller;
+
+import com.smartledger.dto.AttachmentResponse;
+import com.smartledger.dto.BudgetResponse;
+import com.smartledger.dto.LedgerEventResponse;
+import com.smartledger.dto.MonthlyTotalResponse;
+import com.smartledger.dto.SpendingAnomalyResponse;
+import com.smartledger.dto.TransactionField;
+import com.smartledger.dto.TransactionResponse;
+import com.smartledger.dto.TransactionSummaryResponse;
+import com.smartledger.dto.UserResponse;
+import com.smartledger.entity.Category;
+import com.smartledger.entity.TransactionType;
+import com.smartledger.service.AttachmentService;
+import com.smartledger.service.BudgetService;
+import com.smartledger.service.LedgerEventService;
+import com.smartledger.service.SpendingAnomalyService;
+import com.smartledger.service.TransactionReadCoalescer;
+import com.smartledger.service.UserService;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * GraphQL queries over the authenticated user's ledger; the schema is in
+ * {@code graphql/ledger.graphqls}. Top-level fields reuse the REST read paths, so they are
+ * coalesced and cached the same way. Transactions are read with only the columns the query
+ * selects.
+ *
+ * <p>Nested transaction fields are {@link BatchMapping}s: graphql-java collects every
+ * transaction of a level and each field is loaded for all of them in one query, so a query
+ * runs a constant number of statements however many transactions it returns. All methods
+ * are synchronous, so a query runs on the request thread, with the request's shard.
+ */
+@Controller
+public class LedgerGraphQlController {
+
+    private final TransactionReadCoalescer transactionReadCoalescer;
+    private final UserService userService;
+    private final LedgerEventService ledgerEventService;
+    private final AttachmentService attachmentService;
+    private final SpendingAnomalyService spendingAnomalyService;
+    private final BudgetService budgetService;
+    private final int maxResults;
+
+    public LedgerGraphQlController(TransactionReadCoalescer transactionReadCoalescer,
+                                   UserService userService,
+                                   LedgerEventService ledgerEventService,
+                                   AttachmentService attachmentService,
+                                   SpendingAnomalyService spendingAnomalyService,
+                                   BudgetService budgetService,
+                                   @Value("${graphql.max-results:500}") int maxResults) {
+        this.transactionReadCoalescer = transactionReadCoalescer;
+        this.userService = userService;
+        this.ledgerEventService = ledgerEventService;
+        this.attachmentService = attachmentService;
+        this.spendingAnomalyService = spendingAnomalyService;
+        this.budgetService = budgetService;
+        this.maxResults = maxResults;
+    }
+
+    @QueryMapping
+    public UserResponse me(Authentication authentication) {
+        return userService.getProfile(authentication.getName());
+    }
+
+    @QueryMapping
+    public List<TransactionResponse> transactions(@Argument TransactionType type,
+                                                  @Argument LocalDate startDate,
+                                                  @Argument LocalDate endDate,
+                                                  @Argument Integer first,
+                                                  DataFetchingFieldSelectionSet selection,
+                                                  Authentication authentication) {
+        int limit = first == null ? maxResults : first;
+        if (limit < 0 || limit > maxResults) {
+            throw new RuntimeException("first must be between 0 and " + maxResults);
+        }
+        return transactionReadCoalescer.getTransactionFields(
+                authentication.getName(), selectedFields(selection), type, startDate, endDate, limit);
+    }
+
+    @QueryMapping
+    public TransactionResponse transaction(@Argument Long id,
+                                           DataFetchingFieldSelectionSet selection,
+                                           Authentication authentication) {
+        return transactionReadCoalescer.getTransactionFieldsById(authentication.getName(), id, selectedFields(selection));
+    }
+
+    @QueryMapping
+    public TransactionSummaryResponse summary(@Argument LocalDate startDate,
+                                              @Argument LocalDate endDate,
+                                              Authentication authentication) {
+        return transactionReadCoalescer.getSummary(authentication.getName(), startDate, endDate);
+    }
+
+    @QueryMapping
+    public List<MonthlyTotalResponse> series(@Argument LocalDate startDate,
+                                             @Argument LocalDate endDate,
+                                             @Argument Category category,
+                                             Authentication authentication) {
+        return transactionReadCoalescer.getMonthlySeries(authentication.getName(), startDate, endDate, category);
+    }
+
+    @QueryMapping
+    public List<BudgetResponse> budgets(Authentication authentication) {
+        return budgetService.getBudgets(authentication.getName());
+    }
+
+    @QueryMapping
+    public List<SpendingAnomalyResponse> anomalies(Authentication authentication) {
+        return spendingAnomalyService.getAnomalies(authentication.getName());
+    }
+
+    @SchemaMapping(typeName = "Summary")
+    public List<CategoryAmount> byCategory(TransactionSummaryResponse summary) {
+        return summary.byCategory().entrySet().stream()
+                .map(entry -> new CategoryAmount(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    @BatchMapping(typeName = "Transaction")
+    public List<UserResponse> user(List<TransactionResponse> transactions) {
+        Set<Long> userIds = transactions.stream().map(TransactionResponse::userId).collect(Collectors.toSet());
+        Map<Long, UserResponse> users = userService.getProfiles(userIds);
+        return transactions.stream().map(transaction -> users.get(transaction.userId())).toList();
+    }
+
+    @BatchMapping(typeName = "Transaction")
+    public List<List<LedgerEventResponse>> history(List<TransactionResponse> transactions) {
+        Map<Long, List<LedgerEventResponse>> values = loadByTransaction(transactions, ledgerEventService::getHistories);
+        return transactions.stream().map(transaction -> values.getOrDefault(transaction.id(), List.of())).toList();
+    }
+
+    @BatchMapping(typeName = "Transaction")
+    public List<List<AttachmentResponse>> attachments(List<TransactionResponse> transactions) {
+        Map<Long, List<AttachmentResponse>> values = loadByTransaction(transactions,
+                attachmentService::getAttachmentsByTransaction);
+        return transactions.stream().map(transaction -> values.getOrDefault(transaction.id(), List.of())).toList();
+    }
+
+    /**
+     * Returns a map, since most transactions have no anomaly and a list cannot hold nulls.
+     */
+    @BatchMapping(typeName = "Transaction")
+    public Map<TransactionResponse, SpendingAnomalyResponse> anomaly(List<TransactionResponse> transactions) {
+        Map<Long, SpendingAnomalyResponse> anomalies = loadByTransaction(transactions,
+                spendingAnomalyService::getAnomaliesByTransaction);
+        Map<TransactionResponse, SpendingAnomalyResponse> byTransaction = new HashMap<>();
+        for (TransactionResponse transaction : transactions) {
+            SpendingAnomalyResponse anomaly = anomalies.get(transaction.id());
+            if (anomaly != null) {
+                byTransaction.put(transaction, anomaly);
+            }
+        }
+        return byTransaction;
+    }
+
+    /**
+     * Columns to read for a transaction selection. The id is always read, since nested
+     * fields are loaded by it.
+     */
+    private static Set<TransactionField> selectedFields(DataFetchingFieldSelectionSet selection) {
+        Set<TransactionField> fields = EnumSet.of(TransactionField.ID, TransactionField.USER_ID);
+        for (TransactionField field : TransactionField.values()) {
+            if (selection.contains(field.property())) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Loads a nested field of a batch of transactions with one call per owner, in practice
+     * one, keyed by transaction id.
+     */
+    private static <V> Map<Long, V> loadByTransaction(List<TransactionResponse> transactions,
+                                                      BiFunction<Long, Collection<Long>, Map<Long, V>> loader) {
+        Map<Long, Set<Long>> idsByUser = transactions.stream().collect(Collectors.groupingBy(
+                TransactionResponse::userId, Collectors.mapping(TransactionResponse::id, Collectors.toSet())));
+        Map<Long, V> values = new HashMap<>();
+        idsByUser.forEach((userId, ids) -> values.putAll(loader.apply(userId, ids)));
+        return values;
+    }
+
+    public record CategoryAmount(Category category, BigDecimal amount) {}
+}
@@ -0,0 +1,114 @@
+package com.smartledger.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartledger.dto.TransactionResponse;
+import com.smartledger.entity.TransactionType;
+import com.smartledger.entity.User;
+import com.smartledger.service.ReactiveTransactionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Non-blocking variants of the read endpoints of {@link TransactionController}. Lists are
+ * streamed as NDJSON, one transaction per line, with backpressure from the client down to
+ * the database.
+ *
+ * <p>Rows are written in batches of up to {@code reactive.stream.batch-size} lines, and at
+ * the latest {@code reactive.stream.max-delay-ms} after the first row of a batch arrived.
+ * Spring MVC writes and flushes every stream element on its own, which per row costs
+ * more than reading the row.
+ */
+@RestController
+@RequestMapping("/transactions/stream")
+@Tag(name = "Transactions (streaming)", description = "Non-blocking transaction reads")
+@SecurityRequirement(name = "Bearer Authentication")
+public class ReactiveTransactionController {
+
+    private final ReactiveTransactionService reactiveTransactionService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final Duration maxDelay;
+
+    public ReactiveTransactionController(ReactiveTransactionService reactiveTransactionService,
+                                         ObjectMapper objectMapper,
+                                         @Value("${reactive.stream.batch-size:200}") int batchSize,
+                                         @Value("${reactive.stream.max-delay-ms:50}") long maxDelayMs) {
+        this.reactiveTransactionService = reactiveTransactionService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxDelay = Duration.ofMillis(maxDelayMs);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all transactions", description = "Streams all transactions for the authenticated user")
+    public Flux<String> getAllTransactions(Authentication authentication) {
+        return ndjson(reactiveTransactionService.getAllTransactions(userId(authentication)));
+    }
+
+    @GetMapping(value = "/type/{type}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream transactions by type", description = "Streams transactions filtered by type (INCOME or EXPENSE)")
+    public Flux<String> getTransactionsByType(
+            @PathVariable TransactionType type,
+            Authentication authentication) {
+        return ndjson(reactiveTransactionService.getTransactionsByType(userId(authentication), type));
+    }
+
+    @GetMapping(value = "/date-range", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream transactions by date range", description = "Streams transactions within a specified date range")
+    public Flux<String> getTransactionsByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            Authentication authentication) {
+        return ndjson(reactiveTransactionService.getTransactionsByDateRange(userId(authentication), startDate, endDate));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get transaction by ID", description = "Retrieves a specific transaction by its ID without blocking")
+    public Mono<TransactionResponse> getTransactionById(
+            @PathVariable Long id,
+            Authentication authentication) {
+        return reactiveTransactionService.getTransactionById(userId(authentication), id);
+    }
+
+    /**
+     * Encodes transactions as NDJSON lines, a batch per stream element. String elements
+     * are written as they are.
+     */
+    private Flux<String> ndjson(Flux<TransactionResponse> transactions) {
+        return transactions
+                .bufferTimeout(batchSize, maxDelay, true)
+                .map(this::toLines);
+    }
+
+    private String toLines(List<TransactionResponse> batch) {
+        StringBuilder lines = new StringBuilder();
+        for (TransactionResponse transaction : batch) {
+            try {
+                lines.append(objectMapper.writeValueAsString(transaction)).append('\n');
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize transaction " + transaction.id(), e);
+            }
+        }
+        return lines.toString();
+    }
+
+    /**
+     * The authenticated principal is the user entity, so no lookup by username is needed.
+     */
+    private static Long userId(Authentication authentication) {
+        return ((User) authentication.getPrincipal()).getId();
+    }
+}
@@ -0,0 +1,69 @@
+package com.smartledger.controller;
+
+import com.smartledger.dto.ReportJobResponse;
+import com.smartledger.dto.ReportRequest;
+import com.smartledger.service.ReportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/reports")
+@Tag(name = "Reports", description = "Asynchronous report generation endpoints")
+@SecurityRequirement(name = "Bearer Authentication")
+public class ReportController {
+
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final ReportService reportService;
+
+    public ReportController(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Submit a report job", description = "Queues a per-category and per-month report and returns the job to poll")
+    public ResponseEntity<ReportJobResponse> submitReport(
+            @RequestBody ReportRequest request,
+            Authentication authentication) {
+        String username = authentication.getName();
+        ReportJobResponse response = reportService.submit(username, request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get report job status", description = "Retrieves the status and progress of a report job")
+    public ResponseEntity<ReportJobResponse> getReportStatus(
+            @PathVariable UUID id,
+            Authentication authentication) {
+        String username = authentication.getName();
+        ReportJobResponse response = reportService.getStatus(username, id);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{id}/download")
+    @Operation(summary = "Download a report", description = "Downloads a completed report as gzip-compressed JSON")
+    public ResponseEntity<Resource> downloadReport(
+            @PathVariable UUID id,
+            Authentication authentication) {
+        String username = authentication.getName();
+        Resource file = reportService.getFile(username, id);
+        return ResponseEntity.ok()
+                .contentType(GZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("report-" + id + ".json.gz")
+                        .build()
+                        .toString())
+                .body(file);
+    }
+}
@@ -1,10 +1,24 @@
 package com.smartledger.controller;
 
+import com.smartledger.dto.LedgerEventResponse;
+import com.smartledger.dto.MonthlyTotalResponse;
+import com.smartledger.dto.SpendingAnomalyResponse;
+import com.smartledger.dto.TransactionChangesResponse;
+import com.smartledger.dto.TransactionField;
 import com.smartledger.dto.TransactionRequest;
 import com.smartledger.dto.TransactionResponse;
+import com.smartledger.dto.TransactionSummaryResponse;
+import com.smartledger.entity.Category;
 import com.smartledger.entity.TransactionType;
+import com.smartledger.service.CreatedTransaction;
+import com.smartledger.service.GroupCommitWriter;
+import com.smartledger.service.LedgerEventService;
+import com.smartledger.service.SpendingAnomalyService;
+import com.smartledger.service.TransactionReadCoalescer;
 import com.smartledger.service.TransactionService;
+import com.smartledger.service.TransactionSyncService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -23,27 +37,56 @@ import java.util.List;
 @SecurityRequirement(name = "Bearer Authentication")
 public class TransactionController {
 
+    static final String POSSIBLE_DUPLICATE_HEADER = "X-Possible-Duplicate-Of";
+    static final String FIELDS_PARAM = "fields";
+    private static final String FIELDS_DESCRIPTION =
+            "Comma-separated properties to return, e.g. id,date,amount,category; only those are read";
+
     private final TransactionService transactionService;
+    private final GroupCommitWriter groupCommitWriter;
+    private final TransactionReadCoalescer transactionReadCoalescer;
+    private final LedgerEventService ledgerEventService;
+    private final SpendingAnomalyService spendingAnomalyService;
+    private final TransactionSyncService transactionSyncService;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService,
+                                 GroupCommitWriter groupCommitWriter,
+                                 TransactionReadCoalescer transactionReadCoalescer,
+                                 LedgerEventService ledgerEventService,
+                                 SpendingAnomalyService spendingAnomalyService,
+                                 TransactionSyncService transactionSyncService) {
         this.transactionService = transactionService;
+        this.groupCommitWriter = groupCommitWriter;
+        this.transactionReadCoalescer = transactionReadCoalescer;
+        this.ledgerEventService = ledgerEventService;
+        this.spendingAnomalyService = spendingAnomalyService;
+        this.transactionSyncService = transactionSyncService;
     }
 
     @PostMapping
-    @Operation(summary = "Create a new transaction", description = "Creates a new income or expense transaction for the authenticated user")
+    @Operation(summary = "Create a new transaction", description = "Creates a new income or expense transaction for the authenticated user. "
+            + "A probable duplicate of a recent transaction is either created with an X-Possible-Duplicate-Of header or refused with 409, per configuration")
     public ResponseEntity<TransactionResponse> createTransaction(
             @Valid @RequestBody TransactionRequest request,
             Authentication authentication) {
         String username = authentication.getName();
-        TransactionResponse response = transactionService.createTransaction(username, request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        CreatedTransaction created = groupCommitWriter.createTransaction(username, request);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (created.possibleDuplicateOf() != null) {
+            response.header(POSSIBLE_DUPLICATE_HEADER, created.possibleDuplicateOf().toString());
+        }
+        return response.body(created.transaction());
     }
 
     @GetMapping
     @Operation(summary = "Get all transactions", description = "Retrieves all transactions for the authenticated user")
-    public ResponseEntity<List<TransactionResponse>> getAllTransactions(Authentication authentication) {
+    public ResponseEntity<List<TransactionResponse>> getAllTransactions(
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(name = FIELDS_PARAM, required = false) String fields,
+            Authentication authentication) {
         String username = authentication.getName();
-        List<TransactionResponse> transactions = transactionService.getAllTransactions(username);
+        List<TransactionResponse> transactions = fields == null
+                ? transactionReadCoalescer.getAllTransactions(username)
+                : transactionReadCoalescer.getTransactionFields(username, TransactionField.parse(fields), null, null, null, null);
         return ResponseEntity.ok(transactions);
     }
 
@@ -51,9 +94,12 @@ public class TransactionController {
     @Operation(summary = "Get transactions by type", description = "Retrieves transactions filtered by type (INCOME or EXPENSE)")
     public ResponseEntity<List<TransactionResponse>> getTransactionsByType(
             @PathVariable TransactionType type,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(name = FIELDS_PARAM, required = false) String fields,
             Authentication authentication) {
         String username = authentication.getName();
-        List<TransactionResponse> transactions = transactionService.getTransactionsByType(username, type);
+        List<TransactionResponse> transactions = fields == null
+                ? transactionReadCoalescer.getTransactionsByType(username, type)
+                : transactionReadCoalescer.getTransactionFields(username, TransactionField.parse(fields), type, null, null, null);
         return ResponseEntity.ok(transactions);
     }
 
@@ -62,22 +108,82 @@ public class TransactionController {
     public ResponseEntity<List<TransactionResponse>> getTransactionsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(name = FIELDS_PARAM, required = false) String fields,
             Authentication authentication) {
         String username = authentication.getName();
-        List<TransactionResponse> transactions = transactionService.getTransactionsByDateRange(username, startDate, endDate);
+        List<TransactionResponse> transactions = fields == null
+                ? transactionReadCoalescer.getTransactionsByDateRange(username, startDate, endDate)
+                : transactionReadCoalescer.getTransactionFields(username, TransactionField.parse(fields), null, startDate, endDate, null);
         return ResponseEntity.ok(transactions);
     }
 
+    @GetMapping("/summary")
+    @Operation(summary = "Get transaction summary", description = "Retrieves income, expense and per-category totals within a date range")
+    public ResponseEntity<TransactionSummaryResponse> getSummary(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            Authentication authentication) {
+        String username = authentication.getName();
+        TransactionSummaryResponse summary = transactionReadCoalescer.getSummary(username, startDate, endDate);
+        return ResponseEntity.ok(summary);
+    }
+
+    @GetMapping("/series")
+    @Operation(summary = "Get monthly series", description = "Retrieves income and expense totals per month within a date range, optionally for a single category")
+    public ResponseEntity<List<MonthlyTotalResponse>> getMonthlySeries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Category category,
+            Authentication authentication) {
+        String username = authentication.getName();
+        List<MonthlyTotalResponse> series = transactionReadCoalescer.getMonthlySeries(username, startDate, endDate, category);
+        return ResponseEntity.ok(series);
+    }
+
+    @GetMapping("/anomalies")
+    @Operation(summary = "Get spending anomalies", description = "Retrieves the most recent expenses flagged as unusually large for their category")
+    public ResponseEntity<List<SpendingAnomalyResponse>> getAnomalies(Authentication authentication) {
+        String username = authentication.getName();
+        List<SpendingAnomalyResponse> anomalies = spendingAnomalyService.getAnomalies(username);
+        return ResponseEntity.ok(anomalies);
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Get changes since a sync token", description = "Retrieves transactions created, updated or deleted after the token, "
+            + "oldest change first, for clients keeping an offline copy. Without since, the current transactions are listed. "
+            + "Archived transactions are not part of the feed")
+    public ResponseEntity<TransactionChangesResponse> getChanges(
+            @Parameter(description = "The next token of the previous call") @RequestParam(required = false) Long since,
+            @Parameter(description = "Most changes to return") @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        String username = authentication.getName();
+        TransactionChangesResponse changes = transactionSyncService.getChanges(username, since, limit);
+        return ResponseEntity.ok(changes);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get transaction by ID", description = "Retrieves a specific transaction by its ID")
     public ResponseEntity<TransactionResponse> getTransactionById(
             @PathVariable Long id,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(name = FIELDS_PARAM, required = false) String fields,
             Authentication authentication) {
         String username = authentication.getName();
-        TransactionResponse transaction = transactionService.getTransactionById(username, id);
+        TransactionResponse transaction = fields == null
+                ? transactionReadCoalescer.getTransactionById(username, id)
+                : transactionReadCoalescer.getTransactionFieldsById(username, id, TransactionField.parse(fields));
         return ResponseEntity.ok(transaction);
     }
 
+    @GetMapping("/{id}/history")
+    @Operation(summary = "Get transaction history", description = "Retrieves every recorded change of a transaction, oldest first, including its deletion")
+    public ResponseEntity<List<LedgerEventResponse>> getTransactionHistory(
+            @PathVariable Long id,
+            Authentication authentication) {
+        String username = authentication.getName();
+        List<LedgerEventResponse> history = ledgerEventService.getHistory(username, id);
+        return ResponseEntity.ok(history);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update transaction", description = "Updates an existing transaction")
     public ResponseEntity<TransactionResponse> updateTransaction(
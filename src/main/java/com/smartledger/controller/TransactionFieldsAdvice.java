@@ -0,0 +1,46 @@
+package com.smartledger.controller;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.smartledger.dto.TransactionField;
+import com.smartledger.dto.TransactionResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Writes only the requested properties of transactions read with {@code fields=}; the
+ * service has already read only those columns.
+ */
+@RestControllerAdvice(assignableTypes = TransactionController.class)
+public class TransactionFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer,
+                                           MediaType contentType,
+                                           MethodParameter returnType,
+                                           ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (request.getMethod() != HttpMethod.GET || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        String fields = servletRequest.getServletRequest().getParameter(TransactionController.FIELDS_PARAM);
+        if (fields == null) {
+            return;
+        }
+        Set<String> properties = TransactionField.parse(fields).stream()
+                .map(TransactionField::property)
+                .collect(Collectors.toSet());
+        bodyContainer.setFilters(new SimpleFilterProvider()
+                .addFilter(TransactionResponse.FIELDS_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(properties)));
+    }
+}
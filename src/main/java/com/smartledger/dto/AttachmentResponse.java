@@ -0,0 +1,30 @@
+package com.smartledger.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Receipt attached to a transaction")
+public record AttachmentResponse(
+        @Schema(description = "Attachment ID", example = "1")
+        Long id,
+
+        @Schema(description = "Transaction ID", example = "42")
+        Long transactionId,
+
+        @Schema(description = "File name given at upload", example = "receipt.jpg")
+        String filename,
+
+        @Schema(description = "Media type", example = "image/jpeg")
+        String contentType,
+
+        @Schema(description = "Size in bytes", example = "183204")
+        long size,
+
+        @Schema(description = "SHA-256 of the content, also its ETag",
+                example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+        String sha256,
+
+        @Schema(description = "Upload timestamp")
+        LocalDateTime createdAt
+) {}
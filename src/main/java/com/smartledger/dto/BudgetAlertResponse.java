@@ -0,0 +1,32 @@
+package com.smartledger.dto;
+
+import com.smartledger.entity.Category;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+@Schema(description = "Alert raised when spending crossed a budget threshold")
+public record BudgetAlertResponse(
+        @Schema(description = "Alert ID", example = "1")
+        Long id,
+
+        @Schema(description = "Budgeted category", example = "GROCERIES")
+        Category category,
+
+        @Schema(description = "Month", example = "2025-10", type = "string")
+        YearMonth month,
+
+        @Schema(description = "Crossed threshold in percent of the limit", example = "80")
+        Integer thresholdPercent,
+
+        @Schema(description = "Spent when the threshold was crossed", example = "330.00")
+        BigDecimal spent,
+
+        @Schema(description = "Monthly limit at that time", example = "400.00")
+        BigDecimal monthlyLimit,
+
+        @Schema(description = "When the threshold was crossed")
+        LocalDateTime createdAt
+) {}
@@ -0,0 +1,25 @@
+package com.smartledger.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Schema(description = "Request to create or update the monthly budget of a category")
+public record BudgetRequest(
+        @Schema(description = "Monthly spending limit", example = "400.00")
+        @NotNull(message = "Monthly limit is required")
+        @DecimalMin(value = "0.01", message = "Monthly limit must be greater than 0")
+        BigDecimal monthlyLimit,
+
+        @Schema(description = "Percentages of the limit that raise an alert when crossed, defaults to 80 and 100",
+                example = "[50, 80, 100]")
+        @Size(max = 10, message = "At most 10 alert thresholds are allowed")
+        List<@NotNull @Min(value = 1, message = "Thresholds must be at least 1%")
+                @Max(value = 1000, message = "Thresholds must be at most 1000%") Integer> alertThresholds
+) {}
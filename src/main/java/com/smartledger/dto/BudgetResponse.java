@@ -0,0 +1,22 @@
+package com.smartledger.dto;
+
+import com.smartledger.entity.Category;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Schema(description = "Monthly budget of a category")
+public record BudgetResponse(
+        @Schema(description = "Budget ID", example = "1")
+        Long id,
+
+        @Schema(description = "Budgeted category", example = "GROCERIES")
+        Category category,
+
+        @Schema(description = "Monthly spending limit", example = "400.00")
+        BigDecimal monthlyLimit,
+
+        @Schema(description = "Alert thresholds in percent of the limit", example = "[80, 100]")
+        List<Integer> alertThresholds
+) {}
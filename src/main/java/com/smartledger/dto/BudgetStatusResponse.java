@@ -0,0 +1,32 @@
+package com.smartledger.dto;
+
+import com.smartledger.entity.Category;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+@Schema(description = "Spending against a category budget in one month")
+public record BudgetStatusResponse(
+        @Schema(description = "Budgeted category", example = "GROCERIES")
+        Category category,
+
+        @Schema(description = "Month", example = "2025-10", type = "string")
+        YearMonth month,
+
+        @Schema(description = "Monthly spending limit", example = "400.00")
+        BigDecimal monthlyLimit,
+
+        @Schema(description = "Expenses recorded in the month", example = "250.00")
+        BigDecimal spent,
+
+        @Schema(description = "Limit minus spent, negative when over budget", example = "150.00")
+        BigDecimal remaining,
+
+        @Schema(description = "Spent as a percentage of the limit", example = "62.50")
+        BigDecimal percentUsed,
+
+        @Schema(description = "Configured thresholds already crossed", example = "[50]")
+        List<Integer> crossedThresholds
+) {}
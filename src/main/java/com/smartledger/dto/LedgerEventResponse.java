@@ -0,0 +1,24 @@
+package com.smartledger.dto;
+
+import com.smartledger.entity.LedgerEventType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Entry of a transaction's change history")
+public record LedgerEventResponse(
+        @Schema(description = "Event ID, increasing in commit order per transaction", example = "42")
+        Long id,
+
+        @Schema(description = "Transaction ID", example = "1")
+        Long transactionId,
+
+        @Schema(description = "Kind of change", example = "UPDATED")
+        LedgerEventType eventType,
+
+        @Schema(description = "Transaction state after the change (before it, for deletions)")
+        TransactionResponse snapshot,
+
+        @Schema(description = "When the change happened")
+        LocalDateTime occurredAt
+) {}
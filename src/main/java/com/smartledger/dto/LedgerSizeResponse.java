@@ -0,0 +1,20 @@
+package com.smartledger.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Size of one user's ledger")
+public record LedgerSizeResponse(
+        @Schema(description = "User ID", example = "42")
+        Long userId,
+
+        @Schema(description = "Username", example = "jdoe")
+        String username,
+
+        @Schema(description = "Number of transactions", example = "18234")
+        long transactionCount,
+
+        @Schema(description = "Sum of the amounts, income and expenses together", example = "912003.75")
+        BigDecimal total
+) {}
@@ -7,7 +7,7 @@ import java.util.Set;
 
 @Schema(description = "Login response containing JWT token, username and user roles")
 public record LoginResponse(
-    @Schema(description = "JWT token for authenticating subsequent requests",
+    @Schema(description = "Short-lived JWT access token for authenticating subsequent requests",
             example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
     String token,
 
@@ -15,5 +15,12 @@ public record LoginResponse(
     String username,
 
     @Schema(description = "Roles assigned to the user", example = "[\"ADMIN\"]")
-    Set<Role> roles
+    Set<Role> roles,
+
+    @Schema(description = "Single-use token to obtain a new access token once it expires",
+            example = "kW3r0x7oH2yV5qQ1cX8nB4mJ6tL9zA0eF2gD5sR7uI4")
+    String refreshToken,
+
+    @Schema(description = "Seconds until the access token expires", example = "900")
+    Long expiresIn
 ) {}
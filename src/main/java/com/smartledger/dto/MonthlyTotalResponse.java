@@ -0,0 +1,21 @@
+package com.smartledger.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+@Schema(description = "Income and expense totals of one month")
+public record MonthlyTotalResponse(
+        @Schema(description = "Month", example = "2025-10", type = "string")
+        YearMonth month,
+
+        @Schema(description = "Sum of income transactions", example = "3000.00")
+        BigDecimal income,
+
+        @Schema(description = "Sum of expense transactions", example = "1170.50")
+        BigDecimal expense,
+
+        @Schema(description = "Income minus expenses", example = "1829.50")
+        BigDecimal net
+) {}
@@ -0,0 +1,17 @@
+package com.smartledger.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(description = "Registered and active users across the platform")
+public record PlatformUsersResponse(
+        @Schema(description = "Registered users", example = "12840")
+        long registeredUsers,
+
+        @Schema(description = "Users with a transaction dated on or after activeSince", example = "5321")
+        long activeUsers,
+
+        @Schema(description = "Start of the activity window", example = "2025-09-20")
+        LocalDate activeSince
+) {}
@@ -0,0 +1,26 @@
+package com.smartledger.dto;
+
+import com.smartledger.entity.Category;
+import com.smartledger.entity.TransactionType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+@Schema(description = "Transactions of all users in one month and category")
+public record PlatformVolumeResponse(
+        @Schema(description = "Month", example = "2025-10", type = "string")
+        YearMonth month,
+
+        @Schema(description = "Transaction type", example = "EXPENSE")
+        TransactionType type,
+
+        @Schema(description = "Transaction category", example = "GROCERIES")
+        Category category,
+
+        @Schema(description = "Number of transactions", example = "48210")
+        long transactionCount,
+
+        @Schema(description = "Sum of the amounts", example = "2301455.20")
+        BigDecimal total
+) {}
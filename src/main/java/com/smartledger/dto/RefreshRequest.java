@@ -0,0 +1,11 @@
+package com.smartledger.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+
+@Schema(description = "Request carrying a refresh token")
+public record RefreshRequest(
+    @Schema(description = "Refresh token returned by login or by the previous refresh", required = true)
+    @NotBlank(message = "Refresh token is required")
+    String refreshToken
+) {}
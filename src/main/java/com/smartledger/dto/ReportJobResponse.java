@@ -0,0 +1,44 @@
+package com.smartledger.dto;
+
+import com.smartledger.entity.ReportStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Schema(description = "State of a report generation job")
+public record ReportJobResponse(
+        @Schema(description = "Job ID", example = "3f2b8c1e-8d4a-4c55-9b7e-2a1f0c9d6e11")
+        UUID id,
+
+        @Schema(description = "Job status", example = "RUNNING")
+        ReportStatus status,
+
+        @Schema(description = "First day included", example = "2025-01-01")
+        LocalDate startDate,
+
+        @Schema(description = "Last day included", example = "2025-12-31")
+        LocalDate endDate,
+
+        @Schema(description = "Transactions processed so far", example = "12000")
+        long processedRows,
+
+        @Schema(description = "Transactions to process, known once the job has started", example = "48000")
+        Long totalRows,
+
+        @Schema(description = "Completion percentage", example = "25")
+        int progressPercent,
+
+        @Schema(description = "Size of the compressed report in bytes, once completed", example = "2048")
+        Long fileSize,
+
+        @Schema(description = "Failure reason, if the job failed")
+        String errorMessage,
+
+        @Schema(description = "Submission timestamp")
+        LocalDateTime createdAt,
+
+        @Schema(description = "Completion timestamp")
+        LocalDateTime completedAt
+) {}
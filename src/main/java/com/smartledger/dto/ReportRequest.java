@@ -0,0 +1,14 @@
+package com.smartledger.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(description = "Request to generate a report, both dates are optional")
+public record ReportRequest(
+        @Schema(description = "First day included, defaults to the first transaction", example = "2025-01-01")
+        LocalDate startDate,
+
+        @Schema(description = "Last day included, defaults to the last transaction", example = "2025-12-31")
+        LocalDate endDate
+) {}
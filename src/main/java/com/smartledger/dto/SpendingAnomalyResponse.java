@@ -0,0 +1,31 @@
+package com.smartledger.dto;
+
+import com.smartledger.entity.Category;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Schema(description = "Expense flagged as unusually large for its category")
+public record SpendingAnomalyResponse(
+        @Schema(description = "Anomaly ID", example = "1")
+        Long id,
+
+        @Schema(description = "Flagged transaction", example = "42")
+        Long transactionId,
+
+        @Schema(description = "Expense category", example = "RESTAURANT")
+        Category category,
+
+        @Schema(description = "Amount of the expense", example = "480.00")
+        BigDecimal amount,
+
+        @Schema(description = "Typical amount in the category when it was flagged", example = "35.20")
+        BigDecimal typicalAmount,
+
+        @Schema(description = "Standard deviations above the usual spending, on a log scale", example = "4.7")
+        Double score,
+
+        @Schema(description = "When the expense was flagged")
+        LocalDateTime createdAt
+) {}
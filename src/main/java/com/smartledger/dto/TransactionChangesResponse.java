@@ -0,0 +1,24 @@
+package com.smartledger.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Transactions changed since a sync token, in change order")
+public record TransactionChangesResponse(
+        @Schema(description = "Transactions created or updated since the token, in their current state")
+        List<TransactionResponse> changed,
+
+        @Schema(description = "Ids of transactions deleted since the token", example = "[17, 42]")
+        List<Long> deleted,
+
+        @Schema(description = "Token to pass as since on the next call", example = "1284")
+        long next,
+
+        @Schema(description = "Whether more changes are waiting; call again right away with next", example = "false")
+        boolean hasMore,
+
+        @Schema(description = "Deletions since the token are no longer known: drop local data and sync again without since",
+                example = "false")
+        boolean resync
+) {}
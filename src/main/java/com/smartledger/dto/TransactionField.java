@@ -0,0 +1,57 @@
+package com.smartledger.dto;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A property of {@link TransactionResponse} that can be requested on its own with
+ * {@code fields=}, e.g. {@code fields=id,date,amount,category}.
+ */
+public enum TransactionField {
+
+    ID("id"),
+    USER_ID("userId"),
+    TYPE("type"),
+    CATEGORY("category"),
+    AMOUNT("amount"),
+    DATE("date"),
+    DESCRIPTION("description"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    private final String property;
+
+    TransactionField(String property) {
+        this.property = property;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    /**
+     * Parses a comma-separated list of property names.
+     */
+    public static Set<TransactionField> parse(String fields) {
+        Set<TransactionField> parsed = EnumSet.noneOf(TransactionField.class);
+        for (String name : fields.split(",")) {
+            String property = name.trim();
+            if (!property.isEmpty()) {
+                parsed.add(of(property));
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new RuntimeException("No transaction fields requested");
+        }
+        return parsed;
+    }
+
+    private static TransactionField of(String property) {
+        for (TransactionField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new RuntimeException("Unknown transaction field: " + property);
+    }
+}
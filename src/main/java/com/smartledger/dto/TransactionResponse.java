@@ -1,5 +1,6 @@
 package com.smartledger.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.smartledger.entity.Category;
 import com.smartledger.entity.TransactionType;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -9,6 +10,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Schema(description = "Transaction response")
+@JsonFilter(TransactionResponse.FIELDS_FILTER)
 public record TransactionResponse(
         @Schema(description = "Transaction ID", example = "1")
         Long id,
@@ -36,4 +38,8 @@ public record TransactionResponse(
 
         @Schema(description = "Last update timestamp")
         LocalDateTime updatedAt
-) {}
+) {
+
+    /** Serializes every property unless a request asks for {@code fields=}. */
+    public static final String FIELDS_FILTER = "transactionFields";
+}
@@ -0,0 +1,32 @@
+package com.smartledger.dto;
+
+import com.smartledger.entity.Category;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Schema(description = "Income and expense totals over a date range")
+public record TransactionSummaryResponse(
+        @Schema(description = "First day included", example = "2025-10-01")
+        LocalDate startDate,
+
+        @Schema(description = "Last day included", example = "2025-10-31")
+        LocalDate endDate,
+
+        @Schema(description = "Sum of income transactions", example = "3000.00")
+        BigDecimal totalIncome,
+
+        @Schema(description = "Sum of expense transactions", example = "1170.50")
+        BigDecimal totalExpense,
+
+        @Schema(description = "Income minus expenses", example = "1829.50")
+        BigDecimal balance,
+
+        @Schema(description = "Number of transactions in the range", example = "4")
+        long transactionCount,
+
+        @Schema(description = "Total per category, only categories with transactions are present")
+        Map<Category, BigDecimal> byCategory
+) {}
@@ -0,0 +1,23 @@
+package com.smartledger.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "User profile, without credentials or roles")
+public record UserResponse(
+        @Schema(description = "User ID", example = "1")
+        Long id,
+
+        @Schema(description = "Username", example = "admin")
+        String username,
+
+        @Schema(description = "Email address", example = "admin@smartledger.com")
+        String email,
+
+        @Schema(description = "Full name", example = "Administrator")
+        String fullName,
+
+        @Schema(description = "Registration timestamp")
+        LocalDateTime createdAt
+) {}
@@ -0,0 +1,48 @@
+package com.smartledger.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "budget_alerts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "budget_id", nullable = false)
+    private Long budgetId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Category category;
+
+    /** First day of the month. */
+    @Column(nullable = false)
+    private LocalDate month;
+
+    @Column(name = "threshold_percent", nullable = false)
+    private Integer thresholdPercent;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal spent;
+
+    @Column(name = "monthly_limit", nullable = false, precision = 19, scale = 2)
+    private BigDecimal monthlyLimit;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
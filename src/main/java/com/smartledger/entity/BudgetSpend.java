@@ -0,0 +1,26 @@
+package com.smartledger.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Running expense total of a user, category and month. Only ever changed through
+ * {@code BudgetSpendRepository.addAndGet}, never recomputed from transactions.
+ */
+@Entity
+@Table(name = "budget_spend")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetSpend {
+
+    @EmbeddedId
+    private BudgetSpendId id;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal spent;
+}
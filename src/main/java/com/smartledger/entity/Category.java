@@ -1,24 +1,55 @@
 package com.smartledger.entity;
 
+/**
+ * Stored in {@code transactions.category} as its {@link #code()}, never as ordinal or
+ * name, so constants can be reordered freely; a new constant needs an unused code and a
+ * matching {@code transaction_category_code} function. Other tables store the name.
+ */
 public enum Category {
     // Income categories
-    SALARY,
-    FREELANCE,
-    INVESTMENT,
-    GIFT,
-    OTHER_INCOME,
+    SALARY(1),
+    FREELANCE(2),
+    INVESTMENT(3),
+    GIFT(4),
+    OTHER_INCOME(5),
 
     // Expense categories
-    RENT,
-    UTILITIES,
-    GROCERIES,
-    TRANSPORT,
-    HEALTHCARE,
-    ENTERTAINMENT,
-    EDUCATION,
-    SHOPPING,
-    RESTAURANT,
-    TRAVEL,
-    INSURANCE,
-    OTHER_EXPENSE
+    RENT(21),
+    UTILITIES(22),
+    GROCERIES(23),
+    TRANSPORT(24),
+    HEALTHCARE(25),
+    ENTERTAINMENT(26),
+    EDUCATION(27),
+    SHOPPING(28),
+    RESTAURANT(29),
+    TRAVEL(30),
+    INSURANCE(31),
+    OTHER_EXPENSE(32);
+
+    private static final Category[] BY_CODE = new Category[64];
+
+    static {
+        for (Category category : values()) {
+            BY_CODE[category.code] = category;
+        }
+    }
+
+    private final short code;
+
+    Category(int code) {
+        this.code = (short) code;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    public static Category fromCode(short code) {
+        Category category = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (category == null) {
+            throw new IllegalArgumentException("Unknown category code " + code);
+        }
+        return category;
+    }
 }
@@ -0,0 +1,21 @@
+package com.smartledger.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps {@link Category} to its stable SMALLINT code.
+ */
+@Converter
+public class CategoryConverter implements AttributeConverter<Category, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(Category category) {
+        return category == null ? null : category.code();
+    }
+
+    @Override
+    public Category convertToEntityAttribute(Short code) {
+        return code == null ? null : Category.fromCode(code);
+    }
+}
@@ -0,0 +1,45 @@
+package com.smartledger.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnTransformer;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entry of the append-only ledger journal. Rows are never updated except for
+ * {@code publishedAt}, which the outbox relay sets once the event has been delivered.
+ */
+@Entity
+@Table(name = "ledger_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    @Column(name = "transaction_id", nullable = false, updatable = false)
+    private Long transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, updatable = false)
+    private LedgerEventType eventType;
+
+    @Column(nullable = false, updatable = false, columnDefinition = "jsonb")
+    @ColumnTransformer(write = "?::jsonb")
+    private String payload;
+
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
@@ -0,0 +1,7 @@
+package com.smartledger.entity;
+
+public enum LedgerEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,35 @@
+package com.smartledger.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Stores a sorted list of percentages as a comma separated string, e.g. {@code 50,80,100}.
+ */
+@Converter
+public class PercentListConverter implements AttributeConverter<List<Integer>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(List<Integer> percents) {
+        return percents.stream()
+                .sorted()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+
+    @Override
+    public List<Integer> convertToEntityAttribute(String column) {
+        if (column == null || column.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(column.split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .sorted()
+                .toList();
+    }
+}
@@ -0,0 +1,59 @@
+package com.smartledger.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "report_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJob {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReportStatus status;
+
+    /** Null when the report starts at the first transaction. */
+    @Column(name = "start_date")
+    private LocalDate startDate;
+
+    /** Null when the report ends at the last transaction. */
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @Column(name = "total_rows")
+    private Long totalRows;
+
+    @Column(name = "processed_rows", nullable = false)
+    private Long processedRows = 0L;
+
+    /** Size of the compressed report; the report itself is read separately, when downloaded. */
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    /** Last sign of life from the node holding the job, while it is queued or running. */
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+}
@@ -0,0 +1,8 @@
+package com.smartledger.entity;
+
+public enum ReportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,45 @@
+package com.smartledger.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "spending_anomalies")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendingAnomaly {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Category category;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    /** Geometric mean of the user's recent expenses in the category. */
+    @Column(name = "typical_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal typicalAmount;
+
+    /** Standard deviations above the mean, on a log scale. */
+    @Column(nullable = false)
+    private Double score;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
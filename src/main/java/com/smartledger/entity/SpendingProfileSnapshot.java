@@ -0,0 +1,38 @@
+package com.smartledger.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted state of one user's spending statistics in one category. Written only by the
+ * periodic flush of {@code SpendingAnomalyService}; the live values are in memory.
+ */
+@Entity
+@Table(name = "spending_profiles")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendingProfileSnapshot {
+
+    @EmbeddedId
+    private SpendingProfileId id;
+
+    @Column(name = "mean_log", nullable = false)
+    private Double meanLog;
+
+    @Column(name = "variance_log", nullable = false)
+    private Double varianceLog;
+
+    @Column(nullable = false)
+    private Integer samples;
+
+    @Column(name = "last_transaction_id", nullable = false)
+    private Long lastTransactionId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
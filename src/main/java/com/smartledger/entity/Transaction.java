@@ -28,11 +28,11 @@ public class Transaction {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = TransactionTypeConverter.class)
     @Column(nullable = false)
     private TransactionType type;
 
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = CategoryConverter.class)
     @Column(nullable = false)
     private Category category;
 
@@ -52,4 +52,11 @@ public class Transaction {
     @LastModifiedDate
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    /**
+     * Position of the latest insert or update in the user's change feed, assigned by the
+     * database; not refreshed on the entity after a write.
+     */
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
 }
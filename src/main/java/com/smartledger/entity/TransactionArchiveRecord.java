@@ -0,0 +1,20 @@
+package com.smartledger.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only R2DBC mapping of the {@code transaction_archive} columns the reactive read
+ * path needs; see {@link TransactionArchiveSegment}.
+ */
+@Table("transaction_archive")
+public record TransactionArchiveRecord(
+        @Id Long id,
+        Long userId,
+        LocalDate month,
+        Long minId,
+        Long maxId,
+        byte[] payload
+) {}
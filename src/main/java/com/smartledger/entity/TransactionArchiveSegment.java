@@ -0,0 +1,47 @@
+package com.smartledger.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A batch of one user's archived transactions, all dated in the same month, stored as a
+ * compressed columnar payload (see {@link com.smartledger.util.TransactionArchiveCodec}).
+ */
+@Entity
+@Table(name = "transaction_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionArchiveSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    /** First day of the month all rows of the segment are dated in. */
+    @Column(nullable = false, updatable = false)
+    private LocalDate month;
+
+    @Column(name = "row_count", nullable = false, updatable = false)
+    private Integer rowCount;
+
+    @Column(name = "min_id", nullable = false, updatable = false)
+    private Long minId;
+
+    @Column(name = "max_id", nullable = false, updatable = false)
+    private Long maxId;
+
+    @Column(nullable = false, updatable = false)
+    private byte[] payload;
+
+    @Column(name = "archived_at", nullable = false, updatable = false)
+    private LocalDateTime archivedAt;
+}
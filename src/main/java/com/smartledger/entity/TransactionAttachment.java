@@ -0,0 +1,45 @@
+package com.smartledger.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A receipt attached to a transaction. The content is stored once per distinct
+ * {@code sha256}, however many attachments share it.
+ */
+@Entity
+@Table(name = "transaction_attachments")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionAttachment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    @Column(name = "transaction_id", nullable = false, updatable = false)
+    private Long transactionId;
+
+    @Column(nullable = false, updatable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    @Column(nullable = false)
+    private String filename;
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
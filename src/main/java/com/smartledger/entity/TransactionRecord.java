@@ -0,0 +1,25 @@
+package com.smartledger.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only R2DBC mapping of {@code transactions} for the reactive read path. Writes go
+ * through the JPA entity {@link Transaction}.
+ */
+@Table("transactions")
+public record TransactionRecord(
+        @Id Long id,
+        Long userId,
+        TransactionType type,
+        Category category,
+        BigDecimal amount,
+        LocalDate date,
+        String description,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {}
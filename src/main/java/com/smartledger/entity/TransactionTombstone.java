@@ -0,0 +1,35 @@
+package com.smartledger.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks a deleted transaction in the user's change feed. The id is the deleted
+ * transaction's; the change sequence number is assigned by the database.
+ */
+@Entity
+@Table(name = "transaction_tombstones")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionTombstone {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "change_seq", nullable = false, insertable = false, updatable = false)
+    private Long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
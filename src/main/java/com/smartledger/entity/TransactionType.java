@@ -1,6 +1,29 @@
 package com.smartledger.entity;
 
+/**
+ * Stored in {@code transactions.type} as its {@link #code()}, never as ordinal or name;
+ * a new constant needs a new code and a matching {@code transaction_type_code} function.
+ */
 public enum TransactionType {
-    INCOME,
-    EXPENSE
+    INCOME(1),
+    EXPENSE(2);
+
+    private final short code;
+
+    TransactionType(int code) {
+        this.code = (short) code;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    public static TransactionType fromCode(short code) {
+        for (TransactionType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown transaction type code " + code);
+    }
 }
@@ -0,0 +1,21 @@
+package com.smartledger.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps {@link TransactionType} to its stable SMALLINT code.
+ */
+@Converter
+public class TransactionTypeConverter implements AttributeConverter<TransactionType, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(TransactionType type) {
+        return type == null ? null : type.code();
+    }
+
+    @Override
+    public TransactionType convertToEntityAttribute(Short code) {
+        return code == null ? null : TransactionType.fromCode(code);
+    }
+}
@@ -0,0 +1,28 @@
+package com.smartledger.event;
+
+import com.smartledger.dto.TransactionResponse;
+
+/**
+ * Published by {@code TransactionService} inside the write transaction.
+ * {@code before} is null for creations and {@code after} is null for deletions.
+ */
+public record TransactionChangedEvent(
+        Long userId,
+        String username,
+        Long transactionId,
+        TransactionResponse before,
+        TransactionResponse after
+) {
+
+    public static TransactionChangedEvent created(String username, TransactionResponse after) {
+        return new TransactionChangedEvent(after.userId(), username, after.id(), null, after);
+    }
+
+    public static TransactionChangedEvent updated(String username, TransactionResponse before, TransactionResponse after) {
+        return new TransactionChangedEvent(after.userId(), username, after.id(), before, after);
+    }
+
+    public static TransactionChangedEvent deleted(String username, TransactionResponse before) {
+        return new TransactionChangedEvent(before.userId(), username, before.id(), before, null);
+    }
+}
@@ -0,0 +1,11 @@
+package com.smartledger.exception;
+
+/**
+ * Thrown when an uploaded attachment exceeds {@code attachments.max-size}.
+ */
+public class AttachmentTooLargeException extends RuntimeException {
+
+    public AttachmentTooLargeException(long maxSize) {
+        super("Attachments are limited to " + maxSize + " bytes");
+    }
+}
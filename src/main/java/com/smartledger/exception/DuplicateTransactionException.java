@@ -0,0 +1,18 @@
+package com.smartledger.exception;
+
+/**
+ * Thrown when a new transaction is refused as a probable duplicate of an existing one.
+ */
+public class DuplicateTransactionException extends RuntimeException {
+
+    private final Long existingId;
+
+    public DuplicateTransactionException(Long existingId) {
+        super("Possible duplicate of transaction " + existingId);
+        this.existingId = existingId;
+    }
+
+    public Long getExistingId() {
+        return existingId;
+    }
+}
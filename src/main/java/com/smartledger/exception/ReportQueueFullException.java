@@ -0,0 +1,18 @@
+package com.smartledger.exception;
+
+/**
+ * Thrown when a report job cannot be queued because the report executor is full.
+ */
+public class ReportQueueFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ReportQueueFullException(long retryAfterSeconds) {
+        super("Report queue is full, try again later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package com.smartledger.exception;
+
+/**
+ * Thrown when a write cannot even be queued because the group-commit queue is full.
+ */
+public class WriteQueueFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public WriteQueueFullException(long retryAfterSeconds) {
+        super("Too many writes in progress, please retry");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,129 @@
+package com.smartledger.monitoring;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a continuous flight recording of the last {@code jfr.max-age} when
+ * {@code jfr.enabled}, with the JDK's default settings plus {@code jfr/smartledger.jfc},
+ * and dumps it on demand. A recording started on the command line is dumped the same way.
+ */
+@Service
+public class FlightRecordingService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecordingService.class);
+
+    private static final String TEMPLATE = "jfr/smartledger.jfc";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final boolean enabled;
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private final Path dumpDir;
+    private final Duration dumpRetention;
+
+    private Recording recording;
+
+    public FlightRecordingService(@Value("${jfr.enabled:false}") boolean enabled,
+                                  @Value("${jfr.max-age:PT1H}") Duration maxAge,
+                                  @Value("${jfr.max-size:256MB}") DataSize maxSize,
+                                  @Value("${jfr.dump-dir:${java.io.tmpdir}/smartledger-recordings}") String dumpDir,
+                                  @Value("${jfr.dump-retention:PT1H}") Duration dumpRetention) {
+        this.enabled = enabled;
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+        this.dumpDir = Paths.get(dumpDir);
+        this.dumpRetention = dumpRetention;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || recording != null || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        try {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            try (Reader template = new InputStreamReader(new ClassPathResource(TEMPLATE).getInputStream(), StandardCharsets.UTF_8)) {
+                settings.putAll(Configuration.create(template).getSettings());
+            }
+            recording = new Recording(settings);
+            recording.setName("smartledger");
+            recording.setToDisk(true);
+            recording.setMaxAge(maxAge);
+            recording.setMaxSize(maxSize.toBytes());
+            recording.start();
+            log.info("Started continuous flight recording, keeping the last {}", maxAge);
+        } catch (IOException | ParseException e) {
+            log.error("Could not start the flight recording", e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * Writes what the running recordings hold to a file and returns it. Dumps older than
+     * {@code jfr.dump-retention} are deleted first.
+     */
+    public Resource dump() {
+        if (FlightRecorder.getFlightRecorder().getRecordings().isEmpty()) {
+            throw new RuntimeException("No flight recording is running");
+        }
+        try {
+            Files.createDirectories(dumpDir);
+            deleteOldDumps();
+            Path file = dumpDir.resolve("smartledger-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+            try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+                snapshot.dump(file);
+            }
+            return new FileSystemResource(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not dump the flight recording", e);
+        }
+    }
+
+    private void deleteOldDumps() throws IOException {
+        Instant cutoff = Instant.now().minus(dumpRetention);
+        try (Stream<Path> files = Files.list(dumpDir)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(".jfr")).toList()) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.smartledger.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Bearer token authentication of a request: token parsing, revocation check and user
+ * lookup.
+ */
+@Name("smartledger.JwtAuthentication")
+@Label("JWT Authentication")
+@Category({"Smart Ledger", "Security"})
+@Description("Authentication of a request from its bearer token")
+@StackTrace(false)
+public class JwtAuthenticationEvent extends jdk.jfr.Event {
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Path")
+    public String path;
+}
@@ -0,0 +1,28 @@
+package com.smartledger.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A password login. The password hash usually dominates its duration, so it is reported
+ * separately.
+ */
+@Name("smartledger.Login")
+@Label("Login")
+@Category({"Smart Ledger", "Security"})
+@Description("A username and password login")
+@StackTrace(false)
+public class LoginEvent extends jdk.jfr.Event {
+
+    @Label("Success")
+    public boolean success;
+
+    @Label("Hash Time")
+    @Description("Time spent verifying the password hash")
+    @Timespan(Timespan.NANOSECONDS)
+    public long hashTime;
+}
@@ -0,0 +1,96 @@
+package com.smartledger.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements of each HTTP request, authentication included, to catch
+ * N+1 patterns such as lazy associations touched in a loop. Every request is recorded in
+ * the {@code smartledger.http.server.queries} summary, tagged with method and URI
+ * pattern, and requests over {@code query-count.warn-threshold} are logged.
+ *
+ * <p>With {@code query-count.expose-header} the count is also returned in
+ * {@value #HEADER}; it is meant for debugging and tests, not for production clients.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Query-Count";
+
+    private static final Logger log = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final boolean exposeHeader;
+    private final int warnThreshold;
+
+    public QueryCountFilter(MeterRegistry meterRegistry,
+                            @Value("${query-count.enabled:true}") boolean enabled,
+                            @Value("${query-count.expose-header:false}") boolean exposeHeader,
+                            @Value("${query-count.warn-threshold:20}") int warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.exposeHeader = exposeHeader;
+        this.warnThreshold = warnThreshold;
+    }
+
+    public boolean exposesHeader() {
+        return enabled && exposeHeader;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryCounter.start();
+        int statements;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statements = QueryCounter.stop();
+        }
+
+        // Bodies are written by QueryCountHeaderAdvice; this covers responses without one
+        if (exposeHeader && !response.isCommitted()) {
+            response.setHeader(HEADER, Integer.toString(statements));
+        }
+        record(request, statements);
+    }
+
+    private void record(HttpServletRequest request, int statements) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("smartledger.http.server.queries")
+                .description("SQL statements per HTTP request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements);
+
+        if (statements > warnThreshold) {
+            log.warn("{} {} ran {} SQL statements, over the threshold of {}",
+                    request.getMethod(), uri, statements, warnThreshold);
+        }
+    }
+}
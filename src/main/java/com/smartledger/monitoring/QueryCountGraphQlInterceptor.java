@@ -0,0 +1,34 @@
+package com.smartledger.monitoring;
+
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Sets {@value QueryCountFilter#HEADER} on GraphQL responses, which are written by a
+ * functional handler that {@link QueryCountHeaderAdvice} does not see.
+ */
+@Component
+public class QueryCountGraphQlInterceptor implements WebGraphQlInterceptor {
+
+    private final QueryCountFilter queryCountFilter;
+
+    public QueryCountGraphQlInterceptor(QueryCountFilter queryCountFilter) {
+        this.queryCountFilter = queryCountFilter;
+    }
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        if (!queryCountFilter.exposesHeader()) {
+            return chain.next(request);
+        }
+        return chain.next(request).doOnNext(response -> {
+            int statements = QueryCounter.current();
+            if (statements >= 0) {
+                response.getResponseHeaders().set(QueryCountFilter.HEADER, Integer.toString(statements));
+            }
+        });
+    }
+}
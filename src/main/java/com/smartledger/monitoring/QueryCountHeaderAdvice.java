@@ -0,0 +1,42 @@
+package com.smartledger.monitoring;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Sets {@value QueryCountFilter#HEADER} just before a response body is written, since
+ * the response is committed by the time {@link QueryCountFilter} regains control.
+ */
+@ControllerAdvice
+public class QueryCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    private final QueryCountFilter queryCountFilter;
+
+    public QueryCountHeaderAdvice(QueryCountFilter queryCountFilter) {
+        this.queryCountFilter = queryCountFilter;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return queryCountFilter.exposesHeader();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body,
+                                  MethodParameter returnType,
+                                  MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request,
+                                  ServerHttpResponse response) {
+        int statements = QueryCounter.current();
+        if (statements >= 0) {
+            response.getHeaders().set(QueryCountFilter.HEADER, Integer.toString(statements));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,49 @@
+package com.smartledger.monitoring;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between
+ * {@link #start()} and {@link #stop()}. {@link QueryCountFilter} opens one count per HTTP
+ * request; statements outside a count, e.g. from scheduled jobs, are not recorded.
+ *
+ * <p>Work handed to other threads is not attributed to the request: a coalesced read
+ * counts on the request that ran it, report jobs on none.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<Count> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static void start() {
+        CURRENT.set(new Count());
+    }
+
+    /**
+     * Ends the count of the current thread and returns it, or -1 if none was started.
+     */
+    public static int stop() {
+        Count count = CURRENT.get();
+        CURRENT.remove();
+        return count == null ? -1 : count.statements;
+    }
+
+    /**
+     * Statements counted so far on the current thread, or -1 outside a count.
+     */
+    public static int current() {
+        Count count = CURRENT.get();
+        return count == null ? -1 : count.statements;
+    }
+
+    static void increment() {
+        Count count = CURRENT.get();
+        if (count != null) {
+            count.statements++;
+        }
+    }
+
+    private static final class Count {
+        private int statements;
+    }
+}
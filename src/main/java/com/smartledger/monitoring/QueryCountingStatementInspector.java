@@ -0,0 +1,16 @@
+package com.smartledger.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Feeds every statement Hibernate prepares, including native queries, into
+ * {@link QueryCounter}. The SQL itself is passed through unchanged.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.increment();
+        return sql;
+    }
+}
@@ -0,0 +1,50 @@
+package com.smartledger.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A call of a {@code TransactionService} operation, so that samples and I/O in a
+ * recording can be tied to the operation and user they served. The duration covers the
+ * method body; the commit of its database transaction comes after it.
+ */
+@Name("smartledger.TransactionOperation")
+@Label("Transaction Operation")
+@Category({"Smart Ledger", "Transactions"})
+@Description("A transaction service call with its user and number of rows")
+@StackTrace(false)
+public class TransactionOperationEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Rows")
+    @Description("Transactions returned or written")
+    public int rows;
+
+    public static TransactionOperationEvent begin(String operation) {
+        TransactionOperationEvent event = new TransactionOperationEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event and commits it if it passes the recording's threshold. Failed calls
+     * are not recorded.
+     */
+    public void complete(long userId, int rows) {
+        end();
+        if (shouldCommit()) {
+            this.userId = userId;
+            this.rows = rows;
+            commit();
+        }
+    }
+}
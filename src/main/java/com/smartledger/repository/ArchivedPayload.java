@@ -0,0 +1,9 @@
+package com.smartledger.repository;
+
+/**
+ * The compressed rows of one archive segment, read without loading the segment entity.
+ */
+public record ArchivedPayload(
+        Long userId,
+        byte[] payload
+) {}
@@ -0,0 +1,6 @@
+package com.smartledger.repository;
+
+public record ArchivedRowCount(
+        Long userId,
+        Long count
+) {}
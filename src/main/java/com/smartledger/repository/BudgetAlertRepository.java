@@ -0,0 +1,36 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.BudgetAlert;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface BudgetAlertRepository extends JpaRepository<BudgetAlert, Long> {
+
+    List<BudgetAlert> findByUserIdAndMonthOrderByIdAsc(Long userId, LocalDate month);
+
+    /**
+     * Records a crossed threshold unless it already alerted this month, without failing
+     * the surrounding transaction write.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO budget_alerts (budget_id, user_id, category, month, threshold_percent, spent, monthly_limit, created_at)
+            VALUES (:budgetId, :userId, :category, :month, :thresholdPercent, :spent, :monthlyLimit, CURRENT_TIMESTAMP)
+            ON CONFLICT (budget_id, month, threshold_percent) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("budgetId") Long budgetId,
+                       @Param("userId") Long userId,
+                       @Param("category") String category,
+                       @Param("month") LocalDate month,
+                       @Param("thresholdPercent") int thresholdPercent,
+                       @Param("spent") BigDecimal spent,
+                       @Param("monthlyLimit") BigDecimal monthlyLimit);
+}
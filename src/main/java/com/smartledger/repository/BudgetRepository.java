@@ -0,0 +1,27 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.Budget;
+import com.smartledger.entity.Category;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BudgetRepository extends JpaRepository<Budget, Long> {
+
+    Optional<Budget> findByUserIdAndCategory(Long userId, Category category);
+
+    List<Budget> findByUserIdOrderByCategoryAsc(Long userId);
+
+    @Query("SELECT new com.smartledger.repository.BudgetStatusView(b, s.spent) FROM Budget b " +
+            "LEFT JOIN BudgetSpend s ON s.id.userId = b.userId AND s.id.category = b.category AND s.id.month = :month " +
+            "WHERE b.userId = :userId AND b.category = :category")
+    Optional<BudgetStatusView> findStatus(@Param("userId") Long userId,
+                                          @Param("category") Category category,
+                                          @Param("month") LocalDate month);
+}
@@ -0,0 +1,32 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.BudgetSpend;
+import com.smartledger.entity.BudgetSpendId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Repository
+public interface BudgetSpendRepository extends JpaRepository<BudgetSpend, BudgetSpendId> {
+
+    /**
+     * Atomically adds {@code delta} to the accumulator, creating it if needed, and returns
+     * the new total. The row lock taken by the upsert serializes concurrent writers of the
+     * same user, category and month until commit.
+     */
+    @Query(value = """
+            INSERT INTO budget_spend (user_id, category, month, spent)
+            VALUES (:userId, :category, :month, :delta)
+            ON CONFLICT (user_id, category, month)
+            DO UPDATE SET spent = budget_spend.spent + EXCLUDED.spent
+            RETURNING spent
+            """, nativeQuery = true)
+    BigDecimal addAndGet(@Param("userId") Long userId,
+                         @Param("category") String category,
+                         @Param("month") LocalDate month,
+                         @Param("delta") BigDecimal delta);
+}
@@ -0,0 +1,14 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.Budget;
+
+import java.math.BigDecimal;
+
+/**
+ * A budget joined with its spend accumulator for one month; {@code spent} is null
+ * when nothing has been spent in that month yet.
+ */
+public record BudgetStatusView(
+        Budget budget,
+        BigDecimal spent
+) {}
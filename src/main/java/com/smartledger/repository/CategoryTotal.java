@@ -0,0 +1,13 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.Category;
+import com.smartledger.entity.TransactionType;
+
+import java.math.BigDecimal;
+
+public record CategoryTotal(
+        TransactionType type,
+        Category category,
+        BigDecimal total,
+        Long count
+) {}
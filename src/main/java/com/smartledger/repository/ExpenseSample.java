@@ -0,0 +1,15 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.Category;
+
+import java.math.BigDecimal;
+
+/**
+ * An expense as fed to the spending profiles when they are rebuilt from history.
+ */
+public record ExpenseSample(
+        Long userId,
+        Long id,
+        Category category,
+        BigDecimal amount
+) {}
@@ -0,0 +1,17 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.Category;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The fields of a transaction that make up its duplicate fingerprint.
+ */
+public record FingerprintRow(
+        Long id,
+        BigDecimal amount,
+        LocalDate date,
+        Category category,
+        String description
+) {}
@@ -0,0 +1,37 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.LedgerEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LedgerEventRepository extends JpaRepository<LedgerEvent, Long> {
+
+    List<LedgerEvent> findByTransactionIdAndUserIdOrderByIdAsc(Long transactionId, Long userId);
+
+    List<LedgerEvent> findByUserIdAndTransactionIdInOrderByIdAsc(Long userId, Collection<Long> transactionIds);
+
+    /**
+     * Claims the oldest unpublished events. Rows locked by another relay instance are
+     * skipped, so several instances can drain the outbox concurrently.
+     */
+    @Query(value = """
+            SELECT * FROM ledger_events
+            WHERE published_at IS NULL
+            ORDER BY id
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<LedgerEvent> lockUnpublishedBatch(@Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query("UPDATE LedgerEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+}
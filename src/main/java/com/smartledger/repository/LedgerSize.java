@@ -0,0 +1,9 @@
+package com.smartledger.repository;
+
+import java.math.BigDecimal;
+
+public record LedgerSize(
+        Long userId,
+        Long count,
+        BigDecimal total
+) {}
@@ -0,0 +1,14 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.Category;
+import com.smartledger.entity.TransactionType;
+
+import java.math.BigDecimal;
+
+public record MonthlyTotal(
+        Integer year,
+        Integer month,
+        TransactionType type,
+        Category category,
+        BigDecimal total
+) {}
@@ -0,0 +1,15 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.Category;
+import com.smartledger.entity.TransactionType;
+
+import java.math.BigDecimal;
+
+public record MonthlyVolume(
+        Integer year,
+        Integer month,
+        TransactionType type,
+        Category category,
+        Long count,
+        BigDecimal total
+) {}
@@ -0,0 +1,21 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.TransactionArchiveRecord;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+/**
+ * Non-blocking counterpart of the segment lookups of {@link TransactionArchiveRepository}.
+ */
+@Repository
+public interface ReactiveTransactionArchiveRepository extends R2dbcRepository<TransactionArchiveRecord, Long> {
+
+    Flux<TransactionArchiveRecord> findByUserIdAndMonthBetweenOrderByMonthDesc(Long userId, LocalDate fromMonth,
+                                                                              LocalDate toMonth);
+
+    Flux<TransactionArchiveRecord> findByUserIdAndMinIdLessThanEqualAndMaxIdGreaterThanEqual(Long userId, Long id,
+                                                                                            Long sameId);
+}
@@ -0,0 +1,25 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.TransactionRecord;
+import com.smartledger.entity.TransactionType;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Non-blocking counterpart of the read queries of {@link TransactionRepository}.
+ */
+@Repository
+public interface ReactiveTransactionRepository extends R2dbcRepository<TransactionRecord, Long> {
+
+    Flux<TransactionRecord> findByUserIdOrderByDateDesc(Long userId);
+
+    Flux<TransactionRecord> findByUserIdAndTypeOrderByDateDesc(Long userId, TransactionType type);
+
+    Flux<TransactionRecord> findByUserIdAndDateBetweenOrderByDateDesc(Long userId, LocalDate startDate, LocalDate endDate);
+
+    Mono<TransactionRecord> findByIdAndUserId(Long id, Long userId);
+}
@@ -0,0 +1,38 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.RefreshToken;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Locks the row so that two concurrent refreshes with the same token cannot both rotate it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RefreshToken r WHERE r.tokenHash = :tokenHash")
+    Optional<RefreshToken> lockByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Sessions of the user that still matter: refresh tokens that can still be used, and
+     * rotated ones whose access token has not expired yet.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RefreshToken r WHERE r.userId = :userId " +
+            "AND (r.accessExpiresAt > :now OR (r.revokedAt IS NULL AND r.expiresAt > :now))")
+    List<RefreshToken> lockLiveByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :before")
+    int deleteExpired(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,73 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.ReportJob;
+import com.smartledger.entity.ReportStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, UUID> {
+
+    Optional<ReportJob> findByIdAndUserId(UUID id, Long userId);
+
+    /**
+     * Moves a queued job to running. Returns 0 if it is no longer queued, i.e. it was
+     * failed as abandoned meanwhile.
+     */
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = com.smartledger.entity.ReportStatus.RUNNING, j.totalRows = :totalRows, "
+            + "j.heartbeatAt = :now WHERE j.id = :id AND j.status = com.smartledger.entity.ReportStatus.QUEUED")
+    int start(@Param("id") UUID id, @Param("totalRows") Long totalRows, @Param("now") LocalDateTime now);
+
+    /**
+     * Records progress and a sign of life for a job that is still queued or running.
+     */
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.heartbeatAt = :now, j.processedRows = :processedRows "
+            + "WHERE j.id = :id AND j.status IN :statuses")
+    int heartbeat(@Param("id") UUID id,
+                  @Param("processedRows") long processedRows,
+                  @Param("statuses") Collection<ReportStatus> statuses,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * Completes a running job with its report. Returns 0 if it is no longer running, i.e. it
+     * was failed as abandoned meanwhile.
+     */
+    @Modifying
+    @Query(value = "UPDATE report_jobs SET status = 'COMPLETED', processed_rows = :processedRows, content = :content, "
+            + "file_size = :fileSize, completed_at = :now WHERE id = :id AND status = 'RUNNING'", nativeQuery = true)
+    int complete(@Param("id") UUID id,
+                 @Param("processedRows") long processedRows,
+                 @Param("content") byte[] content,
+                 @Param("fileSize") long fileSize,
+                 @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT content FROM report_jobs WHERE id = :id", nativeQuery = true)
+    byte[] findContentById(@Param("id") UUID id);
+
+    @Modifying
+    @Query("DELETE FROM ReportJob j WHERE j.status = :status AND j.completedAt < :before")
+    int deleteByStatusAndCompletedAtBefore(@Param("status") ReportStatus status, @Param("before") LocalDateTime before);
+
+    /**
+     * Marks jobs still in one of {@code statuses} whose last heartbeat is older than
+     * {@code before} as failed. Returns the number of jobs affected.
+     */
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = :failed, j.errorMessage = :message, j.completedAt = :now "
+            + "WHERE j.status IN :statuses AND j.heartbeatAt < :before")
+    int failStale(@Param("statuses") Collection<ReportStatus> statuses,
+                  @Param("before") LocalDateTime before,
+                  @Param("failed") ReportStatus failed,
+                  @Param("message") String message,
+                  @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,29 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, UUID> {
+
+    List<RevokedToken> findByRevokedAtGreaterThanEqualAndExpiresAtAfter(LocalDateTime revokedSince, LocalDateTime now);
+
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (jti, expires_at, revoked_at) VALUES (:jti, :expiresAt, :revokedAt) " +
+            "ON CONFLICT (jti) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("jti") UUID jti,
+                       @Param("expiresAt") LocalDateTime expiresAt,
+                       @Param("revokedAt") LocalDateTime revokedAt);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :before")
+    int deleteExpired(@Param("before") LocalDateTime before);
+}
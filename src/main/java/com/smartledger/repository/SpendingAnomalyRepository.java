@@ -0,0 +1,16 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.SpendingAnomaly;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SpendingAnomalyRepository extends JpaRepository<SpendingAnomaly, Long> {
+
+    List<SpendingAnomaly> findTop100ByUserIdOrderByIdDesc(Long userId);
+
+    List<SpendingAnomaly> findByUserIdAndTransactionIdIn(Long userId, Collection<Long> transactionIds);
+}
@@ -0,0 +1,31 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.SpendingProfileId;
+import com.smartledger.entity.SpendingProfileSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SpendingProfileSnapshotRepository extends JpaRepository<SpendingProfileSnapshot, SpendingProfileId> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO spending_profiles (user_id, category, mean_log, variance_log, samples, last_transaction_id, updated_at)
+            VALUES (:userId, :category, :mean, :variance, :samples, :lastTransactionId, CURRENT_TIMESTAMP)
+            ON CONFLICT (user_id, category)
+            DO UPDATE SET mean_log = EXCLUDED.mean_log,
+                          variance_log = EXCLUDED.variance_log,
+                          samples = EXCLUDED.samples,
+                          last_transaction_id = EXCLUDED.last_transaction_id,
+                          updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    int upsert(@Param("userId") Long userId,
+               @Param("category") String category,
+               @Param("mean") double mean,
+               @Param("variance") double variance,
+               @Param("samples") int samples,
+               @Param("lastTransactionId") long lastTransactionId);
+}
@@ -0,0 +1,56 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.TransactionArchiveSegment;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface TransactionArchiveRepository extends JpaRepository<TransactionArchiveSegment, Long> {
+
+    List<TransactionArchiveSegment> findByUserIdAndMonthBetweenOrderByMonthDesc(Long userId, LocalDate fromMonth,
+                                                                               LocalDate toMonth);
+
+    List<TransactionArchiveSegment> findByUserIdAndMinIdLessThanEqualAndMaxIdGreaterThanEqual(Long userId, Long id,
+                                                                                            Long sameId);
+
+    @Query("SELECT COALESCE(SUM(s.rowCount), 0) FROM TransactionArchiveSegment s " +
+            "WHERE s.userId = :userId AND s.month BETWEEN :fromMonth AND :toMonth")
+    long sumRowCount(@Param("userId") Long userId,
+                     @Param("fromMonth") LocalDate fromMonth,
+                     @Param("toMonth") LocalDate toMonth);
+
+    @Query("SELECT MAX(s.month) FROM TransactionArchiveSegment s")
+    Optional<LocalDate> findLatestMonth();
+
+    // Platform-wide statistics, scanned one range of user ids [fromUserId, toUserId) at a time
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.smartledger.repository.ArchivedPayload(s.userId, s.payload) " +
+            "FROM TransactionArchiveSegment s WHERE s.userId >= :fromUserId AND s.userId < :toUserId " +
+            "AND s.month BETWEEN :fromMonth AND :toMonth")
+    Stream<ArchivedPayload> streamPayloads(@Param("fromUserId") Long fromUserId,
+                                           @Param("toUserId") Long toUserId,
+                                           @Param("fromMonth") LocalDate fromMonth,
+                                           @Param("toMonth") LocalDate toMonth);
+
+    @Query("SELECT new com.smartledger.repository.ArchivedRowCount(s.userId, SUM(s.rowCount)) " +
+            "FROM TransactionArchiveSegment s WHERE s.userId >= :fromUserId AND s.userId < :toUserId " +
+            "GROUP BY s.userId")
+    List<ArchivedRowCount> countRowsByUser(@Param("fromUserId") Long fromUserId,
+                                           @Param("toUserId") Long toUserId);
+}
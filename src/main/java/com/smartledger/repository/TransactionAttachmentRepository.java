@@ -0,0 +1,33 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.TransactionAttachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TransactionAttachmentRepository extends JpaRepository<TransactionAttachment, Long> {
+
+    List<TransactionAttachment> findByTransactionIdAndUserIdOrderById(Long transactionId, Long userId);
+
+    List<TransactionAttachment> findByUserIdAndTransactionIdInOrderById(Long userId, Collection<Long> transactionIds);
+
+    Optional<TransactionAttachment> findByIdAndTransactionIdAndUserId(Long id, Long transactionId, Long userId);
+
+    @Modifying
+    @Query("DELETE FROM TransactionAttachment a WHERE a.transactionId = :transactionId")
+    int deleteByTransactionId(@Param("transactionId") Long transactionId);
+
+    /**
+     * Takes the shared lock on stored content until the end of the transaction; the sweep
+     * takes the exclusive one, keyed by the first 64 bits of the hash.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock_shared(:key)", nativeQuery = true)
+    Integer lockContentShared(@Param("key") long key);
+}
@@ -0,0 +1,26 @@
+package com.smartledger.repository;
+
+import com.smartledger.dto.TransactionField;
+import com.smartledger.dto.TransactionResponse;
+import com.smartledger.entity.TransactionType;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Reads of selected transaction columns only. Returned responses carry the requested
+ * fields; every other field is null.
+ */
+public interface TransactionFieldQueries {
+
+    /**
+     * Transactions of the user, newest first, optionally of one type and within a date
+     * range (null bounds are open), at most {@code limit} of them unless it is null.
+     */
+    List<TransactionResponse> findFields(Long userId, Set<TransactionField> fields, TransactionType type,
+                                         LocalDate startDate, LocalDate endDate, Integer limit);
+
+    Optional<TransactionResponse> findFieldsById(Long id, Long userId, Set<TransactionField> fields);
+}
@@ -0,0 +1,122 @@
+package com.smartledger.repository;
+
+import com.smartledger.dto.TransactionField;
+import com.smartledger.dto.TransactionResponse;
+import com.smartledger.entity.Category;
+import com.smartledger.entity.Transaction;
+import com.smartledger.entity.TransactionType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Builds a tuple query selecting only the columns of the requested fields, so no entity
+ * is loaded. The id is always selected; the user id is known and never read.
+ */
+public class TransactionFieldQueriesImpl implements TransactionFieldQueries {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TransactionResponse> findFields(Long userId, Set<TransactionField> fields, TransactionType type,
+                                                LocalDate startDate, LocalDate endDate, Integer limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Transaction> transaction = query.from(Transaction.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(transaction.get("user").get("id"), userId));
+        if (type != null) {
+            predicates.add(cb.equal(transaction.get("type"), type));
+        }
+        if (startDate != null) {
+            predicates.add(cb.greaterThanOrEqualTo(transaction.get("date"), startDate));
+        }
+        if (endDate != null) {
+            predicates.add(cb.lessThanOrEqualTo(transaction.get("date"), endDate));
+        }
+        query.multiselect(selections(transaction, fields))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(transaction.get("date")));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (limit != null) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultStream()
+                .map(row -> toResponse(row, userId, fields))
+                .toList();
+    }
+
+    @Override
+    public Optional<TransactionResponse> findFieldsById(Long id, Long userId, Set<TransactionField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Transaction> transaction = query.from(Transaction.class);
+        query.multiselect(selections(transaction, fields))
+                .where(cb.equal(transaction.get("id"), id), cb.equal(transaction.get("user").get("id"), userId));
+
+        return entityManager.createQuery(query).getResultStream()
+                .findFirst()
+                .map(row -> toResponse(row, userId, fields));
+    }
+
+    private static List<Selection<?>> selections(Root<Transaction> transaction, Set<TransactionField> fields) {
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(transaction.get("id").alias(TransactionField.ID.name()));
+        for (TransactionField field : fields) {
+            String attribute = attribute(field);
+            if (field != TransactionField.ID && attribute != null) {
+                selections.add(transaction.get(attribute).alias(field.name()));
+            }
+        }
+        return selections;
+    }
+
+    private static String attribute(TransactionField field) {
+        return switch (field) {
+            case ID -> "id";
+            case USER_ID -> null;
+            case TYPE -> "type";
+            case CATEGORY -> "category";
+            case AMOUNT -> "amount";
+            case DATE -> "date";
+            case DESCRIPTION -> "description";
+            case CREATED_AT -> "createdAt";
+            case UPDATED_AT -> "updatedAt";
+        };
+    }
+
+    private static TransactionResponse toResponse(Tuple row, Long userId, Set<TransactionField> fields) {
+        return new TransactionResponse(
+                row.get(TransactionField.ID.name(), Long.class),
+                fields.contains(TransactionField.USER_ID) ? userId : null,
+                get(row, fields, TransactionField.TYPE, TransactionType.class),
+                get(row, fields, TransactionField.CATEGORY, Category.class),
+                get(row, fields, TransactionField.AMOUNT, BigDecimal.class),
+                get(row, fields, TransactionField.DATE, LocalDate.class),
+                get(row, fields, TransactionField.DESCRIPTION, String.class),
+                get(row, fields, TransactionField.CREATED_AT, LocalDateTime.class),
+                get(row, fields, TransactionField.UPDATED_AT, LocalDateTime.class)
+        );
+    }
+
+    private static <T> T get(Tuple row, Set<TransactionField> fields, TransactionField field, Class<T> type) {
+        return fields.contains(field) ? row.get(field.name(), type) : null;
+    }
+}
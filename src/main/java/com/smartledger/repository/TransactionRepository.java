@@ -1,16 +1,30 @@
 package com.smartledger.repository;
 
+import com.smartledger.cache.LedgerRow;
+import com.smartledger.entity.Category;
 import com.smartledger.entity.Transaction;
 import com.smartledger.entity.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionFieldQueries {
 
     List<Transaction> findByUserIdOrderByDateDesc(Long userId);
 
@@ -21,4 +35,120 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     Optional<Transaction> findByIdAndUserId(Long id, Long userId);
 
     void deleteByIdAndUserId(Long id, Long userId);
+
+    List<Transaction> findByUserIdAndChangeSeqGreaterThanOrderByChangeSeq(Long userId, Long since, Limit limit);
+
+    @Query("SELECT new com.smartledger.cache.LedgerRow(t.id, t.amount, t.date, t.category, t.type) " +
+            "FROM Transaction t WHERE t.user.id = :userId")
+    List<LedgerRow> findLedgerRowsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Streams rows through a server-side cursor; must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.smartledger.cache.LedgerRow(t.id, t.amount, t.date, t.category, t.type) " +
+            "FROM Transaction t WHERE t.user.id = :userId AND t.date BETWEEN :startDate AND :endDate")
+    Stream<LedgerRow> streamLedgerRows(@Param("userId") Long userId,
+                                       @Param("startDate") LocalDate startDate,
+                                       @Param("endDate") LocalDate endDate);
+
+    /**
+     * Streams the expenses of one partition of users ({@code user_id mod partitions}) that
+     * are not yet folded into the user's persisted spending profile, in user and id order.
+     * Must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.smartledger.repository.ExpenseSample(t.user.id, t.id, t.category, t.amount) " +
+            "FROM Transaction t LEFT JOIN SpendingProfileSnapshot p " +
+            "ON p.id.userId = t.user.id AND FUNCTION('transaction_category_code', p.id.category) = t.category " +
+            "WHERE t.type = com.smartledger.entity.TransactionType.EXPENSE " +
+            "AND MOD(t.user.id, :partitions) = :partition " +
+            "AND t.id > COALESCE(p.lastTransactionId, 0) " +
+            "ORDER BY t.user.id, t.id")
+    Stream<ExpenseSample> streamUnprofiledExpenses(@Param("partitions") int partitions,
+                                                   @Param("partition") int partition);
+
+    @Query("SELECT new com.smartledger.repository.FingerprintRow(t.id, t.amount, t.date, t.category, t.description) " +
+            "FROM Transaction t WHERE t.user.id = :userId AND t.createdAt >= :since")
+    List<FingerprintRow> findFingerprintRows(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    @Query("SELECT new com.smartledger.repository.FingerprintRow(t.id, t.amount, t.date, t.category, t.description) " +
+            "FROM Transaction t WHERE t.user.id = :userId AND t.date = :date AND t.amount = :amount " +
+            "AND t.category = :category AND t.createdAt >= :since")
+    List<FingerprintRow> findDuplicateCandidates(@Param("userId") Long userId,
+                                                 @Param("date") LocalDate date,
+                                                 @Param("amount") BigDecimal amount,
+                                                 @Param("category") Category category,
+                                                 @Param("since") LocalDateTime since);
+
+    long countByUserIdAndDateBetween(Long userId, LocalDate startDate, LocalDate endDate);
+
+    @Query("SELECT new com.smartledger.repository.CategoryTotal(t.type, t.category, SUM(t.amount), COUNT(t)) " +
+            "FROM Transaction t WHERE t.user.id = :userId AND t.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY t.type, t.category")
+    List<CategoryTotal> sumByTypeAndCategory(@Param("userId") Long userId,
+                                             @Param("startDate") LocalDate startDate,
+                                             @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.smartledger.repository.MonthlyTotal(" +
+            "EXTRACT(YEAR FROM t.date), EXTRACT(MONTH FROM t.date), t.type, t.category, SUM(t.amount)) " +
+            "FROM Transaction t WHERE t.user.id = :userId AND t.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY EXTRACT(YEAR FROM t.date), EXTRACT(MONTH FROM t.date), t.type, t.category")
+    List<MonthlyTotal> sumByMonth(@Param("userId") Long userId,
+                                  @Param("startDate") LocalDate startDate,
+                                  @Param("endDate") LocalDate endDate);
+
+    // Platform-wide statistics, scanned one range of user ids [fromUserId, toUserId) at a time
+
+    @Query("SELECT COUNT(DISTINCT t.user.id) FROM Transaction t " +
+            "WHERE t.user.id >= :fromUserId AND t.user.id < :toUserId AND t.date >= :since")
+    long countActiveUsers(@Param("fromUserId") Long fromUserId,
+                          @Param("toUserId") Long toUserId,
+                          @Param("since") LocalDate since);
+
+    @Query("SELECT DISTINCT t.user.id FROM Transaction t " +
+            "WHERE t.user.id >= :fromUserId AND t.user.id < :toUserId AND t.date >= :since")
+    List<Long> findActiveUserIds(@Param("fromUserId") Long fromUserId,
+                                 @Param("toUserId") Long toUserId,
+                                 @Param("since") LocalDate since);
+
+    @Query("SELECT new com.smartledger.repository.MonthlyVolume(" +
+            "EXTRACT(YEAR FROM t.date), EXTRACT(MONTH FROM t.date), t.type, t.category, COUNT(t), SUM(t.amount)) " +
+            "FROM Transaction t WHERE t.user.id >= :fromUserId AND t.user.id < :toUserId " +
+            "AND t.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY EXTRACT(YEAR FROM t.date), EXTRACT(MONTH FROM t.date), t.type, t.category")
+    List<MonthlyVolume> sumVolumesByMonth(@Param("fromUserId") Long fromUserId,
+                                          @Param("toUserId") Long toUserId,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.smartledger.repository.LedgerSize(t.user.id, COUNT(t), SUM(t.amount)) " +
+            "FROM Transaction t WHERE t.user.id >= :fromUserId AND t.user.id < :toUserId " +
+            "GROUP BY t.user.id ORDER BY COUNT(t) DESC, t.user.id")
+    List<LedgerSize> findLargestLedgers(@Param("fromUserId") Long fromUserId,
+                                        @Param("toUserId") Long toUserId,
+                                        Limit limit);
+
+    @Query("SELECT DISTINCT t.user.id FROM Transaction t WHERE t.date < :before")
+    List<Long> findUserIdsWithTransactionsBefore(@Param("before") LocalDate before);
+
+    /**
+     * Claims the user's oldest rows for archival; rows locked by a concurrent write are
+     * skipped and picked up by a later run.
+     */
+    @Query(value = "SELECT * FROM transactions WHERE user_id = :userId AND date < :before " +
+            "ORDER BY date, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Transaction> lockArchivableBatch(@Param("userId") Long userId,
+                                          @Param("before") LocalDate before,
+                                          @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,55 @@
+package com.smartledger.repository;
+
+import com.smartledger.entity.TransactionTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TransactionTombstoneRepository extends JpaRepository<TransactionTombstone, Long> {
+
+    List<TransactionTombstone> findByUserIdAndChangeSeqGreaterThanOrderByChangeSeq(Long userId, Long since, Limit limit);
+
+    /**
+     * Records a deletion; the database assigns the change sequence number and deletion time.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO transaction_tombstones (id, user_id) VALUES (:id, :userId)", nativeQuery = true)
+    int insert(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Last change sequence number handed out to the user, 0 before the first change.
+     */
+    @Query(value = "SELECT COALESCE((SELECT change_seq FROM transaction_sync_state WHERE user_id = :userId), 0)",
+            nativeQuery = true)
+    long findChangeSeq(@Param("userId") Long userId);
+
+    /**
+     * Change sequence number up to which tombstones of the user may have been purged;
+     * clients that synced before it can no longer learn about every deletion.
+     */
+    @Query(value = "SELECT COALESCE((SELECT purged_seq FROM transaction_sync_state WHERE user_id = :userId), 0)",
+            nativeQuery = true)
+    long findPurgedSeq(@Param("userId") Long userId);
+
+    /**
+     * Deletes tombstones older than {@code before} and moves each affected user's
+     * {@code purged_seq} past them, in one statement. Returns the number of users affected.
+     */
+    @Modifying
+    @Query(value = """
+            WITH purged AS (
+                DELETE FROM transaction_tombstones WHERE deleted_at < :before RETURNING user_id, change_seq
+            )
+            UPDATE transaction_sync_state s SET purged_seq = GREATEST(s.purged_seq, p.change_seq)
+            FROM (SELECT user_id, MAX(change_seq) AS change_seq FROM purged GROUP BY user_id) p
+            WHERE s.user_id = p.user_id
+            """, nativeQuery = true)
+    int purgeDeletedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,14 +1,25 @@
 package com.smartledger.repository;
 
 import com.smartledger.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Roles are eager: fetch them in the same statement instead of a second select
+    @EntityGraph(attributePaths = "roles")
     Optional<User> findByUsername(String username);
+    // Owners of a batch of transactions, for GraphQL's Transaction.user
+    @EntityGraph(attributePaths = "roles")
+    List<User> findByIdIn(Collection<Long> ids);
+    @Query("SELECT COALESCE(MAX(u.id), 0) FROM User u")
+    long findMaxId();
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
 }
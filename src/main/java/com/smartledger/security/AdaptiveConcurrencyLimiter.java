@@ -0,0 +1,146 @@
+package com.smartledger.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows measured latency, in the style of a gradient limiter.
+ * Latencies are averaged over short windows; each window's average is compared with a
+ * slowly moving baseline. While latency stays within {@code tolerance} of the baseline the
+ * limit grows by about the square root of itself per window, once requests queue up
+ * (latency rises) it shrinks in proportion, and a failed request cuts it by
+ * {@link #BACKOFF_RATIO}. The limit never leaves {@code [minLimit, maxLimit]}.
+ *
+ * <p>{@link #tryAcquire()} never blocks: a request over the limit is refused at once so
+ * the caller can shed it instead of queueing.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    static final double BACKOFF_RATIO = 0.9;
+
+    /** Weight of a window in the baseline latency. */
+    private static final double BASELINE_SMOOTHING = 0.05;
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int WINDOW_MIN_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    // Window state, guarded by this
+    private double estimatedLimit;
+    private double baselineRtt;
+    private long windowStart;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (smoothing <= 0 || smoothing > 1 || tolerance < 1) {
+            throw new IllegalArgumentException("Smoothing must be in (0, 1] and tolerance at least 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * Takes a slot if fewer than {@link #getLimit()} requests are in flight. Every
+     * successful call must be paired with one {@link #release}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees the slot of a finished request and feeds its latency to the limit.
+     * {@code dropped} marks requests that failed, e.g. timed out waiting for a connection.
+     */
+    public void release(long latencyNanos, boolean dropped) {
+        release(latencyNanos, dropped, System.nanoTime());
+    }
+
+    void release(long latencyNanos, boolean dropped, long nowNanos) {
+        int before = inFlight.getAndDecrement();
+        sample(latencyNanos, before, dropped, nowNanos);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void sample(long latencyNanos, int inFlightAtRelease, boolean dropped, long nowNanos) {
+        if (windowSamples == 0) {
+            windowStart = nowNanos;
+        }
+        windowRttSum += latencyNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtRelease);
+        windowDropped |= dropped;
+
+        if (nowNanos - windowStart < WINDOW_NANOS || windowSamples < WINDOW_MIN_SAMPLES) {
+            return;
+        }
+        update();
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+        windowDropped = false;
+    }
+
+    private void update() {
+        if (windowDropped) {
+            setLimit(estimatedLimit * BACKOFF_RATIO);
+            return;
+        }
+
+        double windowRtt = (double) windowRttSum / windowSamples;
+        if (baselineRtt == 0) {
+            baselineRtt = windowRtt;
+        } else {
+            baselineRtt = baselineRtt * (1 - BASELINE_SMOOTHING) + windowRtt * BASELINE_SMOOTHING;
+            if (baselineRtt > windowRtt * 2) {
+                // Latency fell well below the baseline, e.g. after a slow spell: catch up faster
+                baselineRtt = (baselineRtt + windowRtt) / 2;
+            }
+        }
+
+        // Too little traffic to tell whether a higher limit would hold
+        if (windowMaxInFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineRtt / windowRtt));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        setLimit(estimatedLimit * (1 - smoothing) + target * smoothing);
+    }
+
+    private void setLimit(double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
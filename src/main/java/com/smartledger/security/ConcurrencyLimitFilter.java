@@ -0,0 +1,193 @@
+package com.smartledger.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartledger.exception.GlobalExceptionHandler.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Load shedding for the database-heavy endpoints. Reads ({@code GET}) and writes go
+ * through separate {@link AdaptiveConcurrencyLimiter}s, so a burst of slow writes cannot
+ * starve reads and the other way round. A request over its bulkhead's limit is answered
+ * at once with a 503 and {@code Retry-After}, before it can take a database connection.
+ * Paths under {@code concurrency-limit.excluded-paths}, by default attachment transfers,
+ * bypass the limiters: their latency is set by the client's bandwidth rather than the
+ * database, and would pull the limit down for every other request.
+ *
+ * <p>Unlike {@link RateLimitFilter} this protects the service as a whole, not a fair share
+ * per user. Limits, in-flight counts and rejections are published as
+ * {@code smartledger.concurrency.*} metrics tagged with the bulkhead.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final Counter readRejections;
+    private final Counter writeRejections;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final List<String> pathPrefixes;
+    private final List<String> excludedPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public ConcurrencyLimitFilter(ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${concurrency-limit.enabled:true}") boolean enabled,
+                                  @Value("${concurrency-limit.path-prefixes:/transactions}") List<String> pathPrefixes,
+                                  @Value("${concurrency-limit.excluded-paths:/transactions/*/attachments/**}") List<String> excludedPaths,
+                                  @Value("${concurrency-limit.smoothing:0.2}") double smoothing,
+                                  @Value("${concurrency-limit.tolerance:1.5}") double tolerance,
+                                  @Value("${concurrency-limit.reads.initial-limit:20}") int readInitial,
+                                  @Value("${concurrency-limit.reads.min-limit:4}") int readMin,
+                                  @Value("${concurrency-limit.reads.max-limit:200}") int readMax,
+                                  @Value("${concurrency-limit.writes.initial-limit:10}") int writeInitial,
+                                  @Value("${concurrency-limit.writes.min-limit:2}") int writeMin,
+                                  @Value("${concurrency-limit.writes.max-limit:100}") int writeMax) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.pathPrefixes = pathPrefixes;
+        this.excludedPaths = excludedPaths;
+        this.readLimiter = new AdaptiveConcurrencyLimiter(readInitial, readMin, readMax, smoothing, tolerance);
+        this.writeLimiter = new AdaptiveConcurrencyLimiter(writeInitial, writeMin, writeMax, smoothing, tolerance);
+        this.readRejections = register(meterRegistry, "read", readLimiter);
+        this.writeRejections = register(meterRegistry, "write", writeLimiter);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || "OPTIONS".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return pathPrefixes.stream().noneMatch(path::startsWith)
+                || excludedPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        // Unauthenticated calls are rejected further down the chain without any database work
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String method = request.getMethod();
+        boolean read = "GET".equals(method) || "HEAD".equals(method);
+        AdaptiveConcurrencyLimiter limiter = read ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire()) {
+            (read ? readRejections : writeRejections).increment();
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (completed && request.isAsyncStarted()) {
+                // Streamed responses hold their slot until the stream ends
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(limiter, start));
+            } else {
+                limiter.release(System.nanoTime() - start, !completed || isServerError(response));
+            }
+        }
+    }
+
+    private static boolean isServerError(HttpServletResponse response) {
+        return response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+    }
+
+    private static Counter register(MeterRegistry registry, String bulkhead, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("smartledger.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("bulkhead", bulkhead)
+                .register(registry);
+        Gauge.builder("smartledger.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently holding a slot")
+                .tag("bulkhead", bulkhead)
+                .register(registry);
+        return Counter.builder("smartledger.concurrency.rejected")
+                .description("Requests shed because the limit was reached")
+                .tag("bulkhead", bulkhead)
+                .register(registry);
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", Long.toString(RETRY_AFTER_SECONDS));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Server busy, retry shortly",
+                LocalDateTime.now()
+        );
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static final class ReleaseOnCompletion implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleaseOnCompletion(AdaptiveConcurrencyLimiter limiter, long start) {
+            this.limiter = limiter;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(isServerError((HttpServletResponse) event.getSuppliedResponse()));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        // A timeout or error is followed by completion; only the first counts
+        private void release(boolean dropped) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - start, dropped);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.smartledger.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A signed access token together with the claims needed to revoke it.
+ */
+public record IssuedToken(
+        String token,
+        UUID jti,
+        Instant expiresAt
+) {}
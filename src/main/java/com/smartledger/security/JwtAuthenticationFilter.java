@@ -1,5 +1,6 @@
 package com.smartledger.security;
 
+import com.smartledger.monitoring.JwtAuthenticationEvent;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +10,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -23,43 +23,71 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final RevokedTokenSet revokedTokenSet;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, PrincipalCache principalCache,
+                                   RevokedTokenSet revokedTokenSet) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.revokedTokenSet = revokedTokenSet;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
+        JwtAuthenticationEvent event = new JwtAuthenticationEvent();
+        event.begin();
+        Outcome outcome = authenticate(request);
+        event.end();
+        if (event.shouldCommit()) {
+            event.outcome = outcome.name();
+            event.path = request.getServletPath();
+            event.commit();
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private Outcome authenticate(HttpServletRequest request) {
         try {
             String jwt = getJwtFromRequest(request);
+            if (!StringUtils.hasText(jwt)) {
+                return Outcome.NO_TOKEN;
+            }
 
-            if (StringUtils.hasText(jwt)) {
-                String username = jwtUtil.extractUsername(jwt);
+            // Revocation is an in-memory lookup; see RevokedTokenSet
+            if (revokedTokenSet.isRevoked(jwtUtil.extractJti(jwt))) {
+                return Outcome.REVOKED;
+            }
 
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            String username = jwtUtil.extractUsername(jwt);
+            if (username == null) {
+                return Outcome.INVALID;
+            }
+            if (SecurityContextHolder.getContext().getAuthentication() != null) {
+                return Outcome.ALREADY_AUTHENTICATED;
+            }
 
-                    if (jwtUtil.validateToken(jwt, userDetails)) {
-                        UsernamePasswordAuthenticationToken authentication =
-                                new UsernamePasswordAuthenticationToken(
-                                        userDetails,
-                                        null,
-                                        userDetails.getAuthorities()
-                                );
-                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
-                    }
-                }
+            UserDetails userDetails = principalCache.load(username);
+            if (!jwtUtil.validateToken(jwt, userDetails)) {
+                return Outcome.INVALID;
             }
+
+            UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,
+                            userDetails.getAuthorities()
+                    );
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            return Outcome.AUTHENTICATED;
         } catch (Exception e) {
             log.error("Could not set user authentication in security context", e);
+            return Outcome.ERROR;
         }
-
-        filterChain.doFilter(request, response);
     }
 
     private String getJwtFromRequest(HttpServletRequest request) {
@@ -69,4 +97,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
+
+    private enum Outcome {
+        AUTHENTICATED, NO_TOKEN, REVOKED, INVALID, ALREADY_AUTHENTICATED, ERROR
+    }
 }
@@ -14,6 +14,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
@@ -39,6 +40,14 @@ public class JwtUtil {
         return extractClaim(token, Claims::getExpiration);
     }
 
+    /**
+     * The token id, or null for tokens issued before ids were introduced.
+     */
+    public UUID extractJti(String token) {
+        String id = extractClaim(token, Claims::getId);
+        return id != null ? UUID.fromString(id) : null;
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
@@ -57,17 +66,30 @@ public class JwtUtil {
     }
 
     public String generateToken(UserDetails userDetails) {
-        Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+        return issueToken(userDetails).token();
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
+    /**
+     * Issues a short-lived access token with a random id, by which it can be revoked.
+     */
+    public IssuedToken issueToken(UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>();
+        UUID jti = UUID.randomUUID();
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
+        return new IssuedToken(createToken(claims, userDetails.getUsername(), jti, now, expiryDate), jti,
+                expiryDate.toInstant());
+    }
+
+    public long getExpirationMillis() {
+        return expiration;
+    }
 
+    private String createToken(Map<String, Object> claims, String subject, UUID jti, Date now, Date expiryDate) {
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
+                .id(jti.toString())
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(getSigningKey())
@@ -0,0 +1,61 @@
+package com.smartledger.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartledger.cache.Invalidation;
+import com.smartledger.cache.InvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Principals of token-authenticated requests by username, so that with
+ * {@code jwt.principal-cache.enabled} a request with a valid access token needs no user
+ * lookup. Entries live at most {@code jwt.principal-cache.ttl} and are evicted on every
+ * node, through {@link InvalidationBus}, when the user's sessions are revoked. Login
+ * always reads the user, so passwords are never checked against a cached copy.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserDetailsService userDetailsService;
+    private final boolean enabled;
+    private final Cache<String, UserDetails> principals;
+
+    public PrincipalCache(UserDetailsService userDetailsService,
+                          @Value("${jwt.principal-cache.enabled:false}") boolean enabled,
+                          @Value("${jwt.principal-cache.ttl:PT5M}") Duration ttl,
+                          @Value("${jwt.principal-cache.max-size:10000}") long maxSize) {
+        this.userDetailsService = userDetailsService;
+        this.enabled = enabled;
+        this.principals = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public UserDetails load(String username) {
+        if (!enabled) {
+            return userDetailsService.loadUserByUsername(username);
+        }
+        return principals.get(username, userDetailsService::loadUserByUsername);
+    }
+
+    public void invalidate(String username) {
+        principals.invalidate(username);
+    }
+
+    @EventListener
+    public void onRemoteInvalidation(Invalidation.Principal invalidation) {
+        invalidate(invalidation.username());
+    }
+
+    @EventListener
+    public void onRemoteFlush(Invalidation.All flush) {
+        principals.invalidateAll();
+    }
+}
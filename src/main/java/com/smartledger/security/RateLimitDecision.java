@@ -0,0 +1,18 @@
+package com.smartledger.security;
+
+/**
+ * Outcome of a rate limit check, carrying what is needed for the {@code RateLimit-*} headers.
+ *
+ * @param allowed           whether the request may proceed
+ * @param limit             bucket capacity
+ * @param remaining         tokens left after this request
+ * @param resetSeconds      seconds until the bucket is full again
+ * @param retryAfterSeconds seconds until a token is available, 0 when allowed
+ */
+public record RateLimitDecision(
+        boolean allowed,
+        int limit,
+        int remaining,
+        long resetSeconds,
+        long retryAfterSeconds
+) {}
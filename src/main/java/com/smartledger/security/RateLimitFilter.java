@@ -0,0 +1,127 @@
+package com.smartledger.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartledger.exception.GlobalExceptionHandler.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Per-caller rate limiting, placed after {@link JwtAuthenticationFilter} so that reads and
+ * writes are keyed on the authenticated username. Login attempts are keyed on the client
+ * address since there is no user yet; token refreshes share their budget. Behind a trusted
+ * reverse proxy the address is the one it forwarded ({@code server.forward-headers-strategy}),
+ * so clients do not share the proxy's bucket. Every limited response carries the
+ * {@code RateLimit-Limit}, {@code RateLimit-Remaining} and {@code RateLimit-Reset} headers;
+ * rejected requests get a 429 with {@code Retry-After}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final Set<String> LOGIN_PATHS = Set.of("/auth/login", "/auth/refresh");
+
+    private final TokenBucketRateLimiter readLimiter;
+    private final TokenBucketRateLimiter writeLimiter;
+    private final TokenBucketRateLimiter loginLimiter;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public RateLimitFilter(ObjectMapper objectMapper,
+                           @Value("${rate-limit.enabled:true}") boolean enabled,
+                           @Value("${rate-limit.reads.capacity:120}") int readCapacity,
+                           @Value("${rate-limit.reads.refill-per-second:20}") double readRefill,
+                           @Value("${rate-limit.writes.capacity:30}") int writeCapacity,
+                           @Value("${rate-limit.writes.refill-per-second:5}") double writeRefill,
+                           @Value("${rate-limit.login.capacity:10}") int loginCapacity,
+                           @Value("${rate-limit.login.refill-per-second:0.2}") double loginRefill) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.readLimiter = new TokenBucketRateLimiter(readCapacity, readRefill);
+        this.writeLimiter = new TokenBucketRateLimiter(writeCapacity, writeRefill);
+        this.loginLimiter = new TokenBucketRateLimiter(loginCapacity, loginRefill);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RateLimitDecision decision = check(request, System.nanoTime());
+        if (decision == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        response.setHeader("RateLimit-Limit", Integer.toString(decision.limit()));
+        response.setHeader("RateLimit-Remaining", Integer.toString(decision.remaining()));
+        response.setHeader("RateLimit-Reset", Long.toString(decision.resetSeconds()));
+
+        if (!decision.allowed()) {
+            reject(response, decision);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Returns null for requests that are not rate limited: unauthenticated calls other
+     * than login, which the security chain rejects anyway, and the remaining public endpoints.
+     */
+    RateLimitDecision check(HttpServletRequest request, long nowNanos) {
+        if (LOGIN_PATHS.contains(request.getServletPath())) {
+            return loginLimiter.tryAcquire(request.getRemoteAddr(), nowNanos);
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+
+        String method = request.getMethod();
+        TokenBucketRateLimiter limiter = "GET".equals(method) || "HEAD".equals(method) ? readLimiter : writeLimiter;
+        return limiter.tryAcquire(authentication.getName(), nowNanos);
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        int evicted = readLimiter.evictIdle(now) + writeLimiter.evictIdle(now) + loginLimiter.evictIdle(now);
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+
+    private void reject(HttpServletResponse response, RateLimitDecision decision) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(decision.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too many requests, retry in " + decision.retryAfterSeconds() + " seconds",
+                LocalDateTime.now()
+        );
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
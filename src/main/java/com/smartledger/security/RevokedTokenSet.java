@@ -0,0 +1,125 @@
+package com.smartledger.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.smartledger.cache.Invalidation;
+import com.smartledger.cache.InvalidationBus;
+import com.smartledger.entity.RevokedToken;
+import com.smartledger.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ids of revoked access tokens that have not expired yet, checked by
+ * {@link JwtAuthenticationFilter} on every request without touching the database. Each
+ * entry is dropped when its token would have expired anyway, so the set only ever holds
+ * revocations of the last access-token lifetime.
+ *
+ * <p>The {@code revoked_tokens} table is the source of truth: the set is loaded from it
+ * on startup. Revocations made by other nodes arrive through {@link InvalidationBus} and,
+ * should a message be lost, are re-read from the table every
+ * {@code jwt.revocation.sync-interval-ms}.
+ */
+@Component
+public class RevokedTokenSet {
+
+    private static final Logger log = LoggerFactory.getLogger(RevokedTokenSet.class);
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /** Re-reads a little before the last sync, to cover revocations committed late. */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Cache<UUID, Instant> revoked = Caffeine.newBuilder()
+            .expireAfter(new Expiry<UUID, Instant>() {
+                @Override
+                public long expireAfterCreate(UUID jti, Instant expiresAt, long currentTime) {
+                    return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(UUID jti, Instant expiresAt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(UUID jti, Instant expiresAt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    private volatile LocalDateTime syncedUpTo = EPOCH;
+
+    public RevokedTokenSet(RevokedTokenRepository revokedTokenRepository, PlatformTransactionManager transactionManager) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public boolean isRevoked(UUID jti) {
+        return jti != null && revoked.getIfPresent(jti) != null;
+    }
+
+    /**
+     * Adds a revocation on this node; callers persist it first.
+     */
+    public void add(UUID jti, Instant expiresAt) {
+        if (expiresAt.isAfter(Instant.now())) {
+            revoked.put(jti, expiresAt);
+        }
+    }
+
+    public long size() {
+        return revoked.estimatedSize();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        sync();
+        log.info("Loaded {} revoked access tokens", size());
+    }
+
+    @EventListener
+    public void onRemoteRevocation(Invalidation.RevokedToken revocation) {
+        add(revocation.jti(), revocation.expiresAt());
+    }
+
+    // Nothing to drop: the set only grows from the table, so catch up with it instead
+    @EventListener
+    public void onRemoteFlush(Invalidation.All flush) {
+        sync();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:10000}")
+    public void sync() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime since = syncedUpTo.minus(SYNC_OVERLAP);
+            List<RevokedToken> rows = readOnlyTransaction.execute(status ->
+                    revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(since, now));
+            for (RevokedToken row : rows) {
+                add(row.getJti(), row.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant());
+            }
+            syncedUpTo = now;
+        } catch (Exception e) {
+            log.error("Syncing revoked access tokens failed, will retry on next run", e);
+        }
+    }
+}
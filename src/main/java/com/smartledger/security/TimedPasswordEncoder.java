@@ -0,0 +1,49 @@
+package com.smartledger.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Measures the time spent verifying password hashes on the current thread, so a login
+ * can report it apart from the user lookup. Verification is deliberately slow and is
+ * what a login mostly waits on.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private static final ThreadLocal<long[]> ELAPSED = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final PasswordEncoder delegate;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Returns the verification time accumulated on the current thread and resets it.
+     */
+    public static long takeElapsedNanos() {
+        long[] elapsed = ELAPSED.get();
+        long nanos = elapsed[0];
+        elapsed[0] = 0;
+        return nanos;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            ELAPSED.get()[0] += System.nanoTime() - start;
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,79 @@
+package com.smartledger.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token buckets keyed by caller.
+ *
+ * <p>Each bucket is a single {@link AtomicLong} holding its "theoretical arrival time"
+ * (GCRA, the virtual-scheduling form of a token bucket): the instant at which the bucket
+ * would be full again. Taking a token advances it by one emission interval with a CAS, so
+ * checks never block and never allocate a bucket after the first request of a key.
+ *
+ * <p>A bucket whose arrival time is in the past is full and indistinguishable from a new
+ * one, which makes idle eviction free of state loss.
+ */
+public final class TokenBucketRateLimiter {
+
+    private final int capacity;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param capacity        maximum burst, in requests
+     * @param refillPerSecond sustained rate, in requests per second
+     */
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacity and refill rate must be positive");
+        }
+        this.capacity = capacity;
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * capacity;
+    }
+
+    public RateLimitDecision tryAcquire(String key, long nowNanos) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+        }
+
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, nowNanos) + emissionIntervalNanos;
+            long backlog = next - nowNanos;
+
+            if (backlog > burstToleranceNanos) {
+                long wait = backlog - burstToleranceNanos;
+                return new RateLimitDecision(false, capacity, 0,
+                        toSeconds(arrival - nowNanos), toSeconds(wait));
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                int remaining = (int) ((burstToleranceNanos - backlog) / emissionIntervalNanos);
+                return new RateLimitDecision(true, capacity, remaining, toSeconds(backlog), 0);
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that have refilled completely. A request racing with the removal of
+     * its bucket may be granted one extra token.
+     */
+    public int evictIdle(long nowNanos) {
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() <= nowNanos);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private static long toSeconds(long nanos) {
+        return nanos <= 0 ? 0 : (nanos + 999_999_999L) / 1_000_000_000L;
+    }
+}
@@ -0,0 +1,188 @@
+package com.smartledger.service;
+
+import com.smartledger.cache.LedgerColumnCache;
+import com.smartledger.cache.LedgerColumns;
+import com.smartledger.dto.MonthlyTotalResponse;
+import com.smartledger.dto.TransactionSummaryResponse;
+import com.smartledger.entity.Category;
+import com.smartledger.entity.TransactionType;
+import com.smartledger.entity.User;
+import com.smartledger.repository.CategoryTotal;
+import com.smartledger.repository.MonthlyTotal;
+import com.smartledger.repository.TransactionRepository;
+import com.smartledger.repository.UserRepository;
+import com.smartledger.util.MinorUnits;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregations over a user's ledger. When the columnar ledger cache is enabled the
+ * totals are computed in memory from {@link LedgerColumns}; otherwise they are grouped
+ * in the database, plus archived transactions when the range reaches back past the archive
+ * horizon. Both paths accumulate whole cents so they produce identical results.
+ *
+ * <p>A series holds one bucket per month of its range, so ranges longer than
+ * {@code analytics.max-series-months} are refused.
+ */
+@Service
+public class AnalyticsService {
+
+    private static final Category[] CATEGORIES = Category.values();
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final TransactionArchiveService archiveService;
+    private final ObjectProvider<LedgerColumnCache> ledgerColumnCache;
+    private final int maxSeriesMonths;
+
+    public AnalyticsService(TransactionRepository transactionRepository,
+                            UserRepository userRepository,
+                            TransactionArchiveService archiveService,
+                            ObjectProvider<LedgerColumnCache> ledgerColumnCache,
+                            @Value("${analytics.max-series-months:240}") int maxSeriesMonths) {
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.archiveService = archiveService;
+        this.ledgerColumnCache = ledgerColumnCache;
+        this.maxSeriesMonths = maxSeriesMonths;
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionSummaryResponse getSummary(String username, LocalDate startDate, LocalDate endDate) {
+        validateRange(startDate, endDate);
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        long[] sums = new long[TYPES.length * CATEGORIES.length];
+        long[] counts = new long[sums.length];
+
+        LedgerColumnCache cache = ledgerColumnCache.getIfAvailable();
+        if (cache != null) {
+            cache.get(user.getId()).accumulate((int) startDate.toEpochDay(), (int) endDate.toEpochDay(),
+                    CATEGORIES.length, sums, counts);
+        } else {
+            for (CategoryTotal total : transactionRepository.sumByTypeAndCategory(user.getId(), startDate, endDate)) {
+                int cell = total.type().ordinal() * CATEGORIES.length + total.category().ordinal();
+                sums[cell] += MinorUnits.toMinor(total.total());
+                counts[cell] += total.count();
+            }
+            archiveService.forEach(user.getId(), startDate, endDate, row -> {
+                int cell = row.type().ordinal() * CATEGORIES.length + row.category().ordinal();
+                sums[cell] += MinorUnits.toMinor(row.amount());
+                counts[cell]++;
+            });
+        }
+
+        return toSummary(startDate, endDate, sums, counts);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MonthlyTotalResponse> getMonthlySeries(String username, LocalDate startDate, LocalDate endDate,
+                                                       Category category) {
+        validateRange(startDate, endDate);
+        YearMonth firstMonth = YearMonth.from(startDate);
+        long months = ChronoUnit.MONTHS.between(firstMonth, YearMonth.from(endDate)) + 1;
+        if (months > maxSeriesMonths) {
+            throw new RuntimeException("Series range must not exceed " + maxSeriesMonths + " months");
+        }
+        int monthCount = (int) months;
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        long[] sums = new long[monthCount * TYPES.length];
+
+        LedgerColumnCache cache = ledgerColumnCache.getIfAvailable();
+        if (cache != null) {
+            int[] bucketStarts = new int[monthCount];
+            bucketStarts[0] = (int) startDate.toEpochDay();
+            for (int i = 1; i < monthCount; i++) {
+                bucketStarts[i] = (int) firstMonth.plusMonths(i).atDay(1).toEpochDay();
+            }
+            int categoryFilter = category != null ? category.ordinal() : -1;
+            cache.get(user.getId()).accumulateSeries(bucketStarts, (int) endDate.toEpochDay(),
+                    TYPES.length, categoryFilter, sums);
+        } else {
+            for (MonthlyTotal total : transactionRepository.sumByMonth(user.getId(), startDate, endDate)) {
+                if (category != null && total.category() != category) {
+                    continue;
+                }
+                YearMonth month = YearMonth.of(total.year(), total.month());
+                int bucket = (int) ChronoUnit.MONTHS.between(firstMonth, month);
+                sums[bucket * TYPES.length + total.type().ordinal()] += MinorUnits.toMinor(total.total());
+            }
+            archiveService.forEach(user.getId(), startDate, endDate, row -> {
+                if (category == null || row.category() == category) {
+                    int bucket = (int) ChronoUnit.MONTHS.between(firstMonth, YearMonth.from(row.date()));
+                    sums[bucket * TYPES.length + row.type().ordinal()] += MinorUnits.toMinor(row.amount());
+                }
+            });
+        }
+
+        List<MonthlyTotalResponse> series = new ArrayList<>(monthCount);
+        for (int i = 0; i < monthCount; i++) {
+            long income = sums[i * TYPES.length + TransactionType.INCOME.ordinal()];
+            long expense = sums[i * TYPES.length + TransactionType.EXPENSE.ordinal()];
+            series.add(new MonthlyTotalResponse(
+                    firstMonth.plusMonths(i),
+                    MinorUnits.fromMinor(income),
+                    MinorUnits.fromMinor(expense),
+                    MinorUnits.fromMinor(income - expense)
+            ));
+        }
+        return series;
+    }
+
+    private TransactionSummaryResponse toSummary(LocalDate startDate, LocalDate endDate, long[] sums, long[] counts) {
+        long income = 0;
+        long expense = 0;
+        long count = 0;
+        long[] byCategory = new long[CATEGORIES.length];
+        for (TransactionType type : TYPES) {
+            for (Category category : CATEGORIES) {
+                int cell = type.ordinal() * CATEGORIES.length + category.ordinal();
+                if (type == TransactionType.INCOME) {
+                    income += sums[cell];
+                } else {
+                    expense += sums[cell];
+                }
+                byCategory[category.ordinal()] += sums[cell];
+                count += counts[cell];
+            }
+        }
+
+        Map<Category, BigDecimal> categoryTotals = new EnumMap<>(Category.class);
+        for (Category category : CATEGORIES) {
+            if (byCategory[category.ordinal()] != 0) {
+                categoryTotals.put(category, MinorUnits.fromMinor(byCategory[category.ordinal()]));
+            }
+        }
+
+        return new TransactionSummaryResponse(
+                startDate,
+                endDate,
+                MinorUnits.fromMinor(income),
+                MinorUnits.fromMinor(expense),
+                MinorUnits.fromMinor(income - expense),
+                count,
+                categoryTotals
+        );
+    }
+
+    private void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new RuntimeException("Start date must not be after end date");
+        }
+    }
+}
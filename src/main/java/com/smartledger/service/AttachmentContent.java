@@ -0,0 +1,12 @@
+package com.smartledger.service;
+
+import com.smartledger.dto.AttachmentResponse;
+import org.springframework.core.io.Resource;
+
+/**
+ * An attachment to download: its metadata and its stored content on disk.
+ */
+public record AttachmentContent(
+        AttachmentResponse attachment,
+        Resource content
+) {}
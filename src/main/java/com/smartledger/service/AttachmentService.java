@@ -0,0 +1,450 @@
+package com.smartledger.service;
+
+import com.smartledger.dto.AttachmentResponse;
+import com.smartledger.entity.TransactionAttachment;
+import com.smartledger.entity.User;
+import com.smartledger.exception.AttachmentTooLargeException;
+import com.smartledger.repository.TransactionAttachmentRepository;
+import com.smartledger.repository.TransactionRepository;
+import com.smartledger.repository.UserRepository;
+import com.smartledger.sharding.ShardContext;
+import com.smartledger.sharding.ShardTopology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Receipts attached to transactions, kept as files under {@code attachments.storage-dir}.
+ * The metadata rows are visible to every instance but the files are not, so with several
+ * instances the directory must be a volume they all mount; on node-local disks a
+ * download fails on any node other than the one that took the upload.
+ *
+ * <p>Content is addressed by its SHA-256 ({@code ab/abcd...}), so a file uploaded twice,
+ * by one user or several, is stored once. Uploads are copied from the request to a
+ * temporary file through a small buffer while being hashed, before any query, so no
+ * database connection is held while a slow client sends the body; the content is then
+ * moved into place and the metadata row written. Downloads are served from the file
+ * (see the controller), never loaded whole into memory.
+ *
+ * <p>Deleting an attachment or its transaction removes the row only. A periodic sweep
+ * deletes stored files that no attachment on any shard refers to, once they are older
+ * than {@code attachments.sweep-grace}. Uploads and the sweep are serialised on the content
+ * hash with advisory locks: an upload holds a shared lock on its shard from placing or
+ * touching the file until its row is committed, and the sweep deletes a file only while it
+ * holds the exclusive lock on every shard, after finding no reference and the file still
+ * untouched since the cutoff.
+ */
+@Service
+public class AttachmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttachmentService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SWEEP_BATCH_SIZE = 500;
+    private static final String TEMP_DIR = "tmp";
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final TransactionAttachmentRepository attachmentRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveService archiveService;
+    private final UserRepository userRepository;
+    private final ShardTopology shardTopology;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final Path storageDir;
+    private final long maxSize;
+    private final Duration sweepGrace;
+
+    public AttachmentService(TransactionAttachmentRepository attachmentRepository,
+                             TransactionRepository transactionRepository,
+                             TransactionArchiveService archiveService,
+                             UserRepository userRepository,
+                             ShardTopology shardTopology,
+                             DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${attachments.storage-dir:data/attachments}") String storageDir,
+                             @Value("${attachments.max-size:20MB}") DataSize maxSize,
+                             @Value("${attachments.sweep-grace:PT1H}") Duration sweepGrace) {
+        this.attachmentRepository = attachmentRepository;
+        this.transactionRepository = transactionRepository;
+        this.archiveService = archiveService;
+        this.userRepository = userRepository;
+        this.shardTopology = shardTopology;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.storageDir = Paths.get(storageDir).toAbsolutePath();
+        this.maxSize = maxSize.toBytes();
+        this.sweepGrace = sweepGrace;
+    }
+
+    /**
+     * Stores {@code content} and attaches it to the transaction. {@code declaredSize} is the
+     * request's Content-Length, -1 if unknown; the limit is enforced while copying either way.
+     */
+    public AttachmentResponse upload(String username, Long transactionId, String contentType, String filename,
+                                     long declaredSize, InputStream content) {
+        if (declaredSize > maxSize) {
+            throw new AttachmentTooLargeException(maxSize);
+        }
+
+        // Received before the first query: with open-in-view, that query's connection stays
+        // checked out until the response is written
+        StoredContent stored = receive(content);
+        try {
+            User user = findUser(username);
+            if (transactionRepository.findByIdAndUserId(transactionId, user.getId()).isEmpty()
+                    && archiveService.findById(user.getId(), transactionId).isEmpty()) {
+                throw new RuntimeException("Transaction not found");
+            }
+
+            TransactionAttachment attachment = new TransactionAttachment();
+            attachment.setUserId(user.getId());
+            attachment.setTransactionId(transactionId);
+            attachment.setSha256(stored.sha256());
+            attachment.setContentType(contentType);
+            attachment.setFilename(cleanFilename(filename));
+            attachment.setSize(stored.size());
+            attachment.setCreatedAt(LocalDateTime.now());
+            return toResponse(transactionTemplate.execute(status -> {
+                attachmentRepository.lockContentShared(lockKey(stored.sha256()));
+                place(stored);
+                return attachmentRepository.save(attachment);
+            }));
+        } finally {
+            deleteTemp(stored.temp());
+        }
+    }
+
+    public List<AttachmentResponse> getAttachments(String username, Long transactionId) {
+        User user = findUser(username);
+        return attachmentRepository.findByTransactionIdAndUserIdOrderById(transactionId, user.getId()).stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    /**
+     * Attachments of several of the user's transactions in one query, keyed by transaction id.
+     */
+    public Map<Long, List<AttachmentResponse>> getAttachmentsByTransaction(Long userId, Collection<Long> transactionIds) {
+        return attachmentRepository.findByUserIdAndTransactionIdInOrderById(userId, transactionIds).stream()
+                .map(this::toResponse)
+                .collect(Collectors.groupingBy(AttachmentResponse::transactionId));
+    }
+
+    public AttachmentContent getContent(String username, Long transactionId, Long id) {
+        TransactionAttachment attachment = findAttachment(username, transactionId, id);
+        FileSystemResource content = new FileSystemResource(contentPath(attachment.getSha256()));
+        if (!content.exists()) {
+            throw new RuntimeException("Attachment content not found");
+        }
+        return new AttachmentContent(toResponse(attachment), content);
+    }
+
+    @Transactional
+    public void deleteAttachment(String username, Long transactionId, Long id) {
+        attachmentRepository.delete(findAttachment(username, transactionId, id));
+    }
+
+    @Scheduled(fixedDelayString = "${attachments.sweep-interval-ms:3600000}")
+    public void sweepStoredContent() {
+        try {
+            sweepContentOlderThan(Instant.now().minus(sweepGrace));
+        } catch (Exception e) {
+            log.error("Sweeping attachment content failed, will retry on next run", e);
+        }
+    }
+
+    /**
+     * Deletes stored files last touched before {@code before} that no attachment refers to,
+     * along with abandoned uploads. Returns the number of files deleted.
+     */
+    public int sweepContentOlderThan(Instant before) throws IOException {
+        if (!Files.isDirectory(storageDir)) {
+            return 0;
+        }
+        FileTime cutoff = FileTime.from(before);
+        int deleted = 0;
+        List<Path> candidates = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(storageDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!Files.isRegularFile(file) || Files.getLastModifiedTime(file).compareTo(cutoff) >= 0) {
+                    continue;
+                }
+                if (file.getParent().equals(storageDir.resolve(TEMP_DIR))) {
+                    deleted += Files.deleteIfExists(file) ? 1 : 0;
+                    continue;
+                }
+                candidates.add(file);
+                if (candidates.size() == SWEEP_BATCH_SIZE) {
+                    deleted += deleteUnreferenced(candidates, cutoff);
+                    candidates.clear();
+                }
+            }
+        }
+        if (!candidates.isEmpty()) {
+            deleted += deleteUnreferenced(candidates, cutoff);
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} unreferenced attachment files", deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes those of {@code files} that no attachment refers to on any shard. Each file is
+     * only considered if its exclusive lock is free on every shard, and the locks are held
+     * until it is deleted, so an upload cannot commit a reference to it in between.
+     */
+    private int deleteUnreferenced(List<Path> files, FileTime cutoff) throws IOException {
+        Map<String, Path> byHash = new HashMap<>();
+        for (Path file : files) {
+            byHash.put(file.getFileName().toString(), file);
+        }
+        List<Connection> connections = new ArrayList<>();
+        try {
+            Set<String> deletable = new HashSet<>(byHash.keySet());
+            for (Integer shard : shards()) {
+                Connection connection = ShardContext.callOn(shard, this::openConnection);
+                connections.add(connection);
+                connection.setAutoCommit(false);
+                deletable.retainAll(lockUnreferenced(connection, deletable));
+            }
+            int deleted = 0;
+            for (String hash : deletable) {
+                Path file = byHash.get(hash);
+                // An upload may have touched the file since it was listed
+                if (Files.exists(file) && Files.getLastModifiedTime(file).compareTo(cutoff) < 0
+                        && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+            return deleted;
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not check attachment references", e);
+        } finally {
+            for (Connection connection : connections) {
+                close(connection);
+            }
+        }
+    }
+
+    /**
+     * Those of {@code hashes} whose exclusive lock is free on the connection's shard and
+     * that no attachment on it refers to. The locks are taken before references are read,
+     * and released when the connection's transaction ends.
+     */
+    private static Set<String> lockUnreferenced(Connection connection, Set<String> hashes) throws SQLException {
+        Set<String> unreferenced = new HashSet<>();
+        if (hashes.isEmpty()) {
+            return unreferenced;
+        }
+        try (PreparedStatement statement = connection.prepareStatement("""
+                SELECT h.sha256 FROM unnest(?) AS h(sha256)
+                WHERE pg_try_advisory_xact_lock(('x' || substr(h.sha256, 1, 16))::bit(64)::bigint)
+                """)) {
+            statement.setArray(1, connection.createArrayOf("varchar", hashes.toArray()));
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    unreferenced.add(rows.getString(1));
+                }
+            }
+        }
+        if (unreferenced.isEmpty()) {
+            return unreferenced;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT DISTINCT sha256 FROM transaction_attachments WHERE sha256 = ANY (?)")) {
+            statement.setArray(1, connection.createArrayOf("varchar", unreferenced.toArray()));
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    unreferenced.remove(rows.getString(1));
+                }
+            }
+        }
+        return unreferenced;
+    }
+
+    private List<Integer> shards() {
+        List<Integer> shards = new ArrayList<>();
+        if (shardTopology.isSharded()) {
+            for (int shard = 0; shard < shardTopology.shardCount(); shard++) {
+                shards.add(shard);
+            }
+        } else {
+            shards.add(null);
+        }
+        return shards;
+    }
+
+    private Connection openConnection() {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not connect to check attachment references", e);
+        }
+    }
+
+    private static void close(Connection connection) {
+        try {
+            connection.rollback();
+            connection.close();
+        } catch (SQLException e) {
+            log.warn("Could not release attachment sweep connection", e);
+        }
+    }
+
+    /**
+     * Same key as the sweep computes in SQL: the first 64 bits of the hash.
+     */
+    private static long lockKey(String sha256) {
+        return Long.parseUnsignedLong(sha256.substring(0, 16), 16);
+    }
+
+    /**
+     * Copies the upload to a temporary file while hashing it.
+     */
+    private StoredContent receive(InputStream content) {
+        Path temp = null;
+        try {
+            Path tempDir = storageDir.resolve(TEMP_DIR);
+            Files.createDirectories(tempDir);
+            temp = Files.createTempFile(tempDir, "upload-", null);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size = 0;
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new AttachmentTooLargeException(maxSize);
+                    }
+                    digest.update(buffer, 0, read);
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) {
+                        out.write(chunk);
+                    }
+                }
+                out.force(true);
+            }
+            return new StoredContent(HEX.formatHex(digest.digest()), size, temp);
+        } catch (IOException e) {
+            deleteTemp(temp);
+            throw new UncheckedIOException("Could not store attachment", e);
+        } catch (NoSuchAlgorithmException e) {
+            deleteTemp(temp);
+            throw new IllegalStateException(e);
+        } catch (RuntimeException e) {
+            deleteTemp(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Moves the received content to its address, or touches the stored copy if the same
+     * content is already there. Called under the content's shared lock.
+     */
+    private void place(StoredContent stored) {
+        try {
+            Path target = contentPath(stored.sha256());
+            if (Files.exists(target)) {
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(stored.temp(), target, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store attachment", e);
+        }
+    }
+
+    private static void deleteTemp(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary upload {}", temp, e);
+        }
+    }
+
+    private Path contentPath(String sha256) {
+        return storageDir.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    /**
+     * Keeps the last path segment only, without control characters, at most 255 characters.
+     */
+    private static String cleanFilename(String filename) {
+        String name = filename == null ? "" : filename.replaceAll("^.*[/\\\\]", "").replaceAll("\\p{Cntrl}", "").strip();
+        if (name.isEmpty()) {
+            return "receipt";
+        }
+        return name.length() > 255 ? name.substring(0, 255) : name;
+    }
+
+    private TransactionAttachment findAttachment(String username, Long transactionId, Long id) {
+        User user = findUser(username);
+        return attachmentRepository.findByIdAndTransactionIdAndUserId(id, transactionId, user.getId())
+                .orElseThrow(() -> new RuntimeException("Attachment not found"));
+    }
+
+    private User findUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    private AttachmentResponse toResponse(TransactionAttachment attachment) {
+        return new AttachmentResponse(
+                attachment.getId(),
+                attachment.getTransactionId(),
+                attachment.getFilename(),
+                attachment.getContentType(),
+                attachment.getSize(),
+                attachment.getSha256(),
+                attachment.getCreatedAt()
+        );
+    }
+
+    private record StoredContent(String sha256, long size, Path temp) {}
+}
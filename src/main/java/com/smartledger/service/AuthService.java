@@ -3,8 +3,9 @@ package com.smartledger.service;
 import com.smartledger.dto.LoginRequest;
 import com.smartledger.dto.LoginResponse;
 import com.smartledger.entity.User;
+import com.smartledger.monitoring.LoginEvent;
 import com.smartledger.repository.UserRepository;
-import com.smartledger.security.JwtUtil;
+import com.smartledger.security.TimedPasswordEncoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -21,17 +22,20 @@ public class AuthService {
 
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
-    private final JwtUtil jwtUtil;
+    private final TokenService tokenService;
 
     public AuthService(AuthenticationManager authenticationManager,
                       UserRepository userRepository,
-                      JwtUtil jwtUtil) {
+                      TokenService tokenService) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
-        this.jwtUtil = jwtUtil;
+        this.tokenService = tokenService;
     }
 
     public LoginResponse login(LoginRequest loginRequest) {
+        LoginEvent event = new LoginEvent();
+        event.begin();
+        TimedPasswordEncoder.takeElapsedNanos();
         try {
             // Authenticate user
             Authentication authentication = authenticationManager.authenticate(
@@ -45,14 +49,25 @@ public class AuthService {
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
             User user = (User) userDetails;
 
-            // Generate JWT token
-            String token = jwtUtil.generateToken(userDetails);
-
-            return new LoginResponse(token, user.getUsername(), user.getRoles());
+            // Issue access and refresh tokens
+            LoginResponse response = tokenService.issue(user);
+            event.success = true;
+            return response;
 
         } catch (AuthenticationException e) {
             log.error("Authentication failed for user: {}", loginRequest.username());
             throw new RuntimeException("Invalid username or password");
+        } finally {
+            event.hashTime = TimedPasswordEncoder.takeElapsedNanos();
+            event.commit();
         }
     }
+
+    public LoginResponse refresh(String refreshToken) {
+        return tokenService.refresh(refreshToken);
+    }
+
+    public void logout(String accessToken, String refreshToken) {
+        tokenService.logout(accessToken, refreshToken);
+    }
 }
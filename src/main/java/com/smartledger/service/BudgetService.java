@@ -0,0 +1,222 @@
+package com.smartledger.service;
+
+import com.smartledger.dto.BudgetAlertResponse;
+import com.smartledger.dto.BudgetRequest;
+import com.smartledger.dto.BudgetResponse;
+import com.smartledger.dto.BudgetStatusResponse;
+import com.smartledger.dto.TransactionResponse;
+import com.smartledger.entity.Budget;
+import com.smartledger.entity.BudgetAlert;
+import com.smartledger.entity.Category;
+import com.smartledger.entity.TransactionType;
+import com.smartledger.entity.User;
+import com.smartledger.event.TransactionChangedEvent;
+import com.smartledger.repository.BudgetAlertRepository;
+import com.smartledger.repository.BudgetRepository;
+import com.smartledger.repository.BudgetSpendRepository;
+import com.smartledger.repository.BudgetStatusView;
+import com.smartledger.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Monthly budgets per category. Spending is tracked incrementally: every committed
+ * expense write adjusts a single {@code budget_spend} row by its delta, and thresholds
+ * are evaluated against the old and new totals, so neither alerts nor status reads ever
+ * re-aggregate the month's transactions.
+ */
+@Service
+public class BudgetService {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetService.class);
+
+    private static final List<Integer> DEFAULT_THRESHOLDS = List.of(80, 100);
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetSpendRepository budgetSpendRepository;
+    private final BudgetAlertRepository budgetAlertRepository;
+    private final UserRepository userRepository;
+
+    public BudgetService(BudgetRepository budgetRepository,
+                         BudgetSpendRepository budgetSpendRepository,
+                         BudgetAlertRepository budgetAlertRepository,
+                         UserRepository userRepository) {
+        this.budgetRepository = budgetRepository;
+        this.budgetSpendRepository = budgetSpendRepository;
+        this.budgetAlertRepository = budgetAlertRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Transactional
+    public BudgetResponse saveBudget(String username, Category category, BudgetRequest request) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        Budget budget = budgetRepository.findByUserIdAndCategory(user.getId(), category)
+                .orElseGet(() -> {
+                    Budget created = new Budget();
+                    created.setUserId(user.getId());
+                    created.setCategory(category);
+                    return created;
+                });
+        budget.setMonthlyLimit(request.monthlyLimit());
+        budget.setAlertThresholds(request.alertThresholds() == null || request.alertThresholds().isEmpty()
+                ? DEFAULT_THRESHOLDS
+                : request.alertThresholds().stream().distinct().sorted().toList());
+
+        return toResponse(budgetRepository.save(budget));
+    }
+
+    @Transactional(readOnly = true)
+    public List<BudgetResponse> getBudgets(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        return budgetRepository.findByUserIdOrderByCategoryAsc(user.getId())
+                .stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public void deleteBudget(String username, Category category) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        Budget budget = budgetRepository.findByUserIdAndCategory(user.getId(), category)
+                .orElseThrow(() -> new RuntimeException("Budget not found"));
+
+        budgetRepository.delete(budget);
+    }
+
+    @Transactional(readOnly = true)
+    public BudgetStatusResponse getStatus(String username, Category category, YearMonth month) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        BudgetStatusView view = budgetRepository.findStatus(user.getId(), category, month.atDay(1))
+                .orElseThrow(() -> new RuntimeException("Budget not found"));
+
+        Budget budget = view.budget();
+        BigDecimal spent = view.spent() != null ? view.spent() : BigDecimal.ZERO.setScale(2);
+        BigDecimal limit = budget.getMonthlyLimit();
+        List<Integer> crossed = budget.getAlertThresholds().stream()
+                .filter(threshold -> spent.compareTo(thresholdAmount(limit, threshold)) >= 0)
+                .toList();
+
+        return new BudgetStatusResponse(
+                category,
+                month,
+                limit,
+                spent,
+                limit.subtract(spent),
+                spent.multiply(HUNDRED).divide(limit, 2, RoundingMode.HALF_UP),
+                crossed
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public List<BudgetAlertResponse> getAlerts(String username, YearMonth month) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        return budgetAlertRepository.findByUserIdAndMonthOrderByIdAsc(user.getId(), month.atDay(1))
+                .stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Runs inside the write transaction so the accumulator commits atomically with the
+     * transaction change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        TransactionResponse before = isExpense(event.before()) ? event.before() : null;
+        TransactionResponse after = isExpense(event.after()) ? event.after() : null;
+
+        if (before != null && after != null && sameBucket(before, after)) {
+            adjust(event.userId(), after.category(), after.date(), after.amount().subtract(before.amount()));
+            return;
+        }
+        if (before != null) {
+            adjust(event.userId(), before.category(), before.date(), before.amount().negate());
+        }
+        if (after != null) {
+            adjust(event.userId(), after.category(), after.date(), after.amount());
+        }
+    }
+
+    private void adjust(Long userId, Category category, LocalDate date, BigDecimal delta) {
+        delta = delta.setScale(2, RoundingMode.HALF_UP);
+        if (delta.signum() == 0) {
+            return;
+        }
+
+        LocalDate month = date.withDayOfMonth(1);
+        BigDecimal spent = budgetSpendRepository.addAndGet(userId, category.name(), month, delta);
+        if (delta.signum() < 0) {
+            return;
+        }
+
+        BigDecimal previous = spent.subtract(delta);
+        budgetRepository.findByUserIdAndCategory(userId, category).ifPresent(budget -> {
+            for (Integer threshold : budget.getAlertThresholds()) {
+                BigDecimal amount = thresholdAmount(budget.getMonthlyLimit(), threshold);
+                if (previous.compareTo(amount) < 0 && spent.compareTo(amount) >= 0) {
+                    int inserted = budgetAlertRepository.insertIfAbsent(budget.getId(), userId, category.name(),
+                            month, threshold, spent, budget.getMonthlyLimit());
+                    if (inserted > 0) {
+                        log.info("Budget {} of user {} crossed {}% for {}", category, userId, threshold, month);
+                    }
+                }
+            }
+        });
+    }
+
+    private static boolean isExpense(TransactionResponse transaction) {
+        return transaction != null && transaction.type() == TransactionType.EXPENSE;
+    }
+
+    private static boolean sameBucket(TransactionResponse before, TransactionResponse after) {
+        return before.category() == after.category()
+                && YearMonth.from(before.date()).equals(YearMonth.from(after.date()));
+    }
+
+    private static BigDecimal thresholdAmount(BigDecimal limit, int threshold) {
+        return limit.multiply(BigDecimal.valueOf(threshold)).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+    }
+
+    private BudgetResponse toResponse(Budget budget) {
+        return new BudgetResponse(
+                budget.getId(),
+                budget.getCategory(),
+                budget.getMonthlyLimit(),
+                budget.getAlertThresholds()
+        );
+    }
+
+    private BudgetAlertResponse toResponse(BudgetAlert alert) {
+        return new BudgetAlertResponse(
+                alert.getId(),
+                alert.getCategory(),
+                YearMonth.from(alert.getMonth()),
+                alert.getThresholdPercent(),
+                alert.getSpent(),
+                alert.getMonthlyLimit(),
+                alert.getCreatedAt()
+        );
+    }
+}
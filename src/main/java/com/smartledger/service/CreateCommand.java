@@ -0,0 +1,11 @@
+package com.smartledger.service;
+
+import com.smartledger.dto.TransactionRequest;
+
+/**
+ * A transaction to create on behalf of {@code username}, as queued for group commit.
+ */
+public record CreateCommand(
+        String username,
+        TransactionRequest request
+) {}
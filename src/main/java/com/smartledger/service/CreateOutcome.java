@@ -0,0 +1,19 @@
+package com.smartledger.service;
+
+/**
+ * Result of one {@link CreateCommand} of a group: either the created transaction or the
+ * reason it was refused.
+ */
+public record CreateOutcome(
+        CreatedTransaction created,
+        RuntimeException refusal
+) {
+
+    public static CreateOutcome created(CreatedTransaction created) {
+        return new CreateOutcome(created, null);
+    }
+
+    public static CreateOutcome refused(RuntimeException refusal) {
+        return new CreateOutcome(null, refusal);
+    }
+}
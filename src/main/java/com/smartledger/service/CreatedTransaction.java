@@ -0,0 +1,12 @@
+package com.smartledger.service;
+
+import com.smartledger.dto.TransactionResponse;
+
+/**
+ * Result of creating a transaction. {@code possibleDuplicateOf} is the id of a recent
+ * transaction with the same fingerprint, or null.
+ */
+public record CreatedTransaction(
+        TransactionResponse transaction,
+        Long possibleDuplicateOf
+) {}
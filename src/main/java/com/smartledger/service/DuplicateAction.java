@@ -0,0 +1,11 @@
+package com.smartledger.service;
+
+/**
+ * What happens to a new transaction that probably duplicates a recent one.
+ */
+public enum DuplicateAction {
+    /** Create it and tell the client which transaction it may duplicate. */
+    FLAG,
+    /** Refuse it with 409 Conflict. */
+    REJECT
+}
@@ -0,0 +1,196 @@
+package com.smartledger.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartledger.cache.BloomFilter;
+import com.smartledger.cache.Invalidation;
+import com.smartledger.cache.InvalidationBus;
+import com.smartledger.dto.TransactionRequest;
+import com.smartledger.dto.TransactionResponse;
+import com.smartledger.event.TransactionChangedEvent;
+import com.smartledger.repository.FingerprintRow;
+import com.smartledger.repository.TransactionRepository;
+import com.smartledger.util.TransactionFingerprint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Spots new transactions that repeat a recent one, e.g. bank-feed retries or double taps.
+ * Each user has a Bloom filter of the fingerprints of their transactions created within
+ * {@code duplicates.window}, built on first use. A miss, the usual case, costs a few
+ * bit probes and no query; only a hit is confirmed against the database, through the
+ * {@code (user_id, date, amount)} index.
+ *
+ * <p>Filters are per node. A transaction created on another node evicts the user's filter
+ * here through {@link InvalidationBus}, so a retry landing on this node rebuilds it from
+ * the database; a retry racing the original's commit notice can still slip through.
+ *
+ * <p>Detection is best effort: creates of one user are not serialised, and a create only
+ * sees transactions that have committed or that belong to its own database transaction.
+ * A retry arriving while the original is still uncommitted, in another request or another
+ * group commit, finds neither its fingerprint nor its row and is not detected.
+ */
+@Service
+public class DuplicateTransactionDetector {
+
+    private static final int MIN_CAPACITY = 256;
+
+    private final TransactionRepository transactionRepository;
+    private final Cache<Long, BloomFilter> filters;
+    private final boolean enabled;
+    private final DuplicateAction action;
+    private final Duration window;
+    private final double falsePositiveRate;
+
+    public DuplicateTransactionDetector(TransactionRepository transactionRepository,
+                                        @Value("${duplicates.enabled:true}") boolean enabled,
+                                        @Value("${duplicates.action:FLAG}") DuplicateAction action,
+                                        @Value("${duplicates.window:P30D}") Duration window,
+                                        @Value("${duplicates.false-positive-rate:0.01}") double falsePositiveRate,
+                                        @Value("${duplicates.max-users:100000}") long maxUsers,
+                                        @Value("${duplicates.idle-timeout:PT30M}") Duration idleTimeout) {
+        this.transactionRepository = transactionRepository;
+        this.enabled = enabled;
+        this.action = action;
+        this.window = window;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    public boolean rejects() {
+        return action == DuplicateAction.REJECT;
+    }
+
+    /**
+     * Returns the id of a recent transaction of the user with the same fingerprint as
+     * {@code request}, if any.
+     */
+    public Optional<Long> findDuplicate(Long userId, TransactionRequest request) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        long fingerprint = TransactionFingerprint.of(userId, request.amount(), request.date(),
+                request.category(), request.description());
+        if (!filters.get(userId, this::load).mightContain(fingerprint) && !uncommitted().contains(fingerprint)) {
+            return Optional.empty();
+        }
+
+        String description = TransactionFingerprint.normalize(request.description());
+        return transactionRepository.findDuplicateCandidates(userId, request.date(), request.amount(),
+                        request.category(), LocalDateTime.now().minus(window))
+                .stream()
+                .filter(candidate -> TransactionFingerprint.normalize(candidate.description()).equals(description))
+                .map(FingerprintRow::id)
+                .findFirst();
+    }
+
+    /**
+     * Adds a created transaction to its user's filter once the creating transaction has
+     * committed, so a rolled back create leaves no trace. Until then its fingerprint is only
+     * seen by later creates in the same transaction, such as the rest of a group commit.
+     */
+    public void record(TransactionResponse transaction) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(transaction);
+            return;
+        }
+        Uncommitted uncommitted = (Uncommitted) TransactionSynchronizationManager.getResource(this);
+        if (uncommitted == null) {
+            uncommitted = new Uncommitted();
+            TransactionSynchronizationManager.bindResource(this, uncommitted);
+            TransactionSynchronizationManager.registerSynchronization(uncommitted);
+        }
+        uncommitted.transactions.add(transaction);
+        uncommitted.fingerprints.add(fingerprint(transaction));
+    }
+
+    /**
+     * Updated transactions get their new fingerprint added; the old one stays and can only
+     * cause an extra database check until the filter is rebuilt.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        if (enabled && event.before() != null && event.after() != null) {
+            add(event.after());
+        }
+    }
+
+    @EventListener
+    public void onRemoteInvalidation(Invalidation.Ledger invalidation) {
+        filters.invalidate(invalidation.userId());
+    }
+
+    @EventListener
+    public void onRemoteFlush(Invalidation.All flush) {
+        filters.invalidateAll();
+    }
+
+    private void add(TransactionResponse transaction) {
+        BloomFilter filter = filters.getIfPresent(transaction.userId());
+        if (filter == null) {
+            return;
+        }
+        filter.put(fingerprint(transaction));
+        if (filter.isSaturated()) {
+            // Rebuilt on next use, sized for the current number of recent transactions
+            filters.invalidate(transaction.userId());
+        }
+    }
+
+    private Set<Long> uncommitted() {
+        Uncommitted uncommitted = (Uncommitted) TransactionSynchronizationManager.getResource(this);
+        return uncommitted == null ? Set.of() : uncommitted.fingerprints;
+    }
+
+    private static long fingerprint(TransactionResponse transaction) {
+        return TransactionFingerprint.of(transaction.userId(), transaction.amount(), transaction.date(),
+                transaction.category(), transaction.description());
+    }
+
+    private BloomFilter load(Long userId) {
+        List<FingerprintRow> rows = transactionRepository.findFingerprintRows(userId, LocalDateTime.now().minus(window));
+        BloomFilter filter = new BloomFilter(Math.max(MIN_CAPACITY, rows.size() * 2), falsePositiveRate);
+        for (FingerprintRow row : rows) {
+            filter.put(TransactionFingerprint.of(userId, row.amount(), row.date(), row.category(), row.description()));
+        }
+        return filter;
+    }
+
+    /**
+     * Transactions recorded in the current database transaction, added to the filters on commit.
+     */
+    private final class Uncommitted implements TransactionSynchronization {
+
+        private final List<TransactionResponse> transactions = new ArrayList<>();
+        private final Set<Long> fingerprints = new HashSet<>();
+
+        @Override
+        public void afterCommit() {
+            transactions.forEach(DuplicateTransactionDetector.this::add);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DuplicateTransactionDetector.this);
+        }
+    }
+}
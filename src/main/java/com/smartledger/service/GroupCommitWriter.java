@@ -0,0 +1,229 @@
+package com.smartledger.service;
+
+import com.smartledger.dto.TransactionRequest;
+import com.smartledger.exception.WriteQueueFullException;
+import com.smartledger.sharding.ShardContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Front for {@link TransactionService#createTransaction}. With {@code ledger.group-commit}
+ * enabled, concurrent creates are queued and written together: a writer thread takes the
+ * oldest waiting request, collects more for at most {@code max-delay-ms} or until
+ * {@code max-batch-size}, and creates them in one database transaction per shard, so the
+ * group shares one commit and one WAL flush. Each caller blocks until the commit and then
+ * gets its own transaction or error, exactly as without grouping.
+ *
+ * <p>A request refused by the service (unknown user, rejected duplicate) fails alone. Any
+ * other failure rolls back the group, whose requests are then retried one by one, so that
+ * one bad row cannot fail its neighbours. Requests of a group are written in username
+ * order: writers lock each user's change counter in the same order and cannot deadlock.
+ *
+ * <p>At most {@code queue-capacity} requests wait; beyond that creates are refused with
+ * 503 rather than queued, which bounds the added latency to about {@code max-delay-ms}
+ * plus the commits queued ahead.
+ */
+@Service
+public class GroupCommitWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitWriter.class);
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final TransactionService transactionService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final int writers;
+    private final BlockingQueue<PendingCreate> queue;
+    private final DistributionSummary batchSizes;
+    private final Timer queueWait;
+    private final Counter fallbacks;
+    private final List<Thread> threads = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public GroupCommitWriter(TransactionService transactionService,
+                             MeterRegistry meterRegistry,
+                             @Value("${ledger.group-commit.enabled:false}") boolean enabled,
+                             @Value("${ledger.group-commit.max-batch-size:200}") int maxBatchSize,
+                             @Value("${ledger.group-commit.max-delay-ms:2}") long maxDelayMs,
+                             @Value("${ledger.group-commit.writers:2}") int writers,
+                             @Value("${ledger.group-commit.queue-capacity:2000}") int queueCapacity) {
+        this.transactionService = transactionService;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.writers = writers;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder("smartledger.group-commit.batch.size")
+                .description("Transactions created per group commit")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("smartledger.group-commit.wait")
+                .description("Time creates waited in the queue before their group was written")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("smartledger.group-commit.fallbacks")
+                .description("Groups rolled back and retried one transaction at a time")
+                .register(meterRegistry);
+        Gauge.builder("smartledger.group-commit.queue", queue, BlockingQueue::size)
+                .description("Creates waiting for a group commit")
+                .register(meterRegistry);
+    }
+
+    public CreatedTransaction createTransaction(String username, TransactionRequest request) {
+        if (!running) {
+            return transactionService.createTransaction(username, request);
+        }
+        PendingCreate pending = new PendingCreate(new CreateCommand(username, request), ShardContext.current(),
+                System.nanoTime(), new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            throw new WriteQueueFullException(RETRY_AFTER_SECONDS);
+        }
+        // stop() may have drained the queue for the last time between the check above and
+        // the offer. Whoever removes the request writes it: if it is still queued, take it
+        // back and write it here, otherwise a writer or stop() has it and will complete it
+        if (!running && queue.remove(pending)) {
+            return transactionService.createTransaction(username, request);
+        }
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < writers; i++) {
+            threads.add(Thread.ofPlatform().name("group-commit-" + i).daemon().start(this::writeLoop));
+        }
+        log.info("Group commit enabled: {} writers, up to {} transactions or {} ms per group",
+                writers, maxBatchSize, TimeUnit.NANOSECONDS.toMillis(maxDelayNanos));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        // Writers drain the queue before they exit, so no caller is left waiting
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+        List<PendingCreate> left = new ArrayList<>();
+        queue.drainTo(left);
+        if (!left.isEmpty()) {
+            write(left);
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCreate first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = first.enqueuedAt() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingCreate next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(batch, new RuntimeException("Group commit writer stopped"));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingCreate> batch) {
+        long now = System.nanoTime();
+        for (PendingCreate pending : batch) {
+            queueWait.record(now - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+        Map<Integer, List<PendingCreate>> byShard = new LinkedHashMap<>();
+        for (PendingCreate pending : batch) {
+            byShard.computeIfAbsent(pending.shard(), shard -> new ArrayList<>()).add(pending);
+        }
+        byShard.forEach((shard, group) -> {
+            group.sort(Comparator.comparing(pending -> pending.command().username()));
+            ShardContext.runOn(shard, () -> writeGroup(group));
+        });
+    }
+
+    private void writeGroup(List<PendingCreate> group) {
+        List<CreateOutcome> outcomes;
+        try {
+            outcomes = transactionService.createTransactions(group.stream().map(PendingCreate::command).toList());
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} transactions failed, writing them one by one", group.size(), e);
+            fallbacks.increment();
+            writeOneByOne(group);
+            return;
+        }
+        batchSizes.record(group.size());
+        for (int i = 0; i < group.size(); i++) {
+            CreateOutcome outcome = outcomes.get(i);
+            if (outcome.refusal() != null) {
+                group.get(i).result().completeExceptionally(outcome.refusal());
+            } else {
+                group.get(i).result().complete(outcome.created());
+            }
+        }
+    }
+
+    private void writeOneByOne(List<PendingCreate> group) {
+        for (PendingCreate pending : group) {
+            try {
+                CreateCommand command = pending.command();
+                pending.result().complete(transactionService.createTransaction(command.username(), command.request()));
+            } catch (RuntimeException e) {
+                pending.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    private static void fail(List<PendingCreate> batch, RuntimeException error) {
+        for (PendingCreate pending : batch) {
+            pending.result().completeExceptionally(error);
+        }
+    }
+
+    private record PendingCreate(CreateCommand command, Integer shard, long enqueuedAt,
+                                 CompletableFuture<CreatedTransaction> result) {}
+}
@@ -0,0 +1,105 @@
+package com.smartledger.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartledger.dto.LedgerEventResponse;
+import com.smartledger.dto.TransactionResponse;
+import com.smartledger.entity.LedgerEvent;
+import com.smartledger.entity.LedgerEventType;
+import com.smartledger.entity.User;
+import com.smartledger.repository.LedgerEventRepository;
+import com.smartledger.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class LedgerEventService {
+
+    private final LedgerEventRepository ledgerEventRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    public LedgerEventService(LedgerEventRepository ledgerEventRepository,
+                              UserRepository userRepository,
+                              ObjectMapper objectMapper) {
+        this.ledgerEventRepository = ledgerEventRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Appends a journal entry in the caller's transaction, so the change and its
+     * outbox record commit or roll back together.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(LedgerEventType eventType, TransactionResponse snapshot) {
+        LedgerEvent event = new LedgerEvent();
+        event.setUserId(snapshot.userId());
+        event.setTransactionId(snapshot.id());
+        event.setEventType(eventType);
+        event.setPayload(writePayload(snapshot));
+        event.setOccurredAt(LocalDateTime.now());
+
+        ledgerEventRepository.save(event);
+    }
+
+    @Transactional(readOnly = true)
+    public List<LedgerEventResponse> getHistory(String username, Long transactionId) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        List<LedgerEvent> events = ledgerEventRepository
+                .findByTransactionIdAndUserIdOrderByIdAsc(transactionId, user.getId());
+        if (events.isEmpty()) {
+            throw new RuntimeException("Transaction not found");
+        }
+
+        return events.stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Histories of several of the user's transactions in one query, keyed by transaction id.
+     * Transactions without events are left out.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<LedgerEventResponse>> getHistories(Long userId, Collection<Long> transactionIds) {
+        return ledgerEventRepository.findByUserIdAndTransactionIdInOrderByIdAsc(userId, transactionIds).stream()
+                .map(this::toResponse)
+                .collect(Collectors.groupingBy(LedgerEventResponse::transactionId));
+    }
+
+    public LedgerEventResponse toResponse(LedgerEvent event) {
+        return new LedgerEventResponse(
+                event.getId(),
+                event.getTransactionId(),
+                event.getEventType(),
+                readPayload(event.getPayload()),
+                event.getOccurredAt()
+        );
+    }
+
+    private String writePayload(TransactionResponse snapshot) {
+        try {
+            return objectMapper.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize ledger event", e);
+        }
+    }
+
+    private TransactionResponse readPayload(String payload) {
+        try {
+            return objectMapper.readValue(payload, TransactionResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not deserialize ledger event", e);
+        }
+    }
+}
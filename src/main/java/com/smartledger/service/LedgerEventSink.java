@@ -0,0 +1,15 @@
+package com.smartledger.service;
+
+import com.smartledger.dto.LedgerEventResponse;
+
+import java.util.List;
+
+/**
+ * Downstream destination of the ledger outbox. Batches are delivered in journal order;
+ * an exception leaves the whole batch unpublished so it is retried on the next run.
+ * Delivery is therefore at-least-once and consumers should de-duplicate on the event id.
+ */
+public interface LedgerEventSink {
+
+    void publish(List<LedgerEventResponse> events);
+}
@@ -0,0 +1,88 @@
+package com.smartledger.service;
+
+import com.smartledger.dto.LedgerEventResponse;
+import com.smartledger.entity.LedgerEvent;
+import com.smartledger.repository.LedgerEventRepository;
+import com.smartledger.sharding.ShardTopology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Drains the ledger outbox in id order. Each batch is claimed with
+ * {@code FOR UPDATE SKIP LOCKED}, so every running instance can relay concurrently
+ * without double delivery of an in-flight batch. With sharding, every shard's outbox is
+ * drained in turn.
+ */
+@Component
+@ConditionalOnProperty(name = "ledger.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class LedgerOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerOutboxRelay.class);
+
+    private final LedgerEventRepository ledgerEventRepository;
+    private final LedgerEventService ledgerEventService;
+    private final LedgerEventSink sink;
+    private final ShardTopology shardTopology;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ledger.outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${ledger.outbox.relay.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    public LedgerOutboxRelay(LedgerEventRepository ledgerEventRepository,
+                             LedgerEventService ledgerEventService,
+                             LedgerEventSink sink,
+                             ShardTopology shardTopology,
+                             PlatformTransactionManager transactionManager) {
+        this.ledgerEventRepository = ledgerEventRepository;
+        this.ledgerEventService = ledgerEventService;
+        this.sink = sink;
+        this.shardTopology = shardTopology;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${ledger.outbox.relay.interval-ms:1000}")
+    public void drain() {
+        try {
+            shardTopology.forEachShard(this::drainShard);
+        } catch (Exception e) {
+            log.error("Ledger outbox relay failed, will retry on next run", e);
+        }
+    }
+
+    private void drainShard() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer relayed = transactionTemplate.execute(status -> relayBatch());
+            if (relayed == null || relayed < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private int relayBatch() {
+        List<LedgerEvent> batch = ledgerEventRepository.lockUnpublishedBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<LedgerEventResponse> events = batch.stream()
+                .map(ledgerEventService::toResponse)
+                .toList();
+        sink.publish(events);
+
+        List<Long> ids = batch.stream().map(LedgerEvent::getId).toList();
+        ledgerEventRepository.markPublished(ids, LocalDateTime.now());
+        return batch.size();
+    }
+}
@@ -0,0 +1,23 @@
+package com.smartledger.service;
+
+import com.smartledger.dto.LedgerEventResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Default sink used until a real consumer (message broker, webhook) is configured.
+ */
+public class LoggingLedgerEventSink implements LedgerEventSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingLedgerEventSink.class);
+
+    @Override
+    public void publish(List<LedgerEventResponse> events) {
+        if (log.isDebugEnabled()) {
+            events.forEach(event -> log.debug("Ledger event {} {} for transaction {}",
+                    event.id(), event.eventType(), event.transactionId()));
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.smartledger.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartledger.cache.SingleFlight;
+import com.smartledger.dto.LedgerSizeResponse;
+import com.smartledger.dto.PlatformUsersResponse;
+import com.smartledger.dto.PlatformVolumeResponse;
+import com.smartledger.dto.UserResponse;
+import com.smartledger.entity.Category;
+import com.smartledger.entity.TransactionType;
+import com.smartledger.repository.LedgerSize;
+import com.smartledger.repository.MonthlyVolume;
+import com.smartledger.repository.TransactionRepository;
+import com.smartledger.repository.UserRepository;
+import com.smartledger.sharding.ShardContext;
+import com.smartledger.sharding.ShardTopology;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Statistics across all users, for administrators. Each statistic is computed by splitting
+ * the user ids into ranges of {@code admin-analytics.chunk-size} and scanning every range
+ * on every shard. The scans run on a pool of {@code admin-analytics.threads}, each in a
+ * read-only transaction with a timeout, so they use at most that many connections and
+ * leave the rest of the pool to user traffic.
+ *
+ * <p>Results are kept for {@code admin-analytics.cache-ttl}; administrators asking for the
+ * same statistic meanwhile, or while it is being computed, share one scan.
+ *
+ * <p>Archived transactions are included. Each range merges the archive segments of its
+ * users with its hot rows, on the same shard and in the same transaction, but only when the
+ * requested dates reach back past the hot window; the largest ledgers always check the
+ * archived row counts, which are kept per segment.
+ */
+@Service
+public class PlatformAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlatformAnalyticsService.class);
+
+    private static final String FLIGHT_OWNER = "platform";
+
+    private static final Comparator<LedgerSize> LARGEST_FIRST =
+            Comparator.comparing(LedgerSize::count).reversed().thenComparing(LedgerSize::userId);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveService archiveService;
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final ShardTopology shardTopology;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService workers;
+    private final long chunkSize;
+    private final Cache<Object, Object> results;
+    private final SingleFlight<Object, Object> scans = new SingleFlight<>();
+
+    public PlatformAnalyticsService(TransactionRepository transactionRepository,
+                                    TransactionArchiveService archiveService,
+                                    UserRepository userRepository,
+                                    UserService userService,
+                                    ShardTopology shardTopology,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${admin-analytics.threads:2}") int threads,
+                                    @Value("${admin-analytics.chunk-size:5000}") long chunkSize,
+                                    @Value("${admin-analytics.chunk-timeout:PT30S}") Duration chunkTimeout,
+                                    @Value("${admin-analytics.cache-ttl:PT5M}") Duration cacheTtl) {
+        this.transactionRepository = transactionRepository;
+        this.archiveService = archiveService;
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.shardTopology = shardTopology;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setTimeout((int) chunkTimeout.toSeconds());
+        this.workers = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("admin-analytics-"));
+        this.chunkSize = chunkSize;
+        this.results = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .maximumSize(100)
+                .build();
+    }
+
+    public PlatformUsersResponse getUsers(LocalDate activeSince) {
+        return cached(new UsersKey(activeSince), () -> {
+            long registered = ShardContext.callOn(null, userRepository::count);
+            long active = scan((from, to) -> List.of(countActiveUsers(from, to, activeSince)))
+                    .stream()
+                    .mapToLong(Long::longValue)
+                    .sum();
+            return new PlatformUsersResponse(registered, active, activeSince);
+        });
+    }
+
+    /**
+     * Transaction counts and totals per month, type and category, oldest month first.
+     */
+    public List<PlatformVolumeResponse> getVolumes(LocalDate startDate, LocalDate endDate) {
+        return cached(new VolumesKey(startDate, endDate), () -> {
+            Map<VolumeKey, PlatformVolumeResponse> volumes = new TreeMap<>();
+            for (MonthlyVolume volume : scan((from, to) -> sumVolumesByMonth(from, to, startDate, endDate))) {
+                VolumeKey key = new VolumeKey(YearMonth.of(volume.year(), volume.month()), volume.type(), volume.category());
+                volumes.merge(key,
+                        new PlatformVolumeResponse(key.month(), key.type(), key.category(), volume.count(), volume.total()),
+                        (a, b) -> new PlatformVolumeResponse(a.month(), a.type(), a.category(),
+                                a.transactionCount() + b.transactionCount(), a.total().add(b.total())));
+            }
+            return List.copyOf(volumes.values());
+        });
+    }
+
+    /**
+     * The {@code limit} users with the most transactions. Each range returns its own top
+     * {@code limit}, which is enough since a user belongs to one range.
+     */
+    public List<LedgerSizeResponse> getLargestLedgers(int limit) {
+        return cached(new LargestLedgersKey(limit), () -> {
+            List<LedgerSize> largest = scan((from, to) -> findLargestLedgers(from, to, limit)).stream()
+                    .sorted(LARGEST_FIRST)
+                    .limit(limit)
+                    .toList();
+            Map<Long, UserResponse> users = ShardContext.callOn(null, () ->
+                    userService.getProfiles(largest.stream().map(LedgerSize::userId).toList()));
+            return largest.stream()
+                    .map(size -> new LedgerSizeResponse(size.userId(),
+                            users.containsKey(size.userId()) ? users.get(size.userId()).username() : null,
+                            size.count(), size.total()))
+                    .toList();
+        });
+    }
+
+    private long countActiveUsers(long from, long to, LocalDate since) {
+        if (!archiveService.reaches(since)) {
+            return transactionRepository.countActiveUsers(from, to, since);
+        }
+        Set<Long> active = new HashSet<>(transactionRepository.findActiveUserIds(from, to, since));
+        archiveService.forEachInUserRange(from, to, since, null, row -> active.add(row.userId()));
+        return active.size();
+    }
+
+    private List<MonthlyVolume> sumVolumesByMonth(long from, long to, LocalDate startDate, LocalDate endDate) {
+        List<MonthlyVolume> volumes = new ArrayList<>(transactionRepository.sumVolumesByMonth(from, to, startDate, endDate));
+        Map<VolumeKey, MonthlyVolume> archived = new HashMap<>();
+        archiveService.forEachInUserRange(from, to, startDate, endDate, row -> archived.merge(
+                new VolumeKey(YearMonth.from(row.date()), row.type(), row.category()),
+                new MonthlyVolume(row.date().getYear(), row.date().getMonthValue(), row.type(), row.category(),
+                        1L, row.amount()),
+                (a, b) -> new MonthlyVolume(a.year(), a.month(), a.type(), a.category(),
+                        a.count() + b.count(), a.total().add(b.total()))));
+        volumes.addAll(archived.values());
+        return volumes;
+    }
+
+    /**
+     * The range's top {@code limit}. With archived rows, every hot ledger is ranked with
+     * them, and the archived totals are decoded for the users that make the cut only.
+     */
+    private List<LedgerSize> findLargestLedgers(long from, long to, int limit) {
+        Map<Long, Long> archived = archiveService.countByUser(from, to);
+        if (archived.isEmpty()) {
+            return transactionRepository.findLargestLedgers(from, to, Limit.of(limit));
+        }
+        Map<Long, LedgerSize> ledgers = new HashMap<>();
+        for (LedgerSize hot : transactionRepository.findLargestLedgers(from, to, Limit.unlimited())) {
+            ledgers.put(hot.userId(), hot);
+        }
+        archived.forEach((userId, count) -> ledgers.merge(userId, new LedgerSize(userId, count, BigDecimal.ZERO),
+                (hot, cold) -> new LedgerSize(userId, hot.count() + cold.count(), hot.total())));
+        return ledgers.values().stream()
+                .sorted(LARGEST_FIRST)
+                .limit(limit)
+                .map(size -> archived.containsKey(size.userId()) ? withArchivedTotal(size) : size)
+                .toList();
+    }
+
+    private LedgerSize withArchivedTotal(LedgerSize size) {
+        BigDecimal[] total = {size.total()};
+        archiveService.forEach(size.userId(), null, null, row -> total[0] = total[0].add(row.amount()));
+        return new LedgerSize(size.userId(), size.count(), total[0]);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(Object key, Supplier<T> compute) {
+        Object result = results.getIfPresent(key);
+        if (result == null) {
+            result = scans.execute(FLIGHT_OWNER, key, () -> {
+                long started = System.nanoTime();
+                T computed = compute.get();
+                results.put(key, computed);
+                log.info("Computed platform statistic {} in {} ms", key, (System.nanoTime() - started) / 1_000_000);
+                return computed;
+            });
+        }
+        return (T) result;
+    }
+
+    /**
+     * Runs {@code query} over every range of user ids [from, to) on every shard, on the
+     * worker pool, and returns all the rows. Fails if any range fails.
+     */
+    private <R> List<R> scan(BiFunction<Long, Long, List<R>> query) {
+        long maxUserId = ShardContext.callOn(null, userRepository::findMaxId);
+        List<Integer> shards = new ArrayList<>();
+        if (shardTopology.isSharded()) {
+            for (int shard = 0; shard < shardTopology.shardCount(); shard++) {
+                shards.add(shard);
+            }
+        } else {
+            shards.add(null);
+        }
+
+        List<Future<List<R>>> chunks = new ArrayList<>();
+        for (Integer shard : shards) {
+            for (long from = 1; from <= maxUserId; from += chunkSize) {
+                long start = from;
+                long end = from + chunkSize;
+                chunks.add(workers.submit(() -> ShardContext.callOn(shard, () ->
+                        readOnlyTransaction.execute(status -> query.apply(start, end)))));
+            }
+        }
+
+        List<R> rows = new ArrayList<>();
+        try {
+            for (Future<List<R>> chunk : chunks) {
+                rows.addAll(chunk.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            chunks.forEach(chunk -> chunk.cancel(true));
+            throw new RuntimeException("Platform statistics interrupted", e);
+        } catch (ExecutionException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Platform statistics failed", e.getCause());
+        }
+        return rows;
+    }
+
+    private record UsersKey(LocalDate activeSince) {}
+
+    private record VolumesKey(LocalDate startDate, LocalDate endDate) {}
+
+    private record LargestLedgersKey(int limit) {}
+
+    private record VolumeKey(YearMonth month, TransactionType type, Category category) implements Comparable<VolumeKey> {
+
+        private static final Comparator<VolumeKey> ORDER = Comparator.comparing(VolumeKey::month)
+                .thenComparing(VolumeKey::type)
+                .thenComparing(VolumeKey::category);
+
+        @Override
+        public int compareTo(VolumeKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
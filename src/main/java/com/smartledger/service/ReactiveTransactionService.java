@@ -0,0 +1,117 @@
+package com.smartledger.service;
+
+import com.smartledger.dto.TransactionResponse;
+import com.smartledger.entity.TransactionRecord;
+import com.smartledger.entity.TransactionType;
+import com.smartledger.repository.ReactiveTransactionArchiveRepository;
+import com.smartledger.repository.ReactiveTransactionRepository;
+import com.smartledger.sharding.ShardRoutingConnectionFactory;
+import com.smartledger.util.TransactionArchiveCodec;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * Non-blocking variant of the reads of {@link TransactionService}, for clients that fan
+ * out many concurrent reads. Results are streamed as the database returns them: no thread
+ * waits on the database and a slow client holds back fetching instead of filling memory.
+ *
+ * <p>Archived transactions are merged in by date like on the blocking path, without
+ * buffering either side. Methods take the user id rather than the username, which the
+ * caller already has from authentication.
+ */
+@Service
+public class ReactiveTransactionService {
+
+    private static final Comparator<TransactionResponse> NEWEST_FIRST =
+            Comparator.comparing(TransactionResponse::date).reversed();
+
+    private final ReactiveTransactionRepository transactionRepository;
+    private final ReactiveTransactionArchiveRepository archiveRepository;
+    private final TransactionArchiveService archiveService;
+
+    public ReactiveTransactionService(ReactiveTransactionRepository transactionRepository,
+                                      ReactiveTransactionArchiveRepository archiveRepository,
+                                      TransactionArchiveService archiveService) {
+        this.transactionRepository = transactionRepository;
+        this.archiveRepository = archiveRepository;
+        this.archiveService = archiveService;
+    }
+
+    public Flux<TransactionResponse> getAllTransactions(Long userId) {
+        Flux<TransactionResponse> hot = transactionRepository.findByUserIdOrderByDateDesc(userId)
+                .map(ReactiveTransactionService::toResponse);
+        return onCurrentShard(withArchived(hot, userId, null, null, null));
+    }
+
+    public Flux<TransactionResponse> getTransactionsByType(Long userId, TransactionType type) {
+        Flux<TransactionResponse> hot = transactionRepository.findByUserIdAndTypeOrderByDateDesc(userId, type)
+                .map(ReactiveTransactionService::toResponse);
+        return onCurrentShard(withArchived(hot, userId, null, null, type));
+    }
+
+    public Flux<TransactionResponse> getTransactionsByDateRange(Long userId, LocalDate startDate, LocalDate endDate) {
+        Flux<TransactionResponse> hot = transactionRepository
+                .findByUserIdAndDateBetweenOrderByDateDesc(userId, startDate, endDate)
+                .map(ReactiveTransactionService::toResponse);
+        return onCurrentShard(withArchived(hot, userId, startDate, endDate, null));
+    }
+
+    public Mono<TransactionResponse> getTransactionById(Long userId, Long id) {
+        Mono<TransactionResponse> archived = archiveRepository
+                .findByUserIdAndMinIdLessThanEqualAndMaxIdGreaterThanEqual(userId, id, id)
+                .concatMapIterable(segment -> TransactionArchiveCodec.decode(segment.payload(), userId))
+                .filter(row -> row.id().equals(id))
+                .next();
+        return transactionRepository.findByIdAndUserId(id, userId)
+                .map(ReactiveTransactionService::toResponse)
+                .switchIfEmpty(archived)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Transaction not found")))
+                .contextWrite(ShardRoutingConnectionFactory.currentShard());
+    }
+
+    /**
+     * Merges archived rows into {@code hot}, both newest first. Whether the range reaches
+     * the archive is decided here, on the calling thread, where the shard is known.
+     */
+    private Flux<TransactionResponse> withArchived(Flux<TransactionResponse> hot, Long userId,
+                                                   LocalDate startDate, LocalDate endDate, TransactionType type) {
+        if (!archiveService.reaches(startDate)) {
+            return hot;
+        }
+        LocalDate from = startDate != null ? startDate : TransactionArchiveService.OPEN_START;
+        LocalDate to = endDate != null ? endDate : TransactionArchiveService.OPEN_END;
+
+        // Segments come newest month first; rows are sorted within each segment
+        Flux<TransactionResponse> archived = archiveRepository
+                .findByUserIdAndMonthBetweenOrderByMonthDesc(userId, from.withDayOfMonth(1), to)
+                .concatMapIterable(segment -> TransactionArchiveCodec.decode(segment.payload(), userId)
+                        .stream()
+                        .filter(row -> !row.date().isBefore(from) && !row.date().isAfter(to))
+                        .filter(row -> type == null || row.type() == type)
+                        .sorted(NEWEST_FIRST)
+                        .toList());
+        return Flux.mergeComparing(NEWEST_FIRST, hot, archived);
+    }
+
+    private static <T> Flux<T> onCurrentShard(Flux<T> flux) {
+        return flux.contextWrite(ShardRoutingConnectionFactory.currentShard());
+    }
+
+    private static TransactionResponse toResponse(TransactionRecord transaction) {
+        return new TransactionResponse(
+                transaction.id(),
+                transaction.userId(),
+                transaction.type(),
+                transaction.category(),
+                transaction.amount(),
+                transaction.date(),
+                transaction.description(),
+                transaction.createdAt(),
+                transaction.updatedAt()
+        );
+    }
+}
@@ -0,0 +1,372 @@
+package com.smartledger.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartledger.cache.LedgerRow;
+import com.smartledger.dto.ReportJobResponse;
+import com.smartledger.dto.ReportRequest;
+import com.smartledger.entity.Category;
+import com.smartledger.entity.ReportJob;
+import com.smartledger.entity.ReportStatus;
+import com.smartledger.entity.TransactionType;
+import com.smartledger.entity.User;
+import com.smartledger.exception.ReportQueueFullException;
+import com.smartledger.repository.ReportJobRepository;
+import com.smartledger.repository.TransactionRepository;
+import com.smartledger.repository.UserRepository;
+import com.smartledger.sharding.ShardContext;
+import com.smartledger.sharding.ShardTopology;
+import com.smartledger.util.MinorUnits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Year-end style reports built off the request thread. A job streams the user's
+ * transactions through a database cursor, aggregates them per category and per month in
+ * constant memory and stores the result as gzip-compressed JSON in the job's row, a few
+ * KiB per year of months, so any node can serve it. Jobs run on the shard of the user that
+ * submitted them.
+ *
+ * <p>Every {@code reports.heartbeat-interval-ms}, the node holding a queued or running job
+ * writes its progress and a heartbeat to the job's row, so any node can report it. Jobs are
+ * not resumed when their node stops: every node fails jobs whose heartbeat is older than
+ * {@code reports.heartbeat-timeout}, so clients polling them resubmit instead of waiting
+ * forever, while jobs of live nodes are left alone. Starting and completing a job are
+ * conditional on its status, so a job failed as abandoned is never revived.
+ */
+@Service
+public class ReportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportService.class);
+
+    private static final Category[] CATEGORIES = Category.values();
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private static final List<ReportStatus> ACTIVE = List.of(ReportStatus.QUEUED, ReportStatus.RUNNING);
+
+    private static final long RETRY_AFTER_SECONDS = 30;
+
+    static final String ABANDONED = "Report generation was interrupted, submit it again";
+
+    private final ReportJobRepository reportJobRepository;
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final TransactionArchiveService archiveService;
+    private final ThreadPoolTaskExecutor reportExecutor;
+    private final ShardTopology shardTopology;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    /** Jobs queued or running on this node, with the shard they run on and their progress. */
+    private final Map<UUID, HeldJob> held = new ConcurrentHashMap<>();
+
+    @Value("${reports.retention-hours:24}")
+    private long retentionHours;
+
+    @Value("${reports.heartbeat-timeout:PT1M}")
+    private Duration heartbeatTimeout;
+
+    public ReportService(ReportJobRepository reportJobRepository,
+                         TransactionRepository transactionRepository,
+                         UserRepository userRepository,
+                         TransactionArchiveService archiveService,
+                         @Qualifier("reportExecutor") ThreadPoolTaskExecutor reportExecutor,
+                         ShardTopology shardTopology,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper) {
+        this.reportJobRepository = reportJobRepository;
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.archiveService = archiveService;
+        this.reportExecutor = reportExecutor;
+        this.shardTopology = shardTopology;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public ReportJobResponse submit(String username, ReportRequest request) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (request.startDate() != null && request.endDate() != null
+                && request.startDate().isAfter(request.endDate())) {
+            throw new RuntimeException("Start date must not be after end date");
+        }
+
+        ReportJob job = new ReportJob();
+        job.setId(UUID.randomUUID());
+        job.setUserId(user.getId());
+        job.setStatus(ReportStatus.QUEUED);
+        job.setStartDate(request.startDate());
+        job.setEndDate(request.endDate());
+        job.setCreatedAt(LocalDateTime.now());
+        job.setHeartbeatAt(job.getCreatedAt());
+        reportJobRepository.save(job);
+        ReportJobResponse response = toResponse(job);
+
+        Integer shard = ShardContext.current();
+        held.put(job.getId(), new HeldJob(shard, new AtomicLong()));
+        try {
+            reportExecutor.execute(() -> ShardContext.runOn(shard, () -> run(job)));
+        } catch (TaskRejectedException e) {
+            held.remove(job.getId());
+            ReportQueueFullException full = new ReportQueueFullException(RETRY_AFTER_SECONDS);
+            fail(job, full.getMessage());
+            throw full;
+        }
+        return response;
+    }
+
+    public ReportJobResponse getStatus(String username, UUID id) {
+        return toResponse(findJob(username, id));
+    }
+
+    public Resource getFile(String username, UUID id) {
+        ReportJob job = findJob(username, id);
+        if (job.getStatus() != ReportStatus.COMPLETED) {
+            throw new RuntimeException("Report is not ready");
+        }
+        byte[] content = reportJobRepository.findContentById(job.getId());
+        if (content == null) {
+            throw new RuntimeException("Report has expired");
+        }
+        return new ByteArrayResource(content);
+    }
+
+    @Scheduled(fixedDelayString = "${reports.cleanup-interval-ms:3600000}")
+    public void deleteExpiredReports() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        shardTopology.forEachShard(() -> transactionTemplate.executeWithoutResult(status ->
+                reportJobRepository.deleteByStatusAndCompletedAtBefore(ReportStatus.COMPLETED, cutoff)));
+    }
+
+    /**
+     * Writes the progress and a heartbeat of every job this node holds to its row.
+     */
+    @Scheduled(fixedDelayString = "${reports.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        held.forEach((id, job) -> {
+            try {
+                ShardContext.runOn(job.shard(), () -> transactionTemplate.executeWithoutResult(status ->
+                        reportJobRepository.heartbeat(id, job.processed().get(), ACTIVE, LocalDateTime.now())));
+            } catch (RuntimeException e) {
+                log.warn("Could not record the heartbeat of report job {}", id, e);
+            }
+        });
+    }
+
+    /**
+     * Fails the queued and running jobs, on every shard, whose node stopped sending heartbeats.
+     */
+    @Scheduled(fixedDelayString = "${reports.heartbeat-interval-ms:5000}")
+    public void failAbandonedJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        AtomicInteger jobs = new AtomicInteger();
+        shardTopology.forEachShard(() -> jobs.addAndGet(transactionTemplate.execute(status ->
+                reportJobRepository.failStale(ACTIVE, now.minus(heartbeatTimeout), ReportStatus.FAILED, ABANDONED, now))));
+        if (jobs.get() > 0) {
+            log.warn("Marked {} report jobs without a heartbeat for {} as failed", jobs.get(), heartbeatTimeout);
+        }
+    }
+
+    private void run(ReportJob job) {
+        AtomicLong processed = held.get(job.getId()).processed();
+        try {
+            LocalDate startDate = job.getStartDate() != null ? job.getStartDate() : LocalDate.of(1900, 1, 1);
+            LocalDate endDate = job.getEndDate() != null ? job.getEndDate() : LocalDate.of(9999, 12, 31);
+
+            long totalRows = transactionRepository.countByUserIdAndDateBetween(job.getUserId(), startDate, endDate)
+                    + archiveService.estimateCount(job.getUserId(), job.getStartDate(), job.getEndDate());
+            if (transactionTemplate.execute(status ->
+                    reportJobRepository.start(job.getId(), totalRows, LocalDateTime.now())) == 0) {
+                log.warn("Report job {} was failed as abandoned before it started", job.getId());
+                return;
+            }
+            job.setTotalRows(totalRows);
+
+            ReportTotals totals = readOnlyTransaction.execute(status -> {
+                ReportTotals accumulator = new ReportTotals();
+                try (Stream<LedgerRow> rows = transactionRepository.streamLedgerRows(job.getUserId(), startDate, endDate)) {
+                    rows.forEach(row -> {
+                        accumulator.add(row);
+                        processed.incrementAndGet();
+                    });
+                }
+                archiveService.forEach(job.getUserId(), job.getStartDate(), job.getEndDate(), row -> {
+                    accumulator.add(new LedgerRow(row.id(), row.amount(), row.date(), row.category(), row.type()));
+                    processed.incrementAndGet();
+                });
+                return accumulator;
+            });
+
+            byte[] content = writeReport(job, totals);
+            if (transactionTemplate.execute(status -> reportJobRepository.complete(
+                    job.getId(), processed.get(), content, content.length, LocalDateTime.now())) == 0) {
+                log.warn("Report job {} was failed as abandoned while it ran", job.getId());
+            }
+        } catch (Exception e) {
+            log.error("Report job {} failed", job.getId(), e);
+            job.setProcessedRows(processed.get());
+            fail(job, "Report generation failed");
+        } finally {
+            held.remove(job.getId());
+        }
+    }
+
+    private byte[] writeReport(ReportJob job, ReportTotals totals) throws IOException {
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(report);
+             JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("startDate", job.getStartDate() != null ? job.getStartDate().toString() : null);
+            json.writeStringField("endDate", job.getEndDate() != null ? job.getEndDate().toString() : null);
+            json.writeStringField("generatedAt", LocalDateTime.now().toString());
+            json.writeNumberField("transactionCount", totals.count);
+            json.writeNumberField("totalIncome", MinorUnits.fromMinor(totals.income()));
+            json.writeNumberField("totalExpense", MinorUnits.fromMinor(totals.expense()));
+            json.writeNumberField("balance", MinorUnits.fromMinor(totals.income() - totals.expense()));
+
+            json.writeArrayFieldStart("byCategory");
+            for (TransactionType type : TYPES) {
+                for (Category category : CATEGORIES) {
+                    int cell = type.ordinal() * CATEGORIES.length + category.ordinal();
+                    if (totals.categoryCounts[cell] == 0) {
+                        continue;
+                    }
+                    json.writeStartObject();
+                    json.writeStringField("type", type.name());
+                    json.writeStringField("category", category.name());
+                    json.writeNumberField("count", totals.categoryCounts[cell]);
+                    json.writeNumberField("total", MinorUnits.fromMinor(totals.categorySums[cell]));
+                    json.writeEndObject();
+                }
+            }
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("byMonth");
+            for (Map.Entry<YearMonth, long[]> month : totals.months.entrySet()) {
+                long income = month.getValue()[TransactionType.INCOME.ordinal()];
+                long expense = month.getValue()[TransactionType.EXPENSE.ordinal()];
+                json.writeStartObject();
+                json.writeStringField("month", month.getKey().toString());
+                json.writeNumberField("income", MinorUnits.fromMinor(income));
+                json.writeNumberField("expense", MinorUnits.fromMinor(expense));
+                json.writeNumberField("net", MinorUnits.fromMinor(income - expense));
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        return report.toByteArray();
+    }
+
+    private void fail(ReportJob job, String message) {
+        job.setStatus(ReportStatus.FAILED);
+        job.setErrorMessage(message);
+        job.setCompletedAt(LocalDateTime.now());
+        reportJobRepository.save(job);
+    }
+
+    private ReportJob findJob(String username, UUID id) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        return reportJobRepository.findByIdAndUserId(id, user.getId())
+                .orElseThrow(() -> new RuntimeException("Report not found"));
+    }
+
+    private ReportJobResponse toResponse(ReportJob job) {
+        // Held here, the in-memory count is fresher than the last heartbeat
+        HeldJob local = held.get(job.getId());
+        long processed = local != null ? local.processed().get() : job.getProcessedRows();
+        int percent;
+        if (job.getStatus() == ReportStatus.COMPLETED) {
+            percent = 100;
+        } else if (job.getTotalRows() == null || job.getTotalRows() == 0) {
+            percent = 0;
+        } else {
+            percent = (int) Math.min(99, processed * 100 / job.getTotalRows());
+        }
+
+        return new ReportJobResponse(
+                job.getId(),
+                job.getStatus(),
+                job.getStartDate(),
+                job.getEndDate(),
+                processed,
+                job.getTotalRows(),
+                percent,
+                job.getFileSize(),
+                job.getErrorMessage(),
+                job.getCreatedAt(),
+                job.getCompletedAt()
+        );
+    }
+
+    private record HeldJob(Integer shard, AtomicLong processed) {}
+
+    /**
+     * Aggregates in whole cents; memory depends on the number of months, not of rows.
+     */
+    private static final class ReportTotals {
+
+        private final long[] categorySums = new long[TYPES.length * CATEGORIES.length];
+        private final long[] categoryCounts = new long[categorySums.length];
+        private final SortedMap<YearMonth, long[]> months = new TreeMap<>();
+        private long count;
+
+        void add(LedgerRow row) {
+            long amount = MinorUnits.toMinor(row.amount());
+            int cell = row.type().ordinal() * CATEGORIES.length + row.category().ordinal();
+            categorySums[cell] += amount;
+            categoryCounts[cell]++;
+            months.computeIfAbsent(YearMonth.from(row.date()), month -> new long[TYPES.length])[row.type().ordinal()] += amount;
+            count++;
+        }
+
+        long income() {
+            return sumOfType(TransactionType.INCOME);
+        }
+
+        long expense() {
+            return sumOfType(TransactionType.EXPENSE);
+        }
+
+        private long sumOfType(TransactionType type) {
+            long sum = 0;
+            for (int category = 0; category < CATEGORIES.length; category++) {
+                sum += categorySums[type.ordinal() * CATEGORIES.length + category];
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.smartledger.service;
+
+import com.smartledger.cache.SpendingProfile;
+import com.smartledger.dto.SpendingAnomalyResponse;
+import com.smartledger.dto.TransactionResponse;
+import com.smartledger.entity.Category;
+import com.smartledger.entity.SpendingAnomaly;
+import com.smartledger.entity.SpendingProfileSnapshot;
+import com.smartledger.entity.TransactionType;
+import com.smartledger.entity.User;
+import com.smartledger.event.TransactionChangedEvent;
+import com.smartledger.repository.ExpenseSample;
+import com.smartledger.repository.SpendingAnomalyRepository;
+import com.smartledger.repository.SpendingProfileSnapshotRepository;
+import com.smartledger.repository.TransactionRepository;
+import com.smartledger.repository.UserRepository;
+import com.smartledger.sharding.ShardContext;
+import com.smartledger.sharding.ShardTopology;
+import com.smartledger.util.MinorUnits;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Flags expenses that are unusually large for the user's spending in their category.
+ * Every new expense is scored against an in-memory {@link SpendingProfile} and, once its
+ * transaction has committed, folded into it, which costs a map lookup and a few floating
+ * point operations; history is never re-read on the write path, and only flagged expenses
+ * cause a database write.
+ *
+ * <p>Profiles are flushed to {@code spending_profiles} every {@code anomaly.flush-interval-ms}.
+ * On startup they are rebuilt in the background from that snapshot plus the expenses
+ * created since, replayed by {@code anomaly.rebuild-threads} workers per shard, each
+ * owning the users with {@code user_id mod threads} equal to its index. Expenses created
+ * during the rebuild are queued and folded in afterwards, unscored. Archived transactions
+ * are not replayed: with exponential weighting, months-old spending no longer matters.
+ *
+ * <p>Profiles live per node: with several nodes each one learns from the expenses it
+ * serves, and the snapshot keeps whatever was flushed last.
+ */
+@Service
+public class SpendingAnomalyService {
+
+    private static final Logger log = LoggerFactory.getLogger(SpendingAnomalyService.class);
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final SpendingProfileSnapshotRepository snapshotRepository;
+    private final SpendingAnomalyRepository anomalyRepository;
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final ShardTopology shardTopology;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Map<Long, SpendingProfile> profiles = new ConcurrentHashMap<>();
+    private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private volatile boolean ready;
+
+    @Value("${anomaly.enabled:true}")
+    private boolean enabled;
+
+    @Value("${anomaly.alpha:0.1}")
+    private double alpha;
+
+    @Value("${anomaly.z-threshold:3.0}")
+    private double zThreshold;
+
+    @Value("${anomaly.min-ratio:3.0}")
+    private double minRatio;
+
+    @Value("${anomaly.min-samples:5}")
+    private int minSamples;
+
+    @Value("${anomaly.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    public SpendingAnomalyService(SpendingProfileSnapshotRepository snapshotRepository,
+                                  SpendingAnomalyRepository anomalyRepository,
+                                  TransactionRepository transactionRepository,
+                                  UserRepository userRepository,
+                                  ShardTopology shardTopology,
+                                  PlatformTransactionManager transactionManager) {
+        this.snapshotRepository = snapshotRepository;
+        this.anomalyRepository = anomalyRepository;
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.shardTopology = shardTopology;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Scores a newly created transaction and records it as an anomaly if it stands out.
+     * Runs inside the creating transaction, so a recorded anomaly commits with it. The
+     * expense is only folded into the profile once that transaction has committed, see
+     * {@link #onTransactionChanged}, so a rolled back and retried create is not counted twice.
+     */
+    public void inspect(TransactionResponse transaction) {
+        if (!enabled || !ready || transaction.type() != TransactionType.EXPENSE) {
+            return;
+        }
+        if (!pending.isEmpty()) {
+            drainPending();
+        }
+
+        double logAmount = Math.log(transaction.amount().doubleValue());
+        SpendingProfile.Score score = profile(transaction.userId(), ShardContext.current())
+                .score(transaction.category().ordinal(), logAmount);
+
+        if (score.samples() >= minSamples
+                && score.z() >= zThreshold
+                && logAmount - score.mean() >= Math.log(minRatio)) {
+            record(transaction, score);
+        }
+    }
+
+    /**
+     * Folds a committed expense into its user's profile, or queues it while profiles are
+     * being rebuilt. Updates and deletions are not folded back out.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        TransactionResponse transaction = event.after();
+        if (!enabled || event.before() != null || transaction == null
+                || transaction.type() != TransactionType.EXPENSE) {
+            return;
+        }
+        if (!ready) {
+            pending.add(new Pending(transaction, ShardContext.current()));
+            return;
+        }
+        if (!pending.isEmpty()) {
+            drainPending();
+        }
+        profile(transaction.userId(), ShardContext.current()).add(transaction.category().ordinal(), transaction.id(),
+                Math.log(transaction.amount().doubleValue()), parameters(), ShardContext.current());
+    }
+
+    @Transactional(readOnly = true)
+    public List<SpendingAnomalyResponse> getAnomalies(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        return anomalyRepository.findTop100ByUserIdOrderByIdDesc(user.getId())
+                .stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Anomalies flagged on several of the user's transactions, keyed by transaction id.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, SpendingAnomalyResponse> getAnomaliesByTransaction(Long userId, Collection<Long> transactionIds) {
+        return anomalyRepository.findByUserIdAndTransactionIdIn(userId, transactionIds).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toMap(SpendingAnomalyResponse::transactionId, anomaly -> anomaly,
+                        (first, second) -> second));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRebuild() {
+        if (!enabled) {
+            return;
+        }
+        Thread rebuild = new Thread(this::rebuild, "anomaly-rebuild");
+        rebuild.setDaemon(true);
+        rebuild.start();
+    }
+
+    @Scheduled(fixedDelayString = "${anomaly.flush-interval-ms:60000}")
+    public void flush() {
+        if (!ready) {
+            return;
+        }
+        Map<Integer, List<Dirty>> byShard = new HashMap<>();
+        profiles.forEach((userId, profile) -> {
+            int categories = profile.takeDirty();
+            if (categories != 0) {
+                byShard.computeIfAbsent(profile.shard(), shard -> new ArrayList<>())
+                        .add(new Dirty(userId, profile, categories));
+            }
+        });
+
+        byShard.forEach((shard, dirty) -> {
+            try {
+                ShardContext.runOn(shard, () -> transactionTemplate.executeWithoutResult(status -> write(dirty)));
+            } catch (RuntimeException e) {
+                dirty.forEach(entry -> entry.profile().markDirty(entry.categories()));
+                log.error("Flushing {} spending profiles failed, will retry on next run", dirty.size(), e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    void rebuild() {
+        long started = System.nanoTime();
+        try {
+            shardTopology.forEachShard(() -> readOnlyTransaction.executeWithoutResult(
+                    status -> loadSnapshots(ShardContext.current())));
+            replayHistory();
+            log.info("Rebuilt spending profiles of {} users in {} ms", profiles.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Rebuilding spending profiles failed, detection continues from partial profiles", e);
+        } finally {
+            ready = true;
+            drainPending();
+        }
+    }
+
+    private void loadSnapshots(Integer shard) {
+        for (SpendingProfileSnapshot snapshot : snapshotRepository.findAll()) {
+            profile(snapshot.getId().getUserId(), shard).restore(snapshot.getId().getCategory().ordinal(),
+                    snapshot.getMeanLog(), snapshot.getVarianceLog(), snapshot.getSamples(),
+                    snapshot.getLastTransactionId());
+        }
+    }
+
+    private void replayHistory() throws InterruptedException, ExecutionException {
+        List<Integer> shards = new ArrayList<>();
+        if (shardTopology.isSharded()) {
+            for (int shard = 0; shard < shardTopology.shardCount(); shard++) {
+                shards.add(shard);
+            }
+        } else {
+            shards.add(null);
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(rebuildThreads,
+                new CustomizableThreadFactory("anomaly-rebuild-"));
+        try {
+            List<Future<?>> partitions = new ArrayList<>();
+            for (Integer shard : shards) {
+                for (int partition = 0; partition < rebuildThreads; partition++) {
+                    int index = partition;
+                    partitions.add(workers.submit(() -> ShardContext.runOn(shard, () ->
+                            readOnlyTransaction.executeWithoutResult(status -> replayPartition(shard, index)))));
+                }
+            }
+            for (Future<?> partition : partitions) {
+                partition.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void replayPartition(Integer shard, int partition) {
+        try (Stream<ExpenseSample> samples = transactionRepository.streamUnprofiledExpenses(rebuildThreads, partition)) {
+            samples.forEach(sample -> profile(sample.userId(), shard).replay(sample.category().ordinal(),
+                    sample.id(), Math.log(sample.amount().doubleValue()), parameters()));
+        }
+    }
+
+    private void drainPending() {
+        Pending next;
+        while ((next = pending.poll()) != null) {
+            TransactionResponse transaction = next.transaction();
+            profile(transaction.userId(), next.shard()).replay(transaction.category().ordinal(), transaction.id(),
+                    Math.log(transaction.amount().doubleValue()), parameters());
+        }
+    }
+
+    private void write(List<Dirty> dirty) {
+        for (Dirty entry : dirty) {
+            for (Category category : CATEGORIES) {
+                if ((entry.categories() & (1 << category.ordinal())) == 0) {
+                    continue;
+                }
+                SpendingProfile.Snapshot snapshot = entry.profile().snapshot(category.ordinal());
+                snapshotRepository.upsert(entry.userId(), category.name(), snapshot.mean(), snapshot.variance(),
+                        snapshot.samples(), snapshot.lastTransactionId());
+            }
+        }
+    }
+
+    /**
+     * Outliers are clamped at the detection threshold from the sample at which they could
+     * first be flagged.
+     */
+    private SpendingProfile.Parameters parameters() {
+        return new SpendingProfile.Parameters(alpha, zThreshold, minSamples);
+    }
+
+    private SpendingProfile profile(Long userId, Integer shard) {
+        return profiles.computeIfAbsent(userId, id -> new SpendingProfile(CATEGORIES.length, shard));
+    }
+
+    private void record(TransactionResponse transaction, SpendingProfile.Score score) {
+        SpendingAnomaly anomaly = new SpendingAnomaly();
+        anomaly.setUserId(transaction.userId());
+        anomaly.setTransactionId(transaction.id());
+        anomaly.setCategory(transaction.category());
+        anomaly.setAmount(transaction.amount());
+        anomaly.setTypicalAmount(BigDecimal.valueOf(Math.exp(score.mean())).setScale(MinorUnits.SCALE, RoundingMode.HALF_UP));
+        anomaly.setScore(score.z());
+        anomaly.setCreatedAt(LocalDateTime.now());
+        anomalyRepository.save(anomaly);
+        log.info("Expense {} of user {} in {} is {} standard deviations above usual spending",
+                transaction.id(), transaction.userId(), transaction.category(), String.format("%.1f", score.z()));
+    }
+
+    private SpendingAnomalyResponse toResponse(SpendingAnomaly anomaly) {
+        return new SpendingAnomalyResponse(
+                anomaly.getId(),
+                anomaly.getTransactionId(),
+                anomaly.getCategory(),
+                anomaly.getAmount(),
+                anomaly.getTypicalAmount(),
+                anomaly.getScore(),
+                anomaly.getCreatedAt()
+        );
+    }
+
+    private record Pending(TransactionResponse transaction, Integer shard) {}
+
+    private record Dirty(Long userId, SpendingProfile profile, int categories) {}
+}
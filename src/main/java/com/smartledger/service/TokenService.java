@@ -0,0 +1,271 @@
+package com.smartledger.service;
+
+import com.smartledger.cache.Invalidation;
+import com.smartledger.cache.InvalidationBus;
+import com.smartledger.dto.LoginResponse;
+import com.smartledger.entity.RefreshToken;
+import com.smartledger.entity.User;
+import com.smartledger.repository.RefreshTokenRepository;
+import com.smartledger.repository.RevokedTokenRepository;
+import com.smartledger.repository.UserRepository;
+import com.smartledger.security.IssuedToken;
+import com.smartledger.security.JwtUtil;
+import com.smartledger.security.PrincipalCache;
+import com.smartledger.security.RevokedTokenSet;
+import com.smartledger.sharding.ShardContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Issues access and refresh tokens and revokes them. Refresh tokens are random, single-use
+ * and stored only as a SHA-256 hash: a refresh is one indexed lookup and never runs
+ * BCrypt. Each refresh token remembers the access token issued with it, so revoking a
+ * user's sessions also revokes their outstanding access tokens by id.
+ *
+ * <p>Presenting a refresh token that was already rotated means it leaked or was replayed,
+ * so every session of its user is revoked.
+ *
+ * <p>Token tables live in the directory database, next to {@code users}.
+ */
+@Service
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private static final int REFRESH_TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtUtil jwtUtil;
+    private final RevokedTokenSet revokedTokenSet;
+    private final PrincipalCache principalCache;
+    private final InvalidationBus invalidationBus;
+    private final TransactionTemplate transactionTemplate;
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private long refreshExpiration;
+
+    public TokenService(RefreshTokenRepository refreshTokenRepository,
+                        RevokedTokenRepository revokedTokenRepository,
+                        UserRepository userRepository,
+                        JwtUtil jwtUtil,
+                        RevokedTokenSet revokedTokenSet,
+                        PrincipalCache principalCache,
+                        InvalidationBus invalidationBus,
+                        PlatformTransactionManager transactionManager) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtUtil = jwtUtil;
+        this.revokedTokenSet = revokedTokenSet;
+        this.principalCache = principalCache;
+        this.invalidationBus = invalidationBus;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public LoginResponse issue(User user) {
+        return onDirectory(() -> issueTokens(user));
+    }
+
+    public LoginResponse refresh(String refreshToken) {
+        Outcome outcome = onDirectory(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            RefreshToken current = refreshTokenRepository.lockByTokenHash(hash(refreshToken)).orElse(null);
+            if (current == null || current.getExpiresAt().isBefore(now)) {
+                return new Outcome(null, List.of());
+            }
+            if (current.getRevokedAt() != null) {
+                log.warn("Rotated refresh token presented again for user {}, revoking all sessions", current.getUserId());
+                return new Outcome(null, revokeSessions(current.getUserId(), now));
+            }
+
+            User user = userRepository.findById(current.getUserId())
+                    .filter(User::isEnabled)
+                    .orElse(null);
+            if (user == null) {
+                return new Outcome(null, List.of());
+            }
+            current.setRevokedAt(now);
+            return new Outcome(issueTokens(user), List.of());
+        });
+
+        publish(outcome.revoked());
+        if (outcome.response() == null) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+        return outcome.response();
+    }
+
+    /**
+     * Revokes the presented access token and, if given, the refresh token of the session.
+     * Either may be missing or invalid; whatever can be identified is revoked.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        List<Revocation> revoked = onDirectory(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Revocation> revocations = new ArrayList<>();
+            if (accessToken != null) {
+                accessTokenRevocation(accessToken).ifPresent(revocation -> {
+                    revocations.add(revocation);
+                    persist(revocation, now);
+                });
+            }
+            if (refreshToken != null) {
+                refreshTokenRepository.lockByTokenHash(hash(refreshToken))
+                        .ifPresent(session -> revocations.addAll(revoke(session, now)));
+            }
+            return revocations;
+        });
+        publish(revoked);
+    }
+
+    /**
+     * Ends every session of the user: refresh tokens stop working and access tokens issued
+     * through them are rejected from now on.
+     */
+    public int revokeAll(String username) {
+        List<Revocation> revoked = onDirectory(() -> {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            return revokeSessions(user.getId(), LocalDateTime.now());
+        });
+        publish(revoked);
+        principalCache.invalidate(username);
+        invalidationBus.publish(new Invalidation.Principal(username));
+        log.info("Revoked {} access tokens of user {}", revoked.size(), username);
+        return revoked.size();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        try {
+            onDirectory(() -> {
+                LocalDateTime now = LocalDateTime.now();
+                int refresh = refreshTokenRepository.deleteExpired(now);
+                int revoked = revokedTokenRepository.deleteExpired(now);
+                if (refresh + revoked > 0) {
+                    log.info("Deleted {} expired refresh tokens and {} expired revocations", refresh, revoked);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Deleting expired tokens failed, will retry on next run", e);
+        }
+    }
+
+    private LoginResponse issueTokens(User user) {
+        IssuedToken access = jwtUtil.issueToken(user);
+        String refreshToken = newRefreshToken();
+
+        RefreshToken session = new RefreshToken();
+        session.setUserId(user.getId());
+        session.setTokenHash(hash(refreshToken));
+        session.setAccessJti(access.jti());
+        session.setAccessExpiresAt(toLocal(access.expiresAt()));
+        session.setCreatedAt(LocalDateTime.now());
+        session.setExpiresAt(session.getCreatedAt().plus(Duration.ofMillis(refreshExpiration)));
+        refreshTokenRepository.save(session);
+
+        return new LoginResponse(access.token(), user.getUsername(), user.getRoles(), refreshToken,
+                jwtUtil.getExpirationMillis() / 1000);
+    }
+
+    private List<Revocation> revokeSessions(Long userId, LocalDateTime now) {
+        List<Revocation> revocations = new ArrayList<>();
+        for (RefreshToken session : refreshTokenRepository.lockLiveByUserId(userId, now)) {
+            revocations.addAll(revoke(session, now));
+        }
+        return revocations;
+    }
+
+    private List<Revocation> revoke(RefreshToken session, LocalDateTime now) {
+        if (session.getRevokedAt() == null) {
+            session.setRevokedAt(now);
+        }
+        if (!session.getAccessExpiresAt().isAfter(now)) {
+            return List.of();
+        }
+        Revocation revocation = new Revocation(session.getAccessJti(), session.getAccessExpiresAt());
+        persist(revocation, now);
+        return List.of(revocation);
+    }
+
+    private Optional<Revocation> accessTokenRevocation(String accessToken) {
+        try {
+            UUID jti = jwtUtil.extractJti(accessToken);
+            if (jti == null) {
+                return Optional.empty();
+            }
+            Instant expiresAt = jwtUtil.extractExpiration(accessToken).toInstant();
+            return Optional.of(new Revocation(jti, toLocal(expiresAt)));
+        } catch (Exception e) {
+            // Expired or forged: nothing to revoke
+            return Optional.empty();
+        }
+    }
+
+    private void persist(Revocation revocation, LocalDateTime now) {
+        revokedTokenRepository.insertIfAbsent(revocation.jti(), revocation.expiresAt(), now);
+    }
+
+    /**
+     * Makes committed revocations effective on this node and tells the other nodes.
+     */
+    private void publish(List<Revocation> revocations) {
+        for (Revocation revocation : revocations) {
+            Instant expiresAt = revocation.expiresAt().atZone(ZoneId.systemDefault()).toInstant();
+            revokedTokenSet.add(revocation.jti(), expiresAt);
+            invalidationBus.publish(new Invalidation.RevokedToken(revocation.jti(), expiresAt));
+        }
+    }
+
+    private <T> T onDirectory(Supplier<T> work) {
+        return ShardContext.callOn(null, () -> transactionTemplate.execute(status -> work.get()));
+    }
+
+    private String newRefreshToken() {
+        byte[] bytes = new byte[REFRESH_TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    private record Revocation(UUID jti, LocalDateTime expiresAt) {}
+
+    private record Outcome(LoginResponse response, List<Revocation> revoked) {}
+}
@@ -0,0 +1,233 @@
+package com.smartledger.service;
+
+import com.smartledger.cache.Invalidation;
+import com.smartledger.cache.InvalidationBus;
+import com.smartledger.dto.TransactionResponse;
+import com.smartledger.entity.TransactionArchiveSegment;
+import com.smartledger.entity.TransactionType;
+import com.smartledger.repository.ArchivedPayload;
+import com.smartledger.repository.ArchivedRowCount;
+import com.smartledger.repository.TransactionArchiveRepository;
+import com.smartledger.sharding.ShardContext;
+import com.smartledger.util.TransactionArchiveCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Read side of the transaction archive. Reads consult the archive only when the
+ * requested range starts before the hot window, i.e. before the first month that is
+ * guaranteed to still be entirely in {@code transactions}; everything more recent is
+ * served by the hot table alone, without touching {@code transaction_archive}.
+ *
+ * <p>Archived transactions are read-only: they are returned by reads but cannot be
+ * updated or deleted.
+ */
+@Service
+public class TransactionArchiveService {
+
+    static final LocalDate OPEN_START = LocalDate.of(1900, 1, 1);
+    static final LocalDate OPEN_END = LocalDate.of(9999, 12, 31);
+    private static final int UNSHARDED = -1;
+
+    private final TransactionArchiveRepository archiveRepository;
+    private final InvalidationBus invalidationBus;
+
+    /** Per shard, the month after the most recent archived month. */
+    private final Map<Integer, LocalDate> archivedBefore = new ConcurrentHashMap<>();
+
+    @Value("${archive.enabled:false}")
+    private boolean archivingEnabled;
+
+    @Value("${archive.horizon-months:24}")
+    private int horizonMonths;
+
+    public TransactionArchiveService(TransactionArchiveRepository archiveRepository, InvalidationBus invalidationBus) {
+        this.archiveRepository = archiveRepository;
+        this.invalidationBus = invalidationBus;
+    }
+
+    /**
+     * First day of the oldest month the archiver may move on {@code today}.
+     */
+    public LocalDate horizonStart(LocalDate today) {
+        return YearMonth.from(today).minusMonths(horizonMonths).atDay(1);
+    }
+
+    /**
+     * Whether a range starting at {@code startDate} (null for unbounded) may include
+     * archived transactions.
+     */
+    public boolean reaches(LocalDate startDate) {
+        return startDate == null || startDate.isBefore(hotFrom());
+    }
+
+    public List<TransactionResponse> find(Long userId, LocalDate startDate, LocalDate endDate, TransactionType type) {
+        return find(userId, startDate, endDate, type, null);
+    }
+
+    /**
+     * Like {@link #find(Long, LocalDate, LocalDate, TransactionType)}, but stops at the
+     * first month that already leaves at least {@code limit} rows, unless it is null: older
+     * months cannot hold any of the newest {@code limit}.
+     */
+    public List<TransactionResponse> find(Long userId, LocalDate startDate, LocalDate endDate, TransactionType type,
+                                          Integer limit) {
+        List<TransactionResponse> rows = new ArrayList<>();
+        forEachSegment(userId, startDate, endDate, segment -> {
+            for (TransactionResponse row : segment) {
+                if (type == null || row.type() == type) {
+                    rows.add(row);
+                }
+            }
+            return limit == null || rows.size() < limit;
+        });
+        return rows;
+    }
+
+    /**
+     * Feeds every archived transaction of the user dated within the range to
+     * {@code action}, month by month from the most recent. Null bounds are open.
+     */
+    public void forEach(Long userId, LocalDate startDate, LocalDate endDate, Consumer<TransactionResponse> action) {
+        forEachSegment(userId, startDate, endDate, rows -> {
+            rows.forEach(action);
+            return true;
+        });
+    }
+
+    /**
+     * Feeds the rows of each archived month within the range to {@code action}, from the
+     * most recent, until it returns false.
+     */
+    private void forEachSegment(Long userId, LocalDate startDate, LocalDate endDate,
+                                Predicate<List<TransactionResponse>> action) {
+        if (!reaches(startDate)) {
+            return;
+        }
+        LocalDate from = startDate != null ? startDate : OPEN_START;
+        LocalDate to = endDate != null ? endDate : OPEN_END;
+
+        for (TransactionArchiveSegment segment : archiveRepository.findByUserIdAndMonthBetweenOrderByMonthDesc(
+                userId, from.withDayOfMonth(1), to)) {
+            List<TransactionResponse> rows = new ArrayList<>();
+            for (TransactionResponse row : TransactionArchiveCodec.decode(segment.getPayload(), userId)) {
+                if (!row.date().isBefore(from) && !row.date().isAfter(to)) {
+                    rows.add(row);
+                }
+            }
+            if (!action.test(rows)) {
+                return;
+            }
+        }
+    }
+
+    public Optional<TransactionResponse> findById(Long userId, Long id) {
+        for (TransactionArchiveSegment segment
+                : archiveRepository.findByUserIdAndMinIdLessThanEqualAndMaxIdGreaterThanEqual(userId, id, id)) {
+            for (TransactionResponse row : TransactionArchiveCodec.decode(segment.getPayload(), userId)) {
+                if (row.id().equals(id)) {
+                    return Optional.of(row);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Rows in archived months overlapping the range; an upper bound, for progress reporting.
+     */
+    public long estimateCount(Long userId, LocalDate startDate, LocalDate endDate) {
+        if (!reaches(startDate)) {
+            return 0;
+        }
+        LocalDate from = startDate != null ? startDate : OPEN_START;
+        return archiveRepository.sumRowCount(userId, from.withDayOfMonth(1), endDate != null ? endDate : OPEN_END);
+    }
+
+    /**
+     * Feeds every archived transaction of the users in [fromUserId, toUserId) dated within
+     * the range to {@code action}, segment by segment in no particular order. Null bounds
+     * are open. Segments are streamed, so this must run in a transaction.
+     */
+    public void forEachInUserRange(long fromUserId, long toUserId, LocalDate startDate, LocalDate endDate,
+                                   Consumer<TransactionResponse> action) {
+        if (!reaches(startDate)) {
+            return;
+        }
+        LocalDate from = startDate != null ? startDate : OPEN_START;
+        LocalDate to = endDate != null ? endDate : OPEN_END;
+
+        try (Stream<ArchivedPayload> segments = archiveRepository.streamPayloads(
+                fromUserId, toUserId, from.withDayOfMonth(1), to)) {
+            segments.forEach(segment -> {
+                for (TransactionResponse row : TransactionArchiveCodec.decode(segment.payload(), segment.userId())) {
+                    if (!row.date().isBefore(from) && !row.date().isAfter(to)) {
+                        action.accept(row);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Archived rows per user of [fromUserId, toUserId), for users with any.
+     */
+    public Map<Long, Long> countByUser(long fromUserId, long toUserId) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (ArchivedRowCount count : archiveRepository.countRowsByUser(fromUserId, toUserId)) {
+            counts.put(count.userId(), count.count());
+        }
+        return counts;
+    }
+
+    /**
+     * Called by the archiver, on the shard it archived, after moving rows of {@code month}.
+     */
+    void recordArchived(LocalDate month) {
+        archivedBefore.merge(shardKey(), month.plusMonths(1), (current, next) -> next.isAfter(current) ? next : current);
+        // Other nodes would otherwise keep skipping the archive for this month's rows
+        invalidationBus.publish(new Invalidation.Archive(shardKey()));
+    }
+
+    @EventListener
+    public void onRemoteInvalidation(Invalidation.Archive invalidation) {
+        archivedBefore.remove(invalidation.shard());
+    }
+
+    @EventListener
+    public void onRemoteFlush(Invalidation.All flush) {
+        archivedBefore.clear();
+    }
+
+    /**
+     * The configured horizon, or later if the archive already holds more recent months
+     * (after the horizon was lengthened, for instance). The latter is read once per shard.
+     */
+    private LocalDate hotFrom() {
+        LocalDate archived = archivedBefore.computeIfAbsent(shardKey(), shard ->
+                archiveRepository.findLatestMonth().map(month -> month.plusMonths(1)).orElse(LocalDate.MIN));
+        if (!archivingEnabled) {
+            return archived;
+        }
+        LocalDate configured = horizonStart(LocalDate.now());
+        return archived.isAfter(configured) ? archived : configured;
+    }
+
+    private static int shardKey() {
+        Integer shard = ShardContext.current();
+        return shard != null ? shard : UNSHARDED;
+    }
+}
@@ -0,0 +1,141 @@
+package com.smartledger.service;
+
+import com.smartledger.dto.TransactionResponse;
+import com.smartledger.entity.Transaction;
+import com.smartledger.entity.TransactionArchiveSegment;
+import com.smartledger.repository.TransactionArchiveRepository;
+import com.smartledger.repository.TransactionRepository;
+import com.smartledger.sharding.ShardTopology;
+import com.smartledger.util.TransactionArchiveCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Moves transactions older than {@code archive.horizon-months} out of the hot table.
+ * Each batch is one database transaction: it locks up to {@code archive.batch-size} of a
+ * user's oldest rows, writes them as one compressed segment per month into
+ * {@code transaction_archive} and deletes them from {@code transactions}. Since the hot
+ * table only ever holds the horizon plus late-dated inserts, its indexes stay roughly
+ * the same size as the history grows; autovacuum reclaims the freed index pages.
+ *
+ * <p>Runs on one node only ({@code archive.job.enabled}); every node serves archived reads.
+ */
+@Component
+@ConditionalOnProperty(name = {"archive.enabled", "archive.job.enabled"}, havingValue = "true")
+public class TransactionArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionArchiver.class);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveRepository archiveRepository;
+    private final TransactionArchiveService archiveService;
+    private final ShardTopology shardTopology;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${archive.batch-size:5000}")
+    private int batchSize;
+
+    public TransactionArchiver(TransactionRepository transactionRepository,
+                               TransactionArchiveRepository archiveRepository,
+                               TransactionArchiveService archiveService,
+                               ShardTopology shardTopology,
+                               PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.archiveRepository = archiveRepository;
+        this.archiveService = archiveService;
+        this.shardTopology = shardTopology;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${archive.cron:0 30 3 * * *}")
+    public void archive() {
+        LocalDate before = archiveService.horizonStart(LocalDate.now());
+        try {
+            shardTopology.forEachShard(() -> archiveShard(before));
+        } catch (Exception e) {
+            log.error("Transaction archival failed, will resume on next run", e);
+        }
+    }
+
+    /**
+     * Archives every transaction of the current shard dated before {@code before} and
+     * returns the number of rows moved.
+     */
+    public long archiveShard(LocalDate before) {
+        long archived = 0;
+        for (Long userId : transactionRepository.findUserIdsWithTransactionsBefore(before)) {
+            int moved;
+            do {
+                moved = transactionTemplate.execute(status -> archiveBatch(userId, before));
+                archived += moved;
+            } while (moved == batchSize);
+        }
+        if (archived > 0) {
+            log.info("Archived {} transactions dated before {}", archived, before);
+        }
+        return archived;
+    }
+
+    private int archiveBatch(Long userId, LocalDate before) {
+        List<Transaction> batch = transactionRepository.lockArchivableBatch(userId, before, batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        TreeMap<LocalDate, List<TransactionResponse>> byMonth = new TreeMap<>();
+        for (Transaction transaction : batch) {
+            byMonth.computeIfAbsent(transaction.getDate().withDayOfMonth(1), month -> new ArrayList<>())
+                    .add(toResponse(userId, transaction));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<TransactionArchiveSegment> segments = new ArrayList<>(byMonth.size());
+        for (Map.Entry<LocalDate, List<TransactionResponse>> month : byMonth.entrySet()) {
+            List<TransactionResponse> rows = month.getValue();
+            rows.sort(Comparator.comparing(TransactionResponse::id));
+
+            TransactionArchiveSegment segment = new TransactionArchiveSegment();
+            segment.setUserId(userId);
+            segment.setMonth(month.getKey());
+            segment.setRowCount(rows.size());
+            segment.setMinId(rows.get(0).id());
+            segment.setMaxId(rows.get(rows.size() - 1).id());
+            segment.setPayload(TransactionArchiveCodec.encode(rows));
+            segment.setArchivedAt(now);
+            segments.add(segment);
+        }
+        archiveRepository.saveAll(segments);
+        transactionRepository.deleteAllByIdIn(batch.stream().map(Transaction::getId).toList());
+
+        archiveService.recordArchived(byMonth.lastKey());
+        return batch.size();
+    }
+
+    private static TransactionResponse toResponse(Long userId, Transaction transaction) {
+        return new TransactionResponse(
+                transaction.getId(),
+                userId,
+                transaction.getType(),
+                transaction.getCategory(),
+                transaction.getAmount(),
+                transaction.getDate(),
+                transaction.getDescription(),
+                transaction.getCreatedAt(),
+                transaction.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,117 @@
+package com.smartledger.service;
+
+import com.smartledger.cache.Invalidation;
+import com.smartledger.cache.SingleFlight;
+import com.smartledger.dto.MonthlyTotalResponse;
+import com.smartledger.dto.TransactionField;
+import com.smartledger.dto.TransactionResponse;
+import com.smartledger.dto.TransactionSummaryResponse;
+import com.smartledger.entity.Category;
+import com.smartledger.entity.TransactionType;
+import com.smartledger.event.TransactionChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight front for the read methods of {@link TransactionService} and
+ * {@link AnalyticsService}. Identical concurrent reads (same user, method and arguments)
+ * share one database call. It sits outside the services' transactions so that waiting
+ * callers do not hold a pooled connection. A committed write of the user, on this node or
+ * another one, detaches the in-flight reads, so requests arriving after the commit never
+ * get pre-commit data.
+ */
+@Service
+public class TransactionReadCoalescer {
+
+    private final TransactionService transactionService;
+    private final AnalyticsService analyticsService;
+    private final SingleFlight<ReadKey, Object> singleFlight = new SingleFlight<>();
+    private final boolean enabled;
+
+    public TransactionReadCoalescer(TransactionService transactionService,
+                                    AnalyticsService analyticsService,
+                                    @Value("${ledger.coalescing.enabled:true}") boolean enabled) {
+        this.transactionService = transactionService;
+        this.analyticsService = analyticsService;
+        this.enabled = enabled;
+    }
+
+    public List<TransactionResponse> getAllTransactions(String username) {
+        return coalesce(username, "getAllTransactions",
+                () -> transactionService.getAllTransactions(username));
+    }
+
+    public List<TransactionResponse> getTransactionsByType(String username, TransactionType type) {
+        return coalesce(username, "getTransactionsByType",
+                () -> transactionService.getTransactionsByType(username, type), type);
+    }
+
+    public List<TransactionResponse> getTransactionsByDateRange(String username, LocalDate startDate, LocalDate endDate) {
+        return coalesce(username, "getTransactionsByDateRange",
+                () -> transactionService.getTransactionsByDateRange(username, startDate, endDate), startDate, endDate);
+    }
+
+    public TransactionResponse getTransactionById(String username, Long id) {
+        return coalesce(username, "getTransactionById",
+                () -> transactionService.getTransactionById(username, id), id);
+    }
+
+    public List<TransactionResponse> getTransactionFields(String username, Set<TransactionField> fields,
+                                                          TransactionType type, LocalDate startDate, LocalDate endDate,
+                                                          Integer limit) {
+        return coalesce(username, "getTransactionFields",
+                () -> transactionService.getTransactionFields(username, fields, type, startDate, endDate, limit),
+                fields, type, startDate, endDate, limit);
+    }
+
+    public TransactionResponse getTransactionFieldsById(String username, Long id, Set<TransactionField> fields) {
+        return coalesce(username, "getTransactionFieldsById",
+                () -> transactionService.getTransactionFieldsById(username, id, fields), id, fields);
+    }
+
+    public TransactionSummaryResponse getSummary(String username, LocalDate startDate, LocalDate endDate) {
+        return coalesce(username, "getSummary",
+                () -> analyticsService.getSummary(username, startDate, endDate), startDate, endDate);
+    }
+
+    public List<MonthlyTotalResponse> getMonthlySeries(String username, LocalDate startDate, LocalDate endDate,
+                                                       Category category) {
+        return coalesce(username, "getMonthlySeries",
+                () -> analyticsService.getMonthlySeries(username, startDate, endDate, category),
+                startDate, endDate, category);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        singleFlight.invalidate(event.username());
+    }
+
+    @EventListener
+    public void onRemoteInvalidation(Invalidation.Ledger invalidation) {
+        singleFlight.invalidate(invalidation.username());
+    }
+
+    @EventListener
+    public void onRemoteFlush(Invalidation.All flush) {
+        singleFlight.invalidateAll();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(String username, String method, Supplier<T> call, Object... args) {
+        if (!enabled) {
+            return call.get();
+        }
+        return (T) singleFlight.execute(username, new ReadKey(method, Arrays.asList(args)), call::get);
+    }
+
+    private record ReadKey(String method, List<Object> args) {}
+}
@@ -1,35 +1,118 @@
 package com.smartledger.service;
 
+import com.smartledger.dto.TransactionField;
 import com.smartledger.dto.TransactionRequest;
 import com.smartledger.dto.TransactionResponse;
+import com.smartledger.entity.LedgerEventType;
 import com.smartledger.entity.Transaction;
 import com.smartledger.entity.TransactionType;
 import com.smartledger.entity.User;
+import com.smartledger.event.TransactionChangedEvent;
+import com.smartledger.exception.DuplicateTransactionException;
+import com.smartledger.monitoring.TransactionOperationEvent;
+import com.smartledger.repository.TransactionAttachmentRepository;
 import com.smartledger.repository.TransactionRepository;
+import com.smartledger.repository.TransactionTombstoneRepository;
 import com.smartledger.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TransactionService {
 
     private final TransactionRepository transactionRepository;
+    private final TransactionTombstoneRepository tombstoneRepository;
+    private final TransactionAttachmentRepository attachmentRepository;
     private final UserRepository userRepository;
+    private final LedgerEventService ledgerEventService;
+    private final TransactionArchiveService archiveService;
+    private final SpendingAnomalyService spendingAnomalyService;
+    private final DuplicateTransactionDetector duplicateDetector;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public TransactionService(TransactionRepository transactionRepository, UserRepository userRepository) {
+    public TransactionService(TransactionRepository transactionRepository,
+                              TransactionTombstoneRepository tombstoneRepository,
+                              TransactionAttachmentRepository attachmentRepository,
+                              UserRepository userRepository,
+                              LedgerEventService ledgerEventService,
+                              TransactionArchiveService archiveService,
+                              SpendingAnomalyService spendingAnomalyService,
+                              DuplicateTransactionDetector duplicateDetector,
+                              ApplicationEventPublisher eventPublisher) {
         this.transactionRepository = transactionRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.attachmentRepository = attachmentRepository;
         this.userRepository = userRepository;
+        this.ledgerEventService = ledgerEventService;
+        this.archiveService = archiveService;
+        this.spendingAnomalyService = spendingAnomalyService;
+        this.duplicateDetector = duplicateDetector;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
-    public TransactionResponse createTransaction(String username, TransactionRequest request) {
+    public CreatedTransaction createTransaction(String username, TransactionRequest request) {
+        TransactionOperationEvent event = TransactionOperationEvent.begin("create");
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        CreatedTransaction created = insert(user, username, request, checkDuplicate(user.getId(), request));
+        event.complete(user.getId(), 1);
+        return created;
+    }
+
+    /**
+     * Creates several transactions in one database transaction, for {@link GroupCommitWriter}.
+     * A request refused before anything of it was written (unknown user, rejected duplicate)
+     * fails alone and the others go ahead; any other failure rolls back the whole group and
+     * is thrown.
+     */
+    @Transactional
+    public List<CreateOutcome> createTransactions(List<CreateCommand> commands) {
+        Map<String, User> users = new HashMap<>();
+        List<CreateOutcome> outcomes = new ArrayList<>(commands.size());
+        for (CreateCommand command : commands) {
+            TransactionOperationEvent event = TransactionOperationEvent.begin("create");
+            User user;
+            Long duplicateOf;
+            try {
+                user = users.computeIfAbsent(command.username(), username -> userRepository.findByUsername(username)
+                        .orElseThrow(() -> new RuntimeException("User not found")));
+                duplicateOf = checkDuplicate(user.getId(), command.request());
+            } catch (DataAccessException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                outcomes.add(CreateOutcome.refused(e));
+                continue;
+            }
+            outcomes.add(CreateOutcome.created(insert(user, command.username(), command.request(), duplicateOf)));
+            event.complete(user.getId(), 1);
+        }
+        return outcomes;
+    }
+
+    private Long checkDuplicate(Long userId, TransactionRequest request) {
+        Long duplicateOf = duplicateDetector.findDuplicate(userId, request).orElse(null);
+        if (duplicateOf != null && duplicateDetector.rejects()) {
+            throw new DuplicateTransactionException(duplicateOf);
+        }
+        return duplicateOf;
+    }
+
+    private CreatedTransaction insert(User user, String username, TransactionRequest request, Long duplicateOf) {
         Transaction transaction = new Transaction();
         transaction.setUser(user);
         transaction.setType(request.type());
@@ -39,80 +122,184 @@ public class TransactionService {
         transaction.setDescription(request.description());
 
         Transaction savedTransaction = transactionRepository.save(transaction);
-        return toResponse(savedTransaction);
+        TransactionResponse response = toResponse(savedTransaction);
+        ledgerEventService.append(LedgerEventType.CREATED, response);
+        spendingAnomalyService.inspect(response);
+        duplicateDetector.record(response);
+        eventPublisher.publishEvent(TransactionChangedEvent.created(username, response));
+        return new CreatedTransaction(response, duplicateOf);
     }
 
     @Transactional(readOnly = true)
     public List<TransactionResponse> getAllTransactions(String username) {
+        TransactionOperationEvent event = TransactionOperationEvent.begin("list");
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return transactionRepository.findByUserIdOrderByDateDesc(user.getId())
+        List<TransactionResponse> hot = transactionRepository.findByUserIdOrderByDateDesc(user.getId())
                 .stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
+        List<TransactionResponse> transactions = withArchived(hot, archiveService.find(user.getId(), null, null, null));
+        event.complete(user.getId(), transactions.size());
+        return transactions;
     }
 
     @Transactional(readOnly = true)
     public List<TransactionResponse> getTransactionsByType(String username, TransactionType type) {
+        TransactionOperationEvent event = TransactionOperationEvent.begin("listByType");
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return transactionRepository.findByUserIdAndTypeOrderByDateDesc(user.getId(), type)
+        List<TransactionResponse> hot = transactionRepository.findByUserIdAndTypeOrderByDateDesc(user.getId(), type)
                 .stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
+        List<TransactionResponse> transactions = withArchived(hot, archiveService.find(user.getId(), null, null, type));
+        event.complete(user.getId(), transactions.size());
+        return transactions;
     }
 
     @Transactional(readOnly = true)
     public List<TransactionResponse> getTransactionsByDateRange(String username, LocalDate startDate, LocalDate endDate) {
+        TransactionOperationEvent event = TransactionOperationEvent.begin("listByDateRange");
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return transactionRepository.findByUserIdAndDateBetweenOrderByDateDesc(user.getId(), startDate, endDate)
+        List<TransactionResponse> hot = transactionRepository
+                .findByUserIdAndDateBetweenOrderByDateDesc(user.getId(), startDate, endDate)
                 .stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
+        // Only ranges reaching back past the archive horizon touch the archive
+        List<TransactionResponse> transactions = withArchived(hot, archiveService.find(user.getId(), startDate, endDate, null));
+        event.complete(user.getId(), transactions.size());
+        return transactions;
     }
 
+    /**
+     * Transactions with only the requested fields read and set; see
+     * {@link TransactionRepository#findFields}. Archived rows are decoded whole. With a
+     * {@code limit}, only the newest that many are read from each store.
+     */
     @Transactional(readOnly = true)
-    public TransactionResponse getTransactionById(String username, Long id) {
+    public List<TransactionResponse> getTransactionFields(String username, Set<TransactionField> fields,
+                                                          TransactionType type, LocalDate startDate, LocalDate endDate,
+                                                          Integer limit) {
+        TransactionOperationEvent event = TransactionOperationEvent.begin("listFields");
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        if (limit != null && limit == 0) {
+            event.complete(user.getId(), 0);
+            return List.of();
+        }
 
-        Transaction transaction = transactionRepository.findByIdAndUserId(id, user.getId())
+        List<TransactionResponse> archived = archiveService.find(user.getId(), startDate, endDate, type, limit);
+        Set<TransactionField> selected = fields;
+        if (!archived.isEmpty() && !fields.contains(TransactionField.DATE)) {
+            // Merging with archived rows sorts by date
+            selected = EnumSet.copyOf(fields);
+            selected.add(TransactionField.DATE);
+        }
+        List<TransactionResponse> hot = transactionRepository.findFields(user.getId(), selected, type, startDate, endDate,
+                limit);
+        List<TransactionResponse> transactions = withArchived(hot, archived);
+        if (limit != null && transactions.size() > limit) {
+            transactions = transactions.subList(0, limit);
+        }
+        event.complete(user.getId(), transactions.size());
+        return transactions;
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionResponse getTransactionFieldsById(String username, Long id, Set<TransactionField> fields) {
+        TransactionOperationEvent event = TransactionOperationEvent.begin("getFields");
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        TransactionResponse transaction = transactionRepository.findFieldsById(id, user.getId(), fields)
+                .or(() -> archiveService.findById(user.getId(), id))
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
+        event.complete(user.getId(), 1);
+        return transaction;
+    }
 
-        return toResponse(transaction);
+    @Transactional(readOnly = true)
+    public TransactionResponse getTransactionById(String username, Long id) {
+        TransactionOperationEvent event = TransactionOperationEvent.begin("get");
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        TransactionResponse transaction = transactionRepository.findByIdAndUserId(id, user.getId())
+                .map(this::toResponse)
+                .or(() -> archiveService.findById(user.getId(), id))
+                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+        event.complete(user.getId(), 1);
+        return transaction;
     }
 
     @Transactional
     public TransactionResponse updateTransaction(String username, Long id, TransactionRequest request) {
+        TransactionOperationEvent event = TransactionOperationEvent.begin("update");
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        Transaction transaction = transactionRepository.findByIdAndUserId(id, user.getId())
-                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+        Transaction transaction = findModifiable(user.getId(), id);
 
+        TransactionResponse before = toResponse(transaction);
         transaction.setType(request.type());
         transaction.setCategory(request.category());
         transaction.setAmount(request.amount());
         transaction.setDate(request.date());
         transaction.setDescription(request.description());
 
-        Transaction updatedTransaction = transactionRepository.save(transaction);
-        return toResponse(updatedTransaction);
+        // Flush so the journal snapshot carries the audited updatedAt
+        Transaction updatedTransaction = transactionRepository.saveAndFlush(transaction);
+        TransactionResponse response = toResponse(updatedTransaction);
+        ledgerEventService.append(LedgerEventType.UPDATED, response);
+        eventPublisher.publishEvent(TransactionChangedEvent.updated(username, before, response));
+        event.complete(user.getId(), 1);
+        return response;
     }
 
     @Transactional
     public void deleteTransaction(String username, Long id) {
+        TransactionOperationEvent event = TransactionOperationEvent.begin("delete");
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        Transaction transaction = transactionRepository.findByIdAndUserId(id, user.getId())
-                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+        Transaction transaction = findModifiable(user.getId(), id);
 
+        TransactionResponse before = toResponse(transaction);
+        ledgerEventService.append(LedgerEventType.DELETED, before);
         transactionRepository.delete(transaction);
+        // Stored content is left to the attachment sweep, it may be shared
+        attachmentRepository.deleteByTransactionId(transaction.getId());
+        // Tells offline clients; archival deletes rows without one, since they still exist
+        tombstoneRepository.insert(transaction.getId(), user.getId());
+        eventPublisher.publishEvent(TransactionChangedEvent.deleted(username, before));
+        event.complete(user.getId(), 1);
+    }
+
+    private Transaction findModifiable(Long userId, Long id) {
+        return transactionRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> archiveService.findById(userId, id).isPresent()
+                        ? new RuntimeException("Archived transactions cannot be modified")
+                        : new RuntimeException("Transaction not found"));
+    }
+
+    /**
+     * Archived rows are older than any hot row except late-dated inserts, so the merge
+     * re-sorts only when the archive contributed something.
+     */
+    private static List<TransactionResponse> withArchived(List<TransactionResponse> hot,
+                                                          List<TransactionResponse> archived) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        return Stream.concat(hot.stream(), archived.stream())
+                .sorted(Comparator.comparing(TransactionResponse::date).reversed())
+                .collect(Collectors.toList());
     }
 
     private TransactionResponse toResponse(Transaction transaction) {
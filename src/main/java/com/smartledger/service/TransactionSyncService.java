@@ -0,0 +1,168 @@
+package com.smartledger.service;
+
+import com.smartledger.dto.TransactionChangesResponse;
+import com.smartledger.dto.TransactionResponse;
+import com.smartledger.entity.Transaction;
+import com.smartledger.entity.TransactionTombstone;
+import com.smartledger.entity.User;
+import com.smartledger.monitoring.TransactionOperationEvent;
+import com.smartledger.repository.TransactionRepository;
+import com.smartledger.repository.TransactionTombstoneRepository;
+import com.smartledger.repository.UserRepository;
+import com.smartledger.sharding.ShardTopology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Change feed of a user's transactions for clients that keep a copy offline.
+ *
+ * <p>The database numbers every insert and update of a user's transactions, and every
+ * deletion through a tombstone, from one per-user counter ({@code change_seq}). A client
+ * passes the highest number it has seen and gets what changed after it, read through the
+ * {@code (user_id, change_seq)} indexes, so a sync costs what changed rather than what the
+ * ledger holds. Tombstones are kept for {@code sync.tombstone-retention}; a client that
+ * has not synced for longer is told to start over.
+ *
+ * <p>Archival moves rows out of the feed without tombstones: archived transactions still
+ * exist and stay readable through the date-range endpoints.
+ */
+@Service
+public class TransactionSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionSyncService.class);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTombstoneRepository tombstoneRepository;
+    private final UserRepository userRepository;
+    private final ShardTopology shardTopology;
+    private final TransactionTemplate transactionTemplate;
+    private final int pageSize;
+    private final int maxPageSize;
+    private final Duration tombstoneRetention;
+
+    public TransactionSyncService(TransactionRepository transactionRepository,
+                                  TransactionTombstoneRepository tombstoneRepository,
+                                  UserRepository userRepository,
+                                  ShardTopology shardTopology,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${sync.page-size:500}") int pageSize,
+                                  @Value("${sync.max-page-size:5000}") int maxPageSize,
+                                  @Value("${sync.tombstone-retention:P90D}") Duration tombstoneRetention) {
+        this.transactionRepository = transactionRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.userRepository = userRepository;
+        this.shardTopology = shardTopology;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pageSize = pageSize;
+        this.maxPageSize = maxPageSize;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    /**
+     * Changes after {@code since}, oldest first, at most {@code limit} of them. Without
+     * {@code since} (or with 0) the current transactions are listed and deletions skipped,
+     * which is how a client builds its first copy.
+     *
+     * <p>Both tables are read from one snapshot: read separately, a change committed in
+     * between could be skipped by the token of a later one.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public TransactionChangesResponse getChanges(String username, Long since, Integer limit) {
+        TransactionOperationEvent event = TransactionOperationEvent.begin("changes");
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        long from = since == null ? 0 : since;
+        if (from < 0) {
+            throw new RuntimeException("Invalid sync token");
+        }
+        int size = limit == null ? pageSize : Math.max(1, Math.min(limit, maxPageSize));
+
+        if (from > 0 && from < tombstoneRepository.findPurgedSeq(user.getId())) {
+            event.complete(user.getId(), 0);
+            return new TransactionChangesResponse(List.of(), List.of(), 0, false, true);
+        }
+
+        // One more than a page from each side tells whether anything is left
+        List<Transaction> rows = transactionRepository
+                .findByUserIdAndChangeSeqGreaterThanOrderByChangeSeq(user.getId(), from, Limit.of(size + 1));
+        List<TransactionTombstone> tombstones = from == 0
+                ? List.of()
+                : tombstoneRepository.findByUserIdAndChangeSeqGreaterThanOrderByChangeSeq(user.getId(), from, Limit.of(size + 1));
+
+        List<TransactionResponse> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        long next = from;
+        int r = 0;
+        int t = 0;
+        while (changed.size() + deleted.size() < size && (r < rows.size() || t < tombstones.size())) {
+            if (t == tombstones.size()
+                    || (r < rows.size() && rows.get(r).getChangeSeq() < tombstones.get(t).getChangeSeq())) {
+                Transaction row = rows.get(r++);
+                changed.add(toResponse(row));
+                next = row.getChangeSeq();
+            } else {
+                TransactionTombstone tombstone = tombstones.get(t++);
+                deleted.add(tombstone.getId());
+                next = tombstone.getChangeSeq();
+            }
+        }
+        boolean hasMore = r < rows.size() || t < tombstones.size();
+        if (from == 0 && !hasMore) {
+            // Past the deletions the first sync skipped
+            next = Math.max(next, tombstoneRepository.findChangeSeq(user.getId()));
+        }
+        event.complete(user.getId(), changed.size() + deleted.size());
+        return new TransactionChangesResponse(changed, deleted, next, hasMore, false);
+    }
+
+    @Scheduled(fixedDelayString = "${sync.cleanup-interval-ms:3600000}")
+    public void purgeExpiredTombstones() {
+        try {
+            purgeTombstonesDeletedBefore(LocalDateTime.now().minus(tombstoneRetention));
+        } catch (Exception e) {
+            log.error("Purging tombstones failed, will retry on next run", e);
+        }
+    }
+
+    /**
+     * Deletes tombstones older than {@code before} on every shard; clients that synced
+     * before them have to start over. Returns the number of users affected.
+     */
+    public int purgeTombstonesDeletedBefore(LocalDateTime before) {
+        AtomicInteger users = new AtomicInteger();
+        shardTopology.forEachShard(() -> users.addAndGet(
+                transactionTemplate.execute(status -> tombstoneRepository.purgeDeletedBefore(before))));
+        if (users.get() > 0) {
+            log.info("Purged tombstones deleted before {} of {} users", before, users.get());
+        }
+        return users.get();
+    }
+
+    private TransactionResponse toResponse(Transaction transaction) {
+        return new TransactionResponse(
+                transaction.getId(),
+                transaction.getUser().getId(),
+                transaction.getType(),
+                transaction.getCategory(),
+                transaction.getAmount(),
+                transaction.getDate(),
+                transaction.getDescription(),
+                transaction.getCreatedAt(),
+                transaction.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,48 @@
+package com.smartledger.service;
+
+import com.smartledger.dto.UserResponse;
+import com.smartledger.entity.User;
+import com.smartledger.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class UserService {
+
+    private final UserRepository userRepository;
+
+    public UserService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public UserResponse getProfile(String username) {
+        return userRepository.findByUsername(username)
+                .map(this::toResponse)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    /**
+     * Profiles of several users in one query, keyed by user id.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, UserResponse> getProfiles(Collection<Long> userIds) {
+        return userRepository.findByIdIn(userIds).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toMap(UserResponse::id, user -> user));
+    }
+
+    private UserResponse toResponse(User user) {
+        return new UserResponse(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getFullName(),
+                user.getCreatedAt()
+        );
+    }
+}
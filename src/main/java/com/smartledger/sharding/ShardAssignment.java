@@ -0,0 +1,8 @@
+package com.smartledger.sharding;
+
+/**
+ * Where a user's data lives. While {@code moving} is set the rebalancer is copying the
+ * final changes to another shard, so the user's writes are refused until it clears.
+ */
+public record ShardAssignment(int shard, boolean moving) {
+}
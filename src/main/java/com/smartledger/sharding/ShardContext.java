@@ -0,0 +1,53 @@
+package com.smartledger.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread talks to. Set once per request by
+ * {@link ShardRoutingFilter} and explicitly by background work that runs on behalf of a
+ * user; when unset, connections go to the directory database.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Runs {@code task} against {@code shard} and restores the previous shard afterwards.
+     * Must not be called inside an open transaction, whose connection is already bound.
+     */
+    public static <T> T callOn(Integer shard, Supplier<T> task) {
+        Integer previous = CURRENT.get();
+        set(shard);
+        try {
+            return task.get();
+        } finally {
+            set(previous);
+        }
+    }
+
+    public static void runOn(Integer shard, Runnable task) {
+        callOn(shard, () -> {
+            task.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package com.smartledger.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * The physical connection pools behind {@link ShardRoutingDataSource}, for the code that
+ * has to address a database explicitly: migrations, the directory and the rebalancer.
+ */
+public class ShardDataSources implements DisposableBean {
+
+    private final DataSource directory;
+    private final List<DataSource> shards;
+
+    public ShardDataSources(DataSource directory, List<DataSource> shards) {
+        this.directory = directory;
+        this.shards = List.copyOf(shards);
+    }
+
+    public DataSource directory() {
+        return directory;
+    }
+
+    public DataSource shard(int shard) {
+        if (shard < 0 || shard >= shards.size()) {
+            throw new RuntimeException("Shard " + shard + " does not exist");
+        }
+        return shards.get(shard);
+    }
+
+    public List<DataSource> shards() {
+        return shards;
+    }
+
+    @Override
+    public void destroy() {
+        for (DataSource shard : shards) {
+            close(shard);
+        }
+        close(directory);
+    }
+
+    private static void close(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            hikari.close();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.smartledger.sharding;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartledger.cache.Invalidation;
+import com.smartledger.cache.InvalidationBus;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Maps users to shards through the {@code user_shards} table of the directory database.
+ * A user gets a shard on first sight and keeps it until the rebalancer moves them, so
+ * adding shards never relocates existing data implicitly.
+ *
+ * <p>Users and roles are owned by the directory, but the shards' services look users up
+ * locally and their rows reference the shard's {@code users}. Whenever an assignment is
+ * loaded, the user and their roles are therefore copied onto the assigned shard, so a
+ * shard has every user it serves and picks up directory changes within {@link #cacheTtl()}.
+ *
+ * <p>Assignments are cached per node for {@link #cacheTtl()}. Changes evict them on every
+ * node through {@link InvalidationBus}, but as that is best effort the rebalancer still
+ * waits the full TTL after each change before relying on every node having seen it.
+ */
+public class ShardDirectory {
+
+    private static final RowMapper<ShardAssignment> ASSIGNMENT = (rs, rowNum) ->
+            new ShardAssignment(rs.getInt("shard_id"), rs.getBoolean("moving"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardDataSources dataSources;
+    private final int shardCount;
+    private final Duration cacheTtl;
+    private final Cache<Long, ShardAssignment> assignments;
+    private final InvalidationBus invalidationBus;
+
+    public ShardDirectory(ShardDataSources dataSources, Duration cacheTtl, InvalidationBus invalidationBus) {
+        this.jdbcTemplate = new JdbcTemplate(dataSources.directory());
+        this.dataSources = dataSources;
+        this.invalidationBus = invalidationBus;
+        this.shardCount = dataSources.shards().size();
+        this.cacheTtl = cacheTtl;
+        this.assignments = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public ShardAssignment lookup(long userId) {
+        return assignments.get(userId, this::load);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public Duration cacheTtl() {
+        return cacheTtl;
+    }
+
+    public void setMoving(long userId, boolean moving) {
+        int updated = jdbcTemplate.update(
+                "UPDATE user_shards SET moving = ?, updated_at = CURRENT_TIMESTAMP WHERE user_id = ?",
+                moving, userId);
+        if (updated == 0) {
+            throw new RuntimeException("User has no shard assignment");
+        }
+        changed(userId);
+    }
+
+    /**
+     * Points the user at {@code shard} and clears the moving flag in one statement.
+     */
+    public void assign(long userId, int shard) {
+        checkShard(shard);
+        jdbcTemplate.update(
+                "UPDATE user_shards SET shard_id = ?, moving = FALSE, updated_at = CURRENT_TIMESTAMP WHERE user_id = ?",
+                shard, userId);
+        changed(userId);
+    }
+
+    @EventListener
+    public void onRemoteInvalidation(Invalidation.Shard invalidation) {
+        assignments.invalidate(invalidation.userId());
+    }
+
+    @EventListener
+    public void onRemoteFlush(Invalidation.All flush) {
+        assignments.invalidateAll();
+    }
+
+    private void changed(long userId) {
+        assignments.invalidate(userId);
+        invalidationBus.publish(new Invalidation.Shard(userId));
+    }
+
+    private ShardAssignment load(long userId) {
+        List<ShardAssignment> found = query(userId);
+        if (found.isEmpty()) {
+            jdbcTemplate.update(
+                    "INSERT INTO user_shards (user_id, shard_id) VALUES (?, ?) ON CONFLICT (user_id) DO NOTHING",
+                    userId, Math.floorMod(userId, shardCount));
+            found = query(userId);
+        }
+        ShardAssignment assignment = found.get(0);
+        replicateUser(userId, assignment.shard());
+        return assignment;
+    }
+
+    /**
+     * Copies the user and their roles from the directory onto {@code shard}. Unchanged rows
+     * are not rewritten, so the usual case is two reads on the directory and two no-op
+     * statements on the shard.
+     */
+    private void replicateUser(long userId, int shard) {
+        List<Object[]> users = jdbcTemplate.query(
+                "SELECT id, username, password, email, full_name, enabled, created_at, updated_at FROM users WHERE id = ?",
+                (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getString(5), rs.getBoolean(6), rs.getTimestamp(7), rs.getTimestamp(8)},
+                userId);
+        if (users.isEmpty()) {
+            return;
+        }
+        String[] roles = jdbcTemplate.queryForList("SELECT role FROM user_roles WHERE user_id = ?", String.class, userId)
+                .toArray(String[]::new);
+
+        JdbcTemplate target = new JdbcTemplate(dataSources.shard(shard));
+        new TransactionTemplate(new DataSourceTransactionManager(target.getDataSource())).executeWithoutResult(status -> {
+            target.update("""
+                    INSERT INTO users (id, username, password, email, full_name, enabled, created_at, updated_at)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                    ON CONFLICT (id) DO UPDATE SET username = EXCLUDED.username, password = EXCLUDED.password,
+                        email = EXCLUDED.email, full_name = EXCLUDED.full_name, enabled = EXCLUDED.enabled,
+                        created_at = EXCLUDED.created_at, updated_at = EXCLUDED.updated_at
+                    WHERE (users.username, users.password, users.email, users.full_name, users.enabled, users.updated_at)
+                        IS DISTINCT FROM (EXCLUDED.username, EXCLUDED.password, EXCLUDED.email, EXCLUDED.full_name,
+                        EXCLUDED.enabled, EXCLUDED.updated_at)
+                    """, users.get(0));
+            target.update("DELETE FROM user_roles WHERE user_id = ? AND NOT (role = ANY (?))", userId, roles);
+            target.update("INSERT INTO user_roles (user_id, role) SELECT ?, UNNEST(?::varchar[]) ON CONFLICT DO NOTHING",
+                    userId, roles);
+        });
+    }
+
+    private List<ShardAssignment> query(long userId) {
+        return jdbcTemplate.query("SELECT shard_id, moving FROM user_shards WHERE user_id = ?", ASSIGNMENT, userId);
+    }
+
+    private void checkShard(int shard) {
+        if (shard < 0 || shard >= shardCount) {
+            throw new RuntimeException("Shard " + shard + " does not exist");
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.smartledger.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Moves one user's data to another shard while the application keeps serving them.
+ *
+ * <ol>
+ *   <li>Bulk copy: transactions, ledger events, archive segments, tombstones and attachments are copied
+ *       in id batches while the user keeps reading and writing on the source shard.</li>
+ *   <li>Freeze: the user is flagged as moving, and once every node has seen the flag the
+ *       user's writes are refused. Reads keep going to the source.</li>
+ *   <li>Catch-up: rows created or changed since the bulk copy started are copied again,
+ *       rows deleted meanwhile are removed, and the small budget, spending profile and
+ *       change counter tables are replaced.</li>
+ *   <li>Switch: the directory points at the target shard and clears the flag.</li>
+ *   <li>Purge: once no node can still route to the source, the user's rows there are deleted.</li>
+ * </ol>
+ *
+ * Writes are refused only for the catch-up, whose cost depends on the changes made during
+ * the bulk copy rather than on the size of the ledger. Ids are unique across shards (see
+ * {@link ShardedLiquibase}), so rows keep their ids on the target.
+ */
+public class ShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    /**
+     * Tolerance for requests still in flight when a directory change is observed, and for
+     * clock differences between the nodes that stamped {@code updated_at}.
+     */
+    private static final Duration SAFETY_MARGIN = Duration.ofSeconds(2);
+
+    private final ShardDataSources dataSources;
+    private final ShardDirectory shardDirectory;
+    private final int batchSize;
+
+    public ShardRebalancer(ShardDataSources dataSources, ShardDirectory shardDirectory, int batchSize) {
+        this.dataSources = dataSources;
+        this.shardDirectory = shardDirectory;
+        this.batchSize = batchSize;
+    }
+
+    public void moveUser(long userId, int targetShard) {
+        ShardAssignment current = shardDirectory.lookup(userId);
+        if (current.moving()) {
+            throw new RuntimeException("User " + userId + " is already being moved");
+        }
+        int sourceShard = current.shard();
+        if (sourceShard == targetShard) {
+            log.info("User {} already lives on shard {}", userId, targetShard);
+            return;
+        }
+
+        JdbcTemplate source = new JdbcTemplate(dataSources.shard(sourceShard));
+        JdbcTemplate target = new JdbcTemplate(dataSources.shard(targetShard));
+        LocalDateTime copyStartedAt = LocalDateTime.now().minus(SAFETY_MARGIN);
+        log.info("Moving user {} from shard {} to shard {}", userId, sourceShard, targetShard);
+
+        boolean frozen = false;
+        try {
+            copyRows(source, target, "users", "id", "id = ?", false, userId);
+            copyRows(source, target, "user_roles", "user_id, role", "user_id = ?", false, userId);
+            long lastTransaction = copyBatches(source, target, "transactions", "user_id = ?", userId);
+            long lastEvent = copyBatches(source, target, "ledger_events", "user_id = ?", userId);
+            long lastSegment = copyBatches(source, target, "transaction_archive", "user_id = ?", userId);
+            copyBatches(source, target, "transaction_tombstones", "user_id = ?", userId);
+            long lastAttachment = copyBatches(source, target, "transaction_attachments", "user_id = ?", userId);
+            log.info("Copied user {} up to transaction {}, ledger event {} and archive segment {}",
+                    userId, lastTransaction, lastEvent, lastSegment);
+
+            shardDirectory.setMoving(userId, true);
+            frozen = true;
+            awaitDirectoryPropagation();
+
+            copyBatches(source, target, "transactions", "user_id = ? AND (id > ? OR updated_at >= ?)",
+                    userId, lastTransaction, copyStartedAt);
+            deleteVanished(source, target, "transactions", userId);
+            copyBatches(source, target, "ledger_events", "user_id = ? AND (id > ? OR published_at >= ?)",
+                    userId, lastEvent, copyStartedAt);
+            copyBatches(source, target, "transaction_archive", "user_id = ? AND id > ?", userId, lastSegment);
+            // Tombstone ids are transaction ids, not insertion order
+            copyBatches(source, target, "transaction_tombstones", "user_id = ? AND deleted_at >= ?",
+                    userId, copyStartedAt);
+            // Attachment rows never change, only come and go
+            copyBatches(source, target, "transaction_attachments", "user_id = ? AND id > ?", userId, lastAttachment);
+            deleteVanished(source, target, "transaction_attachments", userId);
+            // Copied rows keep their change sequence numbers, and the counter continues from the source's
+            copyRows(source, target, "transaction_sync_state", "user_id", "user_id = ?", true, userId);
+            replaceBudgets(source, target, userId);
+
+            shardDirectory.assign(userId, targetShard);
+            frozen = false;
+        } catch (RuntimeException e) {
+            log.error("Moving user {} to shard {} failed, user stays on shard {}", userId, targetShard, sourceShard, e);
+            if (frozen) {
+                shardDirectory.setMoving(userId, false);
+            }
+            purge(target, userId);
+            throw e;
+        }
+
+        awaitDirectoryPropagation();
+        purge(source, userId);
+        log.info("Moved user {} from shard {} to shard {}", userId, sourceShard, targetShard);
+    }
+
+    /**
+     * Copies matching rows in id order, batch by batch, and returns the highest id copied.
+     * {@code where} takes its arguments first; the keyset bound is appended.
+     */
+    private long copyBatches(JdbcTemplate source, JdbcTemplate target, String table, String where, Object... args) {
+        long lastId = 0;
+        while (true) {
+            Object[] batchArgs = new Object[args.length + 2];
+            System.arraycopy(args, 0, batchArgs, 0, args.length);
+            batchArgs[args.length] = lastId;
+            batchArgs[args.length + 1] = batchSize;
+            List<Map<String, Object>> rows = source.queryForList(
+                    "SELECT * FROM " + table + " WHERE " + where + " AND id > ? ORDER BY id LIMIT ?", batchArgs);
+            if (rows.isEmpty()) {
+                return lastId;
+            }
+            upsert(target, table, "id", true, rows);
+            lastId = ((Number) rows.get(rows.size() - 1).get("id")).longValue();
+            if (rows.size() < batchSize) {
+                return lastId;
+            }
+        }
+    }
+
+    private void copyRows(JdbcTemplate source, JdbcTemplate target, String table, String key, String where,
+                          boolean overwrite, Object... args) {
+        List<Map<String, Object>> rows = source.queryForList("SELECT * FROM " + table + " WHERE " + where, args);
+        if (!rows.isEmpty()) {
+            upsert(target, table, key, overwrite, rows);
+        }
+    }
+
+    private void deleteVanished(JdbcTemplate source, JdbcTemplate target, String table, long userId) {
+        String ids = "SELECT id FROM " + table + " WHERE user_id = ?";
+        Set<Long> remaining = new HashSet<>(source.queryForList(ids, Long.class, userId));
+        List<Object[]> vanished = new ArrayList<>();
+        for (Long id : target.queryForList(ids, Long.class, userId)) {
+            if (!remaining.contains(id)) {
+                vanished.add(new Object[]{id});
+            }
+        }
+        if (!vanished.isEmpty()) {
+            target.batchUpdate("DELETE FROM " + table + " WHERE id = ?", vanished);
+        }
+    }
+
+    /**
+     * Budgets and spending profiles are a handful of rows per user, so they are replaced
+     * rather than diffed.
+     */
+    private void replaceBudgets(JdbcTemplate source, JdbcTemplate target, long userId) {
+        target.update("DELETE FROM spending_anomalies WHERE user_id = ?", userId);
+        target.update("DELETE FROM spending_profiles WHERE user_id = ?", userId);
+        target.update("DELETE FROM budget_alerts WHERE user_id = ?", userId);
+        target.update("DELETE FROM budget_spend WHERE user_id = ?", userId);
+        target.update("DELETE FROM budgets WHERE user_id = ?", userId);
+        copyRows(source, target, "budgets", "id", "user_id = ?", true, userId);
+        copyRows(source, target, "budget_spend", "user_id, category, month", "user_id = ?", true, userId);
+        copyRows(source, target, "budget_alerts", "id", "user_id = ?", true, userId);
+        copyRows(source, target, "spending_profiles", "user_id, category", "user_id = ?", true, userId);
+        copyRows(source, target, "spending_anomalies", "id", "user_id = ?", true, userId);
+    }
+
+    /**
+     * Deletes the user's data from a shard, transactions in batches so that no single
+     * statement holds locks on a whole ledger. The user row itself is kept.
+     */
+    private void purge(JdbcTemplate shard, long userId) {
+        shard.update("DELETE FROM spending_anomalies WHERE user_id = ?", userId);
+        shard.update("DELETE FROM spending_profiles WHERE user_id = ?", userId);
+        shard.update("DELETE FROM budget_alerts WHERE user_id = ?", userId);
+        shard.update("DELETE FROM budget_spend WHERE user_id = ?", userId);
+        shard.update("DELETE FROM budgets WHERE user_id = ?", userId);
+        shard.update("DELETE FROM report_jobs WHERE user_id = ?", userId);
+        shard.update("DELETE FROM transaction_sync_state WHERE user_id = ?", userId);
+        for (String table : List.of("ledger_events", "transaction_archive", "transaction_tombstones",
+                "transaction_attachments", "transactions")) {
+            int deleted;
+            do {
+                deleted = shard.update("DELETE FROM " + table + " WHERE id IN (SELECT id FROM " + table
+                        + " WHERE user_id = ? LIMIT ?)", userId, batchSize);
+            } while (deleted > 0);
+        }
+    }
+
+    private void upsert(JdbcTemplate target, String table, String key, boolean overwrite, List<Map<String, Object>> rows) {
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        Set<String> keyColumns = Set.of(key.split(",\\s*"));
+
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ") ON CONFLICT (" + key + ") ";
+        if (overwrite) {
+            sql += "DO UPDATE SET " + columns.stream()
+                    .filter(column -> !keyColumns.contains(column))
+                    .map(column -> column + " = EXCLUDED." + column)
+                    .collect(Collectors.joining(", "));
+        } else {
+            sql += "DO NOTHING";
+        }
+
+        List<Object[]> values = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            values.add(columns.stream().map(row::get).toArray());
+        }
+        if (!columns.contains("change_seq")) {
+            target.batchUpdate(sql, values);
+            return;
+        }
+        // Copied rows keep their change sequence numbers rather than being numbered as updates
+        String statement = sql;
+        new TransactionTemplate(new DataSourceTransactionManager(target.getDataSource())).executeWithoutResult(status -> {
+            target.queryForObject("SELECT set_config('smartledger.copying_changes', 'on', true)", String.class);
+            target.batchUpdate(statement, values);
+        });
+    }
+
+    private void awaitDirectoryPropagation() {
+        try {
+            Thread.sleep(shardDirectory.cacheTtl().plus(SAFETY_MARGIN).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the shard directory to propagate", e);
+        }
+    }
+}
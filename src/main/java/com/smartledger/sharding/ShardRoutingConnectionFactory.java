@@ -0,0 +1,61 @@
+package com.smartledger.sharding;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive counterpart of {@link ShardRoutingDataSource}. Reactive pipelines do not run
+ * on the request thread, so the shard travels in the Reactor context instead of
+ * {@link ShardContext}; {@link #currentShard()} captures it where the pipeline is built.
+ */
+public class ShardRoutingConnectionFactory extends AbstractRoutingConnectionFactory implements DisposableBean {
+
+    private static final String SHARD_KEY = ShardRoutingConnectionFactory.class.getName() + ".shard";
+
+    private final List<ConnectionFactory> targets = new ArrayList<>();
+
+    public ShardRoutingConnectionFactory(ConnectionFactory directory, List<ConnectionFactory> shards) {
+        this.targets.add(directory);
+        this.targets.addAll(shards);
+        Map<Integer, ConnectionFactory> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetConnectionFactories(targets);
+        setDefaultTargetConnectionFactory(directory);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * The shard of the current thread as a Reactor context, to be written into pipelines
+     * with {@code contextWrite}. Empty when no shard is set or sharding is disabled.
+     */
+    public static Context currentShard() {
+        Integer shard = ShardContext.current();
+        return shard == null ? Context.empty() : Context.of(SHARD_KEY, shard);
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(context -> Mono.justOrEmpty(context.getOrEmpty(SHARD_KEY)));
+    }
+
+    @Override
+    public void destroy() {
+        for (ConnectionFactory target : targets) {
+            if (target instanceof Disposable pool) {
+                pool.dispose();
+            }
+        }
+    }
+}
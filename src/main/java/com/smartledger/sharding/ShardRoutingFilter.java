@@ -0,0 +1,75 @@
+package com.smartledger.sharding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartledger.entity.User;
+import com.smartledger.exception.GlobalExceptionHandler.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Resolves the authenticated user's shard once per request and keeps it in
+ * {@link ShardContext} until the response is complete. Unauthenticated requests, such as
+ * login, stay on the directory database.
+ */
+public class ShardRoutingFilter extends OncePerRequestFilter {
+
+    private final ShardDirectory shardDirectory;
+    private final ObjectMapper objectMapper;
+
+    public ShardRoutingFilter(ShardDirectory shardDirectory, ObjectMapper objectMapper) {
+        this.shardDirectory = shardDirectory;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ShardAssignment assignment = shardDirectory.lookup(user.getId());
+        if (assignment.moving() && !isRead(request)) {
+            reject(response);
+            return;
+        }
+
+        ShardContext.set(assignment.shard());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        long retryAfter = Math.max(1, shardDirectory.cacheTtl().toSeconds());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Your data is being moved, retry in " + retryAfter + " seconds",
+                LocalDateTime.now()
+        );
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
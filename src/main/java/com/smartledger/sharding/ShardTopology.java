@@ -0,0 +1,53 @@
+package com.smartledger.sharding;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Lets background work that is not tied to one user visit every shard. Without sharding
+ * there is a single, implicit shard and tasks simply run once.
+ */
+@Component
+public class ShardTopology {
+
+    private final boolean sharded;
+    private final int shardCount;
+
+    public ShardTopology(ShardingProperties properties) {
+        this.sharded = properties.enabled();
+        this.shardCount = properties.enabled() ? properties.shards().size() : 1;
+    }
+
+    public boolean isSharded() {
+        return sharded;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Runs {@code task} once per shard, each time with that shard in {@link ShardContext}.
+     * A failure on one shard does not stop the others; the first one is rethrown at the end.
+     */
+    public void forEachShard(Runnable task) {
+        if (!sharded) {
+            task.run();
+            return;
+        }
+        RuntimeException failure = null;
+        for (int shard = 0; shard < shardCount; shard++) {
+            try {
+                ShardContext.runOn(shard, task);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
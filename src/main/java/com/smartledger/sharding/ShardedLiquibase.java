@@ -0,0 +1,90 @@
+package com.smartledger.sharding;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Applies the changelog to the directory and to every shard, so all databases share one
+ * schema. Afterwards the id sequences of the shards are interleaved (shard {@code i} of
+ * {@code n} hands out ids congruent to {@code i + 1} modulo {@code n}), which keeps ids
+ * unique across shards and lets the rebalancer copy rows without renumbering them.
+ */
+public class ShardedLiquibase extends SpringLiquibase {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedLiquibase.class);
+
+    private static final List<String> SHARDED_TABLES = List.of("transactions", "ledger_events", "budgets", "budget_alerts",
+            "transaction_archive", "spending_anomalies", "transaction_attachments");
+
+    private final ShardDataSources dataSources;
+
+    public ShardedLiquibase(ShardDataSources dataSources) {
+        this.dataSources = dataSources;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws LiquibaseException {
+        if (!shouldRun) {
+            return;
+        }
+        migrate(dataSources.directory());
+        for (DataSource shard : dataSources.shards()) {
+            migrate(shard);
+        }
+        for (String table : SHARDED_TABLES) {
+            interleaveSequences(table);
+        }
+    }
+
+    private void migrate(DataSource dataSource) throws LiquibaseException {
+        setDataSource(dataSource);
+        super.afterPropertiesSet();
+    }
+
+    /**
+     * Realigns only when the shard count changed. Every shard restarts above the highest
+     * id issued anywhere, so ids handed out under the previous layout cannot come back.
+     */
+    private void interleaveSequences(String table) {
+        List<DataSource> shards = dataSources.shards();
+        int shardCount = shards.size();
+
+        long highest = 0;
+        boolean aligned = true;
+        for (DataSource shard : shards) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shard);
+            String sequence = sequenceOf(jdbcTemplate, table);
+            Long increment = jdbcTemplate.queryForObject(
+                    "SELECT increment_by FROM pg_sequences WHERE format('%I.%I', schemaname, sequencename) = ?",
+                    Long.class, sequence);
+            aligned &= increment != null && increment == shardCount;
+            Long last = jdbcTemplate.queryForObject(
+                    "SELECT GREATEST(COALESCE(MAX(id), 0), (SELECT COALESCE(last_value, 0) FROM pg_sequences"
+                            + " WHERE format('%I.%I', schemaname, sequencename) = ?)) FROM " + table,
+                    Long.class, sequence);
+            highest = Math.max(highest, last != null ? last : 0);
+        }
+        if (aligned) {
+            return;
+        }
+
+        for (int i = 0; i < shardCount; i++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shards.get(i));
+            String sequence = sequenceOf(jdbcTemplate, table);
+            long next = highest + 1 + Math.floorMod(i - highest, shardCount);
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + shardCount);
+            jdbcTemplate.queryForObject("SELECT setval(?::regclass, ?, false)", Long.class, sequence, next);
+        }
+        log.info("Interleaved {} ids across {} shards above {}", table, shardCount, highest);
+    }
+
+    private static String sequenceOf(JdbcTemplate jdbcTemplate, String table) {
+        return jdbcTemplate.queryForObject("SELECT pg_get_serial_sequence(?, 'id')", String.class, table);
+    }
+}
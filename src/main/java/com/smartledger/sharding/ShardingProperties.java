@@ -0,0 +1,27 @@
+package com.smartledger.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Shard databases. The directory database is the regular {@code spring.datasource}.
+ */
+@ConfigurationProperties(prefix = "sharding")
+public record ShardingProperties(
+        boolean enabled,
+        List<Shard> shards,
+        Duration directoryCacheTtl,
+        int rebalanceBatchSize
+) {
+
+    public ShardingProperties {
+        shards = shards != null ? List.copyOf(shards) : List.of();
+        directoryCacheTtl = directoryCacheTtl != null ? directoryCacheTtl : Duration.ofSeconds(5);
+        rebalanceBatchSize = rebalanceBatchSize > 0 ? rebalanceBatchSize : 1000;
+    }
+
+    public record Shard(String url, String username, String password, Integer maximumPoolSize) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.smartledger.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between {@code DECIMAL(19,2)} amounts and whole cents held in a {@code long}.
+ */
+public final class MinorUnits {
+
+    public static final int SCALE = 2;
+
+    private MinorUnits() {
+    }
+
+    public static long toMinor(BigDecimal amount) {
+        // Same rounding PostgreSQL applies when storing into a NUMERIC(19,2) column
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromMinor(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+}
@@ -0,0 +1,173 @@
+package com.smartledger.util;
+
+import com.smartledger.dto.TransactionResponse;
+import com.smartledger.entity.Category;
+import com.smartledger.entity.TransactionType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Binary format of archived transactions: one column after the other, gzip-compressed.
+ * Storing columns contiguously (ids as deltas, dates, amounts in cents, enum codes) gives
+ * the compressor long runs of similar bytes; a month of transactions typically shrinks to
+ * a fraction of its heap-table size.
+ *
+ * <p>Enums are written through a name dictionary in the header, so reordering or extending
+ * {@link Category} and {@link TransactionType} never invalidates existing archives.
+ */
+public final class TransactionArchiveCodec {
+
+    private static final int VERSION = 1;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private TransactionArchiveCodec() {
+    }
+
+    /**
+     * Encodes rows sorted by id.
+     */
+    public static byte[] encode(List<TransactionResponse> rows) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeByte(VERSION);
+            out.writeInt(rows.size());
+            writeDictionary(out, TransactionType.values());
+            writeDictionary(out, Category.values());
+
+            long previousId = 0;
+            for (TransactionResponse row : rows) {
+                out.writeLong(row.id() - previousId);
+                previousId = row.id();
+            }
+            for (TransactionResponse row : rows) {
+                out.writeInt((int) row.date().toEpochDay());
+            }
+            for (TransactionResponse row : rows) {
+                out.writeLong(MinorUnits.toMinor(row.amount()));
+            }
+            for (TransactionResponse row : rows) {
+                out.writeByte(row.type().ordinal());
+            }
+            for (TransactionResponse row : rows) {
+                out.writeByte(row.category().ordinal());
+            }
+            for (TransactionResponse row : rows) {
+                out.writeBoolean(row.description() != null);
+                if (row.description() != null) {
+                    out.writeUTF(row.description());
+                }
+            }
+            for (TransactionResponse row : rows) {
+                out.writeLong(toMicros(row.createdAt()));
+            }
+            for (TransactionResponse row : rows) {
+                out.writeLong(toMicros(row.updatedAt()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static List<TransactionResponse> decode(byte[] payload, Long userId) {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(payload)))) {
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported archive version " + version);
+            }
+            int count = in.readInt();
+            TransactionType[] types = readDictionary(in, TransactionType.class);
+            Category[] categories = readDictionary(in, Category.class);
+
+            long[] ids = new long[count];
+            long id = 0;
+            for (int i = 0; i < count; i++) {
+                id += in.readLong();
+                ids[i] = id;
+            }
+            int[] days = new int[count];
+            for (int i = 0; i < count; i++) {
+                days[i] = in.readInt();
+            }
+            long[] amounts = new long[count];
+            for (int i = 0; i < count; i++) {
+                amounts[i] = in.readLong();
+            }
+            byte[] typeCodes = new byte[count];
+            in.readFully(typeCodes);
+            byte[] categoryCodes = new byte[count];
+            in.readFully(categoryCodes);
+            String[] descriptions = new String[count];
+            for (int i = 0; i < count; i++) {
+                descriptions[i] = in.readBoolean() ? in.readUTF() : null;
+            }
+            long[] created = new long[count];
+            for (int i = 0; i < count; i++) {
+                created[i] = in.readLong();
+            }
+
+            List<TransactionResponse> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                rows.add(new TransactionResponse(
+                        ids[i],
+                        userId,
+                        types[typeCodes[i]],
+                        categories[categoryCodes[i]],
+                        MinorUnits.fromMinor(amounts[i]),
+                        LocalDate.ofEpochDay(days[i]),
+                        descriptions[i],
+                        fromMicros(created[i]),
+                        fromMicros(in.readLong())
+                ));
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeDictionary(DataOutputStream out, Enum<?>[] values) throws IOException {
+        out.writeByte(values.length);
+        for (Enum<?> value : values) {
+            out.writeUTF(value.name());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Enum<E>> E[] readDictionary(DataInputStream in, Class<E> type) throws IOException {
+        int size = in.readUnsignedByte();
+        E[] values = (E[]) Array.newInstance(type, size);
+        for (int i = 0; i < size; i++) {
+            values[i] = Enum.valueOf(type, in.readUTF());
+        }
+        return values;
+    }
+
+    private static long toMicros(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return NO_TIMESTAMP;
+        }
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == NO_TIMESTAMP) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
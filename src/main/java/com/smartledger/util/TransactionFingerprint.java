@@ -0,0 +1,67 @@
+package com.smartledger.util;
+
+import com.smartledger.entity.Category;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * 64-bit fingerprint of what makes two transactions the same purchase: user, amount,
+ * date, category and description. Descriptions are normalized first, so that case,
+ * accents, punctuation and spacing differences between a bank feed and a retry do not
+ * matter.
+ */
+public final class TransactionFingerprint {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private TransactionFingerprint() {
+    }
+
+    public static long of(Long userId, BigDecimal amount, LocalDate date, Category category, String description) {
+        long hash = FNV_OFFSET;
+        hash = mix(hash, userId);
+        hash = mix(hash, MinorUnits.toMinor(amount));
+        hash = mix(hash, date.toEpochDay());
+        hash = mix(hash, category.ordinal());
+        for (byte b : normalize(description).getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        return finish(hash);
+    }
+
+    /**
+     * Lower case, without accents, with every run of non-alphanumeric characters collapsed
+     * to one space.
+     */
+    public static String normalize(String description) {
+        if (description == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(description, Normalizer.Form.NFKD);
+        return decomposed.replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+    }
+
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Final avalanche (from SplitMix64), so both 32-bit halves are usable as independent hashes.
+     */
+    private static long finish(long hash) {
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,77 @@
+package com.smartledger.cache;
+
+import com.smartledger.entity.Category;
+import com.smartledger.util.TransactionFingerprint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Bloom filter unit tests")
+class BloomFilterTest {
+
+    private static long fingerprint(int i) {
+        return TransactionFingerprint.of(1L, BigDecimal.valueOf(i, 2), LocalDate.of(2025, 10, 1),
+                Category.GROCERIES, "purchase " + i);
+    }
+
+    @Test
+    @DisplayName("Should never miss an added key")
+    void testNoFalseNegatives() {
+        // Given
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            filter.put(fingerprint(i));
+        }
+
+        // Then
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain(fingerprint(i)));
+        }
+        assertFalse(filter.isSaturated());
+    }
+
+    @Test
+    @DisplayName("Should keep false positives near the target rate")
+    void testFalsePositiveRate() {
+        // Given
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put(fingerprint(i));
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 1000; i < 101_000; i++) {
+            if (filter.mightContain(fingerprint(i))) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue(falsePositives < 2000, "Expected about 1% false positives, got " + falsePositives);
+        assertTrue(filter.sizeInBytes() < 2000, "1000 keys at 1% should take about 1.2 KB");
+    }
+
+    @Test
+    @DisplayName("Should report saturation past its capacity")
+    void testSaturation() {
+        // Given
+        BloomFilter filter = new BloomFilter(2, 0.01);
+
+        // When
+        filter.put(fingerprint(1));
+        filter.put(fingerprint(2));
+        boolean full = filter.isSaturated();
+        filter.put(fingerprint(3));
+
+        // Then
+        assertFalse(full);
+        assertTrue(filter.isSaturated());
+    }
+}
@@ -0,0 +1,127 @@
+package com.smartledger.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Ledger columns unit tests")
+class LedgerColumnsTest {
+
+    private static final int CATEGORIES = 3;
+    private static final int TYPES = 2;
+
+    private static int day(String date) {
+        return (int) LocalDate.parse(date).toEpochDay();
+    }
+
+    @Test
+    @DisplayName("Should sum rows inside the date range by type and category")
+    void testAccumulate() {
+        // Given
+        LedgerColumns columns = new LedgerColumns(0);
+        columns.upsert(1, 300000, day("2025-10-01"), (byte) 0, (byte) 0);
+        columns.upsert(2, 80000, day("2025-10-05"), (byte) 1, (byte) 1);
+        columns.upsert(3, 12050, day("2025-10-10"), (byte) 1, (byte) 1);
+        columns.upsert(4, 999, day("2025-11-01"), (byte) 2, (byte) 1);
+
+        // When
+        long[] sums = new long[TYPES * CATEGORIES];
+        long[] counts = new long[sums.length];
+        columns.accumulate(day("2025-10-01"), day("2025-10-31"), CATEGORIES, sums, counts);
+
+        // Then
+        assertEquals(300000, sums[0]);
+        assertEquals(92050, sums[CATEGORIES + 1]);
+        assertEquals(2, counts[CATEGORIES + 1]);
+        assertEquals(0, sums[CATEGORIES + 2], "Row outside the range must be ignored");
+    }
+
+    @Test
+    @DisplayName("Upsert and remove should be idempotent by transaction id")
+    void testUpsertAndRemoveAreIdempotent() {
+        // Given
+        LedgerColumns columns = new LedgerColumns(0);
+        columns.upsert(1, 100, day("2025-10-01"), (byte) 0, (byte) 1);
+        columns.upsert(2, 200, day("2025-10-02"), (byte) 0, (byte) 1);
+
+        // When
+        columns.upsert(1, 150, day("2025-10-01"), (byte) 0, (byte) 1);
+        columns.remove(2);
+        columns.remove(2);
+
+        // Then
+        long[] sums = new long[TYPES * CATEGORIES];
+        columns.accumulate(Integer.MIN_VALUE, Integer.MAX_VALUE, CATEGORIES, sums, new long[sums.length]);
+        assertEquals(1, columns.size());
+        assertEquals(150, sums[CATEGORIES]);
+    }
+
+    @Test
+    @DisplayName("Should bucket rows by month and honour the category filter")
+    void testAccumulateSeries() {
+        // Given
+        LedgerColumns columns = new LedgerColumns(0);
+        for (int i = 0; i < 100; i++) {
+            columns.upsert(i, 100, day("2025-09-15") + i, (byte) (i % CATEGORIES), (byte) 1);
+        }
+        int[] bucketStarts = {day("2025-09-20"), day("2025-10-01"), day("2025-11-01")};
+
+        // When
+        long[] sums = new long[bucketStarts.length * TYPES];
+        columns.accumulateSeries(bucketStarts, day("2025-11-30"), TYPES, -1, sums);
+
+        // Then
+        assertEquals(11 * 100, sums[1], "September from the 20th");
+        assertEquals(31 * 100, sums[TYPES + 1]);
+        assertEquals(30 * 100, sums[2 * TYPES + 1]);
+        assertEquals(0, sums[0]);
+    }
+
+    @Test
+    @DisplayName("Id index should stay consistent over random upserts and removals")
+    void testIndexMatchesReference() {
+        // Given: ids spaced by a power of two so many of them share probe runs
+        LedgerColumns columns = new LedgerColumns(0);
+        Map<Long, Long> reference = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(7);
+
+        for (int step = 0; step < 50_000; step++) {
+            // When
+            long id = (long) random.nextInt(2_000) << 16;
+            if (random.nextInt(3) == 0) {
+                columns.remove(id);
+                reference.remove(id);
+            } else {
+                long amount = random.nextInt(1, 1_000_000);
+                columns.upsert(id, amount, 0, (byte) 0, (byte) 0);
+                reference.put(id, amount);
+            }
+
+            // Then
+            if (step % 1_000 == 0) {
+                long[] sums = new long[TYPES * CATEGORIES];
+                long[] counts = new long[sums.length];
+                columns.accumulate(Integer.MIN_VALUE, Integer.MAX_VALUE, CATEGORIES, sums, counts);
+                assertEquals(reference.size(), columns.size());
+                assertEquals(reference.size(), counts[0]);
+                assertEquals(reference.values().stream().mapToLong(Long::longValue).sum(), sums[0]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should grow past the initial capacity")
+    void testGrowth() {
+        LedgerColumns columns = new LedgerColumns(0);
+        for (int i = 0; i < 100_000; i++) {
+            columns.append(i, 1, 0, (byte) 0, (byte) 0);
+        }
+        assertEquals(100_000, columns.size());
+    }
+}
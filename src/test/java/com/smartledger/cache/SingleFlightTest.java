@@ -0,0 +1,90 @@
+package com.smartledger.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Single-flight unit tests")
+class SingleFlightTest {
+
+    @Test
+    @DisplayName("Concurrent identical calls should share one execution")
+    void testConcurrentCallsShareResult() throws Exception {
+        // Given
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> leader = CompletableFuture.supplyAsync(() ->
+                singleFlight.execute("alice", "all", () -> {
+                    started.countDown();
+                    await(release);
+                    return executions.incrementAndGet();
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        CompletableFuture<Integer> follower = CompletableFuture.supplyAsync(() ->
+                singleFlight.execute("alice", "all", executions::incrementAndGet));
+        Thread.sleep(100);
+        release.countDown();
+
+        // Then
+        assertEquals(1, leader.get(5, TimeUnit.SECONDS));
+        assertEquals(1, follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+        assertEquals(0, singleFlight.inFlightOwners(), "Completed flights must not be retained");
+    }
+
+    @Test
+    @DisplayName("Calls after invalidation should not join the detached flight")
+    void testInvalidateDetachesInFlightCalls() throws Exception {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> stale = CompletableFuture.supplyAsync(() ->
+                singleFlight.execute("alice", "all", () -> {
+                    started.countDown();
+                    await(release);
+                    return "before write";
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        singleFlight.invalidate("alice");
+        String fresh = singleFlight.execute("alice", "all", () -> "after write");
+        release.countDown();
+
+        // Then
+        assertEquals("after write", fresh);
+        assertEquals("before write", stale.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Failures should propagate and not be retained")
+    void testFailureIsNotCached() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("alice", "all", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("ok", singleFlight.execute("alice", "all", () -> "ok"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.smartledger.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Spending profile unit tests")
+class SpendingProfileTest {
+
+    private static final double ALPHA = 0.1;
+    private static final double CAP = 3.0;
+    private static final SpendingProfile.Parameters PARAMETERS = new SpendingProfile.Parameters(ALPHA, CAP, 5);
+
+    private static SpendingProfile withHistory(double... amounts) {
+        SpendingProfile profile = new SpendingProfile(2, null);
+        long id = 1;
+        for (double amount : amounts) {
+            profile.add(0, id++, Math.log(amount), PARAMETERS, null);
+        }
+        return profile;
+    }
+
+    @Test
+    @DisplayName("Should score a value against the statistics seen before it")
+    void testScore() {
+        // Given
+        SpendingProfile profile = withHistory(30, 35, 28, 40, 32, 31);
+
+        // When
+        SpendingProfile.Score usual = profile.score(0, Math.log(33));
+        SpendingProfile.Score outlier = profile.score(0, Math.log(500));
+
+        // Then
+        assertEquals(6, usual.samples());
+        assertTrue(Math.abs(usual.z()) < 1, "A typical amount should be close to the mean");
+        assertTrue(outlier.z() > 10, "A fifteenfold amount should be far above the mean");
+        assertEquals(0, profile.score(1, Math.log(500)).samples(), "Categories are independent");
+    }
+
+    @Test
+    @DisplayName("Should cap the influence of an outlier on the baseline")
+    void testOutlierIsCapped() {
+        // Given
+        SpendingProfile profile = withHistory(30, 35, 28, 40, 32, 31);
+        double meanBefore = profile.snapshot(0).mean();
+
+        // When
+        profile.add(0, 7, Math.log(100_000), PARAMETERS, null);
+
+        // Then
+        double meanAfter = profile.snapshot(0).mean();
+        double deviation = profile.score(0, 0).deviation();
+        assertTrue(meanAfter - meanBefore <= ALPHA * CAP * 1.5,
+                "The mean should move by at most alpha times the capped distance");
+        assertTrue(profile.score(0, Math.log(100_000)).z() > CAP, "The outlier should still stand out");
+        assertTrue(deviation < 1, "The spread should not absorb the outlier");
+    }
+
+    @Test
+    @DisplayName("Should skip replayed samples the profile already includes")
+    void testReplayIsIdempotent() {
+        // Given
+        SpendingProfile profile = withHistory(30, 35, 28);
+        SpendingProfile.Snapshot before = profile.snapshot(0);
+
+        // When
+        profile.replay(0, 2, Math.log(35), PARAMETERS);
+        profile.replay(0, 3, Math.log(28), PARAMETERS);
+
+        // Then
+        assertEquals(before, profile.snapshot(0));
+
+        // When
+        profile.replay(0, 4, Math.log(40), PARAMETERS);
+
+        // Then
+        assertEquals(4, profile.snapshot(0).samples());
+        assertEquals(4, profile.snapshot(0).lastTransactionId());
+    }
+
+    @Test
+    @DisplayName("Should report changed categories once")
+    void testDirtyTracking() {
+        // Given
+        SpendingProfile profile = new SpendingProfile(2, null);
+        profile.restore(0, 3.4, 0.02, 10, 100);
+        assertEquals(0, profile.takeDirty(), "Restored state is already persisted");
+
+        // When
+        profile.add(1, 101, Math.log(12), PARAMETERS, null);
+
+        // Then
+        assertEquals(0b10, profile.takeDirty());
+        assertEquals(0, profile.takeDirty());
+    }
+
+    @Test
+    @DisplayName("Should follow the plain running mean until enough samples are seen")
+    void testRunningMeanWarmUp() {
+        // When
+        SpendingProfile profile = withHistory(10, 20, 40);
+
+        // Then
+        double expected = (Math.log(10) + Math.log(20) + Math.log(40)) / 3;
+        assertEquals(expected, profile.snapshot(0).mean(), 1e-9);
+    }
+}
@@ -0,0 +1,279 @@
+package com.smartledger.dataset;
+
+import com.smartledger.entity.Category;
+import com.smartledger.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic ledgers for benchmarks and query-plan checks. The ledger of user
+ * {@code i} depends only on the seed, {@code i} and the distributions, so a dataset can be
+ * regenerated exactly, and growing {@code users} keeps the existing users' ledgers.
+ *
+ * <ul>
+ *   <li>Ledger sizes are log-normal around {@code transactionsPerUser}, so a few users have
+ *       much larger ledgers than the rest ({@code ledgerSkew} is the sigma).</li>
+ *   <li>A transaction is income with probability {@code incomeShare}; its category is then
+ *       drawn from the weights of that type's categories.</li>
+ *   <li>Amounts are log-normal per category, given as median and sigma.</li>
+ *   <li>Dates fall between {@code startDate} and {@code endDate}, with a density growing
+ *       linearly by {@code dateGrowth} (0: uniform, 1: twice as many at the end).</li>
+ * </ul>
+ *
+ * @see SyntheticDatasetLoader
+ */
+public final class SyntheticDataset {
+
+    public static final Set<Category> INCOME_CATEGORIES = EnumSet.range(Category.SALARY, Category.OTHER_INCOME);
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private static final Map<Category, List<String>> DESCRIPTIONS = new EnumMap<>(Map.ofEntries(
+            Map.entry(Category.SALARY, List.of("Monthly salary", "Salary")),
+            Map.entry(Category.FREELANCE, List.of("Consulting invoice", "Design project", "Translation work")),
+            Map.entry(Category.INVESTMENT, List.of("Dividends", "Interest", "Fund distribution")),
+            Map.entry(Category.GIFT, List.of("Birthday gift", "Gift from family")),
+            Map.entry(Category.OTHER_INCOME, List.of("Refund", "Sold furniture", "Cashback")),
+            Map.entry(Category.RENT, List.of("Monthly rent", "Rent")),
+            Map.entry(Category.UTILITIES, List.of("Electricity bill", "Water bill", "Internet", "Gas bill")),
+            Map.entry(Category.GROCERIES, List.of("Supermarket", "Bakery", "Farmers market", "Corner shop")),
+            Map.entry(Category.TRANSPORT, List.of("Fuel", "Train ticket", "Bus pass", "Taxi", "Parking")),
+            Map.entry(Category.HEALTHCARE, List.of("Pharmacy", "Dentist", "Doctor visit")),
+            Map.entry(Category.ENTERTAINMENT, List.of("Cinema", "Concert", "Streaming subscription", "Books")),
+            Map.entry(Category.EDUCATION, List.of("Online course", "Textbooks", "Language school")),
+            Map.entry(Category.SHOPPING, List.of("Clothes", "Electronics", "Home goods", "Shoes")),
+            Map.entry(Category.RESTAURANT, List.of("Lunch", "Dinner out", "Coffee", "Takeaway")),
+            Map.entry(Category.TRAVEL, List.of("Hotel", "Flight", "Car rental")),
+            Map.entry(Category.INSURANCE, List.of("Car insurance", "Home insurance", "Health insurance")),
+            Map.entry(Category.OTHER_EXPENSE, List.of("Miscellaneous", "Donation", "Bank fee"))));
+
+    private final Spec spec;
+    private final Category[] incomeCategories;
+    private final double[] incomeCumulative;
+    private final Category[] expenseCategories;
+    private final double[] expenseCumulative;
+    private final long days;
+
+    public SyntheticDataset(Spec spec) {
+        this.spec = spec;
+        List<Category> income = new ArrayList<>();
+        List<Category> expense = new ArrayList<>();
+        for (Category category : Category.values()) {
+            if (spec.categoryWeights().getOrDefault(category, 0.0) > 0) {
+                (INCOME_CATEGORIES.contains(category) ? income : expense).add(category);
+            }
+        }
+        if ((spec.incomeShare() > 0 && income.isEmpty()) || (spec.incomeShare() < 1 && expense.isEmpty())) {
+            throw new IllegalArgumentException("Every transaction type drawn needs a category with a positive weight");
+        }
+        this.incomeCategories = income.toArray(Category[]::new);
+        this.incomeCumulative = cumulative(incomeCategories, spec.categoryWeights());
+        this.expenseCategories = expense.toArray(Category[]::new);
+        this.expenseCumulative = cumulative(expenseCategories, spec.categoryWeights());
+        this.days = ChronoUnit.DAYS.between(spec.startDate(), spec.endDate()) + 1;
+        if (days < 1) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+    }
+
+    public Spec spec() {
+        return spec;
+    }
+
+    public String username(int user) {
+        return String.format("%s%06d", spec.usernamePrefix(), user);
+    }
+
+    /**
+     * The transactions of user {@code user} (0-based), in the order they were entered.
+     */
+    public List<Transaction> ledger(int user) {
+        SplittableRandom random = new SplittableRandom(spec.seed() + GOLDEN_GAMMA * (user + 1));
+        int size = ledgerSize(random);
+        List<Transaction> ledger = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ledger.add(transaction(random));
+        }
+        ledger.sort(Comparator.comparing(Transaction::createdAt));
+        return ledger;
+    }
+
+    private int ledgerSize(SplittableRandom random) {
+        double sigma = spec.ledgerSkew();
+        // Log-normal with the requested mean: exp(mu + sigma^2 / 2) = transactionsPerUser
+        double size = spec.transactionsPerUser() * Math.exp(sigma * gaussian(random) - sigma * sigma / 2);
+        return (int) Math.max(1, Math.round(size));
+    }
+
+    private Transaction transaction(SplittableRandom random) {
+        boolean income = random.nextDouble() < spec.incomeShare();
+        Category category = income
+                ? pick(incomeCategories, incomeCumulative, random)
+                : pick(expenseCategories, expenseCumulative, random);
+        Amount amount = spec.amounts().get(category);
+        BigDecimal value = BigDecimal.valueOf(amount.median() * Math.exp(amount.sigma() * gaussian(random)))
+                .setScale(2, RoundingMode.HALF_UP)
+                .max(new BigDecimal("0.01"));
+        LocalDate date = spec.startDate().plusDays(Math.min(days - 1, (long) (dayFraction(random) * days)));
+        // Entered during the day, between 07:00 and 23:00
+        LocalDateTime createdAt = date.atTime(7, 0).plusSeconds(random.nextInt(16 * 3600));
+        List<String> descriptions = DESCRIPTIONS.get(category);
+        String description = descriptions.get(random.nextInt(descriptions.size()));
+        return new Transaction(income ? TransactionType.INCOME : TransactionType.EXPENSE, category, value, date,
+                description, createdAt);
+    }
+
+    /**
+     * Inverse of the CDF of the density 1 + growth * t on [0, 1].
+     */
+    private double dayFraction(SplittableRandom random) {
+        double u = random.nextDouble();
+        double growth = spec.dateGrowth();
+        if (growth == 0) {
+            return u;
+        }
+        return (-1 + Math.sqrt(1 + 2 * growth * u * (1 + growth / 2))) / growth;
+    }
+
+    private static Category pick(Category[] categories, double[] cumulative, SplittableRandom random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        for (int i = 0; i < cumulative.length; i++) {
+            if (target < cumulative[i]) {
+                return categories[i];
+            }
+        }
+        return categories[categories.length - 1];
+    }
+
+    private static double[] cumulative(Category[] categories, Map<Category, Double> weights) {
+        double[] cumulative = new double[categories.length];
+        double total = 0;
+        for (int i = 0; i < categories.length; i++) {
+            total += weights.get(categories[i]);
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    /**
+     * Standard normal by Box-Muller, so the sequence only depends on the generator's state.
+     */
+    private static double gaussian(SplittableRandom random) {
+        double u = 1.0 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    public record Transaction(
+            TransactionType type,
+            Category category,
+            BigDecimal amount,
+            LocalDate date,
+            String description,
+            LocalDateTime createdAt
+    ) {}
+
+    /**
+     * Log-normal amount: half the amounts are below {@code median}, and sigma sets the spread.
+     */
+    public record Amount(double median, double sigma) {}
+
+    public record Spec(
+            long seed,
+            int users,
+            int transactionsPerUser,
+            double ledgerSkew,
+            double incomeShare,
+            Map<Category, Double> categoryWeights,
+            Map<Category, Amount> amounts,
+            LocalDate startDate,
+            LocalDate endDate,
+            double dateGrowth,
+            String usernamePrefix
+    ) {
+
+        public static final Map<Category, Double> DEFAULT_WEIGHTS = Map.ofEntries(
+                Map.entry(Category.SALARY, 60.0),
+                Map.entry(Category.FREELANCE, 15.0),
+                Map.entry(Category.INVESTMENT, 10.0),
+                Map.entry(Category.GIFT, 5.0),
+                Map.entry(Category.OTHER_INCOME, 10.0),
+                Map.entry(Category.RENT, 4.0),
+                Map.entry(Category.UTILITIES, 6.0),
+                Map.entry(Category.GROCERIES, 28.0),
+                Map.entry(Category.TRANSPORT, 14.0),
+                Map.entry(Category.HEALTHCARE, 3.0),
+                Map.entry(Category.ENTERTAINMENT, 8.0),
+                Map.entry(Category.EDUCATION, 2.0),
+                Map.entry(Category.SHOPPING, 12.0),
+                Map.entry(Category.RESTAURANT, 15.0),
+                Map.entry(Category.TRAVEL, 3.0),
+                Map.entry(Category.INSURANCE, 2.0),
+                Map.entry(Category.OTHER_EXPENSE, 3.0));
+
+        public static final Map<Category, Amount> DEFAULT_AMOUNTS = Map.ofEntries(
+                Map.entry(Category.SALARY, new Amount(2800, 0.35)),
+                Map.entry(Category.FREELANCE, new Amount(600, 0.8)),
+                Map.entry(Category.INVESTMENT, new Amount(150, 1.0)),
+                Map.entry(Category.GIFT, new Amount(80, 0.8)),
+                Map.entry(Category.OTHER_INCOME, new Amount(100, 0.9)),
+                Map.entry(Category.RENT, new Amount(950, 0.3)),
+                Map.entry(Category.UTILITIES, new Amount(90, 0.5)),
+                Map.entry(Category.GROCERIES, new Amount(45, 0.6)),
+                Map.entry(Category.TRANSPORT, new Amount(18, 0.8)),
+                Map.entry(Category.HEALTHCARE, new Amount(60, 0.9)),
+                Map.entry(Category.ENTERTAINMENT, new Amount(25, 0.7)),
+                Map.entry(Category.EDUCATION, new Amount(120, 0.9)),
+                Map.entry(Category.SHOPPING, new Amount(55, 0.9)),
+                Map.entry(Category.RESTAURANT, new Amount(30, 0.6)),
+                Map.entry(Category.TRAVEL, new Amount(250, 0.9)),
+                Map.entry(Category.INSURANCE, new Amount(110, 0.4)),
+                Map.entry(Category.OTHER_EXPENSE, new Amount(40, 1.0)));
+
+        /**
+         * Reads {@code --name=value} options; see the README for the list. Options not given
+         * keep their defaults, so the same options always describe the same dataset.
+         */
+        public static Spec fromOptions(Map<String, String> options) {
+            Map<Category, Double> weights = new EnumMap<>(DEFAULT_WEIGHTS);
+            String weightOption = options.get("category-weights");
+            if (weightOption != null) {
+                for (String entry : weightOption.split(",")) {
+                    String[] parts = entry.trim().split(":");
+                    weights.put(Category.valueOf(parts[0]), Double.parseDouble(parts[1]));
+                }
+            }
+            Map<Category, Amount> amounts = new EnumMap<>(DEFAULT_AMOUNTS);
+            for (Category category : Category.values()) {
+                String amountOption = options.get("amount." + category.name());
+                if (amountOption != null) {
+                    String[] parts = amountOption.split(":");
+                    amounts.put(category, new Amount(Double.parseDouble(parts[0]), Double.parseDouble(parts[1])));
+                }
+            }
+            return new Spec(
+                    Long.parseLong(options.getOrDefault("seed", "42")),
+                    Integer.parseInt(options.getOrDefault("users", "1000")),
+                    Integer.parseInt(options.getOrDefault("transactions-per-user", "1000")),
+                    Double.parseDouble(options.getOrDefault("ledger-skew", "1.0")),
+                    Double.parseDouble(options.getOrDefault("income-share", "0.08")),
+                    weights,
+                    amounts,
+                    LocalDate.parse(options.getOrDefault("start-date", "2023-01-01")),
+                    LocalDate.parse(options.getOrDefault("end-date", "2025-12-31")),
+                    Double.parseDouble(options.getOrDefault("date-growth", "0.5")),
+                    options.getOrDefault("username-prefix", "synthetic-"));
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.smartledger.dataset;
+
+import com.smartledger.entity.Category;
+import com.smartledger.entity.TransactionType;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Bulk-loads a {@link SyntheticDataset} into a PostgreSQL database migrated by Liquibase,
+ * with {@code COPY}. Run against a local, unsharded database with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.smartledger.dataset.SyntheticDatasetLoader \
+ *     -Dexec.args="--users=5000 --transactions-per-user=1000 --seed=42"
+ * </pre>
+ * Users get ids after the existing ones and the password {@code --user-password}
+ * (default {@code password}). Transactions are written with their type and category codes
+ * and a per-user {@code change_seq}, which the change tracking trigger keeps, and
+ * {@code transaction_sync_state} is set to match, so later writes and delta syncs carry on
+ * from the loaded data. Monthly spending in {@code budget_spend} is summed from the loaded
+ * expenses, as changeset 005 did for existing ones, so budgets set later start from it.
+ * Ledger events are not generated. Everything is loaded in one database transaction, then
+ * the tables are analyzed.
+ */
+public final class SyntheticDatasetLoader {
+
+    private static final int COPY_BUFFER = 1 << 20;
+    private static final int PROGRESS_EVERY = 1000;
+
+    private final SyntheticDataset dataset;
+    private final String passwordHash;
+
+    public SyntheticDatasetLoader(SyntheticDataset dataset, String password) {
+        this.dataset = dataset;
+        this.passwordHash = new BCryptPasswordEncoder().encode(password);
+    }
+
+    public static void main(String[] args) throws SQLException, IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        SyntheticDataset dataset = new SyntheticDataset(SyntheticDataset.Spec.fromOptions(options));
+        SyntheticDatasetLoader loader = new SyntheticDatasetLoader(dataset, options.getOrDefault("user-password", "password"));
+
+        try (Connection connection = DriverManager.getConnection(
+                options.getOrDefault("url", "jdbc:postgresql://localhost:5432/smartledger"),
+                options.getOrDefault("username", "smartledger"),
+                options.getOrDefault("password", "smartledger"))) {
+            long started = System.nanoTime();
+            Result result = loader.load(connection);
+            double seconds = (System.nanoTime() - started) / 1e9;
+            System.out.printf("Loaded %d users (ids %d-%d) and %d transactions in %.1f s (%.0f rows/s)%n",
+                    result.users(), result.firstUserId(), result.firstUserId() + result.users() - 1,
+                    result.transactions(), seconds, result.transactions() / seconds);
+        }
+    }
+
+    /**
+     * Loads the dataset in one transaction and returns what was written.
+     */
+    public Result load(Connection connection) throws SQLException, IOException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            long firstUserId = nextUserId(connection);
+            int users = dataset.spec().users();
+            copyUsers(connection, firstUserId, users);
+            long transactions = copyTransactions(connection, firstUserId, users);
+            sumBudgetSpend(connection, firstUserId);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('users', 'id'), (SELECT MAX(id) FROM users))");
+            }
+            connection.commit();
+
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE users");
+                statement.execute("ANALYZE transactions");
+                statement.execute("ANALYZE transaction_sync_state");
+                statement.execute("ANALYZE budget_spend");
+            }
+            return new Result(firstUserId, users, transactions);
+        } catch (SQLException | IOException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static long nextUserId(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM users")) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private void copyUsers(Connection connection, long firstUserId, int users) throws SQLException, IOException {
+        LocalDateTime createdAt = dataset.spec().startDate().atStartOfDay();
+        try (Writer out = copy(connection, "COPY users (id, username, password, email, full_name, enabled, created_at, updated_at) FROM STDIN")) {
+            for (int user = 0; user < users; user++) {
+                String username = dataset.username(user);
+                row(out, firstUserId + user, username, passwordHash, username + "@example.com",
+                        "Synthetic user " + user, "t", createdAt, createdAt);
+            }
+        }
+        try (Writer out = copy(connection, "COPY user_roles (user_id, role) FROM STDIN")) {
+            for (int user = 0; user < users; user++) {
+                row(out, firstUserId + user, "USER");
+            }
+        }
+    }
+
+    /**
+     * Streams every ledger, one user at a time, and then the users' change counters.
+     */
+    private long copyTransactions(Connection connection, long firstUserId, int users) throws SQLException, IOException {
+        long[] lastChangeSeq = new long[users];
+        long total = 0;
+        long started = System.nanoTime();
+        try (Writer out = copy(connection, "COPY transactions (user_id, type, category, amount, date, description, "
+                + "created_at, updated_at, change_seq) FROM STDIN")) {
+            for (int user = 0; user < users; user++) {
+                List<SyntheticDataset.Transaction> ledger = dataset.ledger(user);
+                long changeSeq = 0;
+                for (SyntheticDataset.Transaction transaction : ledger) {
+                    changeSeq++;
+                    row(out, firstUserId + user, transaction.type().code(), transaction.category().code(),
+                            transaction.amount().toPlainString(), transaction.date(), transaction.description(),
+                            transaction.createdAt(), transaction.createdAt(), changeSeq);
+                }
+                lastChangeSeq[user] = changeSeq;
+                total += ledger.size();
+                if ((user + 1) % PROGRESS_EVERY == 0) {
+                    double seconds = (System.nanoTime() - started) / 1e9;
+                    System.out.printf("%d/%d users, %d transactions, %.0f rows/s%n", user + 1, users, total, total / seconds);
+                }
+            }
+        }
+        try (Writer out = copy(connection, "COPY transaction_sync_state (user_id, change_seq) FROM STDIN")) {
+            for (int user = 0; user < users; user++) {
+                row(out, firstUserId + user, lastChangeSeq[user]);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Sums the loaded users' expenses per category and month. {@code budget_spend} keys
+     * categories by name, so the codes are mapped back through a VALUES list.
+     */
+    private static void sumBudgetSpend(Connection connection, long firstUserId) throws SQLException {
+        StringJoiner names = new StringJoiner(", ");
+        for (Category category : Category.values()) {
+            names.add("(" + category.code() + ", '" + category.name() + "')");
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO budget_spend (user_id, category, month, spent) "
+                        + "SELECT t.user_id, c.name, CAST(date_trunc('month', t.date) AS DATE), SUM(t.amount) "
+                        + "FROM transactions t JOIN (VALUES " + names + ") AS c (code, name) ON c.code = t.category "
+                        + "WHERE t.user_id >= ? AND t.type = ? "
+                        + "GROUP BY t.user_id, c.name, CAST(date_trunc('month', t.date) AS DATE)")) {
+            statement.setLong(1, firstUserId);
+            statement.setShort(2, TransactionType.EXPENSE.code());
+            statement.executeUpdate();
+        }
+    }
+
+    private static Writer copy(Connection connection, String sql) throws SQLException {
+        PGCopyOutputStream stream = new PGCopyOutputStream(connection.unwrap(PGConnection.class), sql, COPY_BUFFER);
+        return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), COPY_BUFFER);
+    }
+
+    /**
+     * Writes one row in COPY's text format.
+     */
+    private static void row(Writer out, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write('\t');
+            }
+            out.write(escape(values[i].toString()));
+        }
+        out.write('\n');
+    }
+
+    private static String escape(String value) {
+        if (value.indexOf('\\') < 0 && value.indexOf('\t') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    public record Result(long firstUserId, int users, long transactions) {}
+}
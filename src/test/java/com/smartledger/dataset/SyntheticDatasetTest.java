@@ -0,0 +1,92 @@
+package com.smartledger.dataset;
+
+import com.smartledger.entity.Category;
+import com.smartledger.entity.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Synthetic dataset unit tests")
+class SyntheticDatasetTest {
+
+    @Test
+    @DisplayName("The same seed should generate the same ledgers")
+    void testDeterministic() {
+        // Given
+        SyntheticDataset first = dataset(Map.of("seed", "7"));
+        SyntheticDataset second = dataset(Map.of("seed", "7", "users", "10"));
+        SyntheticDataset other = dataset(Map.of("seed", "8"));
+
+        // When & Then
+        assertEquals(first.ledger(3), second.ledger(3), "Ledgers depend only on the seed and the user");
+        assertNotEquals(first.ledger(3), first.ledger(4));
+        assertNotEquals(first.ledger(3), other.ledger(3));
+    }
+
+    @Test
+    @DisplayName("Transactions should follow the configured distributions")
+    void testDistributions() {
+        // Given
+        SyntheticDataset dataset = dataset(Map.of(
+                "transactions-per-user", "500",
+                "income-share", "0.2",
+                "category-weights", "SALARY:1,FREELANCE:0,INVESTMENT:0,GIFT:0,OTHER_INCOME:0,GROCERIES:60,RENT:0,"
+                        + "UTILITIES:0,TRANSPORT:0,HEALTHCARE:0,ENTERTAINMENT:0,EDUCATION:0,SHOPPING:0,RESTAURANT:40,"
+                        + "TRAVEL:0,INSURANCE:0,OTHER_EXPENSE:0",
+                "start-date", "2025-01-01",
+                "end-date", "2025-06-30"));
+
+        // When
+        List<SyntheticDataset.Transaction> transactions = new ArrayList<>();
+        for (int user = 0; user < 40; user++) {
+            transactions.addAll(dataset.ledger(user));
+        }
+
+        // Then
+        Map<Category, Integer> counts = new EnumMap<>(Category.class);
+        for (SyntheticDataset.Transaction transaction : transactions) {
+            counts.merge(transaction.category(), 1, Integer::sum);
+            assertEquals(transaction.type() == TransactionType.INCOME,
+                    SyntheticDataset.INCOME_CATEGORIES.contains(transaction.category()));
+            assertTrue(transaction.amount().compareTo(BigDecimal.ZERO) > 0);
+            assertEquals(2, transaction.amount().scale());
+            assertFalse(transaction.date().isBefore(dataset.spec().startDate()));
+            assertFalse(transaction.date().isAfter(dataset.spec().endDate()));
+            assertEquals(transaction.date(), transaction.createdAt().toLocalDate());
+        }
+        assertEquals(3, counts.size(), "Only categories with a positive weight are drawn");
+
+        double total = transactions.size();
+        assertEquals(0.2, counts.get(Category.SALARY) / total, 0.02);
+        assertEquals(0.8 * 0.6, counts.get(Category.GROCERIES) / total, 0.02);
+        assertEquals(0.8 * 0.4, counts.get(Category.RESTAURANT) / total, 0.02);
+        assertEquals(500, total / 40, 150, "Ledger sizes average transactionsPerUser");
+    }
+
+    @Test
+    @DisplayName("Ledgers should be in entry order")
+    void testLedgerOrder() {
+        // Given
+        SyntheticDataset dataset = dataset(Map.of("transactions-per-user", "200"));
+
+        // When
+        List<SyntheticDataset.Transaction> ledger = dataset.ledger(0);
+
+        // Then
+        for (int i = 1; i < ledger.size(); i++) {
+            assertFalse(ledger.get(i).createdAt().isBefore(ledger.get(i - 1).createdAt()));
+        }
+        assertEquals("synthetic-000012", dataset.username(12));
+    }
+
+    private static SyntheticDataset dataset(Map<String, String> options) {
+        return new SyntheticDataset(SyntheticDataset.Spec.fromOptions(options));
+    }
+}
@@ -0,0 +1,52 @@
+package com.smartledger.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Transaction type and category converter unit tests")
+class TransactionCodeConverterTest {
+
+    private final CategoryConverter categoryConverter = new CategoryConverter();
+    private final TransactionTypeConverter typeConverter = new TransactionTypeConverter();
+
+    @Test
+    @DisplayName("Should round-trip every constant through a distinct code")
+    void testRoundTrip() {
+        Set<Short> codes = new HashSet<>();
+        for (Category category : Category.values()) {
+            Short code = categoryConverter.convertToDatabaseColumn(category);
+            assertTrue(codes.add(code), "Duplicate code " + code);
+            assertEquals(category, categoryConverter.convertToEntityAttribute(code));
+        }
+        codes.clear();
+        for (TransactionType type : TransactionType.values()) {
+            Short code = typeConverter.convertToDatabaseColumn(type);
+            assertTrue(codes.add(code), "Duplicate code " + code);
+            assertEquals(type, typeConverter.convertToEntityAttribute(code));
+        }
+        assertNull(categoryConverter.convertToDatabaseColumn(null));
+        assertNull(categoryConverter.convertToEntityAttribute(null));
+        assertNull(typeConverter.convertToDatabaseColumn(null));
+        assertNull(typeConverter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown codes")
+    void testUnknownCode() {
+        for (short code : new short[]{0, 6, 20, 33, 63, 64, -1, Short.MAX_VALUE}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> categoryConverter.convertToEntityAttribute(code));
+            assertEquals("Unknown category code " + code, e.getMessage());
+        }
+        for (short code : new short[]{0, 3, -1}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> typeConverter.convertToEntityAttribute(code));
+            assertEquals("Unknown transaction type code " + code, e.getMessage());
+        }
+    }
+}
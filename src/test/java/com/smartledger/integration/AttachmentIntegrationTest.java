@@ -0,0 +1,325 @@
+package com.smartledger.integration;
+
+import com.smartledger.dto.LoginRequest;
+import com.smartledger.service.AttachmentService;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for receipt attachments, against an embedded PostgreSQL and a temporary
+ * storage directory.
+ *
+ * This test validates:
+ * - Uploads are stored under their SHA-256 and downloaded byte for byte
+ * - Downloads answer Range requests and If-None-Match against the ETag
+ * - Identical content attached twice is stored once
+ * - Deleted attachments and transactions leave files to the sweep, which keeps shared ones
+ * - The sweep does not delete content an upload is committing a reference to
+ * - Oversized and unsupported uploads are refused
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Attachment Integration Tests")
+class AttachmentIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    static Path storageDir = createStorageDir();
+
+    @Autowired
+    private AttachmentService attachmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @LocalServerPort
+    private Integer port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("rate-limit.enabled", () -> "false");
+        registry.add("attachments.storage-dir", () -> storageDir.toString());
+        registry.add("attachments.max-size", () -> "1MB");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should download an upload byte for byte, in ranges and by ETag")
+    void testUploadAndDownload() throws Exception {
+        // Given
+        String token = login();
+        long transactionId = createTransaction(token, "18.40");
+        byte[] receipt = content(1, 300_000);
+
+        // When
+        Response uploaded = upload(token, transactionId, "image/jpeg", receipt);
+
+        // Then
+        uploaded.then().statusCode(201)
+                .body("transactionId", equalTo((int) transactionId))
+                .body("filename", equalTo("receipt.jpg"))
+                .body("contentType", equalTo("image/jpeg"))
+                .body("size", equalTo(receipt.length))
+                .body("sha256", equalTo(sha256(receipt)));
+        String url = "/transactions/" + transactionId + "/attachments/" + uploaded.path("id");
+
+        Response download = given().header("Authorization", "Bearer " + token).when().get(url);
+        assertEquals(200, download.statusCode());
+        assertEquals("image/jpeg", download.contentType());
+        assertEquals("\"" + sha256(receipt) + "\"", download.header("ETag"));
+        assertArrayEquals(receipt, download.asByteArray());
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .header("If-None-Match", download.header("ETag"))
+                .when()
+                .get(url)
+                .then()
+                .statusCode(304);
+
+        Response range = given()
+                .header("Authorization", "Bearer " + token)
+                .header("Range", "bytes=1000-1999")
+                .when()
+                .get(url);
+        assertEquals(206, range.statusCode());
+        assertEquals("bytes 1000-1999/" + receipt.length, range.header("Content-Range"));
+        assertArrayEquals(Arrays.copyOfRange(receipt, 1000, 2000), range.asByteArray());
+    }
+
+    @Test
+    @DisplayName("Should store identical content once")
+    void testDeduplication() throws Exception {
+        // Given
+        String token = login();
+        long first = createTransaction(token, "7.10");
+        long second = createTransaction(token, "7.20");
+        byte[] receipt = content(2, 50_000);
+
+        // When
+        String firstHash = upload(token, first, "application/pdf", receipt).then().statusCode(201).extract().path("sha256");
+        String secondHash = upload(token, second, "application/pdf", receipt).then().statusCode(201).extract().path("sha256");
+
+        // Then
+        assertEquals(firstHash, secondHash);
+        assertEquals(1, storedFiles(firstHash));
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/transactions/" + second + "/attachments")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(1))
+                .body("[0].sha256", equalTo(firstHash));
+    }
+
+    @Test
+    @DisplayName("Should sweep content no attachment refers to")
+    void testSweep() throws Exception {
+        // Given
+        String token = login();
+        long kept = createTransaction(token, "3.30");
+        long deleted = createTransaction(token, "3.40");
+        byte[] shared = content(3, 20_000);
+        byte[] orphaned = content(4, 20_000);
+        upload(token, kept, "image/png", shared).then().statusCode(201);
+        upload(token, deleted, "image/png", shared).then().statusCode(201);
+        upload(token, deleted, "image/png", orphaned).then().statusCode(201);
+
+        // When
+        given().header("Authorization", "Bearer " + token).when()
+                .delete("/transactions/" + deleted).then().statusCode(204);
+        attachmentService.sweepContentOlderThan(Instant.now().plus(1, ChronoUnit.MINUTES));
+
+        // Then
+        assertEquals(1, storedFiles(sha256(shared)), "Content still attached elsewhere is kept");
+        assertEquals(0, storedFiles(sha256(orphaned)));
+        given().header("Authorization", "Bearer " + token).when()
+                .get("/transactions/" + deleted + "/attachments")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(0));
+    }
+
+    @Test
+    @DisplayName("Should not sweep content while an upload commits a reference to it")
+    void testSweepDuringUpload() throws Exception {
+        // Given: orphaned content, and attachment inserts slowed down so the sweep runs mid-upload
+        String token = login();
+        long orphan = createTransaction(token, "5.10");
+        long transactionId = createTransaction(token, "5.20");
+        byte[] receipt = content(6, 20_000);
+        String hash = sha256(receipt);
+        long attachmentId = ((Number) upload(token, orphan, "image/png", receipt).then().statusCode(201)
+                .extract().path("id")).longValue();
+        given().header("Authorization", "Bearer " + token).when()
+                .delete("/transactions/" + orphan + "/attachments/" + attachmentId).then().statusCode(204);
+        Path file = storageDir.resolve(hash.substring(0, 2)).resolve(hash);
+        FileTime old = FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS));
+        Files.setLastModifiedTime(file, old);
+        jdbcTemplate.execute("""
+                CREATE FUNCTION slow_attachment_insert() RETURNS trigger AS $$
+                BEGIN PERFORM pg_sleep(2); RETURN NEW; END;
+                $$ LANGUAGE plpgsql""");
+        jdbcTemplate.execute("CREATE TRIGGER slow_attachment_insert BEFORE INSERT ON transaction_attachments "
+                + "FOR EACH ROW EXECUTE FUNCTION slow_attachment_insert()");
+
+        try {
+            // When: the upload has touched the stored copy and is inserting its row
+            CompletableFuture<Response> uploading = CompletableFuture.supplyAsync(() ->
+                    upload(token, transactionId, "image/png", receipt));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (Files.getLastModifiedTime(file).equals(old) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            attachmentService.sweepContentOlderThan(Instant.now().plus(1, ChronoUnit.MINUTES));
+            uploading.get(10, TimeUnit.SECONDS).then().statusCode(201);
+        } finally {
+            jdbcTemplate.execute("DROP TRIGGER slow_attachment_insert ON transaction_attachments");
+            jdbcTemplate.execute("DROP FUNCTION slow_attachment_insert()");
+        }
+
+        // Then
+        assertEquals(1, storedFiles(hash));
+        long id = ((Number) given().header("Authorization", "Bearer " + token).when()
+                .get("/transactions/" + transactionId + "/attachments")
+                .then().statusCode(200).body("size()", equalTo(1)).extract().path("[0].id")).longValue();
+        byte[] downloaded = given().header("Authorization", "Bearer " + token).when()
+                .get("/transactions/" + transactionId + "/attachments/" + id)
+                .then().statusCode(200).extract().asByteArray();
+        assertArrayEquals(receipt, downloaded);
+    }
+
+    @Test
+    @DisplayName("Should refuse oversized and unsupported uploads")
+    void testRefusedUploads() {
+        // Given
+        String token = login();
+        long transactionId = createTransaction(token, "9.90");
+
+        // When / Then
+        upload(token, transactionId, "image/jpeg", content(5, 2 * 1024 * 1024)).then().statusCode(413);
+        upload(token, transactionId, "text/html", "<script></script>".getBytes()).then().statusCode(415);
+        given().header("Authorization", "Bearer " + token).when()
+                .get("/transactions/" + transactionId + "/attachments")
+                .then()
+                .body("size()", equalTo(0));
+    }
+
+    private Response upload(String token, long transactionId, String contentType, byte[] content) {
+        return given()
+                .header("Authorization", "Bearer " + token)
+                .contentType(contentType)
+                .queryParam("filename", "receipt.jpg")
+                .body(content)
+                .when()
+                .post("/transactions/" + transactionId + "/attachments");
+    }
+
+    private long storedFiles(String sha256) throws IOException {
+        try (Stream<Path> files = Files.walk(storageDir)) {
+            return files.filter(file -> file.getFileName().toString().equals(sha256)).count();
+        }
+    }
+
+    private static byte[] content(long seed, int size) {
+        byte[] content = new byte[size];
+        new Random(seed).nextBytes(content);
+        return content;
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    private long createTransaction(String token, String amount) {
+        Number id = given()
+                .header("Authorization", "Bearer " + token)
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "type", "EXPENSE",
+                        "category", "GROCERIES",
+                        "amount", amount,
+                        "date", "2025-10-14",
+                        "description", "receipt " + amount))
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id");
+        return id.longValue();
+    }
+
+    private String login() {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest("admin", "admin123"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private static Path createStorageDir() {
+        try {
+            return Files.createTempDirectory("smartledger-attachments");
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create attachment storage directory", e);
+        }
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
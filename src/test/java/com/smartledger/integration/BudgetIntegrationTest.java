@@ -0,0 +1,256 @@
+package com.smartledger.integration;
+
+import com.smartledger.dto.LoginRequest;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for monthly budgets, against an embedded PostgreSQL. Tracked spending
+ * is always compared with a sum over the user's transactions.
+ *
+ * This test validates:
+ * - Creates add to the month's spending and each crossed threshold raises one alert
+ * - Updates moving an expense to another category or month move its amount
+ * - Deletes take the amount back out without raising alerts again
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Budget Integration Tests")
+class BudgetIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @LocalServerPort
+    private Integer port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("rate-limit.enabled", () -> "false");
+        registry.add("duplicates.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should track spending and raise each crossed threshold once")
+    void testThresholdAlerts() {
+        // Given
+        String username = createUser("budget-alerts");
+        String token = login(username);
+        saveBudget(token, "GROCERIES", "100.00", List.of(50, 100));
+
+        // When
+        create(token, "GROCERIES", "30.00", "2025-03-02");
+        create(token, "GROCERIES", "25.00", "2025-03-09");
+        create(token, "GROCERIES", "10.00", "2025-03-16");
+        create(token, "GROCERIES", "40.00", "2025-03-23");
+        create(token, "GROCERIES", "5.00", "2025-03-30");
+
+        // Then
+        assertSpent(username, token, "GROCERIES", YearMonth.of(2025, 3));
+        as(token).queryParam("month", "2025-03").get("/budgets/GROCERIES/status").then()
+                .statusCode(200)
+                .body("spent", equalTo(110.0f))
+                .body("remaining", equalTo(-10.0f))
+                .body("crossedThresholds", equalTo(List.of(50, 100)));
+        as(token).queryParam("month", "2025-03").get("/budgets/alerts").then()
+                .statusCode(200)
+                .body("thresholdPercent", equalTo(List.of(50, 100)))
+                .body("spent", equalTo(List.of(55.0f, 105.0f)));
+    }
+
+    @Test
+    @DisplayName("Should move an updated expense to its new category and month")
+    void testUpdateMovesExpense() {
+        // Given
+        String username = createUser("budget-moves");
+        String token = login(username);
+        saveBudget(token, "RESTAURANT", "200.00", List.of(100));
+        saveBudget(token, "TRAVEL", "100.00", List.of(100));
+        create(token, "RESTAURANT", "50.00", "2025-04-10");
+        long moved = create(token, "RESTAURANT", "80.00", "2025-04-12");
+
+        // When: same bucket, then another category, then another month
+        update(token, moved, "RESTAURANT", "90.00", "2025-04-12");
+        assertSpent(username, token, "RESTAURANT", YearMonth.of(2025, 4));
+        update(token, moved, "TRAVEL", "120.00", "2025-04-12");
+        assertSpent(username, token, "RESTAURANT", YearMonth.of(2025, 4));
+        assertSpent(username, token, "TRAVEL", YearMonth.of(2025, 4));
+        update(token, moved, "TRAVEL", "120.00", "2025-05-01");
+
+        // Then
+        assertSpent(username, token, "RESTAURANT", YearMonth.of(2025, 4));
+        assertSpent(username, token, "TRAVEL", YearMonth.of(2025, 4));
+        assertSpent(username, token, "TRAVEL", YearMonth.of(2025, 5));
+        as(token).queryParam("month", "2025-04").get("/budgets/TRAVEL/status").then()
+                .statusCode(200)
+                .body("spent", equalTo(0.0f));
+        as(token).queryParam("month", "2025-05").get("/budgets/TRAVEL/status").then()
+                .statusCode(200)
+                .body("spent", equalTo(120.0f));
+        as(token).queryParam("month", "2025-04").get("/budgets/alerts").then()
+                .statusCode(200)
+                .body("category", equalTo(List.of("TRAVEL")));
+        as(token).queryParam("month", "2025-05").get("/budgets/alerts").then()
+                .statusCode(200)
+                .body("category", equalTo(List.of("TRAVEL")));
+    }
+
+    @Test
+    @DisplayName("Should take deleted expenses out without alerting twice")
+    void testDelete() {
+        // Given
+        String username = createUser("budget-deletes");
+        String token = login(username);
+        saveBudget(token, "UTILITIES", "100.00", List.of(80));
+        create(token, "UTILITIES", "30.00", "2025-06-03");
+        long deleted = create(token, "UTILITIES", "60.00", "2025-06-04");
+
+        // When
+        as(token).delete("/transactions/" + deleted).then().statusCode(204);
+
+        // Then
+        assertSpent(username, token, "UTILITIES", YearMonth.of(2025, 6));
+        as(token).queryParam("month", "2025-06").get("/budgets/UTILITIES/status").then()
+                .statusCode(200)
+                .body("spent", equalTo(30.0f))
+                .body("crossedThresholds", empty());
+
+        // When: crossing the same threshold again in the same month
+        create(token, "UTILITIES", "55.00", "2025-06-20");
+
+        // Then
+        assertSpent(username, token, "UTILITIES", YearMonth.of(2025, 6));
+        as(token).queryParam("month", "2025-06").get("/budgets/alerts").then()
+                .statusCode(200)
+                .body("thresholdPercent", equalTo(List.of(80)));
+    }
+
+    /**
+     * Compares the tracked spending and the status read with the sum of the expenses.
+     */
+    private void assertSpent(String username, String token, String category, YearMonth month) {
+        BigDecimal sum = jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(t.amount), 0)
+                FROM transactions t JOIN users u ON u.id = t.user_id
+                WHERE u.username = ? AND t.type = transaction_type_code('EXPENSE')
+                  AND t.category = transaction_category_code(?) AND t.date >= ? AND t.date < ?
+                """, BigDecimal.class, username, category, month.atDay(1), month.plusMonths(1).atDay(1));
+        BigDecimal tracked = jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(s.spent), 0)
+                FROM budget_spend s JOIN users u ON u.id = s.user_id
+                WHERE u.username = ? AND s.category = ? AND s.month = ?
+                """, BigDecimal.class, username, category, month.atDay(1));
+        assertEquals(0, sum.compareTo(tracked), category + " " + month + ": tracked " + tracked + ", summed " + sum);
+
+        String spent = as(token).queryParam("month", month.toString()).get("/budgets/" + category + "/status").then()
+                .statusCode(200)
+                .extract().jsonPath().getString("spent");
+        assertEquals(0, sum.compareTo(new BigDecimal(spent)), category + " " + month + " status");
+    }
+
+    private void saveBudget(String token, String category, String limit, List<Integer> thresholds) {
+        as(token).contentType(ContentType.JSON)
+                .body(Map.of("monthlyLimit", limit, "alertThresholds", thresholds))
+                .put("/budgets/" + category).then()
+                .statusCode(200);
+    }
+
+    private long create(String token, String category, String amount, String date) {
+        Number id = as(token).contentType(ContentType.JSON)
+                .body(expense(category, amount, date))
+                .post("/transactions").then()
+                .statusCode(201)
+                .extract().path("id");
+        return id.longValue();
+    }
+
+    private void update(String token, long id, String category, String amount, String date) {
+        as(token).contentType(ContentType.JSON)
+                .body(expense(category, amount, date))
+                .put("/transactions/" + id).then()
+                .statusCode(200);
+    }
+
+    private static Map<String, Object> expense(String category, String amount, String date) {
+        return Map.of(
+                "type", "EXPENSE",
+                "category", category,
+                "amount", amount,
+                "date", date,
+                "description", category + " " + date);
+    }
+
+    private String createUser(String username) {
+        Long id = jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password, email, full_name) VALUES (?, ?, ?, ?) RETURNING id",
+                Long.class, username, passwordEncoder.encode("password"), username + "@example.com", username);
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role) VALUES (?, 'USER')", id);
+        return username;
+    }
+
+    private RequestSpecification as(String token) {
+        return given().header("Authorization", "Bearer " + token);
+    }
+
+    private String login(String username) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest(username, "password"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
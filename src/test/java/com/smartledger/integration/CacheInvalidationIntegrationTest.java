@@ -0,0 +1,248 @@
+package com.smartledger.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartledger.cache.InvalidationBus;
+import com.smartledger.dto.LoginRequest;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for cross-node cache invalidation, against an embedded PostgreSQL.
+ * Another node is played by sending its {@code NOTIFY}s straight to the database.
+ *
+ * This test validates:
+ * - Committed writes are announced to other nodes
+ * - Ledger and revocation messages from another node are applied
+ * - A gap in another node's sequence numbers flushes the caches
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Cache Invalidation Integration Tests")
+class CacheInvalidationIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    private static final String CHANNEL = "ledger_invalidation";
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @LocalServerPort
+    private Integer port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("rate-limit.enabled", () -> "false");
+        registry.add("ledger.cache.enabled", () -> "true");
+        registry.add("ledger.invalidation.poll-interval-ms", () -> "100");
+        // Revocations of other nodes can only arrive as messages
+        registry.add("jwt.revocation.sync-interval-ms", () -> "3600000");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+        assertTrue(eventually(invalidationBus::isListening), "The listener should connect shortly after startup");
+    }
+
+    @Test
+    @DisplayName("Should announce committed writes to other nodes")
+    void testAnnouncesCommittedWrites() throws Exception {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+            // Given
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+            }
+            String token = login();
+
+            // When
+            given()
+                    .header("Authorization", "Bearer " + token)
+                    .contentType(ContentType.JSON)
+                    .body(Map.of(
+                            "type", "EXPENSE",
+                            "category", "GROCERIES",
+                            "amount", "18.40",
+                            "date", "2024-03-02",
+                            "description", "announced"))
+                    .when()
+                    .post("/transactions")
+                    .then()
+                    .statusCode(201);
+
+            // Then
+            PGConnection listener = connection.unwrap(PGConnection.class);
+            List<String> payloads = new ArrayList<>();
+            String expected = "\nL|" + adminId() + "|admin";
+            for (int i = 0; i < 50 && payloads.stream().noneMatch(p -> p.contains(expected)); i++) {
+                PGNotification[] notifications = listener.getNotifications(100);
+                if (notifications != null) {
+                    for (PGNotification notification : notifications) {
+                        payloads.add(notification.getParameter());
+                    }
+                }
+            }
+            assertTrue(payloads.stream().anyMatch(p -> p.contains(expected)), payloads.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict a ledger changed on another node")
+    void testAppliesLedgerInvalidation() throws InterruptedException {
+        // Given
+        String token = login();
+        assertEquals(0, count(token, "2030-01-01", "2030-01-31"));
+        insertElsewhere(LocalDate.of(2030, 1, 15));
+        assertEquals(0, count(token, "2030-01-01", "2030-01-31"), "The ledger should be served from the cache");
+
+        // When
+        notifyFrom("node-b", 1, "L|" + adminId() + "|admin");
+
+        // Then
+        assertTrue(eventually(() -> count(token, "2030-01-01", "2030-01-31") == 1));
+    }
+
+    @Test
+    @DisplayName("Should reject an access token revoked on another node")
+    void testAppliesRevocation() throws InterruptedException {
+        // Given
+        String token = login();
+        given().header("Authorization", "Bearer " + token).when().get("/transactions").then().statusCode(200);
+        Map<?, ?> claims = claims(token);
+
+        // When
+        notifyFrom("node-c", 1, "R|" + claims.get("jti") + "|" + claims.get("exp"));
+
+        // Then
+        assertTrue(eventually(() -> given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/transactions")
+                .statusCode() == 403));
+    }
+
+    @Test
+    @DisplayName("Should flush the caches after missing messages of another node")
+    void testFlushesOnGap() throws InterruptedException {
+        // Given
+        String token = login();
+        count(token, "2031-01-01", "2031-01-31");
+        insertElsewhere(LocalDate.of(2031, 1, 15));
+        notifyFrom("node-d", 1, "A|-1");
+        assertEquals(0, count(token, "2031-01-01", "2031-01-31"), "The ledger should be served from the cache");
+
+        // When
+        notifyFrom("node-d", 3, "A|-1");
+
+        // Then
+        assertTrue(eventually(() -> count(token, "2031-01-01", "2031-01-31") == 1));
+    }
+
+    private long count(String token, String startDate, String endDate) {
+        Number count = given()
+                .header("Authorization", "Bearer " + token)
+                .queryParam("startDate", startDate)
+                .queryParam("endDate", endDate)
+                .when()
+                .get("/transactions/summary")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("transactionCount");
+        return count.longValue();
+    }
+
+    /**
+     * A write committed by another node, which this one only learns about from messages.
+     */
+    private void insertElsewhere(LocalDate date) {
+        jdbcTemplate.update("""
+                INSERT INTO transactions (user_id, type, category, amount, date, description, created_at)
+                VALUES (?, transaction_type_code('EXPENSE'), transaction_category_code('GROCERIES'), 9.99, ?, 'other node', now())
+                """, adminId(), date);
+    }
+
+    private void notifyFrom(String node, long sequence, String message) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, node + ":" + sequence + "\n" + message);
+    }
+
+    private long adminId() {
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'admin'", Long.class);
+    }
+
+    private static Map<?, ?> claims(String token) {
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(token.split("\\.")[1]);
+            return new ObjectMapper().readValue(payload, Map.class);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean eventually(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+
+    private String login() {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest("admin", "admin123"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.smartledger.integration;
+
+import com.smartledger.dto.LoginRequest;
+import com.smartledger.dto.LoginResponse;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the adaptive concurrency limits, against an embedded PostgreSQL.
+ *
+ * This test validates:
+ * - Requests over the read limit are shed with 503 and Retry-After
+ * - Limits, in-flight requests and rejections are published as metrics
+ * - Attachment transfers bypass the limits
+ * - Health is public while metrics require the ADMIN role
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Concurrency Limit Integration Tests")
+class ConcurrencyLimitIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    @LocalServerPort
+    private Integer port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("rate-limit.enabled", () -> "false");
+        registry.add("concurrency-limit.reads.initial-limit", () -> "2");
+        registry.add("concurrency-limit.reads.min-limit", () -> "2");
+        registry.add("concurrency-limit.reads.max-limit", () -> "2");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should shed reads over the limit and count them")
+    void testShedsExcessReads() throws Exception {
+        // Given
+        String token = login();
+        int requests = 40;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+
+        // When
+        List<Future<Response>> futures = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return given()
+                        .header("Authorization", "Bearer " + token)
+                        .when()
+                        .get("/transactions");
+            }));
+        }
+        start.countDown();
+
+        int rejected = 0;
+        for (Future<Response> future : futures) {
+            Response response = future.get();
+            if (response.statusCode() == 503) {
+                rejected++;
+                assertEquals("1", response.header("Retry-After"));
+            } else {
+                assertEquals(200, response.statusCode());
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        metric(token, "smartledger.concurrency.rejected", "read")
+                .then()
+                .statusCode(200)
+                .body("measurements[0].value", equalTo((float) rejected));
+        metric(token, "smartledger.concurrency.limit", "read")
+                .then()
+                .statusCode(200)
+                .body("measurements[0].value", equalTo(2.0f));
+        metric(token, "smartledger.concurrency.inflight", "read")
+                .then()
+                .statusCode(200)
+                .body("measurements[0].value", equalTo(0.0f));
+    }
+
+    @Test
+    @DisplayName("Should not limit attachment transfers")
+    void testAttachmentsBypassLimits() throws Exception {
+        // Given
+        String token = login();
+        Number transactionId = given()
+                .header("Authorization", "Bearer " + token)
+                .contentType(ContentType.JSON)
+                .body(Map.of("type", "EXPENSE", "category", "GROCERIES", "amount", "4.20",
+                        "date", "2025-10-14", "description", "receipt"))
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id");
+        int requests = 40;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+
+        // When
+        List<Future<Response>> futures = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return given()
+                        .header("Authorization", "Bearer " + token)
+                        .when()
+                        .get("/transactions/" + transactionId + "/attachments");
+            }));
+        }
+        start.countDown();
+
+        // Then
+        for (Future<Response> future : futures) {
+            assertEquals(200, future.get().statusCode());
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should keep health public and metrics behind authentication")
+    void testActuatorAccess() {
+        given().when().get("/actuator/health").then().statusCode(200).body("status", equalTo("UP"));
+        given().when().get("/actuator/metrics").then().statusCode(403);
+        given()
+                .header("Authorization", "Bearer " + login())
+                .when()
+                .get("/actuator/metrics")
+                .then()
+                .statusCode(200)
+                .body("names", hasItem("smartledger.concurrency.limit"));
+    }
+
+    private Response metric(String token, String name, String bulkhead) {
+        return given()
+                .header("Authorization", "Bearer " + token)
+                .queryParam("tag", "bulkhead:" + bulkhead)
+                .when()
+                .get("/actuator/metrics/" + name);
+    }
+
+    private String login() {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest("admin", "admin123"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .as(LoginResponse.class)
+                .token();
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
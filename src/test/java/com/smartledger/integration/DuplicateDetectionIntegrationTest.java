@@ -0,0 +1,115 @@
+package com.smartledger.integration;
+
+import com.smartledger.dto.LoginRequest;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for duplicate detection on create, against an embedded PostgreSQL.
+ *
+ * This test validates:
+ * - A repeated transaction is created and flagged with the id of the original
+ * - Description differences in case and punctuation do not hide a duplicate
+ * - Distinct transactions are not flagged
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Duplicate Detection Integration Tests")
+class DuplicateDetectionIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    @LocalServerPort
+    private Integer port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("duplicates.action", () -> "FLAG");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should flag a repeated transaction with the id of the original")
+    void testDuplicateIsFlagged() {
+        // Given
+        String token = login();
+        Response original = create(token, "23.90", "Corner Shop #4");
+
+        // When
+        Response retry = create(token, "23.90", "corner shop 4");
+        Response other = create(token, "23.91", "Corner Shop #4");
+
+        // Then
+        assertNull(original.header("X-Possible-Duplicate-Of"));
+        assertEquals(original.path("id").toString(), retry.header("X-Possible-Duplicate-Of"));
+        assertNotEquals(original.path("id").toString(), retry.path("id").toString(), "Flagged rows are still created");
+        assertNull(other.header("X-Possible-Duplicate-Of"));
+    }
+
+    private String login() {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest("admin", "admin123"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private Response create(String token, String amount, String description) {
+        return given()
+                .header("Authorization", "Bearer " + token)
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "type", "EXPENSE",
+                        "category", "GROCERIES",
+                        "amount", amount,
+                        "date", "2025-10-20",
+                        "description", description))
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(201)
+                .extract()
+                .response();
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
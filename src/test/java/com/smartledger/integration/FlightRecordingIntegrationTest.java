@@ -0,0 +1,151 @@
+package com.smartledger.integration;
+
+import com.smartledger.dto.LoginRequest;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the JDK Flight Recorder events, against an embedded PostgreSQL.
+ *
+ * This test validates:
+ * - Transaction operations, bearer authentication and logins are recorded
+ * - Administrators can download the recording
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Flight Recording Integration Tests")
+class FlightRecordingIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    @LocalServerPort
+    private Integer port;
+
+    @TempDir
+    Path tempDir;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("rate-limit.enabled", () -> "false");
+        registry.add("jfr.enabled", () -> "true");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should record ledger events and let an administrator dump them")
+    void testEventsAreDumped() throws IOException {
+        // Given: the template's thresholds would drop fast calls
+        try (Recording recording = new Recording()) {
+            recording.enable("smartledger.TransactionOperation").withThreshold(Duration.ZERO);
+            recording.enable("smartledger.JwtAuthentication").withThreshold(Duration.ZERO);
+            recording.enable("smartledger.Login").withThreshold(Duration.ZERO);
+            recording.start();
+
+            // When
+            String token = login();
+            given()
+                    .header("Authorization", "Bearer " + token)
+                    .contentType(ContentType.JSON)
+                    .body(Map.of(
+                            "type", "EXPENSE",
+                            "category", "GROCERIES",
+                            "amount", "8.40",
+                            "date", "2025-10-20",
+                            "description", "Recorded"))
+                    .when()
+                    .post("/transactions")
+                    .then()
+                    .statusCode(201);
+
+            byte[] dump = given()
+                    .header("Authorization", "Bearer " + token)
+                    .when()
+                    .post("/admin/diagnostics/flight-recording")
+                    .then()
+                    .statusCode(200)
+                    .extract()
+                    .asByteArray();
+
+            // Then
+            Path file = tempDir.resolve("dump.jfr");
+            Files.write(file, dump);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+            RecordedEvent create = events.stream()
+                    .filter(event -> event.getEventType().getName().equals("smartledger.TransactionOperation"))
+                    .filter(event -> "create".equals(event.getString("operation")))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(1, create.getInt("rows"));
+            assertTrue(create.getLong("userId") > 0);
+
+            assertTrue(events.stream()
+                    .filter(event -> event.getEventType().getName().equals("smartledger.JwtAuthentication"))
+                    .anyMatch(event -> "AUTHENTICATED".equals(event.getString("outcome"))
+                            && "/transactions".equals(event.getString("path"))));
+
+            RecordedEvent login = events.stream()
+                    .filter(event -> event.getEventType().getName().equals("smartledger.Login"))
+                    .findFirst()
+                    .orElseThrow();
+            assertTrue(login.getBoolean("success"));
+            assertTrue(login.getDuration("hashTime").toNanos() > 0);
+        }
+    }
+
+    private String login() {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest("admin", "admin123"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.smartledger.integration;
+
+import com.smartledger.dto.LoginRequest;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static com.smartledger.integration.QueryCountAssertions.assertQueries;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Integration test for the GraphQL endpoint, against an embedded PostgreSQL.
+ *
+ * This test validates:
+ * - Nested transaction fields (owner, history, attachments, anomaly) resolve
+ * - A nested query runs the same number of statements for few and many transactions
+ * - Queries over the depth or complexity limit are rejected before they run
+ * - {@code first} limits the transactions read
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("GraphQL Integration Tests")
+class GraphQlIntegrationTest {
+
+    private static final String NESTED_QUERY = """
+            query ($type: TransactionType) {
+              transactions(type: $type) {
+                id
+                amount
+                description
+                user { username email }
+                history { eventType snapshot { amount } }
+                attachments { id }
+                anomaly { score }
+              }
+            }
+            """;
+
+    static EmbeddedPostgres postgres = start();
+
+    @LocalServerPort
+    private Integer port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("rate-limit.enabled", () -> "false");
+        registry.add("query-count.expose-header", () -> "true");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should resolve nested transaction fields")
+    void testNestedFields() {
+        // Given
+        String token = login();
+        String id = create(token, "INCOME", "SALARY", "2100.00", "October salary");
+        as(token).contentType(ContentType.JSON)
+                .body(Map.of("type", "INCOME", "category", "SALARY", "amount", "2150.00",
+                        "date", "2025-10-20", "description", "October salary"))
+                .put("/transactions/" + id).then().statusCode(200);
+
+        // When
+        Response response = graphQl(token, """
+                query ($id: ID!) {
+                  me { username fullName }
+                  transaction(id: $id) {
+                    amount
+                    date
+                    user { username }
+                    history { eventType snapshot { amount } }
+                    attachments { id }
+                    anomaly { score }
+                  }
+                  summary(startDate: "2025-10-01", endDate: "2025-10-31") {
+                    transactionCount
+                    byCategory { category amount }
+                  }
+                }
+                """, Map.of("id", id));
+
+        // Then
+        response.then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.me.username", equalTo("admin"))
+                .body("data.transaction.amount", equalTo(2150.00f))
+                .body("data.transaction.date", equalTo("2025-10-20"))
+                .body("data.transaction.user.username", equalTo("admin"))
+                .body("data.transaction.history.eventType", contains("CREATED", "UPDATED"))
+                .body("data.transaction.history.snapshot.amount", contains(2100.00f, 2150.00f))
+                .body("data.transaction.attachments", empty())
+                .body("data.transaction.anomaly", nullValue())
+                .body("data.summary.byCategory.category", hasItem("SALARY"));
+    }
+
+    @Test
+    @DisplayName("Should run the same number of statements for few and many transactions")
+    void testConstantStatements() {
+        // Given
+        String token = login();
+        create(token, "EXPENSE", "TRAVEL", "80.00", "Train");
+        Response few = graphQl(token, NESTED_QUERY, Map.of("type", "EXPENSE"));
+        int fewRows = few.path("data.transactions.size()");
+
+        for (int i = 0; i < 10; i++) {
+            create(token, "EXPENSE", "TRAVEL", "8" + i + ".00", "Train " + i);
+        }
+
+        // When
+        Response many = graphQl(token, NESTED_QUERY, Map.of("type", "EXPENSE"));
+
+        // Then
+        many.then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.transactions.size()", equalTo(fewRows + 10))
+                .body("data.transactions.user.username", everyItem(equalTo("admin")))
+                .body("data.transactions.findAll { it.description.startsWith('Train') }.history", everyItem(hasSize(1)));
+        assertQueries(Integer.parseInt(few.header("X-Query-Count")), many);
+        assertQueries(8, many);
+    }
+
+    @Test
+    @DisplayName("Should read only the first transactions requested")
+    void testFirst() {
+        // Given
+        String token = login();
+        for (int i = 0; i < 3; i++) {
+            create(token, "EXPENSE", "EDUCATION", "3" + i + ".00", "Course " + i);
+        }
+
+        // When & Then
+        graphQl(token, "{ transactions(type: EXPENSE, first: 2) { id } }", Map.of()).then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.transactions.size()", equalTo(2));
+        graphQl(token, "{ transactions(first: 0) { id } }", Map.of()).then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.transactions", empty());
+    }
+
+    @Test
+    @DisplayName("Should reject queries over the depth or complexity limit")
+    void testLimits() {
+        // Given
+        String token = login();
+
+        // When & Then
+        graphQl(token, """
+                {
+                  transactions {
+                    history { snapshot { history { snapshot { history { snapshot { history { id } } } } } } }
+                  }
+                }
+                """, Map.of()).then()
+                .statusCode(200)
+                .body("data", nullValue())
+                .body("errors[0].message", containsString("depth"));
+
+        graphQl(token, """
+                {
+                  transactions {
+                    history { snapshot { history { id eventType } attachments { id } } }
+                  }
+                }
+                """, Map.of()).then()
+                .statusCode(200)
+                .body("data", nullValue())
+                .body("errors[0].message", containsString("complexity"));
+
+        graphQl(token, "{ transactions(first: 100000) { id } }", Map.of()).then()
+                .statusCode(200)
+                .body("errors[0].message", equalTo("first must be between 0 and 500"));
+    }
+
+    private Response graphQl(String token, String query, Map<String, Object> variables) {
+        return as(token)
+                .contentType(ContentType.JSON)
+                .body(Map.of("query", query, "variables", variables))
+                .when()
+                .post("/graphql");
+    }
+
+    private RequestSpecification as(String token) {
+        return given().header("Authorization", "Bearer " + token);
+    }
+
+    private String create(String token, String type, String category, String amount, String description) {
+        return as(token)
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "type", type,
+                        "category", category,
+                        "amount", amount,
+                        "date", "2025-10-20",
+                        "description", description))
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id")
+                .toString();
+    }
+
+    private String login() {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest("admin", "admin123"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
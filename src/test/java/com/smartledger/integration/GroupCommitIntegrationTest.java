@@ -0,0 +1,261 @@
+package com.smartledger.integration;
+
+import com.smartledger.dto.LoginRequest;
+import com.smartledger.service.SpendingAnomalyService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for group commit of concurrent creates, against an embedded PostgreSQL.
+ *
+ * This test validates:
+ * - Concurrent creates are written in shared commits and each caller gets its own transaction
+ * - A refused create fails alone while the rest of its group is written
+ * - A create failing in the database fails alone after its group is retried one by one
+ * - Creates retried one by one are folded into spending profiles once
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Group Commit Integration Tests")
+class GroupCommitIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    private static final int CLIENTS = 24;
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SpendingAnomalyService anomalyService;
+
+    @LocalServerPort
+    private Integer port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("rate-limit.enabled", () -> "false");
+        registry.add("concurrency-limit.enabled", () -> "false");
+        registry.add("duplicates.action", () -> "REJECT");
+        registry.add("ledger.group-commit.enabled", () -> "true");
+        registry.add("ledger.group-commit.max-delay-ms", () -> "50");
+        // One writer, so that the second of two duplicates always sees the first
+        registry.add("ledger.group-commit.writers", () -> "1");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should create concurrent transactions in shared commits")
+    void testConcurrentCreates() throws Exception {
+        // Given
+        String token = login();
+        double groupsBefore = meterRegistry.get("smartledger.group-commit.batch.size").summary().count();
+
+        // When
+        List<Response> responses = createConcurrently(token, i -> body("1" + i + ".00", "group " + i));
+
+        // Then
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            Response response = responses.get(i);
+            assertEquals(201, response.statusCode());
+            assertEquals("group " + i, response.path("description"));
+            ids.add(((Number) response.path("id")).longValue());
+        }
+        assertEquals(CLIENTS, ids.size());
+        assertEquals(CLIENTS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE description LIKE 'group %'", Integer.class));
+        double groups = meterRegistry.get("smartledger.group-commit.batch.size").summary().count() - groupsBefore;
+        assertTrue(groups < CLIENTS, CLIENTS + " creates should share commits, took " + groups);
+    }
+
+    @Test
+    @DisplayName("Should refuse a duplicate alone")
+    void testRefusalFailsAlone() throws Exception {
+        // Given
+        String token = login();
+
+        // When
+        List<Response> responses = createConcurrently(token, i -> i < 2
+                ? body("77.70", "twin")
+                : body("2" + i + ".00", "refusal " + i));
+
+        // Then
+        assertEquals(List.of(201, 409), responses.subList(0, 2).stream().map(Response::statusCode).sorted().toList());
+        for (Response response : responses.subList(2, CLIENTS)) {
+            assertEquals(201, response.statusCode());
+        }
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE description = 'twin'", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should fail only the create the database rejects")
+    void testDatabaseErrorFailsAlone() throws Exception {
+        // Given
+        String token = login();
+        rejectBoom();
+        double fallbacksBefore = meterRegistry.get("smartledger.group-commit.fallbacks").counter().count();
+
+        try {
+            // When
+            List<Response> responses = createConcurrently(token, i -> i == 0
+                    ? body("66.60", "boom")
+                    : body("3" + i + ".00", "fallback " + i));
+
+            // Then
+            assertEquals(500, responses.get(0).statusCode());
+            for (Response response : responses.subList(1, CLIENTS)) {
+                assertEquals(201, response.statusCode());
+            }
+            assertEquals(CLIENTS - 1, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM transactions WHERE description LIKE 'fallback %'", Integer.class));
+            assertTrue(meterRegistry.get("smartledger.group-commit.fallbacks").counter().count() > fallbacksBefore);
+        } finally {
+            jdbcTemplate.execute("DROP TRIGGER trg_reject_boom ON transactions");
+        }
+    }
+
+    @Test
+    @DisplayName("Should fold creates retried one by one into spending profiles once")
+    void testRetriedCreatesFoldedOnce() throws Exception {
+        // Given
+        String token = login();
+        for (int i = 0; i < 100 && !anomalyService.isReady(); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(anomalyService.isReady(), "Profiles should be rebuilt shortly after startup");
+        rejectBoom();
+
+        try {
+            // When
+            List<Response> responses = createConcurrently(token, i -> i == 0
+                    ? body("66.60", "boom", "TRAVEL")
+                    : body("4" + i + ".00", "retried " + i, "TRAVEL"));
+            anomalyService.flush();
+
+            // Then
+            assertEquals(500, responses.get(0).statusCode());
+            assertEquals(CLIENTS - 1, jdbcTemplate.queryForObject(
+                    "SELECT samples FROM spending_profiles WHERE category = 'TRAVEL'", Integer.class),
+                    "A create rolled back with its group should only be folded in by its retry");
+        } finally {
+            jdbcTemplate.execute("DROP TRIGGER trg_reject_boom ON transactions");
+        }
+    }
+
+    private void rejectBoom() {
+        jdbcTemplate.execute("""
+                CREATE OR REPLACE FUNCTION reject_boom() RETURNS trigger AS $$
+                BEGIN
+                    IF NEW.description = 'boom' THEN
+                        RAISE EXCEPTION 'boom rejected';
+                    END IF;
+                    RETURN NEW;
+                END;
+                $$ LANGUAGE plpgsql
+                """);
+        jdbcTemplate.execute("CREATE TRIGGER trg_reject_boom BEFORE INSERT ON transactions "
+                + "FOR EACH ROW EXECUTE FUNCTION reject_boom()");
+    }
+
+    private List<Response> createConcurrently(String token, IntFunction<Map<String, Object>> bodies)
+            throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Callable<Response>> calls = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                Map<String, Object> body = bodies.apply(i);
+                calls.add(() -> given()
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(ContentType.JSON)
+                        .body(body)
+                        .when()
+                        .post("/transactions"));
+            }
+            List<Response> responses = new ArrayList<>();
+            for (Future<Response> future : clients.invokeAll(calls)) {
+                responses.add(future.get());
+            }
+            return responses;
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    private static Map<String, Object> body(String amount, String description) {
+        return body(amount, description, "SHOPPING");
+    }
+
+    private static Map<String, Object> body(String amount, String description, String category) {
+        return Map.of(
+                "type", "EXPENSE",
+                "category", category,
+                "amount", amount,
+                "date", "2025-12-01",
+                "description", description);
+    }
+
+    private String login() {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest("admin", "admin123"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
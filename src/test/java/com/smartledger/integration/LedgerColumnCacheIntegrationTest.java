@@ -0,0 +1,276 @@
+package com.smartledger.integration;
+
+import com.smartledger.cache.LedgerColumnCache;
+import com.smartledger.dto.LoginRequest;
+import com.smartledger.entity.Category;
+import com.smartledger.repository.TransactionRepository;
+import com.smartledger.repository.UserRepository;
+import com.smartledger.service.AnalyticsService;
+import com.smartledger.service.TransactionArchiveService;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the columnar ledger cache, against an embedded PostgreSQL. The
+ * application's {@link AnalyticsService} reads from the cache; a second instance without
+ * it groups the same ledger in the database.
+ *
+ * This test validates:
+ * - Summaries and series from the cache match the GROUP BY queries after creates,
+ *   updates and deletes
+ * - Ledgers grown by writes count against ledger.cache.max-rows
+ * - Series ranges longer than analytics.max-series-months are refused
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Ledger Column Cache Integration Tests")
+class LedgerColumnCacheIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    private static final int MAX_ROWS = 60;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AnalyticsService cachedAnalytics;
+
+    @Autowired
+    private LedgerColumnCache ledgerColumnCache;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionArchiveService archiveService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @LocalServerPort
+    private Integer port;
+
+    private AnalyticsService groupedAnalytics;
+    private TransactionTemplate readOnlyTransaction;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("rate-limit.enabled", () -> "false");
+        registry.add("duplicates.enabled", () -> "false");
+        registry.add("ledger.cache.enabled", () -> "true");
+        registry.add("ledger.cache.max-rows", () -> String.valueOf(MAX_ROWS));
+        registry.add("analytics.max-series-months", () -> "36");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+        groupedAnalytics = new AnalyticsService(transactionRepository, userRepository, archiveService,
+                new StaticListableBeanFactory().getBeanProvider(LedgerColumnCache.class), 36);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Test
+    @DisplayName("Should match the GROUP BY queries after creates, updates and deletes")
+    void testMatchesGroupedQueries() {
+        // Given: a ledger loaded into the cache
+        String username = createUser("cache-consistency");
+        String token = login(username);
+        String[] categories = {"GROCERIES", "RENT", "RESTAURANT", "TRAVEL"};
+        for (int i = 0; i < 12; i++) {
+            create(token, "EXPENSE", categories[i % categories.length], (10 + i) + ".35",
+                    LocalDate.of(2025, 1 + i % 4, 3 + i));
+        }
+        create(token, "INCOME", "SALARY", "2500.00", LocalDate.of(2025, 1, 28));
+        long salary = create(token, "INCOME", "SALARY", "2500.00", LocalDate.of(2025, 2, 28));
+        long groceries = create(token, "EXPENSE", "GROCERIES", "44.10", LocalDate.of(2025, 3, 14));
+        assertMatches(username);
+
+        // When: creating into a month and category the ledger did not have yet
+        create(token, "EXPENSE", "EDUCATION", "310.00", LocalDate.of(2025, 5, 2));
+
+        // Then
+        assertMatches(username);
+
+        // When: moving an expense to another category and month, and changing an amount
+        update(token, groceries, "EXPENSE", "HEALTHCARE", "61.90", LocalDate.of(2025, 4, 30));
+        update(token, salary, "INCOME", "SALARY", "2750.00", LocalDate.of(2025, 2, 28));
+
+        // Then
+        assertMatches(username);
+
+        // When
+        as(token).delete("/transactions/" + salary).then().statusCode(204);
+
+        // Then
+        assertMatches(username);
+    }
+
+    @Test
+    @DisplayName("Should keep cached rows within max-rows as writes grow a ledger")
+    void testGrowthWeighed() {
+        // Given: two ledgers cached together, within the limit
+        String growing = createUser("cache-growing");
+        String other = createUser("cache-other");
+        String growingToken = login(growing);
+        String otherToken = login(other);
+        for (int i = 0; i < 30; i++) {
+            create(growingToken, "EXPENSE", "GROCERIES", "5.00", LocalDate.of(2025, 6, 1 + i));
+        }
+        for (int i = 0; i < 20; i++) {
+            create(otherToken, "EXPENSE", "TRANSPORT", "2.50", LocalDate.of(2025, 6, 1 + i));
+        }
+        ledgerColumnCache.invalidateAll();
+        readOnlyTransaction.execute(status -> {
+            cachedAnalytics.getSummary(growing, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30));
+            return cachedAnalytics.getSummary(other, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30));
+        });
+        assertEquals(50, ledgerColumnCache.cachedRows());
+
+        // When: writes grow the cached ledger past the limit
+        for (int i = 0; i < 20; i++) {
+            create(growingToken, "EXPENSE", "GROCERIES", "5.00", LocalDate.of(2025, 7, 1 + i));
+        }
+
+        // Then
+        long cached = ledgerColumnCache.cachedRows();
+        assertTrue(cached <= MAX_ROWS, cached + " rows cached");
+        assertMatches(growing);
+    }
+
+    @Test
+    @DisplayName("Should refuse series longer than the configured months")
+    void testSeriesRangeCapped() {
+        // Given
+        String token = login(createUser("cache-long-series"));
+
+        // When & Then
+        as(token).queryParam("startDate", "2023-01-15").queryParam("endDate", "2025-12-01")
+                .get("/transactions/series").then()
+                .statusCode(200)
+                .body("size()", equalTo(36));
+        as(token).queryParam("startDate", "2023-01-15").queryParam("endDate", "2026-01-01")
+                .get("/transactions/series").then()
+                .statusCode(500)
+                .body("message", equalTo("Series range must not exceed 36 months"));
+    }
+
+    /**
+     * Compares the cached and grouped summaries and series, over the whole ledger and
+     * over ranges starting and ending mid-month.
+     */
+    private void assertMatches(String username) {
+        LocalDate[][] ranges = {
+                {LocalDate.of(2024, 12, 1), LocalDate.of(2025, 8, 31)},
+                {LocalDate.of(2025, 2, 10), LocalDate.of(2025, 4, 20)}
+        };
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (LocalDate[] range : ranges) {
+                assertEquals(groupedAnalytics.getSummary(username, range[0], range[1]),
+                        cachedAnalytics.getSummary(username, range[0], range[1]));
+                for (Category category : new Category[]{null, Category.GROCERIES, Category.SALARY}) {
+                    assertEquals(groupedAnalytics.getMonthlySeries(username, range[0], range[1], category),
+                            cachedAnalytics.getMonthlySeries(username, range[0], range[1], category));
+                }
+            }
+        });
+    }
+
+    private long create(String token, String type, String category, String amount, LocalDate date) {
+        Number id = as(token).contentType(ContentType.JSON)
+                .body(body(type, category, amount, date))
+                .post("/transactions").then()
+                .statusCode(201)
+                .extract().path("id");
+        return id.longValue();
+    }
+
+    private void update(String token, long id, String type, String category, String amount, LocalDate date) {
+        as(token).contentType(ContentType.JSON)
+                .body(body(type, category, amount, date))
+                .put("/transactions/" + id).then()
+                .statusCode(200);
+    }
+
+    private static Map<String, Object> body(String type, String category, String amount, LocalDate date) {
+        return Map.of(
+                "type", type,
+                "category", category,
+                "amount", amount,
+                "date", date.toString(),
+                "description", category + " " + date);
+    }
+
+    private String createUser(String username) {
+        Long id = jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password, email, full_name) VALUES (?, ?, ?, ?) RETURNING id",
+                Long.class, username, passwordEncoder.encode("password"), username + "@example.com", username);
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role) VALUES (?, 'USER')", id);
+        return username;
+    }
+
+    private RequestSpecification as(String token) {
+        return given().header("Authorization", "Bearer " + token);
+    }
+
+    private String login(String username) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest(username, "password"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
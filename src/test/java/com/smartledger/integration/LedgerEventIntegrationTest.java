@@ -0,0 +1,285 @@
+package com.smartledger.integration;
+
+import com.smartledger.dto.LedgerEventResponse;
+import com.smartledger.dto.LoginRequest;
+import com.smartledger.dto.TransactionResponse;
+import com.smartledger.entity.Category;
+import com.smartledger.entity.LedgerEventType;
+import com.smartledger.entity.TransactionType;
+import com.smartledger.service.LedgerEventService;
+import com.smartledger.service.LedgerEventSink;
+import com.smartledger.service.LedgerOutboxRelay;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.IllegalTransactionStateException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the ledger journal and its outbox relay, against an embedded
+ * PostgreSQL. The scheduled relay only runs at startup; the test drives it directly.
+ *
+ * This test validates:
+ * - Journal entries commit and roll back with the change they record
+ * - Appending outside a transaction is refused
+ * - Concurrent relays publish every entry exactly once and mark it published
+ * - The history of a deleted transaction can still be read
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Ledger Event Integration Tests")
+class LedgerEventIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LedgerEventService ledgerEventService;
+
+    @Autowired
+    private LedgerOutboxRelay relay;
+
+    @Autowired
+    private RecordingSink sink;
+
+    @LocalServerPort
+    private Integer port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("rate-limit.enabled", () -> "false");
+        registry.add("duplicates.enabled", () -> "false");
+        registry.add("ledger.outbox.relay.interval-ms", () -> "3600000");
+        registry.add("ledger.outbox.relay.batch-size", () -> "5");
+    }
+
+    @TestConfiguration
+    static class SinkConfiguration {
+
+        @Bean
+        @Primary
+        RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+    }
+
+    /**
+     * Counts deliveries per event id, slowly enough for concurrent relays to overlap.
+     */
+    static class RecordingSink implements LedgerEventSink {
+
+        final Map<Long, AtomicInteger> deliveries = new ConcurrentHashMap<>();
+
+        @Override
+        public void publish(List<LedgerEventResponse> events) {
+            events.forEach(event -> deliveries.computeIfAbsent(event.id(), id -> new AtomicInteger()).incrementAndGet());
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should journal a change only when it commits")
+    void testJournalFollowsTransaction() {
+        // Given
+        String token = login();
+        long id = create(token, "journaled");
+        assertEquals(List.of("CREATED"), eventTypes(id));
+        jdbcTemplate.execute("""
+                CREATE OR REPLACE FUNCTION reject_tombstone() RETURNS trigger AS $$
+                BEGIN
+                    RAISE EXCEPTION 'tombstone rejected';
+                END;
+                $$ LANGUAGE plpgsql
+                """);
+        jdbcTemplate.execute("CREATE TRIGGER trg_reject_tombstone BEFORE INSERT ON transaction_tombstones "
+                + "FOR EACH ROW EXECUTE FUNCTION reject_tombstone()");
+
+        try {
+            // When: the delete fails after its journal entry was written
+            as(token).delete("/transactions/" + id).then().statusCode(500);
+        } finally {
+            jdbcTemplate.execute("DROP TRIGGER trg_reject_tombstone ON transaction_tombstones");
+        }
+
+        // Then
+        assertEquals(List.of("CREATED"), eventTypes(id));
+        as(token).get("/transactions/" + id).then().statusCode(200);
+    }
+
+    @Test
+    @DisplayName("Should refuse to journal outside a transaction")
+    void testAppendRequiresTransaction() {
+        // Given
+        TransactionResponse snapshot = new TransactionResponse(-1L, 1L, TransactionType.EXPENSE, Category.OTHER_EXPENSE,
+                new BigDecimal("1.00"), LocalDate.now(), "orphan", LocalDateTime.now(), LocalDateTime.now());
+
+        // When & Then
+        assertThrows(IllegalTransactionStateException.class,
+                () -> ledgerEventService.append(LedgerEventType.CREATED, snapshot));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ledger_events WHERE transaction_id = -1", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should publish every event exactly once with concurrent relays")
+    void testConcurrentRelays() throws Exception {
+        // Given
+        String token = login();
+        for (int i = 0; i < 40; i++) {
+            create(token, "relayed " + i);
+        }
+
+        // When: two relays drain the outbox at the same time
+        ExecutorService relays = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                runs.add(relays.submit(() -> {
+                    while (unpublished() > 0) {
+                        relay.drain();
+                    }
+                }));
+            }
+            for (Future<?> run : runs) {
+                run.get();
+            }
+        } finally {
+            relays.shutdown();
+        }
+
+        // Then
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM ledger_events", Long.class);
+        assertTrue(ids.size() >= 40);
+        assertEquals(0, unpublished());
+        for (Long id : ids) {
+            AtomicInteger deliveries = sink.deliveries.get(id);
+            assertNotNull(deliveries, "Event " + id + " was not published");
+            assertEquals(1, deliveries.get(), "Event " + id + " was published more than once");
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the history of a deleted transaction")
+    void testHistoryOfDeletedTransaction() {
+        // Given
+        String token = login();
+        long id = create(token, "short-lived");
+        as(token).contentType(ContentType.JSON)
+                .body(body("19.99", "short-lived, corrected"))
+                .put("/transactions/" + id).then()
+                .statusCode(200);
+
+        // When
+        as(token).delete("/transactions/" + id).then().statusCode(204);
+
+        // Then
+        as(token).get("/transactions/" + id).then().statusCode(500);
+        as(token).get("/transactions/" + id + "/history").then()
+                .statusCode(200)
+                .body("eventType", equalTo(List.of("CREATED", "UPDATED", "DELETED")))
+                .body("snapshot.description",
+                        equalTo(List.of("short-lived", "short-lived, corrected", "short-lived, corrected")))
+                .body("snapshot.amount[2]", equalTo(19.99f));
+    }
+
+    private List<String> eventTypes(long transactionId) {
+        return jdbcTemplate.queryForList(
+                "SELECT event_type FROM ledger_events WHERE transaction_id = ? ORDER BY id", String.class, transactionId);
+    }
+
+    private int unpublished() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ledger_events WHERE published_at IS NULL", Integer.class);
+    }
+
+    private long create(String token, String description) {
+        Number id = as(token).contentType(ContentType.JSON)
+                .body(body("12.00", description))
+                .post("/transactions").then()
+                .statusCode(201)
+                .extract().path("id");
+        return id.longValue();
+    }
+
+    private static Map<String, Object> body(String amount, String description) {
+        return Map.of(
+                "type", "EXPENSE",
+                "category", "OTHER_EXPENSE",
+                "amount", amount,
+                "date", "2025-07-01",
+                "description", description);
+    }
+
+    private RequestSpecification as(String token) {
+        return given().header("Authorization", "Bearer " + token);
+    }
+
+    private String login() {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest("admin", "admin123"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.smartledger.integration;
+
+import com.smartledger.dto.LoginRequest;
+import com.smartledger.service.TransactionArchiveService;
+import com.smartledger.service.TransactionArchiver;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the administrators' platform statistics, against an embedded
+ * PostgreSQL, with ranges of two user ids so that every statistic spans several scans.
+ *
+ * This test validates:
+ * - Active users, monthly volumes and largest ledgers add up across ranges
+ * - Archived months are counted
+ * - Users without the ADMIN role are refused
+ * - Results are served from the cache until it expires
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Platform Analytics Integration Tests")
+class PlatformAnalyticsIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TransactionArchiver archiver;
+
+    @Autowired
+    private TransactionArchiveService archiveService;
+
+    @LocalServerPort
+    private Integer port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("rate-limit.enabled", () -> "false");
+        registry.add("admin-analytics.chunk-size", () -> "2");
+        registry.add("archive.enabled", () -> "true");
+        registry.add("archive.job.enabled", () -> "true");
+        registry.add("archive.horizon-months", () -> "24");
+        registry.add("archive.cron", () -> "-");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should aggregate statistics across user ranges")
+    void testStatistics() {
+        // Given: five users spread over three ranges, the busiest one in the last range
+        String admin = login("admin", "admin123");
+        for (int i = 0; i < 3; i++) {
+            create(login(createUser("stats-light-" + i), "password"), "TRAVEL", "10.00");
+        }
+        String heavy = login(createUser("stats-heavy"), "password");
+        for (int i = 0; i < 8; i++) {
+            create(heavy, "TRAVEL", "20.00");
+        }
+        String month = YearMonth.now().toString();
+
+        // When & Then
+        as(admin).queryParam("activeDays", 7).get("/admin/analytics/users").then()
+                .statusCode(200)
+                .body("registeredUsers", greaterThanOrEqualTo(5))
+                .body("activeUsers", greaterThanOrEqualTo(4));
+
+        as(admin).queryParam("startDate", LocalDate.now().withDayOfMonth(1).toString())
+                .queryParam("endDate", LocalDate.now().toString())
+                .get("/admin/analytics/volumes").then()
+                .statusCode(200)
+                .body("findAll { it.month == '" + month + "' && it.category == 'TRAVEL' }.size()", equalTo(1))
+                .body("find { it.month == '" + month + "' && it.category == 'TRAVEL' }.transactionCount",
+                        greaterThanOrEqualTo(11));
+
+        as(admin).queryParam("limit", 2).get("/admin/analytics/largest-ledgers").then()
+                .statusCode(200)
+                .body("size()", equalTo(2))
+                .body("[0].username", equalTo("stats-heavy"))
+                .body("[0].transactionCount", equalTo(8))
+                .body("[0].total", equalTo(160.00f));
+    }
+
+    @Test
+    @DisplayName("Should count archived months")
+    void testArchivedMonths() {
+        // Given: a user whose whole ledger is archived
+        String admin = login("admin", "admin123");
+        String archived = login(createUser("stats-archived"), "password");
+        for (int i = 1; i <= 5; i++) {
+            create(archived, "EDUCATION", "15.00", "2015-03-0" + i);
+        }
+        create(archived, "EDUCATION", "40.00", "2015-04-10");
+        create(archived, "EDUCATION", "45.00", "2015-04-20");
+        archiver.archiveShard(archiveService.horizonStart(LocalDate.now()));
+        Integer hot = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions t JOIN users u ON u.id = t.user_id WHERE u.username = 'stats-archived'",
+                Integer.class);
+        assertEquals(0, hot);
+        long activeHot = jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT user_id) FROM transactions", Long.class);
+
+        // When & Then
+        as(admin).queryParam("activeDays", 365 * 15).get("/admin/analytics/users").then()
+                .statusCode(200)
+                .body("activeUsers", equalTo((int) activeHot + 1));
+
+        as(admin).queryParam("startDate", "2015-01-01")
+                .queryParam("endDate", LocalDate.now().toString())
+                .get("/admin/analytics/volumes").then()
+                .statusCode(200)
+                .body("find { it.month == '2015-03' && it.category == 'EDUCATION' }.transactionCount", equalTo(5))
+                .body("find { it.month == '2015-03' && it.category == 'EDUCATION' }.total", equalTo(75.00f))
+                .body("find { it.month == '2015-04' && it.category == 'EDUCATION' }.transactionCount", equalTo(2))
+                .body("find { it.month == '2015-04' && it.category == 'EDUCATION' }.total", equalTo(85.00f));
+
+        as(admin).queryParam("limit", 20).get("/admin/analytics/largest-ledgers").then()
+                .statusCode(200)
+                .body("find { it.username == 'stats-archived' }.transactionCount", equalTo(7))
+                .body("find { it.username == 'stats-archived' }.total", equalTo(160.00f));
+    }
+
+    @Test
+    @DisplayName("Should refuse users without the ADMIN role")
+    void testAdminOnly() {
+        // Given
+        String user = login(createUser("stats-curious"), "password");
+
+        // When & Then
+        as(user).get("/admin/analytics/users").then().statusCode(403);
+        as(user).get("/admin/analytics/largest-ledgers").then().statusCode(403);
+    }
+
+    @Test
+    @DisplayName("Should serve statistics from the cache")
+    void testCached() {
+        // Given
+        String admin = login("admin", "admin123");
+        String user = login(createUser("stats-cached"), "password");
+        create(user, "RENT", "900.00");
+        int before = as(admin).queryParam("activeDays", 3).get("/admin/analytics/users").then()
+                .statusCode(200).extract().path("activeUsers");
+
+        // When
+        create(login(createUser("stats-late"), "password"), "RENT", "950.00");
+
+        // Then
+        as(admin).queryParam("activeDays", 3).get("/admin/analytics/users").then()
+                .statusCode(200)
+                .body("activeUsers", equalTo(before));
+        as(admin).queryParam("activeDays", 4).get("/admin/analytics/users").then()
+                .statusCode(200)
+                .body("activeUsers", equalTo(before + 1));
+    }
+
+    private String createUser(String username) {
+        Long id = jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password, email, full_name) VALUES (?, ?, ?, ?) RETURNING id",
+                Long.class, username, passwordEncoder.encode("password"), username + "@example.com", username);
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role) VALUES (?, 'USER')", id);
+        return username;
+    }
+
+    private void create(String token, String category, String amount) {
+        create(token, category, amount, LocalDate.now().toString());
+    }
+
+    private void create(String token, String category, String amount, String date) {
+        as(token)
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "type", "EXPENSE",
+                        "category", category,
+                        "amount", amount,
+                        "date", date,
+                        "description", category + " " + amount))
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(201);
+    }
+
+    private RequestSpecification as(String token) {
+        return given().header("Authorization", "Bearer " + token);
+    }
+
+    private String login(String username, String password) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest(username, password))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
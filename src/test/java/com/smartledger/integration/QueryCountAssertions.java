@@ -0,0 +1,38 @@
+package com.smartledger.integration;
+
+import com.smartledger.monitoring.QueryCountFilter;
+import io.restassured.builder.ResponseSpecBuilder;
+import io.restassured.response.Response;
+import io.restassured.specification.ResponseSpecification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Assertions on the number of SQL statements an endpoint runs, read from the
+ * {@code X-Query-Count} header. Tests using them must set {@code query-count.expose-header}.
+ *
+ * <pre>
+ * given().when().get("/transactions").then().statusCode(200).spec(queries(3));
+ * </pre>
+ */
+final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    /**
+     * Expects exactly {@code expected} statements for the request.
+     */
+    static ResponseSpecification queries(int expected) {
+        return new ResponseSpecBuilder()
+                .expectHeader(QueryCountFilter.HEADER, Integer.toString(expected))
+                .build();
+    }
+
+    static void assertQueries(int expected, Response response) {
+        String header = response.header(QueryCountFilter.HEADER);
+        assertNotNull(header, "No " + QueryCountFilter.HEADER + " header, is query-count.expose-header set?");
+        assertEquals(expected, Integer.parseInt(header), "SQL statements run by the request");
+    }
+}
@@ -0,0 +1,165 @@
+package com.smartledger.integration;
+
+import com.smartledger.dto.LoginRequest;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static com.smartledger.integration.QueryCountAssertions.assertQueries;
+import static com.smartledger.integration.QueryCountAssertions.queries;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Integration test pinning the number of SQL statements of the main endpoints, against an
+ * embedded PostgreSQL. A change that adds a query, e.g. a lazy association read per row,
+ * fails here and the expected count has to be updated on purpose.
+ *
+ * This test validates:
+ * - Each endpoint runs a fixed number of statements, independent of the number of rows
+ * - Statement counts are published as a metric
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Query Count Integration Tests")
+class QueryCountIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    @LocalServerPort
+    private Integer port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("rate-limit.enabled", () -> "false");
+        registry.add("query-count.expose-header", () -> "true");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should run a fixed number of statements per endpoint")
+    void testStatementsPerEndpoint() {
+        // Given: the first create also builds the user's duplicate filter
+        String token = login();
+        create(token, "10.00", "Warm-up");
+
+        // When & Then
+        Response created = create(token, "12.50", "Bakery");
+        assertQueries(6, created);
+        String id = created.path("id").toString();
+
+        int rows = as(token).get("/transactions").then().statusCode(200).spec(queries(4))
+                .extract().path("size()");
+        for (int i = 0; i < 5; i++) {
+            create(token, "3" + i + ".00", "Row " + i);
+        }
+        as(token).get("/transactions").then().statusCode(200).body("size()", equalTo(rows + 5)).spec(queries(4));
+
+        as(token).get("/transactions/" + id).then().statusCode(200).spec(queries(3));
+        as(token).get("/transactions/type/EXPENSE").then().statusCode(200).spec(queries(4));
+        as(token).queryParam("startDate", "2025-10-01").queryParam("endDate", "2025-10-31")
+                .get("/transactions/date-range").then().statusCode(200).spec(queries(4));
+        as(token).queryParam("startDate", "2025-10-01").queryParam("endDate", "2025-10-31")
+                .get("/transactions/summary").then().statusCode(200).spec(queries(3));
+        as(token).get("/transactions/" + id + "/history").then().statusCode(200).spec(queries(3));
+        as(token).get("/transactions/anomalies").then().statusCode(200).spec(queries(3));
+        as(token).queryParam("since", 1).get("/transactions/changes").then().statusCode(200).spec(queries(5));
+
+        as(token).contentType(ContentType.JSON).body(body("13.00", "Bakery"))
+                .put("/transactions/" + id).then().statusCode(200).spec(queries(7));
+        as(token).delete("/transactions/" + id).then().statusCode(204).spec(queries(8));
+
+        as(token).contentType(ContentType.JSON).body(Map.of("monthlyLimit", "400.00"))
+                .put("/budgets/GROCERIES").then().statusCode(200).spec(queries(4));
+        as(token).get("/budgets").then().statusCode(200).spec(queries(3));
+    }
+
+    @Test
+    @DisplayName("Should publish statement counts per endpoint as a metric")
+    void testMetric() {
+        // Given
+        String token = login();
+        as(token).get("/budgets").then().statusCode(200);
+
+        // When & Then
+        as(token)
+                .queryParam("tag", "uri:/budgets")
+                .queryParam("tag", "method:GET")
+                .get("/actuator/metrics/smartledger.http.server.queries")
+                .then()
+                .statusCode(200)
+                .body("measurements.find { it.statistic == 'COUNT' }.value", greaterThanOrEqualTo(1.0f))
+                .body("measurements.find { it.statistic == 'TOTAL' }.value", greaterThanOrEqualTo(3.0f));
+    }
+
+    private RequestSpecification as(String token) {
+        return given().header("Authorization", "Bearer " + token);
+    }
+
+    private static Map<String, String> body(String amount, String description) {
+        return Map.of(
+                "type", "EXPENSE",
+                "category", "GROCERIES",
+                "amount", amount,
+                "date", "2025-10-20",
+                "description", description);
+    }
+
+    private Response create(String token, String amount, String description) {
+        return as(token)
+                .contentType(ContentType.JSON)
+                .body(body(amount, description))
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(201)
+                .extract()
+                .response();
+    }
+
+    private String login() {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest("admin", "admin123"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.smartledger.integration;
+
+import com.smartledger.dto.LoginRequest;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Integration test for login rate limiting behind a reverse proxy, against an embedded
+ * PostgreSQL. Requests arrive from the loopback address, which is a trusted proxy.
+ *
+ * This test validates:
+ * - Login attempts are limited per client address taken from X-Forwarded-For
+ * - Clients behind the same proxy do not share a bucket
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Rate Limit Integration Tests")
+class RateLimitIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    @LocalServerPort
+    private Integer port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("rate-limit.login.capacity", () -> "2");
+        registry.add("rate-limit.login.refill-per-second", () -> "0.001");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should limit login attempts per forwarded client address")
+    void testLoginLimitedPerForwardedClient() {
+        // Given
+        login("203.0.113.10").statusCode(200).header("RateLimit-Remaining", "1");
+        login("203.0.113.10").statusCode(200).header("RateLimit-Remaining", "0");
+
+        // When
+        ValidatableResponse rejected = login("203.0.113.10");
+
+        // Then
+        rejected.statusCode(429)
+                .header("Retry-After", notNullValue())
+                .body("message", containsString("Too many requests"));
+
+        // Then another client behind the same proxy still has its own budget
+        login("198.51.100.7").statusCode(200).header("RateLimit-Remaining", "1");
+    }
+
+    private ValidatableResponse login(String clientAddress) {
+        return given()
+                .header("X-Forwarded-For", clientAddress)
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest("admin", "admin123"))
+                .when()
+                .post("/auth/login")
+                .then();
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
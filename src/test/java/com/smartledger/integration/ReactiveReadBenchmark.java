@@ -0,0 +1,136 @@
+package com.smartledger.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartledger.SmartLedgerApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking (JPA) against streaming (R2DBC) date-range reads under concurrent clients,
+ * end to end over HTTP against an embedded PostgreSQL. Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.smartledger.integration.ReactiveReadBenchmark
+ * </pre>
+ * Tomcat and both connection pools are kept small so that, with more clients than
+ * request threads, the blocking endpoint queues on threads and JDBC connections while
+ * the streaming one releases its thread as soon as the query is sent.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class ReactiveReadBenchmark {
+
+    private static final int ROWS = 20_000;
+    private static final String RANGE = "?startDate=2023-01-01&endDate=2023-03-31";
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        String jdbcUrl = postgres.getJdbcUrl("postgres", "postgres");
+        context = new SpringApplication(SmartLedgerApplication.class).run(
+                "--server.port=0",
+                "--server.tomcat.threads.max=8",
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.datasource.hikari.maximum-pool-size=4",
+                "--spring.liquibase.enabled=true",
+                "--spring.jpa.show-sql=false",
+                "--reactive.pool.max-size=4",
+                "--rate-limit.enabled=false",
+                "--concurrency-limit.enabled=false",
+                "--logging.level.root=WARN");
+
+        // About a year of daily activity, so a quarter is a few thousand rows
+        new JdbcTemplate(postgres.getPostgresDatabase()).update("""
+                INSERT INTO transactions (user_id, type, category, amount, date, description, created_at)
+                SELECT u.id, transaction_type_code('EXPENSE'), transaction_category_code('GROCERIES'), 1 + (n % 200), DATE '2023-01-01' + (n % 365),
+                       'benchmark ' || n, now()
+                FROM users u, generate_series(1, ?) n
+                WHERE u.username = 'admin'
+                """, ROWS);
+
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        token = login();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public long blockingDateRange() throws Exception {
+        return read("/transactions/date-range" + RANGE, "application/json");
+    }
+
+    @Benchmark
+    public long streamingDateRange() throws Exception {
+        return read("/transactions/stream/date-range" + RANGE, "application/x-ndjson");
+    }
+
+    /**
+     * Drains the body, so both endpoints are measured until the last row has arrived.
+     */
+    private long read(String path, String accept) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", accept)
+                .build();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException(path + " returned " + response.statusCode());
+            }
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private String login() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                .build();
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        return (String) new ObjectMapper().readValue(body, Map.class).get("token");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ReactiveReadBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
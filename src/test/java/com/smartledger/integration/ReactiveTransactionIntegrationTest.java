@@ -0,0 +1,209 @@
+package com.smartledger.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartledger.dto.LoginRequest;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the reactive read path, against an embedded PostgreSQL.
+ *
+ * This test validates:
+ * - Streamed reads return the same transactions, in the same order, as the blocking endpoints
+ * - NDJSON responses carry one transaction per line, across batches
+ * - Writes through JPA are visible to R2DBC reads
+ * - Missing and foreign transactions are not found
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Reactive Transaction Integration Tests")
+class ReactiveTransactionIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @LocalServerPort
+    private Integer port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("rate-limit.enabled", () -> "false");
+        // Small batches, so that streams span several of them
+        registry.add("reactive.stream.batch-size", () -> "2");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should stream the same transactions as the blocking endpoints")
+    void testStreamsMatchBlockingReads() throws IOException {
+        // Given
+        String token = login();
+        createTransaction(token, "INCOME", "SALARY", "2024-05-27", "2500.00");
+        createTransaction(token, "EXPENSE", "GROCERIES", "2024-05-03", "42.10");
+
+        // When & Then
+        assertSameTransactions(token, "/transactions", "/transactions/stream");
+        assertSameTransactions(token, "/transactions/type/EXPENSE", "/transactions/stream/type/EXPENSE");
+        assertSameTransactions(token,
+                "/transactions/date-range?startDate=2024-05-01&endDate=2024-05-31",
+                "/transactions/stream/date-range?startDate=2024-05-01&endDate=2024-05-31");
+    }
+
+    @Test
+    @DisplayName("Should stream an empty body when nothing matches")
+    void testEmptyStream() {
+        given()
+                .header("Authorization", "Bearer " + login())
+                .accept("application/x-ndjson")
+                .when()
+                .get("/transactions/stream/date-range?startDate=1990-01-01&endDate=1990-12-31")
+                .then()
+                .statusCode(200)
+                .body(emptyString());
+    }
+
+    @Test
+    @DisplayName("Should get a transaction by id and not find foreign or missing ones")
+    void testGetById() {
+        // Given
+        String token = login();
+        long id = createTransaction(token, "EXPENSE", "TRANSPORT", "2024-07-01", "12.50");
+
+        // When & Then
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/transactions/stream/" + id)
+                .then()
+                .statusCode(200)
+                .body("id", equalTo((int) id))
+                .body("type", equalTo("EXPENSE"))
+                .body("description", equalTo("reactive check"));
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/transactions/stream/999999")
+                .then()
+                .statusCode(500)
+                .body("message", containsString("Transaction not found"));
+
+        given()
+                .when()
+                .get("/transactions/stream/" + id)
+                .then()
+                .statusCode(403);
+    }
+
+    private void assertSameTransactions(String token, String blockingPath, String streamingPath) throws IOException {
+        List<Map<String, Object>> expected = given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get(blockingPath)
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getList("$");
+
+        Response stream = given()
+                .header("Authorization", "Bearer " + token)
+                .accept("application/x-ndjson")
+                .when()
+                .get(streamingPath);
+        assertEquals(200, stream.statusCode());
+        assertTrue(stream.contentType().startsWith("application/x-ndjson"), stream.contentType());
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : stream.asString().split("\n")) {
+            if (!line.isBlank()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected.size(), lines.size(), streamingPath);
+        for (int i = 0; i < expected.size(); i++) {
+            Map<String, Object> row = expected.get(i);
+            JsonNode line = lines.get(i);
+            assertEquals(((Number) row.get("id")).longValue(), line.get("id").asLong(), streamingPath);
+            assertEquals(row.get("type"), line.get("type").asText());
+            assertEquals(row.get("category"), line.get("category").asText());
+            assertEquals(row.get("date"), line.get("date").asText());
+            assertEquals(0, new BigDecimal(row.get("amount").toString()).compareTo(line.get("amount").decimalValue()));
+        }
+    }
+
+    private long createTransaction(String token, String type, String category, String date, String amount) {
+        Number id = given()
+                .header("Authorization", "Bearer " + token)
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "type", type,
+                        "category", category,
+                        "amount", amount,
+                        "date", date,
+                        "description", "reactive check"))
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id");
+        return id.longValue();
+    }
+
+    private String login() {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest("admin", "admin123"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.smartledger.integration;
+
+import com.smartledger.dto.LoginRequest;
+import com.smartledger.service.ReportService;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.specification.RequestSpecification;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.GZIPInputStream;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for asynchronous reports, against an embedded PostgreSQL.
+ *
+ * This test validates:
+ * - Submitting a job, polling it until it completes and downloading the report
+ * - Jobs of other users are not found
+ * - Expired reports are deleted
+ * - A full report queue answers 503 with Retry-After
+ * - Jobs whose node stopped sending heartbeats are failed, others are left running
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Report Integration Tests")
+class ReportIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    @Qualifier("reportExecutor")
+    private ThreadPoolTaskExecutor reportExecutor;
+
+    @LocalServerPort
+    private Integer port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("rate-limit.enabled", () -> "false");
+        registry.add("reports.executor.threads", () -> "1");
+        registry.add("reports.executor.queue-capacity", () -> "1");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should build a report in the background and serve it once completed")
+    void testSubmitAndDownload() throws Exception {
+        // Given
+        String token = login(createUser("report-owner"));
+        create(token, "EXPENSE", "GROCERIES", "40.25", "2024-02-03");
+        create(token, "EXPENSE", "GROCERIES", "9.75", "2024-02-17");
+        create(token, "INCOME", "SALARY", "2000.00", "2024-03-01");
+        create(token, "EXPENSE", "RENT", "800.00", "2024-04-01");
+
+        // When
+        String id = as(token).contentType(ContentType.JSON)
+                .body(Map.of("startDate", "2024-02-01", "endDate", "2024-03-31"))
+                .post("/reports").then()
+                .statusCode(202)
+                .body("status", equalTo("QUEUED"))
+                .extract().path("id");
+        JsonPath status = awaitCompletion(token, id);
+
+        // Then
+        assertEquals(3, status.getLong("processedRows"));
+        assertEquals(3, status.getLong("totalRows"));
+        assertEquals(100, status.getInt("progressPercent"));
+
+        byte[] download = as(token).get("/reports/" + id + "/download").then()
+                .statusCode(200)
+                .contentType("application/gzip")
+                .extract().asByteArray();
+        assertEquals(download.length, status.getLong("fileSize"));
+        JsonPath report = JsonPath.from(new GZIPInputStream(new ByteArrayInputStream(download)));
+        assertEquals(3, report.getInt("transactionCount"));
+        assertEquals(2000.0, report.getDouble("totalIncome"));
+        assertEquals(50.0, report.getDouble("totalExpense"));
+        assertEquals(List.of("2024-02", "2024-03"), report.getList("byMonth.month"));
+        assertEquals(2, report.getInt("byCategory.find { it.category == 'GROCERIES' }.count"));
+    }
+
+    @Test
+    @DisplayName("Should not find another user's report")
+    void testOtherUsersReport() throws Exception {
+        // Given
+        String owner = login(createUser("report-private"));
+        create(owner, "EXPENSE", "TRAVEL", "120.00", "2024-05-05");
+        String id = submit(owner);
+        awaitCompletion(owner, id);
+        String other = login(createUser("report-snoop"));
+
+        // When & Then
+        as(other).get("/reports/" + id).then()
+                .statusCode(500)
+                .body("message", equalTo("Report not found"));
+        as(other).get("/reports/" + id + "/download").then()
+                .statusCode(500)
+                .body("message", equalTo("Report not found"));
+    }
+
+    @Test
+    @DisplayName("Should delete reports past their retention")
+    void testExpiredReport() throws Exception {
+        // Given
+        String token = login(createUser("report-expiring"));
+        create(token, "EXPENSE", "UTILITIES", "60.00", "2024-06-06");
+        String id = submit(token);
+        awaitCompletion(token, id);
+        jdbcTemplate.update("UPDATE report_jobs SET completed_at = completed_at - INTERVAL '2 days' WHERE id = ?::uuid", id);
+
+        // When
+        reportService.deleteExpiredReports();
+
+        // Then
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM report_jobs WHERE id = ?::uuid", Integer.class, id));
+        as(token).get("/reports/" + id).then()
+                .statusCode(500)
+                .body("message", equalTo("Report not found"));
+    }
+
+    @Test
+    @DisplayName("Should refuse jobs with 503 while the report queue is full")
+    void testQueueFull() {
+        // Given: the only worker and the only queue slot are taken
+        String token = login(createUser("report-busy"));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 2; i++) {
+                reportExecutor.execute(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+
+            // When & Then
+            as(token).contentType(ContentType.JSON)
+                    .body(Map.of())
+                    .post("/reports").then()
+                    .statusCode(503)
+                    .header("Retry-After", "30")
+                    .body("message", equalTo("Report queue is full, try again later"));
+        } finally {
+            release.countDown();
+        }
+        assertEquals("FAILED", jdbcTemplate.queryForObject("SELECT r.status FROM report_jobs r JOIN users u "
+                + "ON u.id = r.user_id WHERE u.username = 'report-busy'", String.class));
+    }
+
+    @Test
+    @DisplayName("Should fail abandoned jobs and leave those of live nodes alone")
+    void testAbandonedJobsFailed() {
+        // Given: jobs of a stopped node, and a job another live node is running
+        String username = createUser("report-abandoned");
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+        UUID queued = UUID.randomUUID();
+        UUID running = UUID.randomUUID();
+        UUID live = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO report_jobs (id, user_id, status, created_at, heartbeat_at) "
+                + "VALUES (?, ?, 'QUEUED', CURRENT_TIMESTAMP - INTERVAL '1 hour', CURRENT_TIMESTAMP - INTERVAL '1 hour')",
+                queued, userId);
+        jdbcTemplate.update("INSERT INTO report_jobs (id, user_id, status, total_rows, processed_rows, created_at, heartbeat_at) "
+                + "VALUES (?, ?, 'RUNNING', 100, 40, CURRENT_TIMESTAMP - INTERVAL '1 hour', CURRENT_TIMESTAMP - INTERVAL '5 minutes')",
+                running, userId);
+        jdbcTemplate.update("INSERT INTO report_jobs (id, user_id, status, total_rows, processed_rows, created_at, heartbeat_at) "
+                + "VALUES (?, ?, 'RUNNING', 100, 70, CURRENT_TIMESTAMP - INTERVAL '1 hour', CURRENT_TIMESTAMP)",
+                live, userId);
+        String token = login(username);
+
+        // When
+        reportService.failAbandonedJobs();
+
+        // Then
+        for (UUID id : List.of(queued, running)) {
+            as(token).get("/reports/" + id).then()
+                    .statusCode(200)
+                    .body("status", equalTo("FAILED"))
+                    .body("errorMessage", containsString("interrupted"))
+                    .body("completedAt", notNullValue());
+        }
+        as(token).get("/reports/" + live).then()
+                .statusCode(200)
+                .body("status", equalTo("RUNNING"))
+                .body("processedRows", equalTo(70))
+                .body("progressPercent", equalTo(70));
+    }
+
+    private JsonPath awaitCompletion(String token, String id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            JsonPath status = as(token).get("/reports/" + id).then()
+                    .statusCode(200)
+                    .extract().jsonPath();
+            if (!List.of("QUEUED", "RUNNING").contains(status.getString("status"))) {
+                assertEquals("COMPLETED", status.getString("status"), status.getString("errorMessage"));
+                return status;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Report " + id + " did not complete");
+    }
+
+    private String submit(String token) {
+        return as(token).contentType(ContentType.JSON)
+                .body(Map.of())
+                .post("/reports").then()
+                .statusCode(202)
+                .extract().path("id");
+    }
+
+    private void create(String token, String type, String category, String amount, String date) {
+        as(token).contentType(ContentType.JSON)
+                .body(Map.of(
+                        "type", type,
+                        "category", category,
+                        "amount", amount,
+                        "date", date,
+                        "description", category + " " + date))
+                .post("/transactions").then()
+                .statusCode(201);
+    }
+
+    private String createUser(String username) {
+        Long id = jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password, email, full_name) VALUES (?, ?, ?, ?) RETURNING id",
+                Long.class, username, passwordEncoder.encode("password"), username + "@example.com", username);
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role) VALUES (?, 'USER')", id);
+        return username;
+    }
+
+    private RequestSpecification as(String token) {
+        return given().header("Authorization", "Bearer " + token);
+    }
+
+    private String login(String username) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest(username, "password"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.smartledger.integration;
+
+import com.smartledger.dto.LoginRequest;
+import com.smartledger.sharding.ShardDirectory;
+import com.smartledger.sharding.ShardRebalancer;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for user-sharded persistence, with embedded PostgreSQL instances
+ * standing in for the directory and two shards.
+ *
+ * This test validates:
+ * - Liquibase migrations on every database and interleaved id sequences
+ * - Routing of a user's writes and reads to their shard
+ * - Users created only in the directory are copied onto their shard
+ * - Moving a user to another shard with the rebalancer
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Sharding Integration Tests")
+class ShardingIntegrationTest {
+
+    static EmbeddedPostgres directory = start();
+    static EmbeddedPostgres shard0 = start();
+    static EmbeddedPostgres shard1 = start();
+
+    @LocalServerPort
+    private Integer port;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> directory.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("sharding.enabled", () -> "true");
+        registry.add("sharding.directory-cache-ttl", () -> "PT0.5S");
+        registry.add("sharding.shards[0].url", () -> shard0.getJdbcUrl("postgres", "postgres"));
+        registry.add("sharding.shards[0].username", () -> "postgres");
+        registry.add("sharding.shards[0].password", () -> "postgres");
+        registry.add("sharding.shards[1].url", () -> shard1.getJdbcUrl("postgres", "postgres"));
+        registry.add("sharding.shards[1].username", () -> "postgres");
+        registry.add("sharding.shards[1].password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopDatabases() throws IOException {
+        for (EmbeddedPostgres postgres : new EmbeddedPostgres[]{directory, shard0, shard1}) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should interleave transaction ids across shards")
+    void testSequencesInterleaved() {
+        for (EmbeddedPostgres shard : new EmbeddedPostgres[]{shard0, shard1}) {
+            Long increment = jdbc(shard).queryForObject(
+                    "SELECT increment_by FROM pg_sequences WHERE sequencename = 'transactions_id_seq'", Long.class);
+            assertEquals(2L, increment, "Each shard should step its ids by the shard count");
+        }
+    }
+
+    @Test
+    @DisplayName("Should store and read a user's transactions on their shard only")
+    void testTransactionRoutedToShard() {
+        String token = login("admin", "admin123");
+        long transactionId = createTransaction(token, "routing check");
+
+        int shard = shardDirectory.lookup(userId("admin")).shard();
+        assertEquals(1, countTransaction(shardDatabase(shard), transactionId));
+        assertEquals(0, countTransaction(shardDatabase(1 - shard), transactionId));
+        assertEquals(0, countTransaction(directory, transactionId));
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/transactions/" + transactionId)
+                .then()
+                .statusCode(200)
+                .body("description", equalTo("routing check"));
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/transactions/stream/" + transactionId)
+                .then()
+                .statusCode(200)
+                .body("description", equalTo("routing check"));
+    }
+
+    @Test
+    @DisplayName("Should serve a user who exists only in the directory")
+    void testDirectoryOnlyUser() {
+        // Given
+        Long userId = jdbc(directory).queryForObject(
+                "INSERT INTO users (username, password, email, full_name) VALUES (?, ?, ?, ?) RETURNING id",
+                Long.class, "directory-only", passwordEncoder.encode("password"), "directory-only@example.com", "Directory Only");
+        jdbc(directory).update("INSERT INTO user_roles (user_id, role) VALUES (?, 'USER')", userId);
+        String token = login("directory-only", "password");
+
+        // When
+        long transactionId = createTransaction(token, "directory user");
+
+        // Then
+        int shard = shardDirectory.lookup(userId).shard();
+        assertEquals(1, countTransaction(shardDatabase(shard), transactionId));
+        assertEquals("directory-only", jdbc(shardDatabase(shard)).queryForObject(
+                "SELECT username FROM users WHERE id = ?", String.class, userId));
+        assertEquals(List.of("USER"), jdbc(shardDatabase(shard)).queryForList(
+                "SELECT role FROM user_roles WHERE user_id = ?", String.class, userId));
+        assertEquals(0, jdbc(shardDatabase(1 - shard)).queryForObject(
+                "SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, userId));
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/transactions/" + transactionId)
+                .then()
+                .statusCode(200)
+                .body("description", equalTo("directory user"));
+    }
+
+    @Test
+    @DisplayName("Should keep serving a user after moving them to another shard")
+    void testRebalanceMovesUser() {
+        String token = login("admin", "admin123");
+        long transactionId = createTransaction(token, "before move");
+        long deletedId = createTransaction(token, "deleted before move");
+        long since = changes(token, 0).getLong("next");
+        given().header("Authorization", "Bearer " + token).when().delete("/transactions/" + deletedId).then().statusCode(204);
+        long adminId = userId("admin");
+        int source = shardDirectory.lookup(adminId).shard();
+
+        shardRebalancer.moveUser(adminId, 1 - source);
+
+        assertEquals(1 - source, shardDirectory.lookup(adminId).shard());
+        assertEquals(1, countTransaction(shardDatabase(1 - source), transactionId));
+        assertEquals(0, countTransaction(shardDatabase(source), transactionId));
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/transactions/" + transactionId)
+                .then()
+                .statusCode(200)
+                .body("description", equalTo("before move"));
+
+        long created = createTransaction(token, "after move");
+        assertEquals(1, countTransaction(shardDatabase(1 - source), created));
+
+        // Change numbers and tombstones moved along, so the client's token still works
+        JsonPath changes = changes(token, since);
+        assertEquals(List.of(created), changes.getList("changed.id", Long.class));
+        assertEquals(List.of(deletedId), changes.getList("deleted", Long.class));
+    }
+
+    private JsonPath changes(String token, long since) {
+        return given()
+                .header("Authorization", "Bearer " + token)
+                .queryParam("since", since)
+                .when()
+                .get("/transactions/changes")
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath();
+    }
+
+    private String login(String username, String password) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest(username, password))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private long createTransaction(String token, String description) {
+        Number id = given()
+                .header("Authorization", "Bearer " + token)
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "type", "EXPENSE",
+                        "category", "GROCERIES",
+                        "amount", "12.50",
+                        "date", "2025-03-10",
+                        "description", description))
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id");
+        return id.longValue();
+    }
+
+    private long userId(String username) {
+        return jdbc(directory).queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+    }
+
+    private int countTransaction(EmbeddedPostgres database, long id) {
+        return jdbc(database).queryForObject("SELECT COUNT(*) FROM transactions WHERE id = ?", Integer.class, id);
+    }
+
+    private static EmbeddedPostgres shardDatabase(int shard) {
+        return shard == 0 ? shard0 : shard1;
+    }
+
+    private static JdbcTemplate jdbc(EmbeddedPostgres database) {
+        return new JdbcTemplate(database.getPostgresDatabase());
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.smartledger.integration;
+
+import com.smartledger.dto.LoginRequest;
+import com.smartledger.monitoring.QueryCountFilter;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for sparse fieldsets ({@code fields=}) on transaction reads, against an
+ * embedded PostgreSQL.
+ *
+ * This test validates:
+ * - Only the requested properties are serialized, with the same values as full reads
+ * - Sparse reads run no more statements than full reads, i.e. never load entities on top
+ * - Responses without fields keep every property
+ * - Unknown fields are refused
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Sparse Fields Integration Tests")
+class SparseFieldsIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    private static final Set<String> ALL_PROPERTIES = Set.of(
+            "id", "userId", "type", "category", "amount", "date", "description", "createdAt", "updatedAt");
+
+    @LocalServerPort
+    private Integer port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("rate-limit.enabled", () -> "false");
+        registry.add("query-count.expose-header", () -> "true");
+        registry.add("ledger.coalescing.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should return only the requested fields of listed transactions")
+    void testListsWithFields() {
+        // Given
+        String token = login();
+        createTransaction(token, "2024-09-14");
+
+        for (String path : List.of("/transactions", "/transactions/type/EXPENSE",
+                "/transactions/date-range?startDate=2024-09-01&endDate=2024-09-30")) {
+            // When
+            Response full = get(token, path);
+            Response sparse = get(token, path + (path.contains("?") ? "&" : "?") + "fields=id,date,amount,category");
+
+            // Then
+            assertEquals(200, sparse.statusCode(), path);
+            List<Map<String, Object>> expected = full.jsonPath().getList("$");
+            List<Map<String, Object>> actual = sparse.jsonPath().getList("$");
+            assertFalse(expected.isEmpty(), path);
+            assertEquals(expected.size(), actual.size(), path);
+            // Rows of the same day may come in any order
+            Map<Object, Map<String, Object>> expectedById = expected.stream()
+                    .collect(Collectors.toMap(row -> row.get("id"), row -> row));
+            for (Map<String, Object> row : actual) {
+                assertEquals(Set.of("id", "date", "amount", "category"), row.keySet(), path);
+                Map<String, Object> fullRow = expectedById.get(row.get("id"));
+                assertNotNull(fullRow, path);
+                for (String property : row.keySet()) {
+                    assertEquals(fullRow.get(property), row.get(property), path + " " + property);
+                }
+            }
+            assertTrue(queries(sparse) <= queries(full), path + " should not run more statements than a full read");
+        }
+    }
+
+    @Test
+    @DisplayName("Should return only the requested fields of a transaction and keep full reads whole")
+    void testGetByIdWithFields() {
+        // Given
+        String token = login();
+        long id = createTransaction(token, "2024-10-02");
+
+        // When & Then
+        Map<String, Object> sparse = get(token, "/transactions/" + id + "?fields=description,userId")
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getMap("$");
+        assertEquals(Set.of("description", "userId"), sparse.keySet());
+        assertEquals("sparse check", sparse.get("description"));
+
+        Map<String, Object> full = get(token, "/transactions/" + id).jsonPath().getMap("$");
+        assertEquals(ALL_PROPERTIES, full.keySet());
+        assertEquals(full.get("userId"), sparse.get("userId"));
+    }
+
+    @Test
+    @DisplayName("Should refuse unknown fields")
+    void testUnknownField() {
+        get(login(), "/transactions?fields=id,secret")
+                .then()
+                .statusCode(500)
+                .body("message", containsString("Unknown transaction field: secret"));
+    }
+
+    private static int queries(Response response) {
+        return Integer.parseInt(response.header(QueryCountFilter.HEADER));
+    }
+
+    private Response get(String token, String path) {
+        return given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get(path);
+    }
+
+    private long createTransaction(String token, String date) {
+        Number id = given()
+                .header("Authorization", "Bearer " + token)
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "type", "EXPENSE",
+                        "category", "RESTAURANT",
+                        "amount", "23.80",
+                        "date", date,
+                        "description", "sparse check"))
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(201)
+                .body("keySet()", hasItems("description", "createdAt"))
+                .extract()
+                .path("id");
+        return id.longValue();
+    }
+
+    private String login() {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest("admin", "admin123"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.smartledger.integration;
+
+import com.smartledger.dto.LoginRequest;
+import com.smartledger.service.SpendingAnomalyService;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for spending anomaly detection, against an embedded PostgreSQL.
+ *
+ * This test validates:
+ * - An expense far above the category's usual spending is flagged on creation
+ * - Usual expenses are not flagged
+ * - Flushed profiles are persisted per user and category
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Spending Anomaly Integration Tests")
+class SpendingAnomalyIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    @LocalServerPort
+    private Integer port;
+
+    @Autowired
+    private SpendingAnomalyService anomalyService;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("anomaly.flush-interval-ms", () -> "3600000");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+        for (int i = 0; i < 100 && !anomalyService.isReady(); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(anomalyService.isReady(), "Profiles should be rebuilt shortly after startup");
+    }
+
+    @Test
+    @DisplayName("Should flag an expense far above the usual spending in its category")
+    void testAnomalyIsFlagged() {
+        // Given
+        String token = login();
+        for (String amount : new String[]{"32.00", "28.50", "41.00", "35.00", "30.00", "38.20"}) {
+            createExpense(token, amount);
+        }
+
+        // When
+        long usual = createExpense(token, "36.00");
+        long unusual = createExpense(token, "480.00");
+
+        // Then
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/transactions/anomalies")
+                .then()
+                .statusCode(200)
+                .body("transactionId", contains((int) unusual))
+                .body("transactionId", not(hasItem((int) usual)))
+                .body("[0].category", equalTo("RESTAURANT"))
+                .body("[0].typicalAmount", both(greaterThan(25.0f)).and(lessThan(45.0f)));
+
+        anomalyService.flush();
+        JdbcTemplate jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+        Map<String, Object> profile = jdbc.queryForMap(
+                "SELECT samples, last_transaction_id FROM spending_profiles WHERE category = 'RESTAURANT'");
+        assertEquals(8, ((Number) profile.get("samples")).intValue());
+        assertEquals(unusual, ((Number) profile.get("last_transaction_id")).longValue());
+    }
+
+    private String login() {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest("admin", "admin123"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private long createExpense(String token, String amount) {
+        Number id = given()
+                .header("Authorization", "Bearer " + token)
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "type", "EXPENSE",
+                        "category", "RESTAURANT",
+                        "amount", amount,
+                        "date", "2025-10-15",
+                        "description", "anomaly check"))
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id");
+        return id.longValue();
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
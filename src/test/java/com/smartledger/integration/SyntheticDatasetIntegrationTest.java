@@ -0,0 +1,198 @@
+package com.smartledger.integration;
+
+import com.smartledger.dataset.SyntheticDataset;
+import com.smartledger.dataset.SyntheticDatasetLoader;
+import com.smartledger.dto.LoginRequest;
+import com.smartledger.entity.TransactionType;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.specification.RequestSpecification;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the synthetic dataset loader, against an embedded PostgreSQL.
+ *
+ * This test validates:
+ * - Loaded users can log in and read their generated ledger through the API
+ * - Monthly budget spending is seeded from the loaded expenses
+ * - Change sequences of loaded transactions continue with later writes
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Synthetic Dataset Integration Tests")
+class SyntheticDatasetIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    @LocalServerPort
+    private Integer port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("rate-limit.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should load users and ledgers readable through the API")
+    void testLoad() throws Exception {
+        // Given
+        SyntheticDataset dataset = new SyntheticDataset(SyntheticDataset.Spec.fromOptions(Map.of(
+                "seed", "11",
+                "users", "5",
+                "transactions-per-user", "40",
+                "username-prefix", "load-")));
+
+        // When
+        SyntheticDatasetLoader.Result result;
+        try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl("postgres", "postgres"))) {
+            result = new SyntheticDatasetLoader(dataset, "password").load(connection);
+        }
+
+        // Then
+        long expected = 0;
+        for (int user = 0; user < 5; user++) {
+            expected += dataset.ledger(user).size();
+        }
+        assertEquals(5, result.users());
+        assertEquals(expected, result.transactions());
+
+        List<SyntheticDataset.Transaction> ledger = dataset.ledger(2);
+        JsonPath transactions = as(login(dataset.username(2))).get("/transactions").then()
+                .statusCode(200)
+                .extract()
+                .jsonPath();
+        assertEquals(ledger.size(), transactions.getList("$").size());
+        BigDecimal total = ledger.stream().map(SyntheticDataset.Transaction::amount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal read = transactions.getList("amount").stream()
+                .map(amount -> new BigDecimal(amount.toString()))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, total.compareTo(read));
+    }
+
+    @Test
+    @DisplayName("Should seed monthly budget spending from the loaded expenses")
+    void testBudgetSpend() throws Exception {
+        // Given
+        SyntheticDataset dataset = new SyntheticDataset(SyntheticDataset.Spec.fromOptions(Map.of(
+                "seed", "13",
+                "users", "3",
+                "transactions-per-user", "60",
+                "username-prefix", "budget-")));
+
+        // When
+        SyntheticDatasetLoader.Result result;
+        try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl("postgres", "postgres"))) {
+            result = new SyntheticDatasetLoader(dataset, "password").load(connection);
+        }
+
+        // Then
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        for (int user = 0; user < 3; user++) {
+            Map<String, BigDecimal> expected = new HashMap<>();
+            for (SyntheticDataset.Transaction transaction : dataset.ledger(user)) {
+                if (transaction.type() == TransactionType.EXPENSE) {
+                    expected.merge(transaction.category().name() + " " + YearMonth.from(transaction.date()),
+                            transaction.amount(), BigDecimal::add);
+                }
+            }
+            Map<String, BigDecimal> tracked = new HashMap<>();
+            jdbcTemplate.query("SELECT category, month, spent FROM budget_spend WHERE user_id = ?",
+                    row -> {
+                        tracked.put(row.getString("category") + " " + YearMonth.from(row.getDate("month").toLocalDate()),
+                                row.getBigDecimal("spent"));
+                    }, result.firstUserId() + user);
+            assertEquals(expected.keySet(), tracked.keySet());
+            expected.forEach((bucket, spent) -> assertEquals(0, spent.compareTo(tracked.get(bucket)), bucket));
+        }
+    }
+
+    @Test
+    @DisplayName("Should continue change sequences after the loaded transactions")
+    void testChangeSequence() throws Exception {
+        // Given
+        SyntheticDataset dataset = new SyntheticDataset(SyntheticDataset.Spec.fromOptions(Map.of(
+                "seed", "12",
+                "users", "2",
+                "transactions-per-user", "30",
+                "username-prefix", "sync-")));
+        try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl("postgres", "postgres"))) {
+            new SyntheticDatasetLoader(dataset, "password").load(connection);
+        }
+        int loaded = dataset.ledger(1).size();
+        String token = login(dataset.username(1));
+
+        // When
+        as(token).contentType(ContentType.JSON)
+                .body(Map.of("type", "EXPENSE", "category", "GROCERIES", "amount", "12.50",
+                        "date", "2025-10-20", "description", "After load"))
+                .post("/transactions").then().statusCode(201);
+
+        // Then
+        JsonPath changes = as(token).queryParam("since", loaded).get("/transactions/changes").then()
+                .statusCode(200)
+                .extract()
+                .jsonPath();
+        assertEquals(List.of("After load"), changes.getList("changed.description"));
+        assertEquals(loaded + 1, changes.getLong("next"));
+    }
+
+    private RequestSpecification as(String token) {
+        return given().header("Authorization", "Bearer " + token);
+    }
+
+    private String login(String username) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest(username, "password"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.smartledger.integration;
+
+import com.smartledger.dto.LoginRequest;
+import com.smartledger.dto.LoginResponse;
+import com.smartledger.dto.RefreshRequest;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for access and refresh tokens, against an embedded PostgreSQL.
+ *
+ * This test validates:
+ * - Refresh returns a new token pair and each refresh token works once
+ * - Reusing a rotated refresh token ends every session of the user
+ * - Logout and forced revocation reject the access token immediately
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Token Lifecycle Integration Tests")
+class TokenLifecycleIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    @LocalServerPort
+    private Integer port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("rate-limit.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should rotate refresh tokens and revoke all sessions on reuse")
+    void testRefreshRotationAndReuse() {
+        // Given
+        LoginResponse login = login();
+        assertNotNull(login.refreshToken());
+        assertEquals(900L, login.expiresIn());
+
+        // When
+        LoginResponse refreshed = refresh(login.refreshToken(), 200).extract().as(LoginResponse.class);
+
+        // Then
+        assertNotEquals(login.token(), refreshed.token());
+        assertNotEquals(login.refreshToken(), refreshed.refreshToken());
+        assertAccess(refreshed.token(), 200);
+
+        // When the first refresh token is replayed
+        refresh(login.refreshToken(), 500).body("message", containsString("Invalid refresh token"));
+
+        // Then the whole session family is gone
+        refresh(refreshed.refreshToken(), 500);
+        assertAccess(refreshed.token(), 403);
+    }
+
+    @Test
+    @DisplayName("Should reject the access token right after logout")
+    void testLogout() {
+        // Given
+        LoginResponse login = login();
+        assertAccess(login.token(), 200);
+
+        // When
+        given()
+                .header("Authorization", "Bearer " + login.token())
+                .contentType(ContentType.JSON)
+                .body(new RefreshRequest(login.refreshToken()))
+                .when()
+                .post("/auth/logout")
+                .then()
+                .statusCode(204);
+
+        // Then
+        assertAccess(login.token(), 403);
+        refresh(login.refreshToken(), 500);
+    }
+
+    @Test
+    @DisplayName("Should let an administrator end every session of a user")
+    void testForcedRevocation() {
+        // Given
+        LoginResponse victim = login();
+        LoginResponse admin = login();
+
+        // When
+        given()
+                .header("Authorization", "Bearer " + admin.token())
+                .when()
+                .post("/admin/users/admin/revoke-tokens")
+                .then()
+                .statusCode(200)
+                .body("revokedAccessTokens", greaterThanOrEqualTo(2));
+
+        // Then
+        assertAccess(victim.token(), 403);
+        assertAccess(admin.token(), 403);
+        refresh(victim.refreshToken(), 500);
+        assertAccess(login().token(), 200);
+    }
+
+    private LoginResponse login() {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest("admin", "admin123"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .as(LoginResponse.class);
+    }
+
+    private ValidatableResponse refresh(String refreshToken, int expectedStatus) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new RefreshRequest(refreshToken))
+                .when()
+                .post("/auth/refresh")
+                .then()
+                .statusCode(expectedStatus);
+    }
+
+    private void assertAccess(String token, int expectedStatus) {
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/transactions/type/INCOME")
+                .then()
+                .statusCode(expectedStatus);
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.smartledger.integration;
+
+import com.smartledger.dto.LoginRequest;
+import com.smartledger.dto.TransactionResponse;
+import com.smartledger.service.TransactionArchiveService;
+import com.smartledger.service.TransactionArchiver;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for cold archival of old transactions, against an embedded PostgreSQL.
+ *
+ * This test validates:
+ * - The archiver moves rows older than the horizon into compressed segments
+ * - Date-range, by-id and summary reads include archived rows transparently, streamed reads too
+ * - Archived rows are read-only
+ * - Limited reads stop at the archived month that completes the limit
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Transaction Archive Integration Tests")
+class TransactionArchiveIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    @LocalServerPort
+    private Integer port;
+
+    @Autowired
+    private TransactionArchiver archiver;
+
+    @Autowired
+    private TransactionArchiveService archiveService;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("archive.enabled", () -> "true");
+        registry.add("archive.job.enabled", () -> "true");
+        registry.add("archive.horizon-months", () -> "24");
+        registry.add("archive.cron", () -> "-");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should archive old transactions and keep serving them from the archive")
+    void testArchiveAndTransparentReads() {
+        // Given
+        String token = login();
+        long march = createTransaction(token, "2019-03-10", "40.00");
+        long april = createTransaction(token, "2019-04-02", "60.00");
+        long recent = createTransaction(token, LocalDate.now().toString(), "5.00");
+
+        // When
+        long archived = archiver.archiveShard(archiveService.horizonStart(LocalDate.now()));
+
+        // Then
+        assertTrue(archived >= 2, "Both old transactions should be archived");
+        JdbcTemplate jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+        assertEquals(0, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE id IN (?, ?)", Integer.class, march, april));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM transactions WHERE id = ?", Integer.class, recent));
+        assertEquals(2, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM transaction_archive WHERE month IN ('2019-03-01', '2019-04-01')", Integer.class));
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/transactions/date-range?startDate=2019-01-01&endDate=2019-12-31")
+                .then()
+                .statusCode(200)
+                .body("id", contains((int) april, (int) march));
+
+        // Merging archived rows needs dates even when they are not requested
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/transactions?fields=id,amount")
+                .then()
+                .statusCode(200)
+                .body("collect { it.keySet() }.flatten().unique()", containsInAnyOrder("id", "amount"))
+                .body("id", hasItems((int) recent, (int) april, (int) march))
+                .body("find { it.id == " + april + " }.amount", equalTo(60.00f));
+
+        String stream = given()
+                .header("Authorization", "Bearer " + token)
+                .accept("application/x-ndjson")
+                .when()
+                .get("/transactions/stream/date-range?startDate=2019-01-01&endDate=2019-12-31")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString();
+        assertEquals(List.of(april, march), stream.lines().map(line -> JsonPath.from(line).getLong("id")).toList());
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/transactions/stream/" + april)
+                .then()
+                .statusCode(200)
+                .body("amount", equalTo(60.00f));
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/transactions/" + march)
+                .then()
+                .statusCode(200)
+                .body("amount", equalTo(40.00f));
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/transactions/summary?startDate=2019-01-01&endDate=2019-12-31")
+                .then()
+                .statusCode(200)
+                .body("transactionCount", equalTo(2))
+                .body("totalExpense", equalTo(100.00f));
+
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .delete("/transactions/" + march)
+                .then()
+                .statusCode(500)
+                .body("message", containsString("Archived transactions cannot be modified"));
+    }
+
+    @Test
+    @DisplayName("Should read only the newest archived months a limited read needs")
+    void testLimitedRead() {
+        // Given
+        String token = login();
+        createTransaction(token, "2017-01-15", "10.00");
+        long february = createTransaction(token, "2017-02-15", "20.00");
+        long march = createTransaction(token, "2017-03-15", "30.00");
+        archiver.archiveShard(archiveService.horizonStart(LocalDate.now()));
+        Long userId = new JdbcTemplate(postgres.getPostgresDatabase())
+                .queryForObject("SELECT id FROM users WHERE username = 'admin'", Long.class);
+
+        // When
+        List<TransactionResponse> limited = archiveService.find(userId, LocalDate.parse("2017-01-01"),
+                LocalDate.parse("2017-12-31"), null, 1);
+
+        // Then
+        assertEquals(List.of(march), limited.stream().map(TransactionResponse::id).toList());
+        assertEquals(3, archiveService.find(userId, LocalDate.parse("2017-01-01"),
+                LocalDate.parse("2017-12-31"), null).size());
+        given()
+                .header("Authorization", "Bearer " + token)
+                .contentType(ContentType.JSON)
+                .body(Map.of("query", """
+                        { transactions(startDate: "2017-01-01", endDate: "2017-12-31", first: 2) { id } }
+                        """))
+                .when()
+                .post("/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.transactions.id", contains(String.valueOf(march), String.valueOf(february)));
+    }
+
+    private String login() {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest("admin", "admin123"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private long createTransaction(String token, String date, String amount) {
+        Number id = given()
+                .header("Authorization", "Bearer " + token)
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "type", "EXPENSE",
+                        "category", "GROCERIES",
+                        "amount", amount,
+                        "date", date,
+                        "description", "archive check"))
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id");
+        return id.longValue();
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
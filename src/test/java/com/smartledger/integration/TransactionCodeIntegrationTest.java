@@ -0,0 +1,77 @@
+package com.smartledger.integration;
+
+import com.smartledger.entity.Category;
+import com.smartledger.entity.TransactionType;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the SQL code functions of changeset 013, against an embedded
+ * PostgreSQL. Migrations and hand-written SQL encode names with them, so they must agree
+ * with the enums' codes.
+ *
+ * This test validates:
+ * - transaction_category_code and transaction_type_code match every constant's code
+ * - Unknown names have no code
+ */
+@SpringBootTest
+@DisplayName("Transaction Code Integration Tests")
+class TransactionCodeIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    @DisplayName("Should encode every category as its enum code")
+    void testCategoryCodes() {
+        for (Category category : Category.values()) {
+            assertEquals(category.code(), jdbcTemplate.queryForObject(
+                    "SELECT transaction_category_code(?)", Short.class, category.name()), category.name());
+        }
+        assertNull(jdbcTemplate.queryForObject("SELECT transaction_category_code('PETS')", Short.class));
+    }
+
+    @Test
+    @DisplayName("Should encode every transaction type as its enum code")
+    void testTypeCodes() {
+        for (TransactionType type : TransactionType.values()) {
+            assertEquals(type.code(), jdbcTemplate.queryForObject(
+                    "SELECT transaction_type_code(?)", Short.class, type.name()), type.name());
+        }
+        assertNull(jdbcTemplate.queryForObject("SELECT transaction_type_code('TRANSFER')", Short.class));
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.smartledger.integration;
+
+import com.smartledger.dto.LoginRequest;
+import com.smartledger.service.TransactionSyncService;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the transaction change feed ({@code GET /transactions/changes}),
+ * against an embedded PostgreSQL.
+ *
+ * This test validates:
+ * - Creates, updates and deletes after a token are returned once each, in change order
+ * - A token taken after the last change returns nothing
+ * - Pages of the feed add up to the whole change set
+ * - Clients behind purged tombstones are told to resync
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Transaction Sync Integration Tests")
+class TransactionSyncIntegrationTest {
+
+    static EmbeddedPostgres postgres = start();
+
+    @Autowired
+    private TransactionSyncService transactionSyncService;
+
+    @LocalServerPort
+    private Integer port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("rate-limit.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost:" + port;
+        RestAssured.basePath = "/api";
+    }
+
+    @Test
+    @DisplayName("Should return creates, updates and deletes since a token")
+    void testChangesSinceToken() {
+        // Given
+        String token = login();
+        long since = drain(token, 0);
+        long created = create(token, "41.00", "created");
+        long updated = create(token, "12.00", "to update");
+        long deleted = create(token, "7.50", "to delete");
+
+        // When
+        given()
+                .header("Authorization", "Bearer " + token)
+                .contentType(ContentType.JSON)
+                .body(body("13.00", "updated"))
+                .when()
+                .put("/transactions/" + updated)
+                .then()
+                .statusCode(200);
+        given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .delete("/transactions/" + deleted)
+                .then()
+                .statusCode(204);
+        JsonPath changes = changes(token, since, null);
+
+        // Then
+        assertEquals(List.of(created, updated), ids(changes.getList("changed.id")));
+        assertEquals("updated", changes.getString("changed[1].description"));
+        assertEquals(List.of(deleted), ids(changes.getList("deleted")));
+        assertFalse(changes.getBoolean("hasMore"));
+        assertFalse(changes.getBoolean("resync"));
+        assertTrue(changes.getLong("next") > since);
+
+        JsonPath empty = changes(token, changes.getLong("next"), null);
+        assertEquals(0, empty.getList("changed").size());
+        assertEquals(0, empty.getList("deleted").size());
+        assertEquals(changes.getLong("next"), empty.getLong("next"));
+    }
+
+    @Test
+    @DisplayName("Should list the current transactions without a token")
+    void testBootstrap() {
+        // Given
+        String token = login();
+        long kept = create(token, "3.20", "kept");
+        long gone = create(token, "4.80", "gone");
+        given().header("Authorization", "Bearer " + token).when().delete("/transactions/" + gone).then().statusCode(204);
+
+        // When
+        given()
+                .header("Authorization", "Bearer " + token)
+                .queryParam("limit", 10000)
+                .when()
+                .get("/transactions/changes")
+                .then()
+                .statusCode(200)
+                .body("changed.id", hasItem((int) kept))
+                .body("changed.id", not(hasItem((int) gone)))
+                .body("deleted", empty())
+                .body("hasMore", equalTo(false));
+
+        // Then
+        int total = given()
+                .header("Authorization", "Bearer " + token)
+                .when()
+                .get("/transactions")
+                .then()
+                .extract()
+                .path("size()");
+        assertEquals(total, changes(token, 0, 10000).getList("changed").size());
+    }
+
+    @Test
+    @DisplayName("Should page through changes")
+    void testPaging() {
+        // Given
+        String token = login();
+        long since = drain(token, 0);
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 7; i++) {
+            expected.add(create(token, (10 + i) + ".00", "page " + i));
+        }
+
+        // When
+        Set<Long> seen = new HashSet<>();
+        int pages = 0;
+        long next = since;
+        JsonPath page;
+        do {
+            page = changes(token, next, 3);
+            List<Long> ids = ids(page.getList("changed.id"));
+            assertTrue(ids.size() <= 3);
+            for (Long id : ids) {
+                assertTrue(seen.add(id), "Change " + id + " returned twice");
+            }
+            next = page.getLong("next");
+            pages++;
+        } while (page.getBoolean("hasMore"));
+
+        // Then
+        assertEquals(expected, seen);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    @DisplayName("Should ask clients behind purged tombstones to resync")
+    void testResyncAfterPurge() {
+        // Given
+        String token = login();
+        long since = drain(token, 0);
+        long deleted = create(token, "2.00", "purged");
+        given().header("Authorization", "Bearer " + token).when().delete("/transactions/" + deleted).then().statusCode(204);
+        long current = drain(token, since);
+
+        // When
+        assertTrue(transactionSyncService.purgeTombstonesDeletedBefore(LocalDateTime.now().plusMinutes(1)) > 0);
+
+        // Then
+        JsonPath behind = changes(token, since, null);
+        assertTrue(behind.getBoolean("resync"));
+        assertEquals(0, behind.getList("deleted").size());
+        assertFalse(changes(token, current, null).getBoolean("resync"), "Clients past the purge sync as before");
+    }
+
+    /**
+     * Follows the feed to its end and returns the last token.
+     */
+    private long drain(String token, long since) {
+        JsonPath page;
+        do {
+            page = changes(token, since, null);
+            since = page.getLong("next");
+        } while (page.getBoolean("hasMore"));
+        return since;
+    }
+
+    private JsonPath changes(String token, long since, Integer limit) {
+        var request = given()
+                .header("Authorization", "Bearer " + token)
+                .queryParam("since", since);
+        if (limit != null) {
+            request.queryParam("limit", limit);
+        }
+        return request
+                .when()
+                .get("/transactions/changes")
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath();
+    }
+
+    private static List<Long> ids(List<?> values) {
+        List<Long> ids = new ArrayList<>();
+        for (Object value : values) {
+            ids.add(((Number) value).longValue());
+        }
+        return ids;
+    }
+
+    private long create(String token, String amount, String description) {
+        Number id = given()
+                .header("Authorization", "Bearer " + token)
+                .contentType(ContentType.JSON)
+                .body(body(amount, description))
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id");
+        return id.longValue();
+    }
+
+    private static Map<String, Object> body(String amount, String description) {
+        return Map.of(
+                "type", "EXPENSE",
+                "category", "GROCERIES",
+                "amount", amount,
+                "date", "2025-11-03",
+                "description", description);
+    }
+
+    private String login() {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(new LoginRequest("admin", "admin123"))
+                .when()
+                .post("/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("token");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.smartledger.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Adaptive concurrency limiter unit tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Should refuse requests over the limit without blocking")
+    void testRejectsOverLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0.2, 1.5);
+
+        // When & Then
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.release(MILLI, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Should grow the limit while latency stays at its baseline")
+    void testGrowsUnderSteadyLatency() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0.2, 1.5);
+
+        // When
+        runWindows(limiter, 0, 20, 10 * MILLI);
+
+        // Then
+        assertTrue(limiter.getLimit() > 10, "limit was " + limiter.getLimit());
+        assertTrue(limiter.getLimit() <= 100);
+    }
+
+    @Test
+    @DisplayName("Should shrink the limit when latency rises well above the baseline")
+    void testShrinksWhenLatencyRises() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0.2, 1.5);
+        long now = runWindows(limiter, 0, 10, 10 * MILLI);
+        int grown = limiter.getLimit();
+
+        // When
+        runWindows(limiter, now, 10, 100 * MILLI);
+
+        // Then
+        assertTrue(limiter.getLimit() < grown, grown + " -> " + limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should back off on failed requests and never go below the minimum")
+    void testBacksOffOnDrops() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 5, 100, 0.2, 1.5);
+
+        // When
+        long now = 0;
+        for (int window = 0; window < 30; window++) {
+            int limit = limiter.getLimit();
+            for (int i = 0; i < limit; i++) {
+                assertTrue(limiter.tryAcquire());
+            }
+            for (int i = 0; i < Math.max(limit, 10); i++) {
+                if (i >= limit) {
+                    assertTrue(limiter.tryAcquire());
+                }
+                now += 20 * MILLI;
+                limiter.release(MILLI, true, now);
+            }
+        }
+
+        // Then
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should reject inconsistent limits")
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(1, 2, 10, 0.2, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(5, 2, 4, 0.2, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(5, 2, 10, 0, 1.5));
+    }
+
+    /**
+     * Fills the limit, then completes the requests one by one with the given latency,
+     * spread so that each round closes a window.
+     */
+    private static long runWindows(AdaptiveConcurrencyLimiter limiter, long start, int rounds, long latency) {
+        long now = start;
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < Math.max(acquired, 10); i++) {
+                if (i >= acquired) {
+                    assertTrue(limiter.tryAcquire());
+                }
+                now += 20 * MILLI;
+                limiter.release(latency, false, now);
+            }
+        }
+        return now;
+    }
+}
@@ -0,0 +1,79 @@
+package com.smartledger.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the rate limit check per request. Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.smartledger.security.RateLimitFilterBenchmark
+ * </pre>
+ * Limits are set high enough that every call takes the "allowed" path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimitFilterBenchmark {
+
+    private RateLimitFilter filter;
+    private TokenBucketRateLimiter limiter;
+
+    @State(Scope.Thread)
+    public static class RequestState {
+        MockHttpServletRequest request;
+        String username;
+
+        @Setup
+        public void setUp() {
+            username = "user-" + Thread.currentThread().getId();
+            request = new MockHttpServletRequest("GET", "/api/transactions");
+            request.setServletPath("/transactions");
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(username, null, List.of()));
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        filter = new RateLimitFilter(new ObjectMapper(), true,
+                Integer.MAX_VALUE, 1e9, Integer.MAX_VALUE, 1e9, 10, 1);
+        limiter = new TokenBucketRateLimiter(Integer.MAX_VALUE, 1e9);
+    }
+
+    @Benchmark
+    public RateLimitDecision limiterOnly(RequestState state) {
+        return limiter.tryAcquire(state.username, System.nanoTime());
+    }
+
+    @Benchmark
+    public RateLimitDecision filterCheck(RequestState state) {
+        return filter.check(state.request, System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public RateLimitDecision filterCheckParallel(RequestState state) {
+        return filter.check(state.request, System.nanoTime());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RateLimitFilterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,75 @@
+package com.smartledger.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Token bucket rate limiter unit tests")
+class TokenBucketRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Should allow a burst up to capacity and then reject")
+    void testBurstThenReject() {
+        // Given
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 1);
+        long now = 1_000 * SECOND;
+
+        // When & Then
+        assertEquals(2, limiter.tryAcquire("user", now).remaining());
+        assertEquals(1, limiter.tryAcquire("user", now).remaining());
+        assertEquals(0, limiter.tryAcquire("user", now).remaining());
+
+        RateLimitDecision rejected = limiter.tryAcquire("user", now);
+        assertFalse(rejected.allowed());
+        assertEquals(1, rejected.retryAfterSeconds());
+        assertEquals(3, rejected.resetSeconds());
+    }
+
+    @Test
+    @DisplayName("Should refill at the configured rate")
+    void testRefill() {
+        // Given
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 2);
+        long now = 1_000 * SECOND;
+        limiter.tryAcquire("user", now);
+        limiter.tryAcquire("user", now);
+        assertFalse(limiter.tryAcquire("user", now).allowed());
+
+        // When & Then
+        assertTrue(limiter.tryAcquire("user", now + SECOND / 2).allowed());
+        assertFalse(limiter.tryAcquire("user", now + SECOND / 2).allowed());
+    }
+
+    @Test
+    @DisplayName("Buckets of different keys should be independent")
+    void testKeysAreIndependent() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1);
+        long now = 1_000 * SECOND;
+
+        assertTrue(limiter.tryAcquire("alice", now).allowed());
+        assertFalse(limiter.tryAcquire("alice", now).allowed());
+        assertTrue(limiter.tryAcquire("bob", now).allowed());
+    }
+
+    @Test
+    @DisplayName("Should evict only buckets that have fully refilled")
+    void testEvictIdle() {
+        // Given
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1);
+        long now = 1_000 * SECOND;
+        limiter.tryAcquire("idle", now);
+        limiter.tryAcquire("busy", now + 5 * SECOND);
+
+        // When
+        int evicted = limiter.evictIdle(now + 5 * SECOND);
+
+        // Then
+        assertEquals(1, evicted);
+        assertEquals(1, limiter.size());
+    }
+}
@@ -0,0 +1,58 @@
+package com.smartledger.util;
+
+import com.smartledger.dto.TransactionResponse;
+import com.smartledger.entity.Category;
+import com.smartledger.entity.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Transaction archive codec unit tests")
+class TransactionArchiveCodecTest {
+
+    @Test
+    @DisplayName("Should decode exactly what was encoded")
+    void testRoundTrip() {
+        // Given
+        List<TransactionResponse> rows = List.of(
+                new TransactionResponse(3L, 7L, TransactionType.INCOME, Category.SALARY, new BigDecimal("3000.00"),
+                        LocalDate.parse("2022-01-01"), "January salary",
+                        LocalDateTime.parse("2022-01-01T08:00:00.123456"), null),
+                new TransactionResponse(41L, 7L, TransactionType.EXPENSE, Category.GROCERIES, new BigDecimal("12.05"),
+                        LocalDate.parse("2022-01-15"), null,
+                        LocalDateTime.parse("2022-01-15T19:30:00"), LocalDateTime.parse("2022-02-01T10:00:00"))
+        );
+
+        // When
+        List<TransactionResponse> decoded = TransactionArchiveCodec.decode(TransactionArchiveCodec.encode(rows), 7L);
+
+        // Then
+        assertEquals(rows, decoded);
+    }
+
+    @Test
+    @DisplayName("Should compress a month of similar rows well below their raw size")
+    void testCompression() {
+        // Given
+        List<TransactionResponse> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(new TransactionResponse(1000L + i * 2, 1L, TransactionType.EXPENSE, Category.GROCERIES,
+                    new BigDecimal("10.00").add(BigDecimal.valueOf(i % 50)), LocalDate.parse("2022-03-01").plusDays(i % 31),
+                    "Weekly grocery shopping", LocalDateTime.parse("2022-03-01T12:00:00").plusMinutes(i), null));
+        }
+
+        // When
+        byte[] payload = TransactionArchiveCodec.encode(rows);
+
+        // Then
+        assertEquals(rows, TransactionArchiveCodec.decode(payload, 1L));
+        assertTrue(payload.length < 10 * rows.size(), "Expected under 10 bytes per row, got " + payload.length);
+    }
+}
@@ -0,0 +1,38 @@
+package com.smartledger.util;
+
+import com.smartledger.entity.Category;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Transaction fingerprint unit tests")
+class TransactionFingerprintTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 10, 30);
+
+    @Test
+    @DisplayName("Should ignore case, accents, punctuation and spacing in descriptions")
+    void testNormalizedDescription() {
+        assertEquals("cafe de la gare 12", TransactionFingerprint.normalize("  Café  de la Gare, #12 "));
+        assertEquals("", TransactionFingerprint.normalize(null));
+        assertEquals(
+                TransactionFingerprint.of(1L, new BigDecimal("4.50"), DATE, Category.RESTAURANT, "CAFÉ-de la gare"),
+                TransactionFingerprint.of(1L, new BigDecimal("4.5"), DATE, Category.RESTAURANT, "cafe de  la gare."));
+    }
+
+    @Test
+    @DisplayName("Should differ when any identifying field differs")
+    void testIdentifyingFields() {
+        long base = TransactionFingerprint.of(1L, new BigDecimal("4.50"), DATE, Category.RESTAURANT, "cafe");
+
+        assertNotEquals(base, TransactionFingerprint.of(2L, new BigDecimal("4.50"), DATE, Category.RESTAURANT, "cafe"));
+        assertNotEquals(base, TransactionFingerprint.of(1L, new BigDecimal("4.51"), DATE, Category.RESTAURANT, "cafe"));
+        assertNotEquals(base, TransactionFingerprint.of(1L, new BigDecimal("4.50"), DATE.plusDays(1), Category.RESTAURANT, "cafe"));
+        assertNotEquals(base, TransactionFingerprint.of(1L, new BigDecimal("4.50"), DATE, Category.GROCERIES, "cafe"));
+        assertNotEquals(base, TransactionFingerprint.of(1L, new BigDecimal("4.50"), DATE, Category.RESTAURANT, "bar"));
+    }
+}